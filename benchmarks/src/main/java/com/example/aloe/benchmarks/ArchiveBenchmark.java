@@ -0,0 +1,77 @@
+package com.example.aloe.benchmarks;
+
+import com.example.aloe.files.CurrentDirectory;
+import com.example.aloe.files.archive.ArchiveHandler;
+import com.example.aloe.files.archive.ArchiveParameters;
+import com.example.aloe.files.archive.ArchiveType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures compression and extraction of every writable archive format through {@link ArchiveHandler}.
+ * <p>
+ * Messages reported by the archive implementations are discarded instead of being shown in a window.
+ * RAR is not measured, because RAR archives can only be extracted and no fixture can be generated.
+ * </p>
+ *
+ * @since 2.9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ArchiveBenchmark {
+
+    @Param({"ZIP", "SEVEN_ZIP", "JAR", "TAR", "TAR_GZ"})
+    private ArchiveType type;
+
+    private Path directory;
+
+    private File tree;
+
+    private File archive;
+
+    private File output;
+
+    @Setup(Level.Trial)
+    public void createFixtures() throws IOException {
+        ArchiveHandler.setMessageHandler(key -> {});
+        directory = Fixtures.createDirectory("archive");
+        CurrentDirectory.set(directory.toFile());
+
+        tree = directory.resolve("tree").toFile();
+        Fixtures.createTree(tree.toPath(), 3, 5, 20, 4096);
+
+        archive = directory.resolve("fixture" + type.getExtension()).toFile();
+        ArchiveHandler.compress(new ArchiveParameters(List.of(tree), type, archive.getName(), false));
+        output = directory.resolve("fixture").toFile();
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteOutput() throws IOException {
+        Fixtures.delete(directory.resolve("compressed" + type.getExtension()));
+        Fixtures.delete(output.toPath());
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFixtures() throws IOException {
+        Fixtures.delete(directory);
+    }
+
+    @Benchmark
+    public void compress() {
+        ArchiveHandler.compress(new ArchiveParameters(List.of(tree), type, "compressed" + type.getExtension(), false));
+    }
+
+    @Benchmark
+    public void extract() {
+        ArchiveHandler.extract(archive);
+    }
+}
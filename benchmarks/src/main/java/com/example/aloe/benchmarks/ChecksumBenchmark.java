@@ -0,0 +1,48 @@
+package com.example.aloe.benchmarks;
+
+import com.example.aloe.files.Checksum;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Checksum#generateChecksum(String)} for different file sizes and algorithms.
+ *
+ * @since 2.9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ChecksumBenchmark {
+
+    @Param({"1048576", "67108864"})
+    private long fileSize;
+
+    @Param({"MD5", "SHA-256"})
+    private String algorithm;
+
+    private Path directory;
+
+    private Checksum checksum;
+
+    @Setup(Level.Trial)
+    public void createFile() throws IOException {
+        directory = Fixtures.createDirectory("checksum");
+        checksum = new Checksum(Fixtures.createFile(directory.resolve("file.bin"), fileSize).toFile());
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Fixtures.delete(directory);
+    }
+
+    @Benchmark
+    public String generateChecksum() {
+        return checksum.generateChecksum(algorithm);
+    }
+}
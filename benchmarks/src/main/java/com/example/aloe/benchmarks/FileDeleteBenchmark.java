@@ -0,0 +1,52 @@
+package com.example.aloe.benchmarks;
+
+import com.example.aloe.files.tasks.FileDeleteTask;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the recursive deletion of a tree with {@link FileDeleteTask#deleteInCurrentThread(Path)}.
+ * A new tree is generated before every invocation, outside of the measured time.
+ *
+ * @since 2.9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class FileDeleteBenchmark {
+
+    /** The number of subdirectories per level; the tree has three levels. */
+    @Param({"5", "20"})
+    private int directories;
+
+    private Path directory;
+
+    private Path tree;
+
+    @Setup(Level.Trial)
+    public void createDirectory() throws IOException {
+        directory = Fixtures.createDirectory("delete");
+    }
+
+    @Setup(Level.Invocation)
+    public void createTree() throws IOException {
+        tree = directory.resolve("tree");
+        Fixtures.createTree(tree, 3, directories, 20, 1024);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDirectory() throws IOException {
+        Fixtures.delete(directory);
+    }
+
+    @Benchmark
+    public void deleteRecursive() throws Exception {
+        FileDeleteTask.deleteInCurrentThread(tree);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.aloe.benchmarks;
+
+import com.example.aloe.elements.files.FileSorter;
+import com.example.aloe.elements.files.Sorting;
+import com.example.aloe.files.FileEntry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long {@link FileSorter} takes to order directory listings of different sizes.
+ * <p>
+ * The entries are generated in memory with a mix of upper and lower case names, numbered names
+ * and directories, so the benchmark measures sorting only and does not touch the file system.
+ * </p>
+ *
+ * @since 2.9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class FileSorterBenchmark {
+
+    private static final String[] WORDS = {"Report", "photo", "IMG_", "notes", "Backup", "draft", "song", "Invoice"};
+
+    @Param({"10000", "100000", "1000000"})
+    private int entries;
+
+    @Param({"NAMEASC", "NATURALASC", "SIZEDESC"})
+    private Sorting sorting;
+
+    private List<FileEntry> listing;
+
+    @Setup(Level.Trial)
+    public void generateListing() {
+        Random random = new Random(42);
+        listing = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + random.nextInt(entries) + (i % 10 == 0 ? "" : ".txt");
+            listing.add(new FileEntry(new File("/bench", name), name, i % 10 == 0, false, random.nextInt(1 << 20), random.nextLong(1L << 40)));
+        }
+    }
+
+    @Benchmark
+    public List<FileEntry> sort() {
+        return FileSorter.sort(listing, sorting, true);
+    }
+}
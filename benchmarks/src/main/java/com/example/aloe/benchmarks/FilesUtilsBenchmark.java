@@ -0,0 +1,46 @@
+package com.example.aloe.benchmarks;
+
+import com.example.aloe.files.FilesUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link FilesUtils#calculateFileSize(File)}, which walks a whole tree before every
+ * copy, move and delete task.
+ *
+ * @since 2.9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class FilesUtilsBenchmark {
+
+    /** The number of subdirectories per level; the tree has three levels. */
+    @Param({"5", "20"})
+    private int directories;
+
+    private Path root;
+
+    @Setup(Level.Trial)
+    public void createTree() throws IOException {
+        root = Fixtures.createDirectory("size");
+        Fixtures.createTree(root, 3, directories, 20, 1024);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTree() throws IOException {
+        Fixtures.delete(root);
+    }
+
+    @Benchmark
+    public long calculateFileSize() {
+        return FilesUtils.calculateFileSize(root.toFile());
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.aloe.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Random;
+
+/**
+ * Generates reproducible file trees used as benchmark fixtures.
+ * <p>
+ * File contents are pseudo-random bytes from a seeded {@link Random}, so every run works on
+ * identical data that does not compress trivially.
+ * </p>
+ *
+ * @since 2.9.0
+ */
+public final class Fixtures {
+
+    private static final long SEED = 42;
+
+    private Fixtures() {}
+
+    /**
+     * Creates an empty temporary directory for a benchmark.
+     *
+     * @param name the prefix of the directory name
+     * @return the created directory
+     * @throws IOException if the directory cannot be created
+     */
+    public static Path createDirectory(String name) throws IOException {
+        return Files.createTempDirectory("aloe-bench-" + name + "-");
+    }
+
+    /**
+     * Creates an empty temporary directory for a benchmark inside the given directory,
+     * e.g. to place fixtures on a particular disk.
+     *
+     * @param parent the directory to create the directory in
+     * @param name   the prefix of the directory name
+     * @return the created directory
+     * @throws IOException if the directory cannot be created
+     */
+    public static Path createDirectory(Path parent, String name) throws IOException {
+        return Files.createTempDirectory(parent, "aloe-bench-" + name + "-");
+    }
+
+    /**
+     * Creates a tree of directories and files under the given root.
+     *
+     * @param root              the directory in which the tree is created
+     * @param depth             the number of nested directory levels
+     * @param directories       the number of subdirectories of every directory above the last level
+     * @param filesPerDirectory the number of files in every directory
+     * @param fileSize          the size of every file in bytes
+     * @throws IOException if the tree cannot be created
+     */
+    public static void createTree(Path root, int depth, int directories, int filesPerDirectory, int fileSize) throws IOException {
+        createTree(root, depth, directories, filesPerDirectory, fileSize, new Random(SEED));
+    }
+
+    private static void createTree(Path directory, int depth, int directories, int filesPerDirectory, int fileSize, Random random) throws IOException {
+        Files.createDirectories(directory);
+        for (int i = 0; i < filesPerDirectory; i++) {
+            createFile(directory.resolve("file-" + i + ".bin"), fileSize, random);
+        }
+        if (depth > 1) {
+            for (int i = 0; i < directories; i++) {
+                createTree(directory.resolve("directory-" + i), depth - 1, directories, filesPerDirectory, fileSize, random);
+            }
+        }
+    }
+
+    /**
+     * Creates a single file filled with pseudo-random bytes.
+     *
+     * @param file the file to create
+     * @param size the size of the file in bytes
+     * @return the created file
+     * @throws IOException if the file cannot be written
+     */
+    public static Path createFile(Path file, long size) throws IOException {
+        return createFile(file, size, new Random(SEED));
+    }
+
+    private static Path createFile(Path file, long size, Random random) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(size, 1 << 20)];
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (long written = 0; written < size; written += buffer.length) {
+                random.nextBytes(buffer);
+                out.write(buffer, 0, (int) Math.min(buffer.length, size - written));
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Deletes a file or a directory with all its content, if it exists.
+     *
+     * @param root the file or directory to delete
+     * @throws IOException if the tree cannot be deleted
+     */
+    public static void delete(Path root) throws IOException {
+        if (!Files.exists(root)) return;
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.aloe.elements.files;
+
+import com.example.aloe.benchmarks.Fixtures;
+import com.example.aloe.files.FileEntry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures listing, filtering and sorting of a directory the way {@link FilesLoader} does it
+ * before displaying the directory. The listing task is called directly on the benchmark thread.
+ *
+ * @since 2.9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class DirectoryListingBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int entries;
+
+    @Param({"NAMEASC", "DATEDESC"})
+    private Sorting sorting;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void createDirectory() throws IOException {
+        directory = Fixtures.createDirectory("listing");
+        Fixtures.createTree(directory, 1, 0, entries, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDirectory() throws IOException {
+        Fixtures.delete(directory);
+    }
+
+    @Benchmark
+    public List<FileEntry> list() throws Exception {
+        return new DirectoryListingTask(directory.toFile(), false, true, sorting).call();
+    }
+}
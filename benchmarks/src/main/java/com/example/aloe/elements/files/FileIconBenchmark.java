@@ -0,0 +1,80 @@
+package com.example.aloe.elements.files;
+
+import com.example.aloe.benchmarks.Fixtures;
+import com.example.aloe.files.FileEntry;
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading a directory together with the icons of its entries, the work done before the files
+ * view displays a directory. Policies:
+ * <ul>
+ *     <li>{@code shared} - icons from the {@link IconRegistry}, decoded once per icon and size;</li>
+ *     <li>{@code decoded} - a new {@code Image} read from the resources for every entry, as before the registry.</li>
+ * </ul>
+ * The benchmark starts the JavaFX toolkit, so it needs a display.
+ *
+ * @since 2.9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class FileIconBenchmark {
+
+    /** The extensions of the listed files, covering several icons. */
+    private static final String[] EXTENSIONS = {"txt", "pdf", "mp4", "mp3", "zip", "jar", "iso", "deb"};
+
+    /** The display size of the icons of the grid view. */
+    private static final double SIZE = 60;
+
+    @Param({"1000", "10000"})
+    private int entries;
+
+    @Param({"shared", "decoded"})
+    private String policy;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void createDirectory() throws IOException {
+        try {
+            Platform.startup(() -> {});
+        } catch (IllegalStateException ignored) {
+        }
+
+        directory = Fixtures.createDirectory("icons");
+        for (int i = 0; i < entries; i++) {
+            Files.createFile(directory.resolve("file-" + i + "." + EXTENSIONS[i % EXTENSIONS.length]));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteDirectory() throws IOException {
+        Fixtures.delete(directory);
+    }
+
+    @Benchmark
+    public void load(Blackhole blackhole) throws Exception {
+        for (FileEntry entry : new DirectoryListingTask(directory.toFile(), false, true, Sorting.NAMEASC).call()) {
+            blackhole.consume(policy.equals("shared") ? FileImage.from(entry, SIZE) : decode(entry));
+        }
+    }
+
+    private static Image decode(FileEntry entry) throws IOException {
+        String name = FileImage.getIconName(entry.directory(), entry.extension());
+        try (InputStream stream = FileIconBenchmark.class.getResourceAsStream("/assets/icons/" + name + ".png")) {
+            return new Image(stream, SIZE, SIZE, true, true);
+        }
+    }
+}
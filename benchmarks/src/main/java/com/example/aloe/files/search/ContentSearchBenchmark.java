@@ -0,0 +1,70 @@
+package com.example.aloe.files.search;
+
+import com.example.aloe.benchmarks.Fixtures;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a content search over 400 log files of 128 KiB, which are read into a buffer, and two of
+ * 24 MiB, which are memory-mapped in windows; about 100 MiB in total. The tree is searched by
+ * {@link ContentSearchTask#walk} directly on the benchmark thread. A text matching nothing measures
+ * the Boyer-Moore-Horspool scan of every byte, the other queries add the detection of the file types
+ * and the previews, or the decoding of every line for the regular expression.
+ *
+ * @since 2.9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ContentSearchBenchmark {
+
+    @Param({"SUBSTRING:connection refused", "SUBSTRING:request 4242 ", "REGEX:request \\d+ failed"})
+    private String query;
+
+    private Path directory;
+
+    private ContentMatcher matcher;
+
+    @Setup(Level.Trial)
+    public void createFiles() throws IOException {
+        directory = Fixtures.createDirectory("content");
+        for (int i = 0; i < 400; i++) {
+            createLog(directory.resolve("service-" + i + ".log"), 128 * 1024, i);
+        }
+        createLog(directory.resolve("large-0.log"), 24 * 1024 * 1024, 400);
+        createLog(directory.resolve("large-1.log"), 24 * 1024 * 1024, 401);
+
+        String[] parts = query.split(":", 2);
+        matcher = ContentMatcher.of(parts[1], SearchMode.valueOf(parts[0]));
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        Fixtures.delete(directory);
+    }
+
+    @Benchmark
+    public int search(Blackhole blackhole) {
+        return new ContentSearchTask(directory.toFile(), matcher, false, batch -> {}).walk(blackhole::consume);
+    }
+
+    private static void createLog(Path file, long size, int seed) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (long written = 0, line = seed; written < size; line++) {
+                String text = "2025-01-01 12:00:00 INFO worker-" + line % 16 + " request " + line * 7919 % 100_000
+                        + (line % 1000 == 0 ? " failed after retry\n" : " completed in " + line % 250 + " ms\n");
+                writer.write(text);
+                written += text.length();
+            }
+        }
+    }
+}
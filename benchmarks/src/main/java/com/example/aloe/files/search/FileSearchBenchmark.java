@@ -0,0 +1,52 @@
+package com.example.aloe.files.search;
+
+import com.example.aloe.benchmarks.Fixtures;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a name search over a tree of about 12,000 files and directories. The tree is walked by
+ * {@link FileSearchTask#walk} directly on the benchmark thread, without delivering the matches to JavaFX.
+ * A query matching nothing measures the walk itself; the other queries add the cost of matching and of
+ * creating the entries of the matches.
+ *
+ * @since 2.9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class FileSearchBenchmark {
+
+    @Param({"SUBSTRING:nothing", "SUBSTRING:file-1", "GLOB:file-?.bin", "REGEX:^directory-[0-4]$"})
+    private String query;
+
+    private Path directory;
+
+    private NameMatcher matcher;
+
+    @Setup(Level.Trial)
+    public void createTree() throws IOException {
+        directory = Fixtures.createDirectory("search");
+        Fixtures.createTree(directory, 4, 10, 10, 0);
+
+        String[] parts = query.split(":", 2);
+        matcher = NameMatcher.of(parts[1], SearchMode.valueOf(parts[0]));
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTree() throws IOException {
+        Fixtures.delete(directory);
+    }
+
+    @Benchmark
+    public int search(Blackhole blackhole) {
+        return new FileSearchTask(directory.toFile(), matcher, false, batch -> {}).walk(blackhole::consume);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.aloe.files.search;
+
+import com.example.aloe.benchmarks.Fixtures;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a name search answered by the file name index over the same tree as {@link FileSearchBenchmark},
+ * so the two can be compared directly. The index is built once per trial; only the lookup in its trigram lists
+ * and the matching of the candidates are measured, not the stat of the matches.
+ *
+ * @since 2.9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class NameIndexBenchmark {
+
+    @Param({"SUBSTRING:nothing", "SUBSTRING:file-1", "GLOB:file-?.bin", "REGEX:^directory-[0-4]$"})
+    private String query;
+
+    private Path directory;
+
+    private NameMatcher matcher;
+
+    private NameIndex index;
+
+    @Setup(Level.Trial)
+    public void createIndex() throws IOException {
+        directory = Fixtures.createDirectory("index");
+        Fixtures.createTree(directory, 4, 10, 10, 0);
+        index = new NameIndex(IndexSnapshot.build(List.of(directory.toAbsolutePath().normalize()), NameIndexer::list, () -> false));
+
+        String[] parts = query.split(":", 2);
+        matcher = NameMatcher.of(parts[1], SearchMode.valueOf(parts[0]));
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTree() throws IOException {
+        Fixtures.delete(directory);
+    }
+
+    @Benchmark
+    public int search(Blackhole blackhole) {
+        return index.find(directory.toAbsolutePath().normalize(), matcher.literal(), matcher, FileSearchTask.MAX_RESULTS, blackhole::consume);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.aloe.files.tasks;
+
+import com.example.aloe.benchmarks.Fixtures;
+import com.example.aloe.files.DiskTopology;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time a mixed workload of copy jobs on two disks takes under different admission policies
+ * of the {@link DeviceScheduler}. The aggregate throughput is {@code jobs * fileSize} divided by the time.
+ * <p>
+ * Half of the jobs copy a file within the default temporary directory, the other half within the directory
+ * given by the {@code aloe.benchmark.second-disk} system property, {@code /dev/shm} by default. Policies:
+ * <ul>
+ *     <li>{@code disk} - the limits of the application: per physical disk, one job on spinning disks;</li>
+ *     <li>{@code serial} - one job at a time, regardless of the disk;</li>
+ *     <li>{@code unlimited} - every job at once, like separate threads.</li>
+ * </ul>
+ * </p>
+ *
+ * @since 2.9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class DeviceSchedulerBenchmark {
+
+    /**
+     * A copy task that does not report its progress to the user interface.
+     */
+    private static class HeadlessCopyTask extends FileCopyTask {
+
+        @Override
+        protected void updateProgress() {}
+    }
+
+    /** The device every job uses under the {@code serial} policy. */
+    private static final DiskTopology.Device GLOBAL = new DiskTopology.Device("global", false);
+
+    @Param({"disk", "serial", "unlimited"})
+    private String policy;
+
+    @Param({"8"})
+    private int jobs;
+
+    @Param({"33554432"})
+    private long fileSize;
+
+    private final HeadlessCopyTask task = new HeadlessCopyTask();
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private DeviceScheduler scheduler;
+
+    private final List<Path> directories = new ArrayList<>();
+
+    private final List<Path> sources = new ArrayList<>();
+
+    private final List<Path> targets = new ArrayList<>();
+
+    private final List<Set<DiskTopology.Device>> devices = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void createFixtures() throws IOException {
+        Path second = Path.of(System.getProperty("aloe.benchmark.second-disk", "/dev/shm"));
+        directories.add(Fixtures.createDirectory("scheduler"));
+        directories.add(Files.isDirectory(second) ? Fixtures.createDirectory(second, "scheduler") : Fixtures.createDirectory("scheduler"));
+
+        for (int i = 0; i < jobs; i++) {
+            Path directory = directories.get(i % directories.size());
+            sources.add(Fixtures.createFile(directory.resolve("source-" + i + ".bin"), fileSize));
+            targets.add(directory.resolve("target-" + i + ".bin"));
+            devices.add(switch (policy) {
+                case "serial" -> Set.of(GLOBAL);
+                default -> Set.of(DiskTopology.resolve(directory));
+            });
+        }
+
+        scheduler = switch (policy) {
+            case "unlimited" -> new DeviceScheduler(executor, device -> Integer.MAX_VALUE);
+            default -> new DeviceScheduler(executor, OperationScheduler::getLimit);
+        };
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteTargets() throws IOException {
+        for (Path target : targets) {
+            Files.deleteIfExists(target);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFixtures() throws IOException {
+        executor.shutdown();
+        for (Path directory : directories) {
+            Fixtures.delete(directory);
+        }
+    }
+
+    @Benchmark
+    public void copyMixed() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(jobs);
+        for (int i = 0; i < jobs; i++) {
+            Path source = sources.get(i);
+            Path target = targets.get(i);
+            scheduler.submit(devices.get(i), () -> {
+                try {
+                    task.copyFile(source, target);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    done.countDown();
+                }
+            }, queued -> {});
+        }
+        done.await();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.aloe.files.tasks;
+
+import com.example.aloe.benchmarks.Fixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link FileCopyTask#copyFile(Path, Path)} and {@link FileCopyTask#copyTree(TreeManifest, Path)}.
+ * <p>
+ * The benchmark lives in the package of the tasks to reach their protected copy methods. Progress
+ * reporting is disabled, because it requires a running JavaFX toolkit.
+ * </p>
+ *
+ * @since 2.9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class FileCopyBenchmark {
+
+    /**
+     * A copy task that does not report its progress to the user interface.
+     */
+    private static class HeadlessCopyTask extends FileCopyTask {
+
+        @Override
+        protected void updateProgress() {}
+    }
+
+    @Param({"1048576", "67108864"})
+    private long fileSize;
+
+    private final HeadlessCopyTask task = new HeadlessCopyTask();
+
+    private Path directory;
+
+    private Path source;
+
+    private Path tree;
+
+    private Path target;
+
+    @Setup(Level.Trial)
+    public void createFixtures() throws IOException {
+        directory = Fixtures.createDirectory("copy");
+        source = Fixtures.createFile(directory.resolve("source.bin"), fileSize);
+        tree = directory.resolve("tree");
+        Fixtures.createTree(tree, 3, 5, 20, 4096);
+        target = directory.resolve("target");
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteTarget() throws IOException {
+        Fixtures.delete(target);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFixtures() throws IOException {
+        Fixtures.delete(directory);
+    }
+
+    @Benchmark
+    public long copyFile() throws IOException {
+        task.copyFile(source, target);
+        return Files.size(target);
+    }
+
+    @Benchmark
+    public void copyTree() throws IOException, InterruptedException {
+        task.copyTree(TreeManifest.scanInBackground(List.of(tree), size -> {}).getFirst(), target);
+    }
+}
@@ -5,6 +5,8 @@ import com.example.aloe.components.ExtendedMenuItem;
 import com.example.aloe.files.CurrentDirectory;
 import com.example.aloe.files.tasks.FileCopyTask;
 import com.example.aloe.utils.Translator;
+import com.example.aloe.window.ContentSearchWindow;
+import com.example.aloe.window.DuplicatesWindow;
 import com.example.aloe.window.PropertiesWindow;
 import com.example.aloe.window.interior.DirectoryWindow;
 import com.example.aloe.window.interior.FileWindow;
@@ -25,6 +27,8 @@ import javafx.scene.input.Clipboard;
  *     <li><b>New File:</b> Opens a window to create a new file</li>
  *     <li><b>Paste:</b> Pastes files from the clipboard into the current directory</li>
  *     <li><b>Select All:</b> Selects all visible files in the current view</li>
+ *     <li><b>Search Contents:</b> Opens a window searching the content of the files below the current directory</li>
+ *     <li><b>Find Duplicates:</b> Opens a window listing the identical files below the current directory</li>
  *     <li><b>Properties:</b> Opens a properties window for the current directory</li>
  * </ul>
  * </p>
@@ -43,8 +47,10 @@ public class DirectoryContextMenu extends ExtendedContextMenu {
         ExtendedMenuItem newFile = new ExtendedMenuItem(Translator.translate("context-menu.new-file"), e -> new FileWindow());
         ExtendedMenuItem paste = new ExtendedMenuItem(Translator.translate("context-menu.paste"), e -> new FileCopyTask(Clipboard.getSystemClipboard().getFiles(), true));
         ExtendedMenuItem selectAll = new ExtendedMenuItem(Translator.translate("context-menu.select-all"), e -> FileBox.selectAllFiles());
+        ExtendedMenuItem searchContents = new ExtendedMenuItem(Translator.translate("context-menu.search-contents"), e -> new ContentSearchWindow(CurrentDirectory.get(), ""));
+        ExtendedMenuItem findDuplicates = new ExtendedMenuItem(Translator.translate("context-menu.find-duplicates"), e -> new DuplicatesWindow(CurrentDirectory.get()));
         ExtendedMenuItem properties = new ExtendedMenuItem(Translator.translate("context-menu.properties"), e -> new PropertiesWindow(CurrentDirectory.get()));
 
-        this.getItems().addAll(newDirectory, newFile, paste, selectAll, properties);
+        this.getItems().addAll(newDirectory, newFile, paste, selectAll, searchContents, findDuplicates, properties);
     }
 }
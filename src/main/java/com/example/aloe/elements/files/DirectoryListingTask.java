@@ -0,0 +1,194 @@
+package com.example.aloe.elements.files;
+
+import com.example.aloe.files.FileEntry;
+import com.example.aloe.files.Trash;
+import com.example.aloe.settings.Settings;
+import javafx.concurrent.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A background task that lists the content of a single directory for the files view.
+ * <p>
+ * The directory is read with {@link Files#newDirectoryStream(Path)} and every entry is stat'ed exactly
+ * once into a {@link FileEntry} snapshot. Filtering of hidden files and sorting happen on the same
+ * background thread, so the JavaFX application thread only receives the final, ordered list of entries.
+ * </p>
+ *
+ * <p>
+ * The user preferences used for filtering and sorting are captured when the task is created,
+ * which must happen on the JavaFX application thread. A listing can be stopped at any moment
+ * with {@link #cancel()}; the task checks for cancellation after every directory entry.
+ * </p>
+ *
+ * <p>
+ * Listing the home trash also lists the trash directories of all other volumes, see {@link Trash},
+ * so files trashed anywhere are shown together.
+ * </p>
+ *
+ * @see FilesLoader
+ * @since 2.9.0
+ */
+class DirectoryListingTask extends Task<List<FileEntry>> {
+
+    /** The directory whose content is listed. */
+    private final File directory;
+
+    /** Whether hidden files should be included in the result. */
+    private final boolean showHidden;
+
+    /** Whether directories should be placed before files. */
+    private final boolean directoriesFirst;
+
+    /** The sorting strategy applied to the listed files. */
+    private final Sorting sorting;
+
+    /**
+     * Creates a listing task for the given directory using the current user settings.
+     *
+     * @param directory the directory to list
+     */
+    DirectoryListingTask(File directory) {
+        this(directory,
+                Boolean.TRUE.equals(Settings.getSetting("files", "show-hidden")),
+                Boolean.TRUE.equals(Settings.getSetting("files", "display-directories-before-files")),
+                Sorting.safeValueOf(Settings.getSetting("files", "sorting").toString().toUpperCase()));
+    }
+
+    /**
+     * Creates a listing task for the given directory with explicit filtering and sorting options.
+     *
+     * @param directory        the directory to list
+     * @param showHidden       whether hidden files should be included
+     * @param directoriesFirst whether directories should be placed before files
+     * @param sorting          the sorting strategy
+     */
+    DirectoryListingTask(File directory, boolean showHidden, boolean directoriesFirst, Sorting sorting) {
+        this.directory = directory;
+        this.showHidden = showHidden;
+        this.directoriesFirst = directoriesFirst;
+        this.sorting = sorting;
+    }
+
+    /**
+     * Starts the task on a new background daemon thread.
+     */
+    void start() {
+        Thread thread = new Thread(this, "directory-listing");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns the directory listed by this task.
+     *
+     * @return the listed directory
+     */
+    File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the directories whose entries are shown for the given directory: the directory itself,
+     * or every trash directory for the home trash.
+     *
+     * @param directory the displayed directory
+     * @return the listed directories
+     */
+    static List<File> getListedDirectories(File directory) {
+        return Trash.isHomeTrash(directory) ? Trash.getTrashDirectories() : List.of(directory);
+    }
+
+    /**
+     * Checks whether another listing lists the same directory with the same filter and order.
+     *
+     * @param other the other listing
+     * @return {@code true} if both listings produce comparable results
+     */
+    boolean hasSameOptions(DirectoryListingTask other) {
+        return directory.equals(other.directory) && showHidden == other.showHidden
+                && directoriesFirst == other.directoriesFirst && sorting == other.sorting;
+    }
+
+    /**
+     * Returns the order of the entries listed by this task.
+     *
+     * @return the comparator matching the sorting of this task
+     */
+    Comparator<FileEntry> getComparator() {
+        return FileSorter.getComparator(sorting, directoriesFirst);
+    }
+
+    /**
+     * Checks whether an entry passes the hidden files filter of this task.
+     *
+     * @param entry the entry to check
+     * @return {@code true} if the entry is shown
+     */
+    boolean isShown(FileEntry entry) {
+        return showHidden || !entry.hidden();
+    }
+
+    /**
+     * Lists, filters and sorts the directory content.
+     *
+     * @return the sorted list of entries, or an empty list if the directory cannot be read
+     * @throws Exception if the listing fails unexpectedly
+     */
+    @Override
+    protected List<FileEntry> call() throws Exception {
+        List<FileEntry> listed = new ArrayList<>();
+
+        List<File> directories = getListedDirectories(directory);
+        for (File listedDirectory : directories) {
+            if (!list(listedDirectory.toPath(), listed) && listedDirectory == directories.getFirst()) return List.of();
+            if (isCancelled()) return List.of();
+        }
+
+        return FileSorter.sort(listed, sorting, directoriesFirst);
+    }
+
+    /**
+     * Reads the entries of a directory into the given list, skipping hidden entries unless they are shown.
+     *
+     * @param directory the directory to read
+     * @param listed    receives the entries
+     * @return {@code false} if the directory cannot be read or the task has been cancelled
+     */
+    private boolean list(Path directory, List<FileEntry> listed) {
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path path : entries) {
+                if (isCancelled()) return false;
+
+                FileEntry entry = readEntry(path);
+                if (entry != null && isShown(entry)) {
+                    listed.add(entry);
+                }
+            }
+            return true;
+        } catch (IOException | SecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads the entry describing the given path.
+     *
+     * @param path the path to read
+     * @return the entry, or {@code null} if its attributes cannot be read
+     */
+    private FileEntry readEntry(Path path) {
+        try {
+            return FileEntry.of(path);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
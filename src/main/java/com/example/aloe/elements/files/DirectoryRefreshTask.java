@@ -0,0 +1,83 @@
+package com.example.aloe.elements.files;
+
+import com.example.aloe.files.FileEntry;
+import javafx.concurrent.Task;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A background task that lists the displayed directory again and computes what has changed.
+ * <p>
+ * The directory is listed by a {@link DirectoryListingTask} with the same filter and order as the displayed
+ * entries, and the new listing is compared with the displayed one by {@link ListingDiff} on the same background
+ * thread. The JavaFX application thread only receives the changed entries, so refreshing a large directory
+ * after a small change does not rebuild the view.
+ * </p>
+ *
+ * @see FilesLoader#refresh()
+ * @since 2.9.0
+ */
+class DirectoryRefreshTask extends Task<Map<File, FileEntry>> {
+
+    /** The listing of the directory, created on the JavaFX application thread. */
+    private final DirectoryListingTask listing;
+
+    /** The entries displayed when the refresh was started. */
+    private final List<FileEntry> previous;
+
+    /**
+     * Creates a refresh of the displayed entries.
+     *
+     * @param listing  the listing of the directory, with the same options as the displayed entries
+     * @param previous a copy of the displayed entries
+     */
+    DirectoryRefreshTask(DirectoryListingTask listing, List<FileEntry> previous) {
+        this.listing = listing;
+        this.previous = previous;
+    }
+
+    /**
+     * Starts the task on a new background daemon thread.
+     */
+    void start() {
+        Thread thread = new Thread(this, "directory-refresh");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Returns the listing used by this refresh.
+     *
+     * @return the listing task
+     */
+    DirectoryListingTask getListing() {
+        return listing;
+    }
+
+    /**
+     * Cancels the refresh together with its listing.
+     *
+     * @param mayInterruptIfRunning whether the thread running the task may be interrupted
+     * @return {@code true} if the refresh has been cancelled
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        listing.cancel(mayInterruptIfRunning);
+        return super.cancel(mayInterruptIfRunning);
+    }
+
+    /**
+     * Lists the directory and compares the result with the displayed entries.
+     *
+     * @return the changed files mapped to their new entries, or to {@code null} if they have been removed
+     * @throws Exception if the listing fails unexpectedly
+     */
+    @Override
+    protected Map<File, FileEntry> call() throws Exception {
+        List<FileEntry> current = listing.call();
+        if (isCancelled()) return Map.of();
+        return ListingDiff.diff(previous, current);
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.aloe.elements.files;
+
+import com.example.aloe.files.FileEntry;
+import javafx.application.Platform;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches the displayed directory for changes made outside of the files view.
+ * <p>
+ * The directory is registered with a {@link WatchService}. Events are coalesced over
+ * {@link #COALESCE_WINDOW} milliseconds after the first one, so a burst of changes, e.g. an extraction
+ * writing hundreds of files, results in a single update. Every changed path is then stat'ed once on the
+ * watcher thread and the resulting changes are handed to the JavaFX application thread, keyed by file,
+ * with a {@code null} entry for removed files. When the watch service loses events, or the directory
+ * itself disappears, the watcher asks for a full reload instead.
+ * </p>
+ *
+ * <p>
+ * Network and FUSE file systems do not deliver change events for modifications made by other machines,
+ * and the number of inotify watches is limited. Directories on such file systems, or directories that
+ * cannot be registered, are polled every {@link #POLL_INTERVAL} milliseconds and compared with the
+ * previous listing by {@link ListingDiff}.
+ * </p>
+ *
+ * @see FilesLoader
+ * @since 2.9.0
+ */
+final class DirectoryWatcher {
+
+    /** The time over which change events are collected before they are applied, in milliseconds. */
+    static final long COALESCE_WINDOW = 150;
+
+    /** The time between two listings of a polled directory, in milliseconds. */
+    static final long POLL_INTERVAL = 2000;
+
+    /** The types of file systems that are polled, because they do not report all changes. */
+    static final Set<String> POLLED_FILE_SYSTEMS = Set.of("nfs", "nfs4", "cifs", "smb3", "smbfs", "9p", "afs",
+            "davfs", "fuse", "fuse.sshfs", "fuse.rclone", "fuse.gvfsd-fuse");
+
+    /** The watched directories. */
+    private final List<File> directories;
+
+    /** Receives the changes on the JavaFX application thread. */
+    private final Consumer<Map<File, FileEntry>> onChanges;
+
+    /** Called on the JavaFX application thread when the directory has to be reloaded. */
+    private final Runnable onReload;
+
+    /** The watch service, or {@code null} while polling. */
+    private volatile WatchService service;
+
+    /** Whether the watcher has been closed. */
+    private volatile boolean closed;
+
+    /**
+     * Creates a watcher of the given directories.
+     *
+     * @param directories the directories to watch
+     * @param onChanges   receives the changed files mapped to their new entries, or to {@code null} if removed
+     * @param onReload    called when the changes cannot be determined and the directories have to be listed again
+     */
+    DirectoryWatcher(List<File> directories, Consumer<Map<File, FileEntry>> onChanges, Runnable onReload) {
+        this.directories = List.copyOf(directories);
+        this.onChanges = onChanges;
+        this.onReload = onReload;
+    }
+
+    /**
+     * Starts watching on a new background daemon thread.
+     */
+    void start() {
+        Thread thread = new Thread(this::run, "directory-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching. No changes are delivered after this method returns. Must be called on the JavaFX application thread.
+     */
+    void close() {
+        closed = true;
+        WatchService current = service;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Watches the directories with a watch service, or polls them if they cannot be watched.
+     */
+    private void run() {
+        try {
+            if (!shouldPoll() && register()) {
+                watch();
+            } else {
+                poll();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException ignored) {
+        }
+    }
+
+    /**
+     * Checks whether any of the directories is on a file system that does not report all changes.
+     *
+     * @return {@code true} if the directories have to be polled
+     */
+    private boolean shouldPoll() {
+        for (File directory : directories) {
+            try {
+                if (POLLED_FILE_SYSTEMS.contains(Files.getFileStore(directory.toPath()).type())) return true;
+            } catch (IOException | SecurityException e) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Registers all directories with a new watch service.
+     *
+     * @return {@code true} if all directories have been registered
+     */
+    private boolean register() {
+        try {
+            WatchService watchService = FileSystems.getDefault().newWatchService();
+            service = watchService;
+            if (closed) {
+                watchService.close();
+                return false;
+            }
+            for (File directory : directories) {
+                directory.toPath().register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+            }
+            return true;
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            WatchService current = service;
+            service = null;
+            if (current != null) {
+                try {
+                    current.close();
+                } catch (IOException ignored) {
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Waits for change events, coalesces them and delivers the resulting changes until the watcher is closed.
+     *
+     * @throws InterruptedException if the thread is interrupted
+     */
+    private void watch() throws InterruptedException {
+        WatchService watchService = service;
+        while (!closed) {
+            WatchKey key = watchService.take();
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(COALESCE_WINDOW);
+            Set<Path> changed = new LinkedHashSet<>();
+            boolean reload = false;
+
+            while (key != null) {
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        reload = true;
+                    } else {
+                        changed.add(directory.resolve((Path) event.context()));
+                    }
+                }
+                if (!key.reset()) reload = true;
+                key = watchService.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+
+            if (reload) {
+                deliver(null);
+            } else if (!changed.isEmpty()) {
+                deliver(stat(changed));
+            }
+        }
+    }
+
+    /**
+     * Lists the directories periodically and delivers the differences to the previous listing until the watcher is closed.
+     *
+     * @throws InterruptedException if the thread is interrupted
+     */
+    private void poll() throws InterruptedException {
+        List<FileEntry> previous = list();
+        while (!closed) {
+            Thread.sleep(POLL_INTERVAL);
+            List<FileEntry> current = list();
+            Map<File, FileEntry> changes = ListingDiff.diff(previous, current);
+            if (!changes.isEmpty()) deliver(changes);
+            previous = current;
+        }
+    }
+
+    /**
+     * Reads the current entries of the changed paths.
+     *
+     * @param paths the changed paths
+     * @return the paths mapped to their entries, or to {@code null} if they no longer exist
+     */
+    private static Map<File, FileEntry> stat(Set<Path> paths) {
+        Map<File, FileEntry> changes = new HashMap<>();
+        for (Path path : paths) {
+            try {
+                changes.put(path.toFile(), FileEntry.of(path));
+            } catch (IOException e) {
+                changes.put(path.toFile(), null);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Lists the entries of all directories.
+     *
+     * @return the entries; unreadable directories and entries are skipped
+     */
+    private List<FileEntry> list() {
+        List<FileEntry> entries = new ArrayList<>();
+        for (File directory : directories) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory.toPath())) {
+                for (Path path : stream) {
+                    try {
+                        entries.add(FileEntry.of(path));
+                    } catch (IOException ignored) {
+                    }
+                }
+            } catch (IOException | SecurityException ignored) {
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Hands changes to the JavaFX application thread, unless the watcher is closed by then.
+     *
+     * @param changes the changes, or {@code null} if the directories have to be reloaded
+     */
+    private void deliver(Map<File, FileEntry> changes) {
+        Platform.runLater(() -> {
+            if (closed) return;
+            if (changes == null) {
+                onReload.run();
+            } else {
+                onChanges.accept(changes);
+            }
+        });
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.aloe.elements.files;
 
 import com.example.aloe.files.CurrentDirectory;
+import com.example.aloe.files.FileEntry;
 import com.example.aloe.files.FilesOpener;
 import com.example.aloe.files.FilesUtils;
+import com.example.aloe.files.thumbnails.ThumbnailService;
 import com.example.aloe.settings.Settings;
 import com.example.aloe.utils.CurrentPlatform;
 import javafx.geometry.Insets;
@@ -12,7 +14,6 @@ import javafx.scene.control.Tooltip;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.*;
-import javafx.scene.layout.FlowPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
@@ -22,7 +23,7 @@ import oshi.software.os.OSFileStore;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.concurrent.Future;
 
 /**
  * Represents a visual component for a file or disk in the file manager interface.
@@ -38,6 +39,7 @@ import java.util.stream.Stream;
  *     <li>Single or multiple selection</li>
  *     <li>Drag-and-drop operations for file moving</li>
  *     <li>Custom styling and scaling according to user settings</li>
+ *     <li>Rebinding to another file, so the virtualized files views can recycle boxes</li>
  * </ul>
  * </p>
  *
@@ -60,15 +62,35 @@ public class FileBox extends Pane {
      */
     protected File file;
 
+    /**
+     * The attribute snapshot of the represented file, or {@code null} when displaying a disk.
+     */
+    protected FileEntry entry;
+
     /**
      * Disk store object, used when displaying mounted disks.
      */
     protected OSFileStore store;
 
     /**
-     * Indicates whether this file box is currently selected.
+     * The icon of the file, updated when the box is bound to another file.
      */
-    private boolean isSelected = false;
+    protected ImageView icon;
+
+    /**
+     * The display size of the icon in pixels, used to request thumbnails.
+     */
+    private double iconSize;
+
+    /**
+     * The pending thumbnail request of the displayed file, or {@code null} if none is pending.
+     */
+    private Future<?> thumbnailRequest;
+
+    /**
+     * The name label of the file, updated when the box is bound to another file.
+     */
+    protected Label name;
 
     /**
      * Constructs a base FileBox and applies styling and mouse listeners.
@@ -78,16 +100,18 @@ public class FileBox extends Pane {
         this.getStyleClass().add("file-box");
         this.setOnDragAndDrop();
         this.setOnClick();
+        SelectedFileBoxes.register(this);
     }
 
     /**
-     * Constructs a FileBox for a given file.
+     * Constructs a FileBox for a given file entry.
      *
-     * @param file the file or directory this FileBox represents
+     * @param entry the attribute snapshot of the file or directory this FileBox represents
      */
-    FileBox(File file) {
+    FileBox(FileEntry entry) {
         this();
-        this.file = file;
+        this.entry = entry;
+        this.file = entry.file();
         this.setFileContextMenu();
     }
 
@@ -108,15 +132,8 @@ public class FileBox extends Pane {
      */
     public static void selectAllFiles() {
         SelectedFileBoxes.removeSelection();
-        Stream stream;
-         if (Settings.getSetting("files", "view").equals("list")) {
-             VBox list = (VBox) FilesPane.get().getContent();
-             stream = list.getChildren().stream();
-         } else {
-             FlowPane grid = (FlowPane) FilesPane.get().getContent();
-             stream = grid.getChildren().stream();
-         }
-         stream.filter(node -> node instanceof FileBox).forEach(node -> ((FileBox) node).setSelected());
+        FilesLoader.getDisplayedFiles().forEach(entry -> SelectedFileBoxes.add(entry.file()));
+        SelectedFileBoxes.updateStyles();
     }
 
     /**
@@ -128,6 +145,43 @@ public class FileBox extends Pane {
         return this.file;
     }
 
+    /**
+     * Returns the attribute snapshot of the file associated with this FileBox.
+     *
+     * @return the file entry, or {@code null} if this FileBox represents a disk
+     */
+    public FileEntry getEntry() {
+        return this.entry;
+    }
+
+    /**
+     * Binds this FileBox to another file entry and updates its content and selection style.
+     * Used by the virtualized files views when a box is recycled for another row.
+     *
+     * @param entry the attribute snapshot of the file or directory this FileBox should represent
+     */
+    void setFile(FileEntry entry) {
+        this.entry = entry;
+        this.file = entry.file();
+        this.updateContent();
+        this.updateSelectedStyle();
+    }
+
+    /**
+     * Updates the displayed icon and name after the box has been bound to another file.
+     * Subclasses displaying more file information extend this method.
+     */
+    protected void updateContent() {
+        if (this.icon != null) {
+            this.icon.setImage(FileImage.from(this.entry, this.iconSize));
+            this.requestThumbnail();
+        }
+        if (this.name != null) {
+            this.name.setText(this.file.getName());
+            this.name.getTooltip().setText(this.file.getName());
+        }
+    }
+
     /**
      * Builds a vertical container with an image icon.
      *
@@ -136,10 +190,35 @@ public class FileBox extends Pane {
      * @return VBox containing the icon
      */
     protected VBox getImageBox(double size, Insets padding) {
-        ImageView icon = new ImageView();
-        icon.setPreserveRatio(true);
-        icon.setImage(FileImage.from(this.file));
-        return getvBox(size, padding, icon);
+        this.icon = new ImageView();
+        this.icon.setPreserveRatio(true);
+        this.iconSize = size * scale;
+        this.icon.setImage(FileImage.from(this.entry, this.iconSize));
+        this.requestThumbnail();
+        return getvBox(size, padding, this.icon);
+    }
+
+    /**
+     * Replaces the icon of an image file with its thumbnail. A decoded thumbnail is shown at once; otherwise
+     * it is requested from the {@link ThumbnailService} and shown when ready, unless the box has been bound
+     * to another file in the meantime. A pending request of the previous file is cancelled.
+     */
+    private void requestThumbnail() {
+        if (this.thumbnailRequest != null) {
+            this.thumbnailRequest.cancel(false);
+            this.thumbnailRequest = null;
+        }
+        if (this.entry == null || !FileImage.hasThumbnail(this.entry)) return;
+
+        FileEntry requested = this.entry;
+        Image cached = ThumbnailService.getCached(requested.file(), requested.lastModified(), this.iconSize);
+        if (cached != null) {
+            this.icon.setImage(cached);
+            return;
+        }
+        this.thumbnailRequest = ThumbnailService.request(requested.file(), requested.lastModified(), this.iconSize, image -> {
+            if (this.entry == requested) this.icon.setImage(image);
+        });
     }
 
     /**
@@ -153,7 +232,7 @@ public class FileBox extends Pane {
     protected VBox getImageBox(double size, Insets padding, String image) {
         ImageView icon = new ImageView();
         icon.setPreserveRatio(true);
-        icon.setImage(new Image(FileImage.getImageStream(image)));
+        icon.setImage(IconRegistry.get(image, size * scale));
         return getvBox(size, padding, icon);
     }
 
@@ -213,6 +292,7 @@ public class FileBox extends Pane {
         Label label = getNameLabel();
         label.setText(this.file.getName());
         label.setTooltip(new Tooltip(this.file.getName()));
+        this.name = label;
         return label;
     }
 
@@ -246,11 +326,12 @@ public class FileBox extends Pane {
 
     /**
      * Sets up the context menu for this file box, depending on selection state.
+     * The menu is created when requested, so it always targets the file currently bound to this box.
      */
     private void setFileContextMenu() {
-        FileBoxContextMenu fileBoxContextMenu = new FileBoxContextMenu(this.file);
         this.setOnContextMenuRequested(e -> {
             FilesPane.hideMenu();
+            FileBoxContextMenu fileBoxContextMenu = new FileBoxContextMenu(this.file);
             if (SelectedFileBoxes.isSelected(this) && SelectedFileBoxes.getSelectedFiles().size() == 1) {
                 fileBoxContextMenu.show(this, e.getScreenX(), e.getScreenY());
             } else if (SelectedFileBoxes.isSelected(this)) {
@@ -312,7 +393,6 @@ public class FileBox extends Pane {
             SelectedFileBoxes.add(this);
             this.setSelectedStyle();
         }
-        this.isSelected = !isSelected;
     }
 
     /**
@@ -321,7 +401,6 @@ public class FileBox extends Pane {
      * @param isSelected whether the file is selected
      */
     public void setSelected(boolean isSelected) {
-        this.isSelected = isSelected;
         if (isSelected) {
             SelectedFileBoxes.add(this);
         } else {
@@ -333,7 +412,9 @@ public class FileBox extends Pane {
      * Applies visual styling for a selected file.
      */
     private void setSelectedStyle() {
-        this.getStyleClass().add("selected");
+        if (!this.getStyleClass().contains("selected")) {
+            this.getStyleClass().add("selected");
+        }
     }
 
     /**
@@ -343,6 +424,17 @@ public class FileBox extends Pane {
         this.getStyleClass().remove("selected");
     }
 
+    /**
+     * Applies or removes the selection style depending on whether the bound file is selected.
+     */
+    void updateSelectedStyle() {
+        if (SelectedFileBoxes.isSelected(this)) {
+            this.setSelectedStyle();
+        } else {
+            this.removeSelectedStyle();
+        }
+    }
+
     /**
      * Configures drag-and-drop behavior for moving files between directories.
      */
@@ -352,9 +444,8 @@ public class FileBox extends Pane {
             ClipboardContent content = new ClipboardContent();
             List<String> fileNamesToDrag = new ArrayList<>();
             if (SelectedFileBoxes.isSelected(this)) {
-                for (Pane selectedFile : SelectedFileBoxes.getSelectedFileBoxes()) {
-                    Label fileNameLabel = (Label) selectedFile.getChildren().get(1);
-                    fileNamesToDrag.add(fileNameLabel.getText());
+                for (File selectedFile : SelectedFileBoxes.getSelectedFiles()) {
+                    fileNamesToDrag.add(selectedFile.getName());
                 }
             } else {
                 fileNamesToDrag.add(this.file.getName());
@@ -366,7 +457,7 @@ public class FileBox extends Pane {
         });
 
         this.setOnDragOver(event -> {
-            if (event.getGestureSource() != this && event.getDragboard().hasString() && this.file.isDirectory()) {
+            if (event.getGestureSource() != this && event.getDragboard().hasString() && this.entry != null && this.entry.directory()) {
                 event.acceptTransferModes(TransferMode.MOVE);
             }
             event.consume();
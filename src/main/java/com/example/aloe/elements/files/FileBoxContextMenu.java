@@ -3,15 +3,17 @@ package com.example.aloe.elements.files;
 import com.example.aloe.components.ExtendedContextMenu;
 import com.example.aloe.components.ExtendedMenuItem;
 import com.example.aloe.files.FilesOpener;
-import com.example.aloe.files.archive.ArchiveHandler;
+import com.example.aloe.files.tasks.ArchiveTask;
 import com.example.aloe.files.FileChooser;
 import com.example.aloe.files.FilesUtils;
 import com.example.aloe.files.tasks.FileDeleteTask;
 import com.example.aloe.files.tasks.FileDuplicateTask;
 import com.example.aloe.files.tasks.FileMoveTask;
+import com.example.aloe.files.tasks.FileTrashTask;
 import com.example.aloe.elements.menu.Menu;
 import com.example.aloe.settings.Settings;
 import com.example.aloe.utils.ClipboardManager;
+import com.example.aloe.window.DuplicatesWindow;
 import com.example.aloe.window.PropertiesWindow;
 import com.example.aloe.window.interior.CompressWindow;
 import com.example.aloe.window.interior.RenameWindow;
@@ -42,6 +44,7 @@ import java.util.List;
  *     <li><strong>Delete</strong> - Permanently deletes the file.</li>
  *     <li><strong>Properties</strong> - Opens a properties window displaying file metadata.</li>
  *     <li><strong>Add to Menu</strong> - (Directories only) Adds the directory as a shortcut in the application menu.</li>
+ *     <li><strong>Find Duplicates</strong> - (Directories only) Opens a window listing the identical files below the directory.</li>
  * </ul>
  * </p>
  *
@@ -49,7 +52,7 @@ import java.util.List;
  * Additional items are conditionally added based on:
  * <ul>
  *     <li>{@code files.use-copy-location} setting - Enables "Copy Location" option.</li>
- *     <li>If the selected file is a directory - Enables "Add to Menu" option.</li>
+ *     <li>If the selected file is a directory - Enables "Add to Menu" and "Find Duplicates" options.</li>
  * </ul>
  * </p>
  *
@@ -77,9 +80,9 @@ public class FileBoxContextMenu extends ExtendedContextMenu {
         ExtendedMenuItem duplicate = new ExtendedMenuItem("context-menu.duplicate", e -> new FileDuplicateTask(file, true));
         ExtendedMenuItem moveTo = new ExtendedMenuItem("context-menu.move-to", e -> new FileMoveTask(file, FileChooser.chooseDirectory(), true));
         ExtendedMenuItem moveToParent = new ExtendedMenuItem("context-menu.move-to-parent", e -> new FileMoveTask(file, file.getParentFile().getParentFile(), true));
-        ExtendedMenuItem moveToTrash = new ExtendedMenuItem("context-menu.move-to-trash", e -> new FileMoveTask(file, new File(Settings.getSetting("files", "trash").toString()), true));
+        ExtendedMenuItem moveToTrash = new ExtendedMenuItem("context-menu.move-to-trash", e -> new FileTrashTask(file, true));
         ExtendedMenuItem archive = FilesUtils.isFileArchive(file) ?
-                new ExtendedMenuItem("context-menu.extract",e -> { ArchiveHandler.extract(file); FilesLoader.refresh(); }) :
+                new ExtendedMenuItem("context-menu.extract",e -> new ArchiveTask(file, true)) :
                 new ExtendedMenuItem("context-menu.compress", e -> new CompressWindow(List.of(file)));
         ExtendedMenuItem delete = new ExtendedMenuItem("context-menu.delete", e -> new FileDeleteTask(file, true));
         ExtendedMenuItem properties = new ExtendedMenuItem("context-menu.properties", e -> new PropertiesWindow(file));
@@ -94,6 +97,8 @@ public class FileBoxContextMenu extends ExtendedContextMenu {
         if (file.isDirectory()) {
             ExtendedMenuItem addToMenu = new ExtendedMenuItem("context-menu.add-to-menu", e -> Menu.addItem(file.getPath(), file.getName(), "FOLDER_OPEN_O"));
             this.getItems().add(9, addToMenu);
+            ExtendedMenuItem findDuplicates = new ExtendedMenuItem("context-menu.find-duplicates", e -> new DuplicatesWindow(file));
+            this.getItems().add(10, findDuplicates);
         }
     }
 }
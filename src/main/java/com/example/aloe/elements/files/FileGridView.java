@@ -0,0 +1,259 @@
+package com.example.aloe.elements.files;
+
+import com.example.aloe.files.FileEntry;
+import com.example.aloe.settings.Settings;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.skin.VirtualFlow;
+import javafx.scene.layout.HBox;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * A virtualized grid view displaying files as {@link VerticalFileBox} tiles.
+ * <p>
+ * The grid is a list of rows, each holding as many files as fit into the current width.
+ * Only the visible rows own file boxes, which are rebound to other files while scrolling.
+ * The rows are recomputed when the width of the view or the list of files changes.
+ * </p>
+ *
+ * @see FilesView
+ * @since 2.9.0
+ */
+class FileGridView extends ListView<List<FileEntry>> implements FilesView {
+
+    /** Horizontal and vertical gap between the file boxes, in pixels. */
+    private static final double GAP = 5;
+
+    /** Horizontal space reserved for the vertical scroll bar, in pixels. */
+    private static final double SCROLL_BAR_WIDTH = 20;
+
+    /** The displayed files, in display order. */
+    private final ObservableList<FileEntry> files = FXCollections.observableArrayList();
+
+    /** Width of a single file box, including its scale. */
+    private final double boxWidth;
+
+    /** The current number of file boxes per row. */
+    private int columns = 1;
+
+    /** Whether changes of the files are being applied, so the rows are recomputed only once at the end. */
+    private boolean applyingChanges;
+
+    /** The entry to scroll to once the view is laid out, or {@code -1}. */
+    private int pendingScroll = -1;
+
+    /**
+     * Constructs a grid view displaying the given files.
+     *
+     * @param files the files to display, in display order
+     */
+    FileGridView(List<FileEntry> files) {
+        double scale = Settings.getSetting("files", "file-box-size");
+        this.boxWidth = 100 * scale;
+        this.files.setAll(files);
+
+        this.getStyleClass().addAll("files-view", "files-grid");
+        this.setFocusTraversable(false);
+        this.setFixedCellSize(125 * scale + GAP);
+        this.setCellFactory(view -> new FileGridRowCell());
+
+        this.files.addListener((ListChangeListener<FileEntry>) change -> {
+            if (applyingChanges) return;
+            if (isAppend(change)) appendRows(change.getFrom());
+            else updateRows();
+        });
+        this.widthProperty().addListener((observable, oldWidth, newWidth) -> {
+            int newColumns = calculateColumns(newWidth.doubleValue());
+            if (newColumns != columns) {
+                columns = newColumns;
+                updateRows();
+            }
+        });
+        updateRows();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ObservableList<FileEntry> getFiles() {
+        return files;
+    }
+
+    /**
+     * Returns the index of the first entry in the first visible row.
+     *
+     * @return the index of the first visible entry, or {@code 0} if the view has not been laid out
+     */
+    @Override
+    public int getFirstVisibleFile() {
+        IndexedCell<?> cell = lookup(".virtual-flow") instanceof VirtualFlow<?> flow ? flow.getFirstVisibleCell() : null;
+        return cell != null ? Math.max(0, cell.getIndex()) * columns : 0;
+    }
+
+    /**
+     * Scrolls to the row containing the given entry. The row is determined once the width, and therefore
+     * the number of columns, is known.
+     *
+     * @param index the index of the entry
+     */
+    @Override
+    public void scrollToFile(int index) {
+        pendingScroll = index;
+        requestLayout();
+    }
+
+    /**
+     * Lays out the visible rows and applies a scroll requested before the view had a size.
+     */
+    @Override
+    protected void layoutChildren() {
+        super.layoutChildren();
+        if (pendingScroll >= 0 && getWidth() > 0 && getHeight() > 0) {
+            int index = pendingScroll;
+            pendingScroll = -1;
+            scrollTo(Math.min(index / columns, getItems().size() - 1));
+        }
+    }
+
+    /**
+     * Applies the changes and recomputes the rows once afterward.
+     *
+     * @param changes the changed files mapped to their new entries, or to {@code null} if they have been removed
+     * @param order   the order of the displayed entries
+     * @param shown   whether an entry passes the filter of the view
+     */
+    @Override
+    public void applyChanges(Map<File, FileEntry> changes, Comparator<FileEntry> order, Predicate<FileEntry> shown) {
+        applyingChanges = true;
+        try {
+            FilesView.super.applyChanges(changes, order, shown);
+        } finally {
+            applyingChanges = false;
+        }
+        updateRows();
+    }
+
+    /**
+     * Calculates how many file boxes fit into a row of the given width.
+     *
+     * @param width the width of the view
+     * @return the number of columns, at least one
+     */
+    private int calculateColumns(double width) {
+        return Math.max(1, (int) ((width - SCROLL_BAR_WIDTH + GAP) / (boxWidth + GAP)));
+    }
+
+    /**
+     * Splits the displayed files into rows of the current column count. Only the range of rows that differs
+     * from the displayed rows is replaced, so rows before and after a change keep their cells.
+     */
+    private void updateRows() {
+        List<List<FileEntry>> rows = new ArrayList<>((files.size() + columns - 1) / columns);
+        for (int i = 0; i < files.size(); i += columns) {
+            rows.add(List.copyOf(files.subList(i, Math.min(i + columns, files.size()))));
+        }
+
+        List<List<FileEntry>> items = this.getItems();
+        int first = 0;
+        while (first < rows.size() && first < items.size() && rows.get(first).equals(items.get(first))) {
+            first++;
+        }
+        int oldEnd = items.size();
+        int newEnd = rows.size();
+        while (oldEnd > first && newEnd > first && rows.get(newEnd - 1).equals(items.get(oldEnd - 1))) {
+            oldEnd--;
+            newEnd--;
+        }
+
+        if (oldEnd - first == newEnd - first) {
+            for (int i = first; i < newEnd; i++) {
+                items.set(i, rows.get(i));
+            }
+        } else {
+            items.subList(first, oldEnd).clear();
+            items.addAll(first, rows.subList(first, newEnd));
+        }
+    }
+
+    /**
+     * Adds the rows of files appended to the end of the displayed files. Only the last row, which may have
+     * been partial, is rebuilt, so appending a batch costs as much as the batch rather than the whole grid.
+     *
+     * @param from the index of the first appended file
+     */
+    private void appendRows(int from) {
+        List<List<FileEntry>> items = this.getItems();
+        int row = from / columns;
+
+        List<List<FileEntry>> rows = new ArrayList<>((files.size() - row * columns + columns - 1) / columns);
+        for (int i = row * columns; i < files.size(); i += columns) {
+            rows.add(List.copyOf(files.subList(i, Math.min(i + columns, files.size()))));
+        }
+
+        if (row < items.size()) items.set(row, rows.removeFirst());
+        items.addAll(rows);
+    }
+
+    /**
+     * Checks whether a change of the files only appended files to their end.
+     *
+     * @param change the change
+     * @return {@code true} if the change consists of a single addition at the end of the list
+     */
+    private static boolean isAppend(ListChangeListener.Change<? extends FileEntry> change) {
+        if (!change.next() || !change.wasAdded() || change.wasRemoved()) return false;
+        return change.getTo() == change.getList().size() && !change.next();
+    }
+
+    /**
+     * A list cell displaying one row of the grid and reusing its file boxes for every row it displays.
+     */
+    private static class FileGridRowCell extends ListCell<List<FileEntry>> {
+
+        /** The container of the row's file boxes. */
+        private final HBox row = new HBox(GAP);
+
+        /**
+         * Binds the cell's file boxes to the files of the given row, creating boxes only when the row
+         * is wider than any row displayed before. Boxes without a file are hidden.
+         *
+         * @param files the files of the row
+         * @param empty whether this cell is empty
+         */
+        @Override
+        protected void updateItem(List<FileEntry> files, boolean empty) {
+            super.updateItem(files, empty);
+            if (empty || files == null) {
+                setGraphic(null);
+                return;
+            }
+
+            for (int i = 0; i < files.size(); i++) {
+                if (i < row.getChildren().size()) {
+                    FileBox box = (FileBox) row.getChildren().get(i);
+                    box.setFile(files.get(i));
+                    box.setVisible(true);
+                    box.setManaged(true);
+                } else {
+                    row.getChildren().add(new VerticalFileBox(files.get(i)));
+                }
+            }
+            for (int i = files.size(); i < row.getChildren().size(); i++) {
+                row.getChildren().get(i).setVisible(false);
+                row.getChildren().get(i).setManaged(false);
+            }
+            setGraphic(row);
+        }
+    }
+}
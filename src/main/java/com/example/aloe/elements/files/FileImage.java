@@ -1,24 +1,28 @@
 package com.example.aloe.elements.files;
 
-import com.example.aloe.files.CurrentDirectory;
+import com.example.aloe.files.FileEntry;
 import com.example.aloe.files.FilesUtils;
+import com.example.aloe.files.thumbnails.ThumbnailService;
 import com.example.aloe.settings.Settings;
 import javafx.scene.image.Image;
 
 import java.io.File;
-import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Provides a utility method for determining and loading appropriate icons or thumbnails
  * for files and directories based on their type or extension.
  * <p>
  * The {@code FileImage} class maps common file types (e.g. images, videos, archives)
- * to corresponding icon resources. For image files, if the user setting {@code display-thumbnails}
- * is enabled, the actual image file is used as a thumbnail instead of a generic icon.
+ * to corresponding icon resources through an extension lookup table, and takes the shared icon
+ * images from the {@link IconRegistry}. Image files are shown with a generic icon first; if the user
+ * setting {@code display-thumbnails} is enabled, callers swap it for the thumbnail created in the
+ * background by the {@link ThumbnailService}, see {@link #hasThumbnail(FileEntry)}.
  * <p>
  * This class supports extensions such as:
  * <ul>
- *   <li>Image files: {@code jpg, jpeg, png, gif, webp, heif, raw}</li>
+ *   <li>Image files: {@code jpg, jpeg, png, gif, bmp, tif, tiff, webp, heif, heic} and camera RAW files</li>
  *   <li>Video files: {@code mp4, mkv, ts, mov}</li>
  *   <li>Audio files: {@code mp3, ogg}</li>
  *   <li>Documents: {@code pdf, epub, mobi}</li>
@@ -35,53 +39,103 @@ import java.io.InputStream;
  */
 public class FileImage {
 
+    /**
+     * The names of the icons by lower-case file extension. Image files get a generic icon,
+     * which is replaced once their thumbnail has been created.
+     */
+    private static final Map<String, String> ICONS;
+
+    static {
+        Map<String, String> icons = new HashMap<>();
+        register(icons, "image", "jpg", "jpeg", "png", "gif", "bmp", "tif", "tiff", "webp", "heif", "heic", "raw", "dng", "cr2", "nef", "arw", "orf", "rw2", "pef");
+        register(icons, "video", "mp4", "mkv", "ts", "mov");
+        register(icons, "music", "mp3", "ogg");
+        register(icons, "book", "epub", "mobi");
+        register(icons, "pdf", "pdf");
+        register(icons, "installer", "exe", "msi", "deb", "rpm", "snap", "flatpak", "flatpakref", "dmg", "apk");
+        register(icons, "torrent", "torrent");
+        register(icons, "tar", "tar", "tar.gz");
+        register(icons, "zip", "zip", "7z");
+        register(icons, "rar", "rar");
+        register(icons, "terminal", "sh", "bat");
+        register(icons, "jar", "jar");
+        register(icons, "cd", "iso");
+        ICONS = Map.copyOf(icons);
+    }
+
     /**
      * Returns a JavaFX {@link Image} to visually represent the given file.
      * For directories, a folder icon is returned. For known file types,
      * a representative icon is selected based on the file extension.
-     * For image files, a thumbnail preview may be shown if enabled in settings.
      *
      * @param file the file or directory for which to retrieve an icon
      * @return an {@link Image} suitable for representing the given file
      */
     public static Image from(File file) {
-        if (file.isDirectory()) {
-            return new Image(getImageStream("folder"));
-        } else {
-            switch (FilesUtils.getExtension(file.getName()).toLowerCase()) {
-                case "jpg", "jpeg", "png", "gif" -> {
-                    if (Boolean.TRUE.equals(Settings.getSetting("files", "display-thumbnails"))) {
-                        return new Image(new File(CurrentDirectory.get(), file.getName()).toURI().toString());
-                    } else {
-                        return new Image(getImageStream("image"));
-                    }
-                }
-                case "webp", "heif", "raw" -> { return new Image(getImageStream("image")); }
-                case "mp4", "mkv", "ts", "mov" -> { return new Image(getImageStream("video")); }
-                case "mp3", "ogg" -> { return new Image(getImageStream("music")); }
-                case "epub", "mobi" -> { return new Image(getImageStream("book")); }
-                case "pdf" -> { return new Image(getImageStream("pdf")); }
-                case "exe", "msi", "deb", "rpm", "snap", "flatpak", "flatpakref", "dmg", "apk" -> { return new Image(getImageStream("installer")); }
-                case "torrent" -> { return new Image(getImageStream("torrent")); }
-                case "tar", "tar.gz" -> { return new Image(getImageStream("tar")); }
-                case "zip", "7z" -> { return new Image(getImageStream("zip")); }
-                case "rar" -> { return new Image(getImageStream("rar")); }
-                case "sh", "bat" -> { return new Image(getImageStream("terminal")); }
-                case "jar" -> { return new Image(getImageStream("jar")); }
-                case "iso" -> { return new Image(getImageStream("cd")); }
-                default -> { return new Image(getImageStream("file")); }
-            }
-        }
+        return IconRegistry.get(getIconName(file.isDirectory(), FilesUtils.getExtension(file.getName()).toLowerCase()));
+    }
+
+    /**
+     * Returns a JavaFX {@link Image} to visually represent the given entry.
+     * Unlike {@link #from(File)}, the icon is selected from the attributes already held by the entry,
+     * without querying the file system.
+     *
+     * @param entry the file or directory entry for which to retrieve an icon
+     * @return an {@link Image} suitable for representing the given entry
+     * @since 2.9.0
+     */
+    public static Image from(FileEntry entry) {
+        return IconRegistry.get(getIconName(entry.directory(), entry.extension()));
     }
 
     /**
-     * Loads an icon image stream from the internal resource path.
-     * The icons are stored under {@code /assets/icons/} with a ".png" extension.
+     * Returns a JavaFX {@link Image} to visually represent the given entry, decoded at the size it is
+     * displayed at. The image is shared with all other entries of the same type.
      *
-     * @param image the base name of the icon file (e.g. "folder", "video", "pdf")
-     * @return an {@link InputStream} to the image resource
+     * @param entry the file or directory entry for which to retrieve an icon
+     * @param size  the display size in pixels
+     * @return an {@link Image} suitable for representing the given entry
+     * @since 2.9.0
      */
-    static InputStream getImageStream(String image) {
-        return FileBox.class.getResourceAsStream("/assets/icons/" + image + ".png");
+    public static Image from(FileEntry entry, double size) {
+        return IconRegistry.get(getIconName(entry.directory(), entry.extension()), size);
+    }
+
+    /**
+     * Checks whether a thumbnail should replace the icon of the given entry: the entry is an image file
+     * supported by the {@link ThumbnailService} and thumbnails are enabled in settings.
+     *
+     * @param entry the file or directory entry
+     * @return {@code true} if a thumbnail should be requested for the entry
+     * @since 2.9.0
+     */
+    public static boolean hasThumbnail(FileEntry entry) {
+        return !entry.directory() && ThumbnailService.isSupported(entry.extension())
+                && Boolean.TRUE.equals(Settings.getSetting("files", "display-thumbnails"));
+    }
+
+    /**
+     * Returns the name of the icon representing a file or directory of the given kind.
+     *
+     * @param directory whether the icon represents a directory
+     * @param extension the lower-case extension of the file
+     * @return the base name of the icon file in {@code /assets/icons/}
+     * @since 2.9.0
+     */
+    static String getIconName(boolean directory, String extension) {
+        return directory ? "folder" : ICONS.getOrDefault(extension, IconRegistry.FALLBACK);
+    }
+
+    /**
+     * Maps each of the given extensions to an icon.
+     *
+     * @param icons      the map to fill
+     * @param icon       the base name of the icon file
+     * @param extensions the lower-case extensions represented by the icon
+     */
+    private static void register(Map<String, String> icons, String icon, String... extensions) {
+        for (String extension : extensions) {
+            icons.put(extension, icon);
+        }
     }
 }
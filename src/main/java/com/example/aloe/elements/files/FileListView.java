@@ -0,0 +1,110 @@
+package com.example.aloe.elements.files;
+
+import com.example.aloe.files.FileEntry;
+import javafx.collections.ObservableList;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.skin.VirtualFlow;
+
+import java.util.List;
+
+/**
+ * A virtualized list view displaying files as {@link HorizontalFileBox} rows.
+ * <p>
+ * Only the visible rows own a file box. When the list is scrolled, the boxes of rows that
+ * leave the viewport are rebound to the files entering it, so even directories with tens of
+ * thousands of entries are displayed with a constant number of nodes.
+ * </p>
+ *
+ * @see FilesView
+ * @since 2.9.0
+ */
+class FileListView extends ListView<FileEntry> implements FilesView {
+
+    /** The entry to scroll to once the view is laid out, or {@code -1}. */
+    private int pendingScroll = -1;
+
+    /**
+     * Constructs a list view displaying the given files.
+     *
+     * @param files the files to display, in display order
+     */
+    FileListView(List<FileEntry> files) {
+        this.getItems().setAll(files);
+        this.getStyleClass().addAll("files-view", "files-list");
+        this.setFocusTraversable(false);
+        this.setCellFactory(view -> new FileListCell());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ObservableList<FileEntry> getFiles() {
+        return this.getItems();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getFirstVisibleFile() {
+        IndexedCell<?> cell = lookup(".virtual-flow") instanceof VirtualFlow<?> flow ? flow.getFirstVisibleCell() : null;
+        return cell != null ? Math.max(0, cell.getIndex()) : 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void scrollToFile(int index) {
+        pendingScroll = index;
+        requestLayout();
+    }
+
+    /**
+     * Lays out the visible rows and applies a scroll requested before the view had a size.
+     */
+    @Override
+    protected void layoutChildren() {
+        super.layoutChildren();
+        if (pendingScroll >= 0 && getHeight() > 0) {
+            int index = pendingScroll;
+            pendingScroll = -1;
+            scrollTo(Math.min(index, getItems().size() - 1));
+        }
+    }
+
+    /**
+     * A list cell that reuses a single {@link HorizontalFileBox} for every file it displays.
+     */
+    private static class FileListCell extends ListCell<FileEntry> {
+
+        /** The file box reused by this cell, created for the first displayed file. */
+        private HorizontalFileBox box;
+
+        /**
+         * Binds the cell's file box to the given file, or clears the cell when it is empty.
+         *
+         * @param file  the file displayed by this cell
+         * @param empty whether this cell is empty
+         */
+        @Override
+        protected void updateItem(FileEntry file, boolean empty) {
+            super.updateItem(file, empty);
+            if (empty || file == null) {
+                setGraphic(null);
+                return;
+            }
+
+            if (box == null) {
+                box = new HorizontalFileBox(file);
+                box.prefWidthProperty().bind(widthProperty().subtract(32));
+            } else {
+                box.setFile(file);
+            }
+            setGraphic(box);
+        }
+    }
+}
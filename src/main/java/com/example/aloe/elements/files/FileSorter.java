@@ -0,0 +1,162 @@
+package com.example.aloe.elements.files;
+
+import com.example.aloe.files.FileEntry;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Sorts directory entries according to a {@link Sorting} strategy.
+ * <p>
+ * Name based strategies compare keys that are computed once per entry instead of folding the case
+ * of both names in every comparison. Lists larger than {@link #PARALLEL_THRESHOLD} are sorted with
+ * {@link Arrays#parallelSort(Object[], Comparator)}, smaller ones sequentially, because forking
+ * does not pay off for small directories.
+ * </p>
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * List<FileEntry> sorted = FileSorter.sort(entries, Sorting.NATURALASC, true);
+ * }</pre>
+ *
+ * @see Sorting
+ * @since 2.9.0
+ */
+public final class FileSorter {
+
+    /** The number of entries from which sorting is done in parallel. */
+    static final int PARALLEL_THRESHOLD = 10_000;
+
+    /**
+     * An entry together with its precomputed sort key.
+     *
+     * @param entry the sorted entry
+     * @param key   the lower-case name of the entry
+     */
+    private record SortKey(FileEntry entry, String key) {}
+
+    private FileSorter() {}
+
+    /**
+     * Returns a new list with the given entries in the order defined by the sorting strategy.
+     *
+     * @param entries          the entries to sort; the list is not modified
+     * @param sorting          the sorting strategy
+     * @param directoriesFirst whether directories should be placed before files
+     * @return the sorted entries
+     */
+    public static List<FileEntry> sort(List<FileEntry> entries, Sorting sorting, boolean directoriesFirst) {
+        SortKey[] keys = new SortKey[entries.size()];
+        for (int i = 0; i < keys.length; i++) {
+            FileEntry entry = entries.get(i);
+            keys[i] = new SortKey(entry, entry.name().toLowerCase(Locale.ROOT));
+        }
+
+        Comparator<SortKey> comparator = getKeyComparator(sorting, directoriesFirst);
+        if (keys.length >= PARALLEL_THRESHOLD) {
+            Arrays.parallelSort(keys, comparator);
+        } else {
+            Arrays.sort(keys, comparator);
+        }
+
+        FileEntry[] sorted = new FileEntry[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            sorted[i] = keys[i].entry();
+        }
+        return Arrays.asList(sorted);
+    }
+
+    /**
+     * Returns a comparator of entries ordering them like {@link #sort(List, Sorting, boolean)}.
+     * Sort keys are computed on every comparison, so the comparator is meant for placing single entries
+     * into an already sorted list, e.g. with a binary search.
+     *
+     * @param sorting          the sorting strategy
+     * @param directoriesFirst whether directories should be placed before files
+     * @return the comparator
+     * @since 2.9.0
+     */
+    public static Comparator<FileEntry> getComparator(Sorting sorting, boolean directoriesFirst) {
+        Comparator<SortKey> comparator = getKeyComparator(sorting, directoriesFirst);
+        return (e1, e2) -> comparator.compare(new SortKey(e1, e1.name().toLowerCase(Locale.ROOT)), new SortKey(e2, e2.name().toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * Builds a comparator of precomputed keys for the given sorting strategy.
+     *
+     * @param sorting          the sorting strategy
+     * @param directoriesFirst whether directories should be placed before files
+     * @return the comparator
+     */
+    private static Comparator<SortKey> getKeyComparator(Sorting sorting, boolean directoriesFirst) {
+        Comparator<SortKey> comparator = switch (sorting) {
+            case NAMEASC -> (k1, k2) -> k1.key().compareTo(k2.key());
+            case NAMEDESC -> (k1, k2) -> k2.key().compareTo(k1.key());
+            case NATURALASC -> (k1, k2) -> compareNatural(k1.key(), k2.key());
+            case NATURALDESC -> (k1, k2) -> compareNatural(k2.key(), k1.key());
+            case DATEASC -> (k1, k2) -> Long.compare(k1.entry().lastModified(), k2.entry().lastModified());
+            case DATEDESC -> (k1, k2) -> Long.compare(k2.entry().lastModified(), k1.entry().lastModified());
+            case SIZEASC -> (k1, k2) -> Long.compare(k1.entry().size(), k2.entry().size());
+            case SIZEDESC -> (k1, k2) -> Long.compare(k2.entry().size(), k1.entry().size());
+        };
+
+        if (directoriesFirst) {
+            Comparator<SortKey> directories = (k1, k2) -> Boolean.compare(!k1.entry().directory(), !k2.entry().directory());
+            return directories.thenComparing(comparator);
+        }
+        return comparator;
+    }
+
+    /**
+     * Compares two names so that runs of digits are ordered by their numeric value,
+     * e.g. {@code "file2"} is placed before {@code "file10"}. Numbers of any length are supported;
+     * when two numbers are equal, the one with fewer leading zeros comes first.
+     *
+     * @param s1 the first name
+     * @param s2 the second name
+     * @return a negative integer, zero, or a positive integer as the first name is less than,
+     *         equal to, or greater than the second
+     */
+    static int compareNatural(String s1, String s2) {
+        int i1 = 0, i2 = 0;
+        int length1 = s1.length(), length2 = s2.length();
+
+        while (i1 < length1 && i2 < length2) {
+            char c1 = s1.charAt(i1);
+            char c2 = s2.charAt(i2);
+
+            if (isDigit(c1) && isDigit(c2)) {
+                int start1 = i1, start2 = i2;
+                while (i1 < length1 && s1.charAt(i1) == '0') i1++;
+                while (i2 < length2 && s2.charAt(i2) == '0') i2++;
+                int digits1 = i1, digits2 = i2;
+                while (i1 < length1 && isDigit(s1.charAt(i1))) i1++;
+                while (i2 < length2 && isDigit(s2.charAt(i2))) i2++;
+
+                int result = Integer.compare(i1 - digits1, i2 - digits2);
+                for (int j = 0; result == 0 && j < i1 - digits1; j++) {
+                    result = Character.compare(s1.charAt(digits1 + j), s2.charAt(digits2 + j));
+                }
+                if (result == 0) result = Integer.compare(digits1 - start1, digits2 - start2);
+                if (result != 0) return result;
+            } else {
+                if (c1 != c2) return Character.compare(c1, c2);
+                i1++;
+                i2++;
+            }
+        }
+        return Integer.compare(length1 - i1, length2 - i2);
+    }
+
+    /**
+     * Checks whether the character is an ASCII digit.
+     *
+     * @param c the character to check
+     * @return {@code true} if the character is between {@code '0'} and {@code '9'}
+     */
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
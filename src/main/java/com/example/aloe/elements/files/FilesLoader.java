@@ -3,18 +3,22 @@ package com.example.aloe.elements.files;
 import com.example.aloe.elements.navigation.NavigationPanel;
 import com.example.aloe.files.CurrentDirectory;
 import com.example.aloe.files.DirectoryHistory;
+import com.example.aloe.files.FileEntry;
+import com.example.aloe.files.search.FileSearchTask;
+import com.example.aloe.files.search.NameMatcher;
 import com.example.aloe.settings.Settings;
 import com.example.aloe.utils.Translator;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
-import javafx.scene.layout.FlowPane;
+import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import org.kordamp.ikonli.fontawesome.FontAwesome;
 import org.kordamp.ikonli.javafx.FontIcon;
 
 import java.io.File;
-import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The {@code FilesLoader} class is responsible for loading and displaying the content of directories
@@ -30,6 +34,23 @@ import java.util.List;
  * when directories are empty.
  * </p>
  * <p>
+ * Directories are listed on a background thread by a {@link DirectoryListingTask} and displayed
+ * in a virtualized {@link FilesView}, which creates file boxes only for the visible files.
+ * Loading another directory cancels a listing that is still running.
+ * </p>
+ * <p>
+ * While a directory is displayed, a {@link DirectoryWatcher} reports changes made by other applications,
+ * which are applied to the displayed entries without listing the directory again. Changes reported while
+ * the directory is still being listed are kept and applied once the listing is displayed.
+ * {@link #refresh()} lists the directory again in the background and applies only the differences
+ * in the same way, keeping the scroll position and the selection.
+ * </p>
+ * <p>
+ * The entries of a directory that is left are kept in a {@link ListingCache}. Going back to it, e.g. with
+ * {@link DirectoryHistory}, displays them at once at the position they were left at, as long as the directory
+ * has not been modified, and only refreshes them in the background.
+ * </p>
+ * <p>
  * Usage example:
  * <pre>
  * {@code
@@ -42,6 +63,47 @@ import java.util.List;
  */
 public class FilesLoader {
 
+    /**
+     * The listing task of the currently loaded directory, or {@code null} if no listing is running.
+     */
+    private static DirectoryListingTask currentListing;
+
+    /**
+     * The view displaying the files of the current directory, or {@code null} if no files are displayed.
+     */
+    private static FilesView currentView;
+
+    /**
+     * The listing task whose entries are displayed, which defines their filter and order,
+     * or {@code null} if no files are displayed.
+     */
+    private static DirectoryListingTask displayedListing;
+
+    /**
+     * The view type and file box size the displayed view has been created with.
+     */
+    private static String displayedLayout;
+
+    /**
+     * The running refresh of the displayed entries, or {@code null} if no refresh is running.
+     */
+    private static DirectoryRefreshTask currentRefresh;
+
+    /**
+     * The running search below the current directory, or {@code null} if no search is running.
+     */
+    private static FileSearchTask currentSearch;
+
+    /**
+     * The watcher of the current directory, or {@code null} if no directory is watched.
+     */
+    private static DirectoryWatcher currentWatcher;
+
+    /**
+     * Changes reported by the watcher while the current directory is still being listed.
+     */
+    private static final Map<File, FileEntry> pendingChanges = new HashMap<>();
+
     /**
      * Loads the content of the specified directory and displays it in the UI.
      * Optionally adds the directory to navigation history.
@@ -61,7 +123,13 @@ public class FilesLoader {
             rememberLastFolder(directory);
         }
 
+        cancelListing();
+        stopWatching();
+        rememberDisplayedListing(directory);
+
         if (isDisksView(directory)) {
+            currentView = null;
+            displayedListing = null;
             DisksLoader.load();
             NavigationPanel.updateFilesPath();
             return;
@@ -71,15 +139,9 @@ public class FilesLoader {
         FilesPane.resetPosition();
         FilesPane.get().setFitToHeight(false);
 
-        List<File> files = getSortedFiles(filterFiles(directory.listFiles()));
-
-        if (files.isEmpty()) {
-            FilesPane.set(createEmptyFolderMessage());
-            FilesPane.get().setFitToHeight(true);
-            return;
+        if (!showCachedListing(directory)) {
+            startListing(directory);
         }
-
-        displayFiles(files);
     }
 
     /**
@@ -92,10 +154,85 @@ public class FilesLoader {
     }
 
     /**
-     * Refreshes the current directory view by reloading its contents.
+     * Refreshes the current directory view. When the displayed entries can be kept, the directory is listed
+     * again in the background and only the entries that have been added, removed or changed are patched into
+     * the view, so the scroll position and the selection are kept. Otherwise, e.g. after the sorting or the
+     * view type has changed, the directory is reloaded.
      */
     public static void refresh() {
-        load(CurrentDirectory.get());
+        if (currentListing != null || currentView == null || displayedListing == null || !getLayout().equals(displayedLayout)) {
+            reload();
+            return;
+        }
+
+        DirectoryListingTask listing = new DirectoryListingTask(CurrentDirectory.get());
+        if (!listing.hasSameOptions(displayedListing)) {
+            reload();
+            return;
+        }
+
+        startRefresh(listing);
+    }
+
+    /**
+     * Lists the displayed directory again in the background and applies the differences to the displayed entries.
+     *
+     * @param listing the listing of the displayed directory, with the same options as the displayed entries
+     */
+    private static void startRefresh(DirectoryListingTask listing) {
+        cancelRefresh();
+        DirectoryRefreshTask refresh = new DirectoryRefreshTask(listing, List.copyOf(getDisplayedFiles()));
+        currentRefresh = refresh;
+        refresh.setOnSucceeded(e -> {
+            if (refresh != currentRefresh) return;
+            currentRefresh = null;
+            applyChanges(refresh.getValue());
+        });
+        refresh.setOnFailed(e -> {
+            if (refresh == currentRefresh) currentRefresh = null;
+            refresh.getException().printStackTrace();
+        });
+        refresh.start();
+    }
+
+    /**
+     * Searches the tree below the current directory for files whose names match and displays the matches
+     * as they are found, instead of the directory content. A search that is still running is cancelled,
+     * so calling this method again with a changed query restarts the search. Loading or refreshing
+     * a directory ends the search.
+     *
+     * @param matcher the matcher of the query
+     */
+    public static void search(NameMatcher matcher) {
+        File directory = CurrentDirectory.get();
+        if (isDisksView(directory)) return;
+
+        cancelListing();
+        stopWatching();
+        displayedListing = null;
+        showView(List.of());
+        FilesView results = currentView;
+
+        FileSearchTask search = new FileSearchTask(directory, matcher,
+                Boolean.TRUE.equals(Settings.getSetting("files", "show-hidden")), entries -> results.getFiles().addAll(entries));
+        currentSearch = search;
+        search.setOnSucceeded(e -> {
+            if (search == currentSearch) currentSearch = null;
+        });
+        search.setOnFailed(e -> {
+            if (search == currentSearch) currentSearch = null;
+            search.getException().printStackTrace();
+        });
+        search.start();
+    }
+
+    /**
+     * Returns the entries displayed in the current directory view, in display order.
+     *
+     * @return the displayed entries, or an empty list if no files are displayed
+     */
+    public static List<FileEntry> getDisplayedFiles() {
+        return currentView != null ? currentView.getFiles() : List.of();
     }
 
     /**
@@ -144,82 +281,206 @@ public class FilesLoader {
     }
 
     /**
-     * Filters the files array according to the user settings, such as whether to show hidden files.
+     * Starts listing the given directory on a background thread. The files are displayed
+     * once the listing succeeds, unless another directory has been loaded in the meantime.
      *
-     * @param files the array of files to filter (can be null)
-     * @return a list of files filtered according to user preferences
+     * @param directory the directory to list
      */
-    private static List<File> filterFiles(File[] files) {
-        if (files == null) return List.of();
-        boolean showHidden = Boolean.TRUE.equals(Settings.getSetting("files", "show-hidden"));
-        return Arrays.stream(files)
-                .filter(file -> showHidden || !file.isHidden())
-                .toList();
+    private static void startListing(File directory) {
+        DirectoryListingTask listing = new DirectoryListingTask(directory);
+        currentListing = listing;
+        startWatching(directory);
+
+        listing.setOnSucceeded(e -> {
+            if (listing != currentListing) return;
+
+            currentListing = null;
+            displayedListing = listing;
+            displayFiles(listing.getValue());
+
+            if (!pendingChanges.isEmpty()) {
+                Map<File, FileEntry> changes = new HashMap<>(pendingChanges);
+                pendingChanges.clear();
+                applyChanges(changes);
+            }
+        });
+        listing.setOnFailed(e -> {
+            if (listing == currentListing) currentListing = null;
+            listing.getException().printStackTrace();
+        });
+        listing.start();
     }
 
     /**
-     * Sorts the list of files based on user settings, including sorting criteria and
-     * whether directories should be displayed before files.
+     * Stores the displayed entries in the {@link ListingCache} before another directory is loaded.
      *
-     * @param files the list of files to sort
-     * @return a new list of sorted files
+     * @param directory the directory about to be loaded
      */
-    private static List<File> getSortedFiles(List<File> files) {
-        boolean directoriesFirst = Boolean.TRUE.equals(Settings.getSetting("files", "display-directories-before-files"));
-        Sorting sorting = Sorting.safeValueOf(Settings.getSetting("files", "sorting").toString().toUpperCase());
+    private static void rememberDisplayedListing(File directory) {
+        if (displayedListing == null || displayedListing.getDirectory().equals(directory)) return;
 
-        return files.stream()
-                .sorted((f1, f2) -> compareFiles(f1, f2, directoriesFirst, sorting))
-                .toList();
+        int firstVisible = currentView != null ? currentView.getFirstVisibleFile() : 0;
+        ListingCache.put(displayedListing, getDisplayedFiles(), firstVisible);
     }
 
     /**
-     * Compares two files for sorting purposes based on whether directories come first and
-     * the selected sorting order.
+     * Displays the cached entries of a directory, if they are still valid, at the position they were left at.
+     * The directory is then listed again in the background to pick up changed file attributes, which do
+     * not change the modification time of the directory.
      *
-     * @param f1             the first file to compare
-     * @param f2             the second file to compare
-     * @param directoriesFirst whether directories should be sorted before files
-     * @param sorting        the sorting criteria to apply
-     * @return negative integer, zero, or positive integer as the first file is less than,
-     * equal to, or greater than the second
+     * @param directory the directory to display
+     * @return {@code true} if the cached entries are displayed
+     */
+    private static boolean showCachedListing(File directory) {
+        DirectoryListingTask listing = new DirectoryListingTask(directory);
+        ListingCache.Snapshot snapshot = ListingCache.take(listing);
+        if (snapshot == null) return false;
+
+        displayedListing = listing;
+        displayFiles(snapshot.entries());
+        if (currentView != null) currentView.scrollToFile(snapshot.firstVisible());
+
+        startWatching(directory);
+        startRefresh(listing);
+        return true;
+    }
+
+    /**
+     * Starts watching the given directory for changes made outside of the application.
+     *
+     * @param directory the displayed directory
+     */
+    private static void startWatching(File directory) {
+        currentWatcher = new DirectoryWatcher(DirectoryListingTask.getListedDirectories(directory), FilesLoader::applyChanges, FilesLoader::reload);
+        currentWatcher.start();
+    }
+
+    /**
+     * Stops watching the previously loaded directory and drops its pending changes.
+     */
+    private static void stopWatching() {
+        if (currentWatcher != null) {
+            currentWatcher.close();
+            currentWatcher = null;
+        }
+        pendingChanges.clear();
+    }
+
+    /**
+     * Applies changes reported by the watcher or a refresh to the displayed entries. Removed files are
+     * also removed from the selection. Changes arriving while the directory
+     * is still being listed are kept until the listing is displayed. A previously empty directory is listed again.
+     *
+     * @param changes the changed files mapped to their new entries, or to {@code null} if they have been removed
+     */
+    private static void applyChanges(Map<File, FileEntry> changes) {
+        if (currentListing != null) {
+            pendingChanges.putAll(changes);
+            return;
+        }
+        if (displayedListing == null) return;
+
+        if (currentView == null) {
+            if (changes.values().stream().anyMatch(entry -> entry != null && displayedListing.isShown(entry))) {
+                reload();
+            }
+            return;
+        }
+        changes.forEach((file, entry) -> {
+            if (entry == null) SelectedFileBoxes.remove(file);
+        });
+        currentView.applyChanges(changes, displayedListing.getComparator(), displayedListing::isShown);
+        if (currentView.getFiles().isEmpty()) reload();
+    }
+
+    /**
+     * Lists the current directory again without adding it to the history.
+     */
+    private static void reload() {
+        load(CurrentDirectory.get(), false);
+    }
+
+    /**
+     * Cancels the listing of the previously loaded directory, if it is still running.
      */
-    private static int compareFiles(File f1, File f2, boolean directoriesFirst, Sorting sorting) {
-        if (directoriesFirst) {
-            if (f1.isDirectory() && !f2.isDirectory()) return -1;
-            if (!f1.isDirectory() && f2.isDirectory()) return 1;
+    private static void cancelListing() {
+        if (currentListing != null) {
+            currentListing.cancel();
+            currentListing = null;
         }
+        cancelRefresh();
+        cancelSearch();
+    }
 
-        return switch (sorting) {
-            case NAMEASC -> f1.getName().compareToIgnoreCase(f2.getName());
-            case NAMEDESC -> f2.getName().compareToIgnoreCase(f1.getName());
-            case DATEASC -> Long.compare(f1.lastModified(), f2.lastModified());
-            case DATEDESC -> Long.compare(f2.lastModified(), f1.lastModified());
-            case SIZEASC -> Long.compare(f1.length(), f2.length());
-            case SIZEDESC -> Long.compare(f2.length(), f1.length());
-        };
+    /**
+     * Cancels the search below the current directory, if it is still running.
+     */
+    private static void cancelSearch() {
+        if (currentSearch != null) {
+            currentSearch.cancel();
+            currentSearch = null;
+        }
+    }
+
+    /**
+     * Cancels the refresh of the displayed entries, if it is still running.
+     */
+    private static void cancelRefresh() {
+        if (currentRefresh != null) {
+            currentRefresh.cancel();
+            currentRefresh = null;
+        }
+    }
+
+    /**
+     * Returns the view type and file box size configured in settings, which the displayed view depends on.
+     *
+     * @return a description of the configured layout
+     */
+    private static String getLayout() {
+        return Settings.getSetting("files", "view") + ":" + Settings.getSetting("files", "file-box-size");
     }
 
     /**
      * Displays the list of files in the UI either as a list or grid depending on user settings.
+     * Both views are virtualized, so only the visible files get a {@link FileBox} node.
+     * An empty list is displayed as the empty folder message.
      *
      * @param files the list of files to display
      */
-    private static void displayFiles(List<File> files) {
+    private static void displayFiles(List<FileEntry> files) {
+        displayedLayout = getLayout();
+        if (files.isEmpty()) {
+            currentView = null;
+            FilesPane.set(createEmptyFolderMessage());
+            FilesPane.get().setFitToHeight(true);
+            return;
+        }
+        showView(files);
+    }
+
+    /**
+     * Displays the given files in a new list or grid view, depending on user settings.
+     *
+     * @param files the files to display, possibly none
+     */
+    private static void showView(List<FileEntry> files) {
         boolean listView = "list".equals(Settings.getSetting("files", "view"));
         if (listView) {
-            VBox list = new VBox();
-            list.setAlignment(Pos.TOP_CENTER);
-            list.setFillWidth(true);
-            list.getStyleClass().add("transparent");
-            list.getChildren().add(HorizontalFileBox.getInfoPanel());
-            files.forEach(file -> list.getChildren().add(new HorizontalFileBox(file)));
-            FilesPane.set(list);
+            FileListView list = new FileListView(files);
+            VBox box = new VBox(HorizontalFileBox.getInfoPanel(), list);
+            box.setAlignment(Pos.TOP_CENTER);
+            box.setFillWidth(true);
+            box.getStyleClass().add("transparent");
+            VBox.setVgrow(list, Priority.ALWAYS);
+            currentView = list;
+            FilesPane.set(box);
         } else {
-            FlowPane grid = new FlowPane(5, 5);
-            files.forEach(file -> grid.getChildren().add(new VerticalFileBox(file)));
+            FileGridView grid = new FileGridView(files);
+            currentView = grid;
             FilesPane.set(grid);
         }
+        FilesPane.get().setFitToHeight(true);
     }
 
     /**
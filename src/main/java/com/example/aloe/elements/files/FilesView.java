@@ -0,0 +1,86 @@
+package com.example.aloe.elements.files;
+
+import com.example.aloe.files.FileEntry;
+import javafx.collections.ObservableList;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Common contract of the virtualized views that display the content of the current directory.
+ * <p>
+ * A files view keeps only a lightweight list of {@link FileEntry} snapshots as its model and creates
+ * {@link FileBox} nodes just for the rows that are visible. Boxes are recycled while scrolling,
+ * so the number of nodes does not depend on the number of files in the directory.
+ * </p>
+ *
+ * <p>
+ * Changes of the directory are applied to the model with {@link #applyChanges(Map, Comparator, Predicate)},
+ * which removes, inserts and replaces only the affected entries, so the boxes of the other files and the
+ * scroll position stay as they are.
+ * </p>
+ *
+ * @see FileListView
+ * @see FileGridView
+ * @since 2.9.0
+ */
+interface FilesView {
+
+    /**
+     * Returns the modifiable list of entries displayed by this view, in display order.
+     * Changes to the list are reflected in the view.
+     *
+     * @return the displayed entries
+     */
+    ObservableList<FileEntry> getFiles();
+
+    /**
+     * Returns the index of the first displayed entry that is at least partly visible.
+     *
+     * @return the index of the first visible entry, or {@code 0} if the view has not been laid out
+     */
+    int getFirstVisibleFile();
+
+    /**
+     * Scrolls the view so that the given entry is the first visible one. If the view has not been laid out
+     * yet, it is scrolled once its size is known.
+     *
+     * @param index the index of the entry
+     */
+    void scrollToFile(int index);
+
+    /**
+     * Applies changes of the directory to the displayed entries. Removed and changed entries are taken out,
+     * and new and changed entries that pass the filter are inserted at their sorted position.
+     *
+     * @param changes the changed files mapped to their new entries, or to {@code null} if they have been removed
+     * @param order   the order of the displayed entries
+     * @param shown   whether an entry passes the filter of the view
+     */
+    default void applyChanges(Map<File, FileEntry> changes, Comparator<FileEntry> order, Predicate<FileEntry> shown) {
+        ObservableList<FileEntry> files = getFiles();
+        Set<File> unchanged = new HashSet<>();
+        for (int i = files.size() - 1; i >= 0; i--) {
+            FileEntry entry = files.get(i);
+            if (!changes.containsKey(entry.file())) continue;
+
+            if (entry.equals(changes.get(entry.file()))) {
+                unchanged.add(entry.file());
+            } else {
+                files.remove(i);
+            }
+        }
+
+        for (FileEntry entry : changes.values()) {
+            if (entry == null || unchanged.contains(entry.file()) || !shown.test(entry)) continue;
+
+            int index = Collections.binarySearch(files, entry, order);
+            files.add(index < 0 ? -index - 1 : index, entry);
+        }
+    }
+}
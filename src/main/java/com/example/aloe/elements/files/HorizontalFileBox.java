@@ -1,6 +1,7 @@
 package com.example.aloe.elements.files;
 
 import com.example.aloe.components.HBoxSpacer;
+import com.example.aloe.files.FileEntry;
 import com.example.aloe.files.properties.FileProperties;
 import com.example.aloe.utils.Translator;
 import com.example.aloe.utils.UnitConverter;
@@ -14,6 +15,10 @@ import org.kordamp.ikonli.javafx.FontIcon;
 import oshi.software.os.OSFileStore;
 
 import java.io.File;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 
 /**
  * A specialized {@link FileBox} implementation that presents file or disk information
@@ -32,25 +37,35 @@ import java.io.File;
  */
 class HorizontalFileBox extends FileBox {
 
+    /** The format of the modification time column. */
+    private static final DateTimeFormatter MODIFIED_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
+
     /** The main horizontal container holding file or disk information. */
     private final HBox content = new HBox();
 
+    /** The label showing the last modification time of the file. */
+    private Label modified;
+
+    /** The label showing the size of the file or the number of items in the directory. */
+    private Label size;
+
     /**
      * Constructs a {@code HorizontalFileBox} representing a file or folder.
      *
-     * @param file the file or directory to represent
+     * @param entry the attribute snapshot of the file or directory to represent
      */
-    HorizontalFileBox(File file) {
-        super(file);
+    HorizontalFileBox(FileEntry entry) {
+        super(entry);
         initContent();
 
         Label name = getName();
         name.setMaxWidth(Double.MAX_VALUE);
         name.setAlignment(Pos.CENTER_LEFT);
-        FileProperties fileProperties = new FileProperties(this.getFile());
         VBox.setMargin(this, new Insets(1, 15, 2, 15));
+        this.modified = getModified();
+        this.size = getSize();
 
-        this.content.getChildren().addAll(getImageBox(30, new Insets(2, 10, 2, 10)), name, new HBoxSpacer(), getModified(fileProperties), getSize(fileProperties));
+        this.content.getChildren().addAll(getImageBox(30, new Insets(2, 10, 2, 10)), name, new HBoxSpacer(), this.modified, this.size);
         this.getChildren().add(content);
     }
 
@@ -80,6 +95,34 @@ class HorizontalFileBox extends FileBox {
         }
     }
 
+    /**
+     * Updates the icon, name, modification date and size after the box has been bound to another file.
+     */
+    @Override
+    protected void updateContent() {
+        super.updateContent();
+        this.modified.setText(getModifiedText());
+        this.size.setText(getSizeText());
+    }
+
+    /**
+     * Formats the last modification time held by the file entry.
+     *
+     * @return the formatted modification time
+     */
+    private String getModifiedText() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(this.entry.lastModified()), ZoneId.systemDefault()).format(MODIFIED_FORMAT);
+    }
+
+    /**
+     * Returns the short size of the file held by the file entry, or the number of items for directories.
+     *
+     * @return the formatted size
+     */
+    private String getSizeText() {
+        return this.entry.directory() ? new FileProperties(this.getFile()).getShortSize() : UnitConverter.convert(this.entry.size());
+    }
+
     /**
      * Initializes the main HBox layout for the file or disk content.
      * Sets padding, spacing, and resizes with the parent container.
@@ -142,11 +185,10 @@ class HorizontalFileBox extends FileBox {
     /**
      * Creates a label showing the last modified time of a file.
      *
-     * @param properties file properties to extract modification time
      * @return label with formatted modified date
      */
-    private Label getModified(FileProperties properties) {
-        Label label = new Label(properties.getModifiedTime());
+    private Label getModified() {
+        Label label = new Label(getModifiedText());
         label.setMinWidth(140);
         label.getStyleClass().add("text");
         return label;
@@ -155,11 +197,10 @@ class HorizontalFileBox extends FileBox {
     /**
      * Creates a label showing the size of the file in a short human-readable format.
      *
-     * @param properties file properties to extract size
      * @return label with formatted size
      */
-    private Label getSize(FileProperties properties) {
-        Label size = new Label(properties.getShortSize());
+    private Label getSize() {
+        Label size = new Label(getSizeText());
         size.setMinWidth(80);
         size.getStyleClass().add("text");
         HBox.setMargin(size, new Insets(0, 15, 0, 20));
@@ -0,0 +1,80 @@
+package com.example.aloe.elements.files;
+
+import javafx.scene.image.Image;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodes the icons in {@code /assets/icons/} once and shares the resulting {@link Image}s.
+ * <p>
+ * Every icon is read from the resources and decoded only the first time it is requested at a given size;
+ * later requests return the same {@code Image} instance. A directory with thousands of files therefore
+ * holds one decoded copy of each distinct icon instead of one per file. Icons are decoded at the size they
+ * are displayed at, rounded up to whole pixels, so no memory is spent on pixels that are never shown.
+ * Images are immutable, so the shared instances can be used by any number of {@code ImageView}s and from
+ * any thread.
+ * </p>
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * imageView.setImage(IconRegistry.get("folder", 60));
+ * }</pre>
+ *
+ * @see FileImage
+ * @since 2.9.0
+ */
+public final class IconRegistry {
+
+    /** The icon used when a requested icon does not exist. */
+    static final String FALLBACK = "file";
+
+    /** The decoded icons by name and size. */
+    private static final Map<String, Image> icons = new ConcurrentHashMap<>();
+
+    private IconRegistry() {}
+
+    /**
+     * Returns an icon at its original size.
+     *
+     * @param name the base name of the icon file, e.g. {@code "folder"}
+     * @return the shared icon
+     */
+    public static Image get(String name) {
+        return get(name, 0);
+    }
+
+    /**
+     * Returns an icon decoded to fit into a square of the given size.
+     *
+     * @param name the base name of the icon file, e.g. {@code "folder"}
+     * @param size the display size in pixels, or {@code 0} for the original size
+     * @return the shared icon; the {@code file} icon if the requested one does not exist
+     */
+    public static Image get(String name, double size) {
+        int pixels = (int) Math.ceil(Math.max(0, size));
+        return icons.computeIfAbsent(name + '@' + pixels, key -> load(name, pixels));
+    }
+
+    /**
+     * Decodes an icon from the resources.
+     *
+     * @param name   the base name of the icon file
+     * @param pixels the size to decode the icon at, or {@code 0} for the original size
+     * @return the decoded icon
+     */
+    private static Image load(String name, int pixels) {
+        try (InputStream stream = IconRegistry.class.getResourceAsStream("/assets/icons/" + name + ".png")) {
+            if (stream == null) {
+                if (name.equals(FALLBACK)) throw new IllegalStateException("Missing icon: " + name);
+                return load(FALLBACK, pixels);
+            }
+            return new Image(stream, pixels, pixels, true, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
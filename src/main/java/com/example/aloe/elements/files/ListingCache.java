@@ -0,0 +1,145 @@
+package com.example.aloe.elements.files;
+
+import com.example.aloe.files.FileEntry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the entries of recently displayed directories, so going back to one of them displays it at once.
+ * <p>
+ * When another directory is loaded, the entries of the displayed one are stored as a {@link Snapshot}
+ * together with their filter and order, the first visible entry and the modification times of the listed
+ * directories. Loading the directory again takes the snapshot out of the cache instead of listing the
+ * directory. A snapshot is only used while the listing options are the same and the modification times
+ * of the directories have not changed, i.e. no file has been added, removed or renamed since.
+ * </p>
+ *
+ * <p>
+ * The cache is a least recently used map bounded by {@link #BUDGET} bytes, estimated from the number
+ * and the path lengths of the entries, and by {@link #MAX_SNAPSHOTS} directories. Its methods must be
+ * called on the JavaFX application thread.
+ * </p>
+ *
+ * @see FilesLoader
+ * @since 2.9.0
+ */
+final class ListingCache {
+
+    /** The maximum estimated size of all snapshots, in bytes. */
+    static final long BUDGET = Math.min(64L << 20, Runtime.getRuntime().maxMemory() / 16);
+
+    /** The maximum number of cached directories. */
+    static final int MAX_SNAPSHOTS = 32;
+
+    /** The estimated size of an entry without its strings, in bytes. */
+    private static final long ENTRY_SIZE = 128;
+
+    /** The snapshots by directory, from the least to the most recently used. */
+    private static final Map<File, Snapshot> snapshots = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** The estimated size of all snapshots, in bytes. */
+    private static long size;
+
+    private ListingCache() {}
+
+    /**
+     * The displayed state of a directory.
+     *
+     * @param listing      the listing whose filter and order the entries follow
+     * @param entries      the displayed entries, in display order
+     * @param modified     the modification times of the listed directories when the snapshot was taken
+     * @param firstVisible the index of the first visible entry
+     * @param bytes        the estimated size of the snapshot, in bytes
+     */
+    record Snapshot(DirectoryListingTask listing, List<FileEntry> entries, List<Long> modified, int firstVisible, long bytes) {}
+
+    /**
+     * Stores the displayed state of a directory, replacing an older snapshot of it. Snapshots larger
+     * than the budget and directories whose modification time cannot be read are not stored.
+     *
+     * @param listing      the listing whose filter and order the entries follow
+     * @param entries      the displayed entries, in display order
+     * @param firstVisible the index of the first visible entry
+     */
+    static void put(DirectoryListingTask listing, List<FileEntry> entries, int firstVisible) {
+        File directory = listing.getDirectory();
+        remove(directory);
+
+        List<Long> modified = readModified(directory);
+        long bytes = estimate(entries);
+        if (modified == null || bytes > BUDGET) return;
+
+        snapshots.put(directory, new Snapshot(listing, List.copyOf(entries), modified, firstVisible, bytes));
+        size += bytes;
+
+        Iterator<Snapshot> eldest = snapshots.values().iterator();
+        while ((size > BUDGET || snapshots.size() > MAX_SNAPSHOTS) && eldest.hasNext()) {
+            size -= eldest.next().bytes();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Removes and returns the snapshot of a directory, if it is still valid for the given listing.
+     *
+     * @param listing the listing that would otherwise be run
+     * @return the snapshot, or {@code null} if there is none or it is out of date
+     */
+    static Snapshot take(DirectoryListingTask listing) {
+        Snapshot snapshot = remove(listing.getDirectory());
+        if (snapshot == null || !snapshot.listing().hasSameOptions(listing)) return null;
+        if (!snapshot.modified().equals(readModified(listing.getDirectory()))) return null;
+        return snapshot;
+    }
+
+    /**
+     * Removes the snapshot of a directory.
+     *
+     * @param directory the directory
+     * @return the removed snapshot, or {@code null} if there was none
+     */
+    static Snapshot remove(File directory) {
+        Snapshot snapshot = snapshots.remove(directory);
+        if (snapshot != null) size -= snapshot.bytes();
+        return snapshot;
+    }
+
+    /**
+     * Reads the modification times of the directories listed for a directory.
+     *
+     * @param directory the displayed directory
+     * @return the modification times in milliseconds, or {@code null} if one of them cannot be read
+     */
+    private static List<Long> readModified(File directory) {
+        List<Long> modified = new ArrayList<>();
+        for (File listed : DirectoryListingTask.getListedDirectories(directory)) {
+            try {
+                modified.add(Files.getLastModifiedTime(listed.toPath()).toMillis());
+            } catch (IOException | SecurityException e) {
+                return null;
+            }
+        }
+        return modified;
+    }
+
+    /**
+     * Estimates the memory held by a list of entries.
+     *
+     * @param entries the entries
+     * @return the estimated size in bytes
+     */
+    private static long estimate(List<FileEntry> entries) {
+        long bytes = 0;
+        for (FileEntry entry : entries) {
+            bytes += ENTRY_SIZE + 2L * (entry.file().getPath().length() + entry.name().length());
+        }
+        return bytes;
+    }
+}
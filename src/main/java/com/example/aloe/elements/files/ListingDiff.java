@@ -0,0 +1,50 @@
+package com.example.aloe.elements.files;
+
+import com.example.aloe.files.FileEntry;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Computes the changes between two listings of the same directory, keyed by file.
+ * <p>
+ * Changes are expressed as a map from each affected file to its new entry, with a {@code null} value for
+ * removed files. Added files and files whose attributes changed, e.g. their modification time or size,
+ * map to their current entry. Unchanged files are left out, so the size of the result depends only on
+ * what has changed, not on the size of the directory.
+ * </p>
+ *
+ * @see DirectoryWatcher
+ * @see FilesView#applyChanges(Map, java.util.Comparator, java.util.function.Predicate)
+ * @since 2.9.0
+ */
+final class ListingDiff {
+
+    private ListingDiff() {}
+
+    /**
+     * Computes the changes turning one listing into another.
+     *
+     * @param previous the previous entries
+     * @param current  the current entries
+     * @return the changed files mapped to their new entries, or to {@code null} if they have been removed
+     */
+    static Map<File, FileEntry> diff(Collection<FileEntry> previous, Collection<FileEntry> current) {
+        Map<File, FileEntry> before = new HashMap<>(previous.size() * 2);
+        for (FileEntry entry : previous) {
+            before.put(entry.file(), entry);
+        }
+
+        Map<File, FileEntry> changes = new HashMap<>();
+        for (FileEntry entry : current) {
+            FileEntry old = before.remove(entry.file());
+            if (!entry.equals(old)) changes.put(entry.file(), entry);
+        }
+        for (File removed : before.keySet()) {
+            changes.put(removed, null);
+        }
+        return changes;
+    }
+}
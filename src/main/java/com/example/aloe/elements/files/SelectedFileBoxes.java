@@ -1,9 +1,12 @@
 package com.example.aloe.elements.files;
 
 import java.io.File;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.stream.Collectors;
 
 /**
  * Utility class responsible for managing the current selection state of {@link FileBox} instances.
@@ -12,7 +15,11 @@ import java.util.Set;
  * in the application. It maintains the selection state in a globally accessible context,
  * allowing consistent behavior across file-related UI components.
  * <p>
- * The internal order of selection is preserved using a {@link LinkedHashSet}.
+ * The selection is stored as a set of selected files rather than file box nodes, because
+ * file boxes are recycled by the virtualized files views and may display a different file
+ * after scrolling. The internal order of selection is preserved using a {@link LinkedHashSet}.
+ * Every file box registers itself here so the selection style can be kept in sync with the
+ * file it currently displays.
  *
  * <p>Usage example:
  * <pre>{@code
@@ -24,60 +31,107 @@ import java.util.Set;
  */
 public class SelectedFileBoxes {
 
-    /** Holds the currently selected FileBox instances in insertion order. */
-    private static final Set<FileBox> selectedFileBoxes = new LinkedHashSet<>();
+    /** Holds the currently selected files in insertion order. */
+    private static final Set<File> selectedFiles = new LinkedHashSet<>();
+
+    /** Holds the file boxes that are currently alive, without preventing their garbage collection. */
+    private static final Set<FileBox> fileBoxes = Collections.newSetFromMap(new WeakHashMap<>());
 
     /**
-     * Adds the specified {@link FileBox} to the selection set.
+     * Registers a file box, so its selection style can be updated when the selection changes.
+     *
+     * @param fb the FileBox to register
+     */
+    static void register(FileBox fb) {
+        fileBoxes.add(fb);
+    }
+
+    /**
+     * Adds the file of the specified {@link FileBox} to the selection set.
      *
      * @param fb the FileBox to add
      */
     public static void add(FileBox fb) {
-        selectedFileBoxes.add(fb);
+        selectedFiles.add(fb.getFile());
     }
 
     /**
-     * Removes the specified {@link FileBox} from the selection set.
+     * Adds the specified file to the selection set, whether or not it is currently displayed.
+     *
+     * @param file the file to add
+     */
+    public static void add(File file) {
+        selectedFiles.add(file);
+    }
+
+    /**
+     * Removes the file of the specified {@link FileBox} from the selection set.
      *
      * @param fb the FileBox to remove
      */
     public static void remove(FileBox fb) {
-        selectedFileBoxes.remove(fb);
+        selectedFiles.remove(fb.getFile());
     }
 
     /**
-     * Clears all current selections and removes selection styling from all selected FileBoxes.
+     * Removes the specified file from the selection set, whether or not it is currently displayed.
+     *
+     * @param file the file to remove
+     */
+    public static void remove(File file) {
+        selectedFiles.remove(file);
+    }
+
+    /**
+     * Clears all current selections and removes selection styling from all file boxes.
      */
     public static void removeSelection() {
-        selectedFileBoxes.forEach(FileBox::removeSelectedStyle);
-        selectedFileBoxes.clear();
+        selectedFiles.clear();
+        fileBoxes.forEach(FileBox::removeSelectedStyle);
     }
 
     /**
-     * Checks whether the specified {@link FileBox} is currently selected.
+     * Checks whether the file of the specified {@link FileBox} is currently selected.
      *
      * @param fb the FileBox to check
      * @return {@code true} if the FileBox is selected, {@code false} otherwise
      */
     public static boolean isSelected(FileBox fb) {
-        return selectedFileBoxes.contains(fb);
+        return isSelected(fb.getFile());
+    }
+
+    /**
+     * Checks whether the specified file is currently selected.
+     *
+     * @param file the file to check
+     * @return {@code true} if the file is selected, {@code false} otherwise
+     */
+    public static boolean isSelected(File file) {
+        return selectedFiles.contains(file);
     }
 
     /**
-     * Returns a list of {@link File} objects corresponding to the currently selected FileBoxes.
+     * Returns a list of the currently selected files.
      *
      * @return a list of selected files
      */
     public static List<File> getSelectedFiles() {
-        return selectedFileBoxes.stream().map(FileBox::getFile).toList();
+        return List.copyOf(selectedFiles);
     }
 
     /**
-     * Returns an immutable copy of the currently selected {@link FileBox} instances.
+     * Returns an immutable copy of the displayed {@link FileBox} instances whose files are selected.
      *
      * @return a set of selected FileBoxes
      */
     public static Set<FileBox> getSelectedFileBoxes() {
-        return Set.copyOf(selectedFileBoxes);
+        return fileBoxes.stream().filter(SelectedFileBoxes::isSelected).collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Re-applies the selection style to every registered file box.
+     */
+    static void updateStyles() {
+        fileBoxes.forEach(FileBox::updateSelectedStyle);
     }
 }
@@ -12,6 +12,8 @@ package com.example.aloe.elements.files;
  * <ul>
  *     <li>{@code NAMEASC} – Sort by file name in ascending (A-Z) order.</li>
  *     <li>{@code NAMEDESC} – Sort by file name in descending (Z-A) order.</li>
+ *     <li>{@code NATURALASC} – Sort by file name in ascending order, comparing numbers by value.</li>
+ *     <li>{@code NATURALDESC} – Sort by file name in descending order, comparing numbers by value.</li>
  *     <li>{@code DATEASC} – Sort by modification date from oldest to newest.</li>
  *     <li>{@code DATEDESC} – Sort by modification date from newest to oldest.</li>
  *     <li>{@code SIZEASC} – Sort by file size from smallest to largest.</li>
@@ -24,6 +26,8 @@ package com.example.aloe.elements.files;
 public enum Sorting {
     NAMEASC,
     NAMEDESC,
+    NATURALASC,
+    NATURALDESC,
     DATEASC,
     DATEDESC,
     SIZEASC,
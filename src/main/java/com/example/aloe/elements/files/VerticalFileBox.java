@@ -1,11 +1,10 @@
 package com.example.aloe.elements.files;
 
+import com.example.aloe.files.FileEntry;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.layout.VBox;
 
-import java.io.File;
-
 /**
  * A visual file representation arranged vertically,
  * showing the file's icon and name stacked top to bottom.
@@ -23,10 +22,10 @@ class VerticalFileBox extends FileBox {
     /**
      * Constructs a {@code VerticalFileBox} for a given file or directory.
      *
-     * @param file the file or folder to be displayed
+     * @param entry the attribute snapshot of the file or folder to be displayed
      */
-    public VerticalFileBox(File file) {
-        super(file);
+    public VerticalFileBox(FileEntry entry) {
+        super(entry);
         initContent();
         this.getChildren().add(content);
     }
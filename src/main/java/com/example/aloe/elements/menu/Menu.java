@@ -1,5 +1,6 @@
 package com.example.aloe.elements.menu;
 
+import com.example.aloe.files.search.NameIndexer;
 import com.example.aloe.settings.Settings;
 import com.example.aloe.window.MainWindow;
 import javafx.geometry.Insets;
@@ -202,11 +203,13 @@ public class Menu extends ScrollPane {
     }
 
     /**
-     * Saves the given list of menu items to {@link Settings}.
+     * Saves the given list of menu items to {@link Settings} and lets the {@link NameIndexer}
+     * follow the bookmarked directories.
      *
      * @param items the menu item list to persist
      */
     private static void saveMenuItems(List<Map<String, Object>> items) {
         Settings.setSetting("menu", "items", items);
+        NameIndexer.start();
     }
 }
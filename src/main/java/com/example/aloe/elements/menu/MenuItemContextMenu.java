@@ -2,14 +2,13 @@ package com.example.aloe.elements.menu;
 
 import com.example.aloe.components.ExtendedContextMenu;
 import com.example.aloe.components.ExtendedMenuItem;
+import com.example.aloe.elements.files.FilesLoader;
 import com.example.aloe.files.FilesOpener;
-import com.example.aloe.files.tasks.FileDeleteTask;
-import com.example.aloe.settings.Settings;
+import com.example.aloe.files.Trash;
 import com.example.aloe.window.PropertiesWindow;
 import com.example.aloe.window.interior.menu.EditMenuItemWindow;
 
 import java.io.File;
-import java.util.Arrays;
 
 /**
  * A context menu for individual {@link MenuItem} elements within the application menu system.
@@ -24,7 +23,7 @@ import java.util.Arrays;
  *
  * <p>Special handling is implemented for system placeholders:
  * <ul>
- *     <li><b>%trash%</b> — Enables an additional option to empty the trash directory.</li>
+ *     <li><b>%trash%</b> — Enables an additional option to empty the trash directories of all volumes.</li>
  *     <li><b>%disks%</b> — Removes the properties item as it is not relevant.</li>
  * </ul>
  *
@@ -48,9 +47,11 @@ class MenuItemContextMenu extends ExtendedContextMenu {
         this.getItems().addAll(open, edit, remove, properties);
 
         if (item.getPath().equals("%trash%")) {
-            File file = new File(Settings.getSetting("files", "trash").toString());
-            properties.setOnAction(e -> new PropertiesWindow(file));
-            ExtendedMenuItem empty = new ExtendedMenuItem("context-menu.empty", e -> new FileDeleteTask(Arrays.stream(file.listFiles()).toList(), true));
+            properties.setOnAction(e -> new PropertiesWindow(Trash.getHomeTrash()));
+            ExtendedMenuItem empty = new ExtendedMenuItem("context-menu.empty", e -> {
+                Trash.empty();
+                FilesLoader.refresh();
+            });
             this.getItems().add(3, empty);
         }
 
@@ -7,25 +7,31 @@ import com.example.aloe.elements.files.FilesLoader;
 import com.example.aloe.elements.files.Sorting;
 import com.example.aloe.files.CurrentDirectory;
 import com.example.aloe.files.FilesUtils;
+import com.example.aloe.files.search.NameMatcher;
+import com.example.aloe.files.search.SearchMode;
 import com.example.aloe.settings.SettingsWindow;
 import com.example.aloe.utils.Translator;
 import com.example.aloe.files.DirectoryHistory;
 import com.example.aloe.settings.Settings;
 import com.example.aloe.window.AboutWindow;
+import com.example.aloe.window.ContentSearchWindow;
 import com.example.aloe.window.ShortcutsWindow;
 import com.example.aloe.window.interior.DirectoryWindow;
 import com.example.aloe.window.interior.FileWindow;
+import javafx.animation.PauseTransition;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import javafx.util.Duration;
 import org.controlsfx.control.PopOver;
 import org.kordamp.ikonli.fontawesome.FontAwesome;
 import org.kordamp.ikonli.javafx.FontIcon;
 
 import java.io.File;
+import java.util.regex.PatternSyntaxException;
 
 /**
  * Represents the top navigation panel containing file navigation buttons,
@@ -38,6 +44,9 @@ public class NavigationPanel extends HBox {
     /** Toggle group for sorting radio buttons */
     private static ToggleGroup group = new ToggleGroup();
 
+    /** The time the search waits after the query has been typed before it starts, in milliseconds. */
+    private static final double SEARCH_DELAY = 250;
+
     /** Container for the file path UI */
     private static ResponsivePane filesPath = new ResponsivePane();
 
@@ -76,7 +85,7 @@ public class NavigationPanel extends HBox {
         this.getChildren().addAll(
                 getPreviousButton(), getNextButton(), getParentButton(), getRefreshButton(),
                 leftSpacer, filesPath, rightSpacer,
-                getSortButton(), getTasksButton(), getViewButton(), getOptionsButton()
+                getSearchButton(), getSortButton(), getTasksButton(), getViewButton(), getOptionsButton()
         );
     }
 
@@ -281,6 +290,89 @@ public class NavigationPanel extends HBox {
         return button;
     }
 
+    /**
+     * Creates the 'Search' button showing a popover with the search query.
+     */
+    private Button getSearchButton() {
+        Button button = getNavigationButton();
+        button.setGraphic(getIcon(FontAwesome.SEARCH, 20));
+        HBox.setMargin(button, new Insets(0, 0, 0, 15));
+        button.setTooltip(new Tooltip(Translator.translate("tooltip.navigate.search")));
+
+        PopOver popOver = new PopOver();
+        popOver.setArrowLocation(PopOver.ArrowLocation.TOP_CENTER);
+        popOver.setDetachable(false);
+        popOver.setContentNode(createSearchContent());
+
+        button.setOnMouseClicked(e -> popOver.show(button));
+        return button;
+    }
+
+    /**
+     * Creates the search popover content. The search restarts shortly after the query or the mode changes,
+     * and the current directory is displayed again when the query is cleared. A button opens the query
+     * in a {@link ContentSearchWindow} to search the content of the files instead of their names.
+     *
+     * @return the VBox containing the query field and the search modes
+     */
+    private VBox createSearchContent() {
+        VBox content = new VBox();
+        content.setPadding(new Insets(10, 7, 10, 7));
+        content.setSpacing(4);
+        content.setAlignment(Pos.TOP_LEFT);
+        content.getStyleClass().add("popover-content");
+
+        TextField query = new TextField();
+        query.getStyleClass().addAll("background", "text");
+        query.setPromptText(Translator.translate("navigation.search.prompt"));
+        query.setPrefWidth(250);
+
+        Label error = new Label();
+        error.getStyleClass().add("text");
+        error.setWrapText(true);
+        error.setMaxWidth(250);
+
+        ToggleGroup modes = new ToggleGroup();
+        content.getChildren().add(query);
+        for (SearchMode mode : SearchMode.values()) {
+            RadioButton radio = new RadioButton(Translator.translate("navigation.search." + mode.name().toLowerCase()));
+            radio.setToggleGroup(modes);
+            radio.setUserData(mode);
+            radio.getStyleClass().add("text");
+            content.getChildren().add(radio);
+        }
+        modes.selectToggle(modes.getToggles().getFirst());
+
+        Button contents = new Button(Translator.translate("navigation.search.contents"));
+        contents.getStyleClass().add("btn");
+        VBox.setMargin(contents, new Insets(4, 0, 0, 0));
+        contents.setOnAction(e -> {
+            File directory = CurrentDirectory.get();
+            if (directory.isDirectory()) new ContentSearchWindow(directory, query.getText());
+        });
+        content.getChildren().addAll(error, contents);
+
+        PauseTransition delay = new PauseTransition(Duration.millis(SEARCH_DELAY));
+        delay.setOnFinished(e -> {
+            error.setText("");
+            if (query.getText().isEmpty()) {
+                FilesLoader.refresh();
+                return;
+            }
+            try {
+                FilesLoader.search(NameMatcher.of(query.getText(), (SearchMode) modes.getSelectedToggle().getUserData()));
+            } catch (PatternSyntaxException ex) {
+                error.setText(ex.getDescription());
+            }
+        });
+        query.textProperty().addListener(observable -> delay.playFromStart());
+        modes.selectedToggleProperty().addListener(observable -> {
+            if (!query.getText().isEmpty()) delay.playFromStart();
+        });
+
+        return content;
+    }
+
     /**
      * Creates the 'Task Progress' button.
      */
@@ -303,7 +395,7 @@ public class NavigationPanel extends HBox {
     private Button getSortButton() {
         Button button = getNavigationButton();
         button.setGraphic(getIcon(FontAwesome.SORT_ALPHA_ASC, 20));
-        HBox.setMargin(button, new Insets(0, 5, 0, 15));
+        HBox.setMargin(button, new Insets(0, 5, 0, 5));
         button.setTooltip(new Tooltip(Translator.translate("tooltip.navigate.sort")));
 
         VBox content = createSortContent();
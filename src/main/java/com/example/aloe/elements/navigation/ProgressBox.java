@@ -1,11 +1,21 @@
 package com.example.aloe.elements.navigation;
 
+import com.example.aloe.components.HBoxSpacer;
+import com.example.aloe.utils.Translator;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.StringProperty;
 import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressBar;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import org.kordamp.ikonli.fontawesome.FontAwesome;
+import org.kordamp.ikonli.javafx.FontIcon;
+
+import java.util.function.Consumer;
 
 /**
  * A custom UI component that displays a title, a progress bar bound to a task's progress,
@@ -20,6 +30,19 @@ public class ProgressBox extends VBox {
     private static final double MIN_WIDTH = 200;
     private static final double MAX_WIDTH = 300;
     private static final double PROGRESS_BAR_HEIGHT = 10;
+    private static final int CONTROL_ICON_SIZE = 12;
+
+    /** The progress bar of the task. */
+    private ProgressBar progressBar;
+
+    /** The label bound to the description of the task. */
+    private Label descriptionLabel;
+
+    /** The pause and cancel buttons, or {@code null} if the task cannot be controlled. */
+    private HBox controls;
+
+    /** Whether the task has finished. */
+    private boolean finished;
 
     /**
      * Constructs a new {@code ProgressBox}.
@@ -30,7 +53,71 @@ public class ProgressBox extends VBox {
      */
     public ProgressBox(String title, DoubleProperty progress, StringProperty description) {
         configureLayout();
-        getChildren().addAll(createTitleLabel(title), createProgressBar(progress), createDescriptionLabel(description));
+        progressBar = createProgressBar(progress);
+        descriptionLabel = createDescriptionLabel(description);
+        getChildren().addAll(createTitleLabel(title), progressBar, descriptionLabel);
+    }
+
+    /**
+     * Constructs a new {@code ProgressBox} with an additional line of details below the description.
+     *
+     * @param title       The static title to display at the top.
+     * @param progress    A {@link DoubleProperty} bound to the progress bar (range 0.0–1.0).
+     * @param description A {@link StringProperty} bound to the description label.
+     * @param details     A {@link StringProperty} bound to the details label, e.g. throughput and remaining time.
+     * @since 2.9.0
+     */
+    public ProgressBox(String title, DoubleProperty progress, StringProperty description, StringProperty details) {
+        this(title, progress, description);
+        Label label = createDescriptionLabel(details);
+        label.setPadding(new Insets(0, 9, 7, 5));
+        getChildren().add(label);
+    }
+
+    /**
+     * Constructs a new {@code ProgressBox} with details and buttons to pause, resume and cancel the task.
+     *
+     * @param title       The static title to display at the top.
+     * @param progress    A {@link DoubleProperty} bound to the progress bar (range 0.0–1.0).
+     * @param description A {@link StringProperty} bound to the description label.
+     * @param details     A {@link StringProperty} bound to the details label, e.g. throughput and remaining time.
+     * @param onPause     Called with {@code true} when the task should pause and with {@code false} when it should resume.
+     * @param onCancel    Called when the task should be cancelled.
+     * @since 2.9.0
+     */
+    public ProgressBox(String title, DoubleProperty progress, StringProperty description, StringProperty details, Consumer<Boolean> onPause, Runnable onCancel) {
+        this(title, progress, description, details);
+        Label titleLabel = (Label) getChildren().getFirst();
+        controls = new HBox(createPauseButton(onPause), createControlButton(FontAwesome.TIMES, "task.cancel", onCancel));
+        controls.setAlignment(Pos.CENTER_RIGHT);
+        HBox header = new HBox(titleLabel, new HBoxSpacer(), controls);
+        header.setAlignment(Pos.CENTER_LEFT);
+        getChildren().set(0, header);
+    }
+
+    /**
+     * Marks the task as finished. The controls are removed and the description is replaced by the final status.
+     *
+     * @param status The final status of the task, e.g. "Done" or "Cancelled".
+     * @since 2.9.0
+     */
+    public void finish(String status) {
+        finished = true;
+        if (controls != null) controls.setVisible(false);
+        progressBar.progressProperty().unbind();
+        if (progressBar.getProgress() < 0) progressBar.setProgress(1);
+        descriptionLabel.textProperty().unbind();
+        descriptionLabel.setText(status);
+    }
+
+    /**
+     * Returns whether the task has finished.
+     *
+     * @return {@code true} if {@link #finish(String)} has been called
+     * @since 2.9.0
+     */
+    public boolean isFinished() {
+        return finished;
     }
 
     /**
@@ -70,6 +157,43 @@ public class ProgressBox extends VBox {
         return bar;
     }
 
+    /**
+     * Creates the button toggling between pausing and resuming the task.
+     *
+     * @param onPause Called with the new paused state.
+     * @return A configured {@link Button}.
+     */
+    private Button createPauseButton(Consumer<Boolean> onPause) {
+        Button button = createControlButton(FontAwesome.PAUSE, "task.pause", null);
+        button.setOnAction(e -> {
+            boolean pause = ((FontIcon) button.getGraphic()).getIconCode() == FontAwesome.PAUSE;
+            ((FontIcon) button.getGraphic()).setIconCode(pause ? FontAwesome.PLAY : FontAwesome.PAUSE);
+            button.getTooltip().setText(Translator.translate(pause ? "task.resume" : "task.pause"));
+            onPause.accept(pause);
+        });
+        return button;
+    }
+
+    /**
+     * Creates a small transparent button with an icon.
+     *
+     * @param icon    The icon of the button.
+     * @param tooltip The translation key of the tooltip.
+     * @param action  The action run on click, or {@code null}.
+     * @return A configured {@link Button}.
+     */
+    private Button createControlButton(FontAwesome icon, String tooltip, Runnable action) {
+        FontIcon fontIcon = FontIcon.of(icon);
+        fontIcon.setIconSize(CONTROL_ICON_SIZE);
+        fontIcon.getStyleClass().add("font-icon");
+        Button button = new Button();
+        button.getStyleClass().addAll("transparent", "cursor-hand");
+        button.setGraphic(fontIcon);
+        button.setTooltip(new Tooltip(Translator.translate(tooltip)));
+        if (action != null) button.setOnAction(e -> action.run());
+        return button;
+    }
+
     /**
      * Creates and binds a description label to the given string property.
      *
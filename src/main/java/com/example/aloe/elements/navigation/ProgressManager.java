@@ -2,9 +2,13 @@ package com.example.aloe.elements.navigation;
 
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.StringProperty;
+import javafx.scene.Node;
 import javafx.scene.layout.VBox;
 import org.controlsfx.control.PopOver;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 /**
  * Manages and displays a list of background tasks in a popover window.
  * <p>
@@ -16,11 +20,17 @@ import org.controlsfx.control.PopOver;
  * <p>
  * Tasks can be added dynamically using the {@link #addTask(String, DoubleProperty, StringProperty)} method.
  * The popover only appears when at least one task is present in the container.
+ * Finished tasks stay in the list until more than {@link #HISTORY_SIZE} of them have accumulated.
  *
  * @since 2.8.1
  */
 public class ProgressManager extends PopOver {
 
+    /**
+     * The maximum number of finished tasks kept in the list.
+     */
+    private static final int HISTORY_SIZE = 10;
+
     /**
      * The container VBox holding all {@link ProgressBox} nodes representing active tasks.
      * Shared across all instances of {@code ProgressManager}.
@@ -49,6 +59,41 @@ public class ProgressManager extends PopOver {
         container.getChildren().add(new ProgressBox(title, progress, description));
     }
 
+    /**
+     * Adds a new task with details and buttons to pause, resume and cancel it to the popover.
+     *
+     * @param title       The display title of the task.
+     * @param progress    The {@link DoubleProperty} representing the progress (0.0–1.0).
+     * @param description A {@link StringProperty} providing a dynamic description of the task.
+     * @param details     A {@link StringProperty} providing dynamic details of the task.
+     * @param onPause     Called with {@code true} to pause the task and with {@code false} to resume it.
+     * @param onCancel    Called to cancel the task.
+     * @return The {@link ProgressBox} of the task, to be passed to {@link #finishTask(ProgressBox, String)}.
+     * @since 2.9.0
+     */
+    public static ProgressBox addTask(String title, DoubleProperty progress, StringProperty description, StringProperty details, Consumer<Boolean> onPause, Runnable onCancel) {
+        ProgressBox box = new ProgressBox(title, progress, description, details, onPause, onCancel);
+        container.getChildren().add(box);
+        return box;
+    }
+
+    /**
+     * Marks a task as finished and removes the oldest finished tasks beyond {@link #HISTORY_SIZE}.
+     *
+     * @param box    The {@link ProgressBox} of the finished task.
+     * @param status The final status of the task.
+     * @since 2.9.0
+     */
+    public static void finishTask(ProgressBox box, String status) {
+        box.finish(status);
+        List<Node> finished = container.getChildren().stream()
+                .filter(node -> node instanceof ProgressBox progressBox && progressBox.isFinished())
+                .toList();
+        if (finished.size() > HISTORY_SIZE) {
+            container.getChildren().removeAll(finished.subList(0, finished.size() - HISTORY_SIZE));
+        }
+    }
+
     /**
      * Overrides the {@code show()} method to prevent showing an empty popover.
      * <p>
@@ -2,14 +2,21 @@ package com.example.aloe.files;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 /**
  * The {@code Checksum} class provides functionality for generating and verifying
  * checksums (hashes) of files using various hashing algorithms such as MD5, SHA-1, SHA-256, etc.
  *
- * <p>This class can be used to verify file integrity or to compare file contents.
+ * <p>This class can be used to verify file integrity or to compare file contents. To compare many files,
+ * {@link #digest(String)} returns the raw digest, and {@link #digestEnds(String, int)} hashes only the
+ * beginning and end of the file, which tells most different files of the same size apart without reading them.
  *
  * <p>Example usage:
  * <pre>{@code
@@ -23,6 +30,9 @@ import java.security.MessageDigest;
  */
 public class Checksum {
 
+    /** The size of the buffer the whole file is read through by {@link #digest(String)}. */
+    private static final int DIGEST_BUFFER_SIZE = 256 * 1024;
+
     /** The file for which the checksum will be generated or verified. */
     private final File file;
 
@@ -68,6 +78,87 @@ public class Checksum {
         }
     }
 
+    /**
+     * Computes the digest of the whole file.
+     *
+     * @param algorithm the name of the algorithm to use (e.g., "SHA-256")
+     * @return the digest
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the algorithm is not available
+     * @since 2.9.0
+     */
+    public byte[] digest(String algorithm) throws IOException {
+        MessageDigest digest = getDigest(algorithm);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(DIGEST_BUFFER_SIZE);
+            while (channel.read(buffer.clear()) != -1) {
+                digest.update(buffer.flip());
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Computes the digest of the first and last {@code length} bytes of the file. A file no longer than
+     * {@code 2 * length} bytes is hashed whole, so its digest equals {@link #digest(String)}.
+     *
+     * @param algorithm the name of the algorithm to use (e.g., "SHA-256")
+     * @param length    the number of bytes hashed at each end of the file
+     * @return the digest
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the algorithm is not available
+     * @since 2.9.0
+     */
+    public byte[] digestEnds(String algorithm, int length) throws IOException {
+        MessageDigest digest = getDigest(algorithm);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= 2L * length) {
+                ByteBuffer buffer = ByteBuffer.allocate((int) size);
+                readFully(channel, buffer, 0);
+                digest.update(buffer.flip());
+            } else {
+                ByteBuffer buffer = ByteBuffer.allocate(length);
+                readFully(channel, buffer, 0);
+                digest.update(buffer.flip());
+                readFully(channel, buffer.clear(), size - length);
+                digest.update(buffer.flip());
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Fills a buffer from a position of a channel, or up to the end of the channel.
+     *
+     * @param channel  the channel
+     * @param buffer   the buffer
+     * @param position the position to read from
+     * @throws IOException if the channel cannot be read
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read == -1) return;
+            position += read;
+        }
+    }
+
+    /**
+     * Creates a message digest for an algorithm.
+     *
+     * @param algorithm the name of the algorithm
+     * @return the message digest
+     * @throws IllegalArgumentException if the algorithm is not available
+     */
+    private static MessageDigest getDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Unknown checksum algorithm: " + algorithm, e);
+        }
+    }
+
     /**
      * Verifies that the checksum of the file matches the expected value.
      *
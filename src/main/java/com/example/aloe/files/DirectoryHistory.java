@@ -3,7 +3,7 @@ package com.example.aloe.files;
 import com.example.aloe.elements.files.FilesLoader;
 
 import java.io.File;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -14,15 +14,26 @@ import java.util.List;
  * <p>The history is maintained using a list of {@link File} objects,
  * with an internal position tracker indicating the current directory.
  * Users can navigate backward and forward through the directory history.</p>
+ *
+ * <p>The history holds at most {@link #MAX_SIZE} directories; the oldest ones are dropped first.
+ * Going back or forward displays the entries cached when the directory was left, if they are
+ * still valid, instead of listing the directory again.</p>
  * <p>
  * * @since 1.4.4
  */
 public class DirectoryHistory {
 
+    /**
+     * The maximum number of directories kept in the history.
+     *
+     * @since 2.9.0
+     */
+    public static final int MAX_SIZE = 100;
+
     /**
      * List storing the history of accessed directories.
      */
-    private static final List<File> files = new LinkedList<>();
+    private static final List<File> files = new ArrayList<>();
 
     /**
      * The current position in the directory history.
@@ -36,6 +47,9 @@ public class DirectoryHistory {
      */
     public static void addDirectory(File file) {
         files.add(file);
+        if (files.size() > MAX_SIZE) {
+            files.subList(0, files.size() - MAX_SIZE).clear();
+        }
         position = files.size() - 1;
     }
 
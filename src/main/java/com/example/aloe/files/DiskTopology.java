@@ -0,0 +1,191 @@
+package com.example.aloe.files;
+
+import oshi.SystemInfo;
+import oshi.hardware.HWDiskStore;
+import oshi.hardware.HWPartition;
+
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps paths to the physical disks that store them.
+ * <p>
+ * The mount points of all partitions are read from the {@link HWDiskStore}s reported by OSHI and cached.
+ * A path belongs to the disk of the partition with the longest mount point containing it. Paths outside of
+ * every known partition, e.g. on network shares, encrypted or logical volumes not reported as partitions,
+ * are mapped to a device named after their {@link java.nio.file.FileStore}, so they are still told apart
+ * from each other. A path is only mapped to a partition if it lies on the same {@link java.nio.file.FileStore}
+ * as the mount point of the partition, since a drive mounted later below a known mount point, e.g. a USB drive
+ * under {@code /media}, would otherwise be mapped to the disk holding {@code /}. The cache is rebuilt when a path
+ * does not lie on the file store of its mount point and the last scan is older than {@link #REFRESH_INTERVAL}
+ * milliseconds, which picks up newly mounted drives.
+ * </p>
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * DiskTopology.Device source = DiskTopology.resolve(Path.of("/home/user/Videos"));
+ * DiskTopology.Device target = DiskTopology.resolve(Path.of("/media/usb"));
+ * boolean sameDisk = source.equals(target);
+ * }</pre>
+ *
+ * @since 2.9.0
+ */
+public final class DiskTopology {
+
+    /**
+     * The minimum time between two scans of the disks, in milliseconds.
+     */
+    static final long REFRESH_INTERVAL = 10_000;
+
+    /**
+     * A physical disk, or the file store standing in for one.
+     *
+     * @param name       the name of the disk, e.g. {@code /dev/sda}
+     * @param rotational whether the disk is a spinning hard disk, which suffers from concurrent access
+     */
+    public record Device(String name, boolean rotational) {}
+
+    /** The disks by the mount points of their partitions. Guarded by the class. */
+    private static Map<Path, Device> mounts = Map.of();
+
+    /** The time of the last scan, in milliseconds. Guarded by the class. */
+    private static long scannedAt;
+
+    private DiskTopology() {}
+
+    /**
+     * Returns the disk storing the given path. The path does not have to exist; its nearest existing
+     * ancestor is resolved instead.
+     *
+     * @param path the path to resolve
+     * @return the disk, never {@code null}
+     */
+    public static synchronized Device resolve(Path path) {
+        Path real = toRealPath(path);
+        FileStore store = getFileStore(real);
+        Map.Entry<Path, Device> mount = findMount(real);
+        if (!isOnMount(store, mount) && System.currentTimeMillis() - scannedAt > REFRESH_INTERVAL) {
+            scan();
+            mount = findMount(real);
+        }
+        return isOnMount(store, mount) ? mount.getValue() : getFileStoreDevice(store, real);
+    }
+
+    /**
+     * Returns the partition with the longest mount point containing the path.
+     *
+     * @param path the real path
+     * @return the mount point and its disk, or {@code null} if no known partition contains the path
+     */
+    private static Map.Entry<Path, Device> findMount(Path path) {
+        Map.Entry<Path, Device> found = null;
+        for (Map.Entry<Path, Device> mount : mounts.entrySet()) {
+            if (path.startsWith(mount.getKey()) && (found == null || mount.getKey().getNameCount() > found.getKey().getNameCount())) {
+                found = mount;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Checks whether a path lies on the partition mounted at a mount point rather than on a file system
+     * mounted somewhere below it.
+     *
+     * @param store the file store of the path, or {@code null} if it is unknown
+     * @param mount the mount point containing the path, or {@code null}
+     * @return {@code true} if the path belongs to the partition of the mount point
+     */
+    private static boolean isOnMount(FileStore store, Map.Entry<Path, Device> mount) {
+        if (mount == null) return false;
+        if (store == null) return true;
+        return store.equals(getFileStore(mount.getKey()));
+    }
+
+    /**
+     * Reads the partitions of all disks and rebuilds the cache.
+     */
+    private static void scan() {
+        Map<Path, Device> scanned = new HashMap<>();
+        try {
+            for (HWDiskStore disk : new SystemInfo().getHardware().getDiskStores()) {
+                Device device = new Device(disk.getName(), isRotational(disk.getName()));
+                for (HWPartition partition : disk.getPartitions()) {
+                    String mountPoint = partition.getMountPoint();
+                    if (mountPoint == null || mountPoint.isBlank()) continue;
+                    try {
+                        scanned.put(Path.of(mountPoint), device);
+                    } catch (InvalidPathException ignored) {
+                    }
+                }
+            }
+        } catch (RuntimeException | LinkageError e) {
+            e.printStackTrace();
+        }
+        mounts = scanned;
+        scannedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Checks whether a disk is a spinning hard disk. Only known on Linux, where the kernel exposes it in sysfs;
+     * elsewhere every disk is treated as non-rotational.
+     *
+     * @param name the name of the disk, e.g. {@code /dev/sda}
+     * @return {@code true} if the disk is known to be rotational
+     */
+    private static boolean isRotational(String name) {
+        Path flag = Path.of("/sys/block", Path.of(name).getFileName().toString(), "queue", "rotational");
+        try {
+            return Files.isReadable(flag) && Files.readString(flag).strip().equals("1");
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns a device named after the file store of a path that belongs to no known partition.
+     *
+     * @param store the file store of the path, or {@code null} if it is unknown
+     * @param path  the real path
+     * @return the device standing in for the file store
+     */
+    private static Device getFileStoreDevice(FileStore store, Path path) {
+        if (store != null) return new Device(store.name(), false);
+        Path root = path.getRoot();
+        return new Device(root != null ? root.toString() : path.toString(), false);
+    }
+
+    /**
+     * Returns the file store of a path.
+     *
+     * @param path the path
+     * @return the file store, or {@code null} if it cannot be determined
+     */
+    private static FileStore getFileStore(Path path) {
+        try {
+            return Files.getFileStore(path);
+        } catch (IOException | SecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the real path of the nearest existing ancestor of a path, following symbolic links.
+     *
+     * @param path the path
+     * @return the real path, or the absolute path if no ancestor can be resolved
+     */
+    private static Path toRealPath(Path path) {
+        for (Path current = path.toAbsolutePath().normalize(); current != null; current = current.getParent()) {
+            try {
+                return current.toRealPath();
+            } catch (IOException | SecurityException ignored) {
+            }
+        }
+        return path.toAbsolutePath();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.aloe.files;
+
+import com.example.aloe.utils.CurrentPlatform;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.DosFileAttributes;
+
+/**
+ * An immutable snapshot of the attributes of a single file or directory.
+ * <p>
+ * A {@code FileEntry} is filled from one {@link Files#readAttributes(Path, Class, LinkOption...)} call
+ * and is then used for filtering, sorting, icon selection and display, so listing a directory
+ * stats every entry exactly once. The values are not refreshed; a new entry has to be created
+ * to observe changes on disk.
+ * </p>
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * FileEntry entry = FileEntry.of(Path.of("/home/user/notes.txt"));
+ * long size = entry.size();
+ * }</pre>
+ *
+ * @param file         the described file or directory
+ * @param name         the name of the file or directory
+ * @param directory    whether the entry is a directory
+ * @param hidden       whether the entry is hidden on the current platform
+ * @param size         the size of the file in bytes
+ * @param lastModified the last modification time in milliseconds since the epoch
+ * @since 2.9.0
+ */
+public record FileEntry(File file, String name, boolean directory, boolean hidden, long size, long lastModified) {
+
+    /**
+     * Creates an entry for the given path with a single attribute read. Symbolic links are followed;
+     * a broken link is described by the attributes of the link itself.
+     *
+     * @param path the path to describe
+     * @return the entry describing the path
+     * @throws IOException if the attributes cannot be read
+     */
+    public static FileEntry of(Path path) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = readAttributes(path);
+        } catch (IOException e) {
+            attributes = readAttributes(path, LinkOption.NOFOLLOW_LINKS);
+        }
+        return of(path, attributes);
+    }
+
+    /**
+     * Creates an entry for the given path from already read attributes.
+     *
+     * @param path       the described path
+     * @param attributes the attributes of the path
+     * @return the entry describing the path
+     */
+    public static FileEntry of(Path path, BasicFileAttributes attributes) {
+        Path fileName = path.getFileName();
+        String name = fileName != null ? fileName.toString() : path.toString();
+        boolean hidden = attributes instanceof DosFileAttributes dos ? dos.isHidden() : name.startsWith(".");
+
+        return new FileEntry(path.toFile(), name, attributes.isDirectory(), hidden, attributes.size(), attributes.lastModifiedTime().toMillis());
+    }
+
+    /**
+     * Reads the attributes of a path, including the hidden flag on Windows, in a single call.
+     *
+     * @param path    the path to read
+     * @param options options indicating how symbolic links are handled
+     * @return the attributes of the path
+     * @throws IOException if the attributes cannot be read
+     */
+    private static BasicFileAttributes readAttributes(Path path, LinkOption... options) throws IOException {
+        if (CurrentPlatform.isWindows()) {
+            return Files.readAttributes(path, DosFileAttributes.class, options);
+        }
+        return Files.readAttributes(path, BasicFileAttributes.class, options);
+    }
+
+    /**
+     * Returns the extension of the entry in lower case, without the dot.
+     *
+     * @return the lower-case extension, or an empty string if the entry has none
+     */
+    public String extension() {
+        return FilesUtils.getExtension(name).toLowerCase();
+    }
+}
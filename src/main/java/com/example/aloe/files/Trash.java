@@ -0,0 +1,364 @@
+package com.example.aloe.files;
+
+import com.example.aloe.settings.Settings;
+import oshi.SystemInfo;
+import oshi.software.os.OSFileStore;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Moves files to the trash and empties it without copying or deleting in the foreground.
+ * <p>
+ * Files on the volume of the trash configured by the {@code files.trash} setting are renamed into it.
+ * Files on any other volume are renamed into the trash of their own volume, {@code .Trash-<uid>} in the
+ * top directory of the volume, following the layout of the freedesktop.org trash specification: the file
+ * itself is stored in {@code files} and a {@code .trashinfo} file recording its original path is written
+ * to {@code info}. Moving to the trash is therefore always a rename within one file system and takes
+ * constant time, no matter how large the trashed directory is.
+ * </p>
+ *
+ * <p>
+ * Emptying the trash renames the content of every trash directory aside into a hidden purge directory,
+ * which is a single rename per trash, and recreates the trash empty. The trash appears empty at once, while
+ * the purge directories are deleted on a low-priority background thread. Purge directories left behind by
+ * an interrupted purge are deleted the next time the trash is emptied.
+ * </p>
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * if (!Trash.moveToTrash(Path.of("/media/usb/video.mp4"))) {
+ *     // fall back to copying the file into the home trash
+ * }
+ * Trash.empty();
+ * }</pre>
+ *
+ * @since 2.9.0
+ */
+public final class Trash {
+
+    /** The prefix of the name of the per-volume trash directories, followed by the user id. */
+    static final String VOLUME_TRASH_PREFIX = ".Trash-";
+
+    /** The infix of the names of purge directories, followed by a timestamp. */
+    static final String PURGE_INFIX = "-purge-";
+
+    /** The thread deleting purged trash content. */
+    private static final ExecutorService PURGER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "trash-purge");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    /** The per-volume trash directories used in this session or found on mounted volumes. Guarded by the class. */
+    private static final Set<Path> volumeTrashes = new LinkedHashSet<>();
+
+    /** Whether the mounted volumes have been searched for trash directories. Guarded by the class. */
+    private static boolean discovered;
+
+    private Trash() {}
+
+    /**
+     * Returns the trash configured by the {@code files.trash} setting.
+     *
+     * @return the home trash directory
+     */
+    public static File getHomeTrash() {
+        return new File(Settings.getSetting("files", "trash").toString());
+    }
+
+    /**
+     * Checks whether a directory is the trash configured by the {@code files.trash} setting.
+     *
+     * @param directory the directory to check
+     * @return {@code true} if the directory is the home trash
+     */
+    public static boolean isHomeTrash(File directory) {
+        return directory.getAbsoluteFile().equals(getHomeTrash().getAbsoluteFile());
+    }
+
+    /**
+     * Returns the directories holding trashed files: the home trash followed by the {@code files}
+     * directories of the per-volume trashes that exist on mounted volumes.
+     *
+     * @return the trash directories, the home trash first
+     */
+    public static List<File> getTrashDirectories() {
+        List<File> directories = new ArrayList<>();
+        directories.add(getHomeTrash());
+        for (Path trash : getVolumeTrashes()) {
+            Path files = trash.resolve("files");
+            if (Files.isDirectory(files, LinkOption.NOFOLLOW_LINKS)) directories.add(files.toFile());
+        }
+        return directories;
+    }
+
+    /**
+     * Moves a file or directory to the trash of its volume with a single rename.
+     * The file keeps its name unless the trash already holds a file of that name.
+     *
+     * @param path the file or directory to trash
+     * @return {@code true} if the file has been trashed, {@code false} if it has to be copied into the home trash instead
+     */
+    public static boolean moveToTrash(Path path) {
+        try {
+            Path source = path.toAbsolutePath().normalize();
+            Path home = getHomeTrash().toPath().toAbsolutePath();
+            if (home.startsWith(source) || source.getParent() == null) return false;
+
+            FileStore store = Files.getFileStore(source.getParent());
+            if (Files.isDirectory(home) && store.equals(Files.getFileStore(home))) {
+                return rename(source, getFreePath(home, source.getFileName().toString(), null));
+            }
+
+            Path trash = getVolumeTrash(source.getParent().toRealPath(), store);
+            if (trash == null) return false;
+
+            Path files = trash.resolve("files");
+            Path info = trash.resolve("info");
+            Path target = getFreePath(files, source.getFileName().toString(), info);
+            Path infoFile = info.resolve(target.getFileName() + ".trashinfo");
+            Files.writeString(infoFile, createTrashInfo(source), StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW);
+            if (rename(source, target)) return true;
+
+            Files.deleteIfExists(infoFile);
+            return false;
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Searches the mounted volumes for trash directories on the purge thread, so that listing or emptying
+     * the trash on the JavaFX thread does not have to wait for it. Called once when the application starts.
+     */
+    public static void discoverVolumeTrashes() {
+        PURGER.execute(Trash::getVolumeTrashes);
+    }
+
+    /**
+     * Empties every trash. The content is renamed aside at once and deleted on a background thread,
+     * so the trash is empty when this method returns.
+     */
+    public static void empty() {
+        List<Path> purged = new ArrayList<>();
+
+        Path home = getHomeTrash().toPath().toAbsolutePath();
+        purged.addAll(findPurgeDirectories(home));
+        renameAside(home, purged);
+        for (Path trash : getVolumeTrashes()) {
+            purged.addAll(findPurgeDirectories(trash.resolve("files")));
+            purged.addAll(findPurgeDirectories(trash.resolve("info")));
+            renameAside(trash.resolve("files"), purged);
+            renameAside(trash.resolve("info"), purged);
+        }
+
+        if (!purged.isEmpty()) PURGER.execute(() -> purged.forEach(Trash::purge));
+    }
+
+    /**
+     * Renames a trash directory to a hidden purge directory next to it and recreates it empty.
+     * Nothing happens if the directory is missing or already empty.
+     *
+     * @param directory the trash directory
+     * @param purged    receives the purge directory
+     */
+    private static void renameAside(Path directory, List<Path> purged) {
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            if (!entries.iterator().hasNext()) return;
+        } catch (IOException | SecurityException e) {
+            return;
+        }
+
+        String name = directory.getFileName().toString().replaceFirst("^\\.", "");
+        Path purge = directory.resolveSibling("." + name + PURGE_INFIX + System.nanoTime());
+        try {
+            Files.move(directory, purge, StandardCopyOption.ATOMIC_MOVE);
+            purged.add(purge);
+            Files.createDirectories(directory);
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Finds the purge directories next to a trash directory that are left over from an interrupted purge.
+     *
+     * @param directory the trash directory
+     * @return the leftover purge directories
+     */
+    private static List<Path> findPurgeDirectories(Path directory) {
+        Path parent = directory.getParent();
+        if (parent == null || directory.getFileName() == null) return List.of();
+
+        String name = directory.getFileName().toString().replaceFirst("^\\.", "");
+        List<Path> leftovers = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(parent, "." + name + PURGE_INFIX + "*")) {
+            entries.forEach(leftovers::add);
+        } catch (IOException | SecurityException ignored) {
+        }
+        return leftovers;
+    }
+
+    /**
+     * Deletes a purge directory. Symbolic links are deleted themselves and never followed.
+     *
+     * @param directory the purge directory
+     */
+    private static void purge(Path directory) {
+        try {
+            Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.deleteIfExists(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                    Files.deleteIfExists(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Returns the per-volume trash directories, searching the mounted volumes for them on the first call.
+     *
+     * @return the per-volume trash directories
+     */
+    private static synchronized List<Path> getVolumeTrashes() {
+        if (!discovered) {
+            discovered = true;
+            String uid = getUserId();
+            if (uid != null) {
+                try {
+                    for (OSFileStore store : new SystemInfo().getOperatingSystem().getFileSystem().getFileStores(true)) {
+                        Path trash = Path.of(store.getMount(), VOLUME_TRASH_PREFIX + uid);
+                        if (Files.isDirectory(trash, LinkOption.NOFOLLOW_LINKS)) volumeTrashes.add(trash);
+                    }
+                } catch (RuntimeException | LinkageError e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+        return List.copyOf(volumeTrashes);
+    }
+
+    /**
+     * Returns the trash of the volume containing a directory, creating it if needed.
+     *
+     * @param directory the real path of a directory on the volume
+     * @param store     the file store of the directory
+     * @return the trash directory, or {@code null} if the volume cannot have one
+     * @throws IOException if the trash cannot be created
+     */
+    private static Path getVolumeTrash(Path directory, FileStore store) throws IOException {
+        String uid = getUserId();
+        if (uid == null) return null;
+
+        Path top = directory;
+        while (top.getParent() != null && store.equals(Files.getFileStore(top.getParent()))) {
+            top = top.getParent();
+        }
+
+        Path trash = top.resolve(VOLUME_TRASH_PREFIX + uid);
+        if (!Files.isDirectory(trash, LinkOption.NOFOLLOW_LINKS)) {
+            Files.createDirectory(trash, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        }
+        Files.createDirectories(trash.resolve("files"));
+        Files.createDirectories(trash.resolve("info"));
+
+        synchronized (Trash.class) {
+            volumeTrashes.add(trash);
+        }
+        return trash;
+    }
+
+    /**
+     * Returns the numeric id of the current user.
+     *
+     * @return the user id, or {@code null} on systems without POSIX user ids
+     */
+    private static String getUserId() {
+        try {
+            return String.valueOf(Files.getAttribute(Path.of(System.getProperty("user.home")), "unix:uid"));
+        } catch (IOException | UnsupportedOperationException | IllegalArgumentException | SecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns a path in the directory that is not taken yet, appending a number to the name if needed.
+     *
+     * @param directory the directory
+     * @param name      the preferred file name
+     * @param info      the directory of {@code .trashinfo} files whose names must be free as well, or {@code null}
+     * @return the free path
+     */
+    private static Path getFreePath(Path directory, String name, Path info) {
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+
+        Path path = directory.resolve(name);
+        for (int i = 1; Files.exists(path, LinkOption.NOFOLLOW_LINKS)
+                || (info != null && Files.exists(info.resolve(path.getFileName() + ".trashinfo"), LinkOption.NOFOLLOW_LINKS)); i++) {
+            path = directory.resolve(base + " (" + i + ")" + extension);
+        }
+        return path;
+    }
+
+    /**
+     * Renames a file atomically.
+     *
+     * @param source the file
+     * @param target the new path
+     * @return {@code true} if the file has been renamed
+     */
+    private static boolean rename(Path source, Path target) {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates the content of the {@code .trashinfo} file of a trashed file.
+     *
+     * @param source the original path of the file
+     * @return the content of the info file
+     */
+    private static String createTrashInfo(Path source) {
+        StringBuilder path = new StringBuilder();
+        for (byte b : source.toString().getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || "/-_.~".indexOf(c) >= 0) {
+                path.append(c);
+            } else {
+                path.append('%').append(String.format("%02X", b & 0xFF));
+            }
+        }
+        return "[Trash Info]\nPath=" + path + "\nDeletionDate="
+                + LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + "\n";
+    }
+}
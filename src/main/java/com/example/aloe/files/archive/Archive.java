@@ -40,4 +40,27 @@ interface Archive {
      * @throws RuntimeException if an I/O error or unsupported operation occurs during decompression.
      */
     void decompress(File file);
+
+    /**
+     * Returns the directory a new archive is created in, which is the directory of the first archived file.
+     * Archive operations may run in the background, so they must not depend on the directory currently displayed.
+     *
+     * @param parameters the parameters of the archive being created
+     * @return the directory of the new archive
+     * @since 2.9.0
+     */
+    default File getOutputDirectory(ArchiveParameters parameters) {
+        return parameters.getFiles().getFirst().getAbsoluteFile().getParentFile();
+    }
+
+    /**
+     * Returns the directory an archive is extracted into, which is the directory of the archive itself.
+     *
+     * @param file the archive being extracted
+     * @return the directory containing the extracted directory
+     * @since 2.9.0
+     */
+    default File getOutputDirectory(File file) {
+        return file.getAbsoluteFile().getParentFile();
+    }
 }
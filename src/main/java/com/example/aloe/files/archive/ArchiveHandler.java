@@ -3,8 +3,12 @@ package com.example.aloe.files.archive;
 import com.example.aloe.files.tasks.FileDeleteTask;
 import com.example.aloe.files.FilesUtils;
 import com.example.aloe.settings.Settings;
+import com.example.aloe.utils.Translator;
+import com.example.aloe.window.InfoWindow;
+import javafx.application.Platform;
 
 import java.io.File;
+import java.util.function.Consumer;
 
 /**
  * Provides methods for handling file archives, including compression and extraction.
@@ -32,6 +36,32 @@ import java.io.File;
  */
 public class ArchiveHandler {
 
+    /** Receives the translation keys of the messages reported by archive operations. */
+    private static Consumer<String> messageHandler = key -> Platform.runLater(() -> new InfoWindow(Translator.translate(key), null));
+
+    /**
+     * Replaces the handler of the messages reported by archive operations.
+     * <p>
+     * By default every message is translated and shown in an {@link InfoWindow} on the JavaFX application thread. Another handler
+     * can be set to run archive operations without the JavaFX toolkit, e.g. in benchmarks.
+     * </p>
+     *
+     * @param handler the handler receiving the translation key of every message
+     * @since 2.9.0
+     */
+    public static void setMessageHandler(Consumer<String> handler) {
+        messageHandler = handler;
+    }
+
+    /**
+     * Reports the result of an archive operation through the current message handler.
+     *
+     * @param key the translation key of the message
+     */
+    static void showMessage(String key) {
+        messageHandler.accept(key);
+    }
+
     /**
      * Compresses a list of files into an archive of the specified type.
      * <p>
@@ -1,8 +1,5 @@
 package com.example.aloe.files.archive;
 
-import com.example.aloe.files.CurrentDirectory;
-import com.example.aloe.utils.Translator;
-import com.example.aloe.window.InfoWindow;
 import org.apache.commons.compress.archivers.jar.JarArchiveEntry;
 import org.apache.commons.compress.archivers.jar.JarArchiveInputStream;
 import org.apache.commons.compress.archivers.jar.JarArchiveOutputStream;
@@ -41,15 +38,15 @@ class JarArchive implements Archive {
      */
     @Override
     public void compress(ArchiveParameters parameters) {
-        try (JarArchiveOutputStream out = new JarArchiveOutputStream(new FileOutputStream(CurrentDirectory.get().toString() + "/" + parameters.getFileName()))) {
+        try (JarArchiveOutputStream out = new JarArchiveOutputStream(new FileOutputStream(new File(getOutputDirectory(parameters), parameters.getFileName())))) {
             for (File file : parameters.getFiles()) {
                 addToArchive(out, file, ".");
             }
         } catch (Exception e) {
-            new InfoWindow(Translator.translate("window.archive.extract.error"), null);
+            ArchiveHandler.showMessage("window.archive.extract.error");
             throw new RuntimeException("Compression failed: " + e.getMessage(), e);
         }
-        new InfoWindow(Translator.translate("window.archive.compress.success"), null);
+        ArchiveHandler.showMessage("window.archive.compress.success");
     }
 
     /**
@@ -61,7 +58,7 @@ class JarArchive implements Archive {
     @Override
     public void decompress(File file) {
         String fileNameWithoutExtension = file.getName().replace(".jar", "");
-        File destinationDirectory = new File(CurrentDirectory.get(), fileNameWithoutExtension);
+        File destinationDirectory = new File(getOutputDirectory(file), fileNameWithoutExtension);
         if (!destinationDirectory.exists()) {
             if (!destinationDirectory.mkdirs()) {
                 throw new RuntimeException("Could not create destination directory: " + destinationDirectory.getPath());
@@ -82,10 +79,10 @@ class JarArchive implements Archive {
                 IOUtils.copy(jin, new FileOutputStream(curfile));
             }
         } catch (Exception e) {
-            new InfoWindow(Translator.translate("window.archive.extract.error"), null);
+            ArchiveHandler.showMessage("window.archive.extract.error");
             throw new RuntimeException("Decompression failed: " + e.getMessage(), e);
         }
-        new InfoWindow(Translator.translate("window.archive.extract.success"), null);
+        ArchiveHandler.showMessage("window.archive.extract.success");
     }
 
     /**
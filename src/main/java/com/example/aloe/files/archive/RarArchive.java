@@ -1,8 +1,5 @@
 package com.example.aloe.files.archive;
 
-import com.example.aloe.files.CurrentDirectory;
-import com.example.aloe.utils.Translator;
-import com.example.aloe.window.InfoWindow;
 import com.github.junrar.Archive;
 import com.github.junrar.exception.RarException;
 import com.github.junrar.rarfile.FileHeader;
@@ -43,7 +40,7 @@ class RarArchive implements com.example.aloe.files.archive.Archive {
      */
     @Override
     public void compress(ArchiveParameters parameters) {
-        new InfoWindow(Translator.translate("window.archive.compress.error"), null);
+        ArchiveHandler.showMessage("window.archive.compress.error");
         throw new UnsupportedOperationException("RAR compression is not supported yet.");
     }
 
@@ -68,10 +65,10 @@ class RarArchive implements com.example.aloe.files.archive.Archive {
             }
         } catch (RarException | IOException e) {
             handleExtractionException(e);
-            new InfoWindow(Translator.translate("window.archive.extract.error"), null);
+            ArchiveHandler.showMessage("window.archive.extract.error");
             return;
         }
-        new InfoWindow(Translator.translate("window.archive.extract.success"), null);
+        ArchiveHandler.showMessage("window.archive.extract.success");
     }
 
     /**
@@ -81,7 +78,7 @@ class RarArchive implements com.example.aloe.files.archive.Archive {
      * @return the created output directory.
      */
     private File createOutputDirectory(File file) {
-        File output = new File(CurrentDirectory.get(), file.getName().replace(".rar", ""));
+        File output = new File(getOutputDirectory(file), file.getName().replace(".rar", ""));
         if (!output.exists() && !output.mkdirs()) {
             throw new RuntimeException("Failed to create output directory: " + output.getAbsolutePath());
         }
@@ -1,8 +1,5 @@
 package com.example.aloe.files.archive;
 
-import com.example.aloe.files.CurrentDirectory;
-import com.example.aloe.utils.Translator;
-import com.example.aloe.window.InfoWindow;
 import org.apache.commons.compress.archivers.sevenz.SevenZArchiveEntry;
 import org.apache.commons.compress.archivers.sevenz.SevenZFile;
 import org.apache.commons.compress.archivers.sevenz.SevenZOutputFile;
@@ -29,7 +26,7 @@ class SevenZipArchive implements Archive {
      */
     @Override
     public void compress(ArchiveParameters parameters) {
-        File archiveFile = new File(CurrentDirectory.get(), parameters.getFileName());
+        File archiveFile = new File(getOutputDirectory(parameters), parameters.getFileName());
 
         try (SevenZOutputFile out = new SevenZOutputFile(archiveFile)) {
             for (File file : parameters.getFiles()) {
@@ -38,7 +35,7 @@ class SevenZipArchive implements Archive {
         } catch (IOException e) {
             throw new RuntimeException("Error during compression", e);
         }
-        new InfoWindow(Translator.translate("window.archive.compress.success"), null);
+        ArchiveHandler.showMessage("window.archive.compress.success");
     }
 
     /**
@@ -50,7 +47,7 @@ class SevenZipArchive implements Archive {
     @Override
     public void decompress(File file) {
         String archiveName = extractArchiveName(file);
-        File outputDirectory = createOutputDirectory(archiveName);
+        File outputDirectory = createOutputDirectory(getOutputDirectory(file), archiveName);
         try (SevenZFile sevenZFile = new SevenZFile(file)) {
             SevenZArchiveEntry entry;
             while ((entry = sevenZFile.getNextEntry()) != null) {
@@ -61,7 +58,7 @@ class SevenZipArchive implements Archive {
         } catch (IOException e) {
             throw new RuntimeException("Error during decompression", e);
         }
-        new InfoWindow(Translator.translate("window.archive.extract.success"), null);
+        ArchiveHandler.showMessage("window.archive.extract.success");
     }
 
     /**
@@ -145,12 +142,13 @@ class SevenZipArchive implements Archive {
     /**
      * Creates the output directory for decompression.
      *
+     * @param parent      The directory in which the output directory is created.
      * @param archiveName The name of the archive, which will be used as the directory name.
      * @return The created directory.
      * @throws RuntimeException If the directory cannot be created.
      */
-    private File createOutputDirectory(String archiveName) {
-        File outputDirectory = new File(CurrentDirectory.get(), archiveName);
+    private File createOutputDirectory(File parent, String archiveName) {
+        File outputDirectory = new File(parent, archiveName);
         if (!outputDirectory.exists() && !outputDirectory.mkdirs()) {
             throw new RuntimeException("Failed to create output directory: " + outputDirectory);
         }
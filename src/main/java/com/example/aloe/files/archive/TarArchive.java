@@ -1,8 +1,5 @@
 package com.example.aloe.files.archive;
 
-import com.example.aloe.files.CurrentDirectory;
-import com.example.aloe.utils.Translator;
-import com.example.aloe.window.InfoWindow;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
@@ -41,12 +38,12 @@ class TarArchive implements Archive {
      */
     @Override
     public void compress(ArchiveParameters parameters) {
-        File outputFile = new File(CurrentDirectory.get(), parameters.getFileName());
+        File outputFile = new File(getOutputDirectory(parameters), parameters.getFileName());
         try (TarArchiveOutputStream tarOut = new TarArchiveOutputStream(new FileOutputStream(outputFile))) {
             for (File file : parameters.getFiles()) {
                 addFileToTar(tarOut, file, "");
             }
-            new InfoWindow(Translator.translate("window.archive.compress.success"), null);
+            ArchiveHandler.showMessage("window.archive.compress.success");
         } catch (IOException e) {
             handleError("window.archive.compress.error", e);
         }
@@ -63,7 +60,7 @@ class TarArchive implements Archive {
      */
     @Override
     public void decompress(File file) {
-        File destDir = new File(CurrentDirectory.get(), getOutputDirectoryName(file));
+        File destDir = new File(getOutputDirectory(file), getOutputDirectoryName(file));
         if (!destDir.exists() && !destDir.mkdirs()) {
             handleError("window.archive.extract.error", new IOException("Failed to create destination directory."));
             return;
@@ -71,7 +68,7 @@ class TarArchive implements Archive {
 
         try (TarArchiveInputStream tis = new TarArchiveInputStream(new FileInputStream(file))) {
             extractEntries(tis, destDir);
-            new InfoWindow(Translator.translate("window.archive.extract.success"), null);
+            ArchiveHandler.showMessage("window.archive.extract.success");
         } catch (IOException e) {
             handleError("window.archive.extract.error", e);
         }
@@ -175,7 +172,7 @@ class TarArchive implements Archive {
      * @param e          The exception that was thrown.
      */
     protected void handleError(String messageKey, Exception e) {
-        new InfoWindow(Translator.translate(messageKey), null);
+        ArchiveHandler.showMessage(messageKey);
         e.printStackTrace();
     }
 }
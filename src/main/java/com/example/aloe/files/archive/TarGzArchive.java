@@ -1,8 +1,5 @@
 package com.example.aloe.files.archive;
 
-import com.example.aloe.files.CurrentDirectory;
-import com.example.aloe.utils.Translator;
-import com.example.aloe.window.InfoWindow;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
 
@@ -40,7 +37,7 @@ class TarGzArchive extends TarArchive {
      */
     @Override
     public void compress(ArchiveParameters parameters) {
-        File outputFile = new File(CurrentDirectory.get(), parameters.getFileName());
+        File outputFile = new File(getOutputDirectory(parameters), parameters.getFileName());
         try (FileOutputStream fos = new FileOutputStream(outputFile);
              BufferedOutputStream bos = new BufferedOutputStream(fos);
              GZIPOutputStream gzos = new GZIPOutputStream(bos);
@@ -50,7 +47,7 @@ class TarGzArchive extends TarArchive {
             for (File file : parameters.getFiles()) {
                 addFileToTar(tarOut, file, "");
             }
-            new InfoWindow(Translator.translate("window.archive.compress.success"), null);
+            ArchiveHandler.showMessage("window.archive.compress.success");
         } catch (IOException e) {
             handleError("window.archive.compress.error", e);
         }
@@ -67,7 +64,7 @@ class TarGzArchive extends TarArchive {
      */
     @Override
     public void decompress(File file) {
-        File destDir = new File(CurrentDirectory.get(), getOutputDirectoryName(file));
+        File destDir = new File(getOutputDirectory(file), getOutputDirectoryName(file));
         if (!destDir.exists() && !destDir.mkdirs()) {
             handleError("window.archive.extract.error", new IOException("Failed to create destination directory."));
             return;
@@ -78,7 +75,7 @@ class TarGzArchive extends TarArchive {
              GZIPInputStream gzis = new GZIPInputStream(bis);
              TarArchiveInputStream tarIn = new TarArchiveInputStream(gzis)) {
             extractEntries(tarIn, destDir);
-            new InfoWindow(Translator.translate("window.archive.extract.success"), null);
+            ArchiveHandler.showMessage("window.archive.extract.success");
         } catch (IOException e) {
             handleError("window.archive.extract.error", e);
         }
@@ -1,10 +1,8 @@
 package com.example.aloe.files.archive;
 
-import com.example.aloe.files.CurrentDirectory;
-import com.example.aloe.utils.Translator;
-import com.example.aloe.window.InfoWindow;
 import com.example.aloe.files.tasks.FileDeleteTask;
 import com.example.aloe.window.interior.PasswordPromptWindow;
+import javafx.application.Platform;
 import net.lingala.zip4j.ZipFile;
 import net.lingala.zip4j.exception.ZipException;
 import net.lingala.zip4j.model.ZipParameters;
@@ -53,7 +51,7 @@ class ZipArchive implements Archive {
                     zipFile.addFile(file, zipParameters);
                 }
             }
-            new InfoWindow(Translator.translate("window.archive.compress.success"), null);
+            ArchiveHandler.showMessage("window.archive.compress.success");
         } catch (ZipException e) {
             handleCompressionError(e);
         }
@@ -77,7 +75,7 @@ class ZipArchive implements Archive {
                 CompletableFuture<Void> completableFuture = new CompletableFuture<>();
 
                 StringBuilder password = new StringBuilder();
-                new PasswordPromptWindow(completableFuture, password);
+                Platform.runLater(() -> new PasswordPromptWindow(completableFuture, password));
                 completableFuture.thenRun(() -> {
                     zipFile.setPassword(password.toString().toCharArray());
                     System.out.println(password);
@@ -86,7 +84,7 @@ class ZipArchive implements Archive {
                     } catch (ZipException e) {
                         e.printStackTrace();
                     }
-                    new InfoWindow(Translator.translate("window.archive.extract.success"), null);
+                    ArchiveHandler.showMessage("window.archive.extract.success");
                 });
             } else {
                 zipFile.extractAll(outputPath.toString());
@@ -103,7 +101,7 @@ class ZipArchive implements Archive {
      * @return a configured {@link ZipFile} instance.
      */
     private ZipFile createZipFileInstance(ArchiveParameters parameters) {
-        File zipFile = new File(CurrentDirectory.get(), parameters.getFileName());
+        File zipFile = new File(getOutputDirectory(parameters), parameters.getFileName());
         return (parameters.getPassword() == null) ? new ZipFile(zipFile) : new ZipFile(zipFile, parameters.getPassword().toCharArray());
     }
 
@@ -129,7 +127,7 @@ class ZipArchive implements Archive {
      * @param e the exception that occurred.
      */
     private void handleCompressionError(ZipException e) {
-        new InfoWindow(Translator.translate("window.archive.compress.error"), null);
+        ArchiveHandler.showMessage("window.archive.compress.error");
         e.printStackTrace();
     }
 
@@ -143,14 +141,14 @@ class ZipArchive implements Archive {
      * @param e    the exception that occurred.
      */
     private void handleDecompressionError(File file, ZipException e) {
-        String extractionPath = CurrentDirectory.get().toPath() + "/" + file.getName().replace(".zip", "");
+        String extractionPath = getOutputDirectory(file).toPath() + "/" + file.getName().replace(".zip", "");
         if ("Wrong password!".equals(e.getMessage())) {
-            new InfoWindow(Translator.translate("window.archive.extract.wrong-password"), null);
+            ArchiveHandler.showMessage("window.archive.extract.wrong-password");
             new FileDeleteTask(new File(extractionPath), true);
             return;
         }
         new FileDeleteTask(new File(extractionPath), true);
-        new InfoWindow(Translator.translate("window.archive.extract.error"), null);
+        ArchiveHandler.showMessage("window.archive.extract.error");
         e.printStackTrace();
     }
 
@@ -161,6 +159,6 @@ class ZipArchive implements Archive {
      * @return the path where the files will be extracted.
      */
     private Path getOutputPath(File file) {
-        return CurrentDirectory.get().toPath().resolve(file.getName().replace(".zip", ""));
+        return getOutputDirectory(file).toPath().resolve(file.getName().replace(".zip", ""));
     }
 }
@@ -0,0 +1,271 @@
+package com.example.aloe.files.duplicates;
+
+import com.example.aloe.files.Checksum;
+import com.example.aloe.files.search.TreeWalk;
+import com.example.aloe.utils.Translator;
+import javafx.concurrent.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finds the files with identical content below a directory.
+ * <p>
+ * The files are compared in stages, each of which only looks at the files the previous one could not
+ * tell apart:
+ * <ol>
+ *     <li>The tree is walked and every regular, non-empty file is kept as a compact record of its path,
+ *     size and inode. Only files that share their size with another file remain candidates.</li>
+ *     <li>Hard links of the same inode are merged, since they already share their content, and every
+ *     remaining candidate is hashed over its first and last {@value #END_LENGTH} bytes.</li>
+ *     <li>Files whose partial hashes are equal and that are larger than the hashed ends are hashed whole.</li>
+ * </ol>
+ * Most files of a tree are told apart by their size alone and most of the rest by their ends, so only the
+ * files that are most likely duplicates are read in full. The hashing stages read several files in parallel.
+ * </p>
+ *
+ * <p>
+ * The task reports the current stage as its message and the bytes read in that stage as its progress,
+ * and returns the groups of identical files sorted by the space they take up needlessly.
+ * </p>
+ *
+ * <p><b>Usage example:</b></p>
+ * <pre>{@code
+ * DuplicateFinder finder = new DuplicateFinder(directory, false);
+ * finder.setOnSucceeded(e -> show(finder.getValue()));
+ * finder.start();
+ * }</pre>
+ *
+ * @see DuplicateGroup
+ * @see Checksum
+ * @since 2.9.0
+ */
+public class DuplicateFinder extends Task<List<DuplicateGroup>> {
+
+    /** The number of bytes hashed at each end of a file in the partial hashing stage. */
+    static final int END_LENGTH = 64 * 1024;
+
+    /** The algorithm the files are hashed with. */
+    private static final String ALGORITHM = "SHA-256";
+
+    /** The number of files hashed at the same time; more would only make the disk seek between them. */
+    private static final int HASH_PARALLELISM = Math.clamp(Runtime.getRuntime().availableProcessors(), 2, 4);
+
+    /** The directory whose tree is searched. */
+    private final File root;
+
+    /** Whether hidden files are compared. */
+    private final boolean includeHidden;
+
+    /**
+     * A regular file found by the walk.
+     *
+     * @param path the path of the file
+     * @param size the size of the file in bytes
+     * @param key  identifies the inode of the file, so hard links of it have equal keys
+     */
+    private record Candidate(Path path, long size, Object key) {}
+
+    /**
+     * The content of a file on disk, with all the paths that link to it.
+     *
+     * @param size  the size of the content in bytes
+     * @param paths the paths of the hard links
+     */
+    private record Inode(long size, List<Path> paths) {}
+
+    /**
+     * Creates a duplicate finder for the tree of a directory.
+     *
+     * @param root          the directory to search
+     * @param includeHidden whether hidden files are compared
+     */
+    public DuplicateFinder(File root, boolean includeHidden) {
+        this.root = root;
+        this.includeHidden = includeHidden;
+    }
+
+    /**
+     * Starts the search on a background daemon thread.
+     */
+    public void start() {
+        Thread thread = new Thread(this, "duplicate-finder");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Searches the tree for files with identical content.
+     *
+     * @return the groups of identical files, sorted by the reclaimable space, largest first;
+     *         empty if the search has been cancelled
+     */
+    @Override
+    protected List<DuplicateGroup> call() {
+        updateMessage(Translator.translate("window.duplicates.listing"));
+        List<List<Inode>> groups = groupBySize(list());
+
+        updateMessage(Translator.translate("window.duplicates.partial-hashing"));
+        groups = groupByHash(groups, false);
+
+        updateMessage(Translator.translate("window.duplicates.hashing"));
+        List<List<Inode>> partial = new ArrayList<>();
+        List<List<Inode>> whole = new ArrayList<>();
+        for (List<Inode> group : groups) {
+            (group.getFirst().size() > 2L * END_LENGTH ? partial : whole).add(group);
+        }
+        whole.addAll(groupByHash(partial, true));
+
+        if (isCancelled()) return List.of();
+        List<DuplicateGroup> duplicates = new ArrayList<>(whole.size());
+        for (List<Inode> group : whole) {
+            long size = group.getFirst().size();
+            List<File> files = new ArrayList<>();
+            for (Inode inode : group) {
+                for (Path path : inode.paths()) files.add(path.toFile());
+            }
+            files.sort(Comparator.naturalOrder());
+            duplicates.add(new DuplicateGroup(size, List.copyOf(files), size * (group.size() - 1)));
+        }
+        duplicates.sort(Comparator.comparingLong(DuplicateGroup::reclaimable).reversed());
+        return duplicates;
+    }
+
+    /**
+     * Walks the tree and collects its regular, non-empty files.
+     *
+     * @return the files, in no particular order
+     */
+    private List<Candidate> list() {
+        List<Candidate> candidates = new ArrayList<>();
+        new TreeWalk(root.toPath(), includeHidden, this::isCancelled).walk((path, name, attributes) -> {
+            if (!attributes.isRegularFile() || attributes.size() == 0) return;
+            Object key = attributes.fileKey() != null ? attributes.fileKey() : path;
+            Candidate candidate = new Candidate(path, attributes.size(), key);
+            synchronized (candidates) {
+                candidates.add(candidate);
+            }
+        });
+        return candidates;
+    }
+
+    /**
+     * Groups the files by size and merges the hard links of each inode, keeping only the groups of
+     * at least two inodes.
+     *
+     * @param candidates the files
+     * @return the groups of inodes of equal size
+     */
+    private List<List<Inode>> groupBySize(List<Candidate> candidates) {
+        candidates.sort(Comparator.comparingLong(Candidate::size));
+        List<List<Inode>> groups = new ArrayList<>();
+
+        int start = 0;
+        while (start < candidates.size()) {
+            long size = candidates.get(start).size();
+            int end = start + 1;
+            while (end < candidates.size() && candidates.get(end).size() == size) end++;
+
+            if (end - start > 1) {
+                Map<Object, List<Path>> inodes = new LinkedHashMap<>();
+                for (Candidate candidate : candidates.subList(start, end)) {
+                    inodes.computeIfAbsent(candidate.key(), key -> new ArrayList<>(1)).add(candidate.path());
+                }
+                if (inodes.size() > 1) {
+                    List<Inode> group = new ArrayList<>(inodes.size());
+                    for (List<Path> paths : inodes.values()) group.add(new Inode(size, paths));
+                    groups.add(group);
+                }
+            }
+            start = end;
+        }
+        return groups;
+    }
+
+    /**
+     * Hashes the inodes of every group and splits the groups by hash, keeping only the parts of
+     * at least two inodes. Inodes that cannot be read are dropped.
+     *
+     * @param groups the groups of inodes of equal size
+     * @param whole  whether the inodes are hashed whole or only at their ends
+     * @return the groups of inodes of equal size and hash
+     */
+    private List<List<Inode>> groupByHash(List<List<Inode>> groups, boolean whole) {
+        List<Inode> inodes = new ArrayList<>();
+        for (List<Inode> group : groups) inodes.addAll(group);
+        byte[][] hashes = hash(inodes, whole);
+
+        List<List<Inode>> result = new ArrayList<>();
+        int index = 0;
+        for (List<Inode> group : groups) {
+            Map<ByteBuffer, List<Inode>> byHash = new HashMap<>();
+            for (Inode inode : group) {
+                byte[] hash = hashes[index++];
+                if (hash != null) byHash.computeIfAbsent(ByteBuffer.wrap(hash), key -> new ArrayList<>(2)).add(inode);
+            }
+            for (List<Inode> part : byHash.values()) {
+                if (part.size() > 1) result.add(part);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Hashes inodes in parallel.
+     *
+     * @param inodes the inodes
+     * @param whole  whether the inodes are hashed whole or only at their ends
+     * @return the hashes, in the order of the inodes; {@code null} for inodes that could not be read
+     *         or were not hashed because the search has been cancelled
+     */
+    private byte[][] hash(List<Inode> inodes, boolean whole) {
+        byte[][] hashes = new byte[inodes.size()][];
+        long total = 0;
+        for (Inode inode : inodes) total += whole ? inode.size() : Math.min(inode.size(), 2L * END_LENGTH);
+        long work = total;
+
+        AtomicInteger next = new AtomicInteger();
+        AtomicLong done = new AtomicLong();
+        updateProgress(0, work);
+
+        Runnable worker = () -> {
+            for (int i = next.getAndIncrement(); i < hashes.length && !isCancelled(); i = next.getAndIncrement()) {
+                Inode inode = inodes.get(i);
+                Checksum checksum = new Checksum(inode.paths().getFirst().toFile());
+                try {
+                    hashes[i] = whole ? checksum.digest(ALGORITHM) : checksum.digestEnds(ALGORITHM, END_LENGTH);
+                } catch (IOException | InvalidPathException | SecurityException ignored) {
+                }
+                updateProgress(done.addAndGet(whole ? inode.size() : Math.min(inode.size(), 2L * END_LENGTH)), work);
+            }
+        };
+
+        List<Thread> threads = new ArrayList<>(HASH_PARALLELISM);
+        for (int i = 0; i < Math.min(HASH_PARALLELISM, hashes.length); i++) {
+            Thread thread = new Thread(worker, "duplicate-hash-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+            }
+        }
+        return hashes;
+    }
+}
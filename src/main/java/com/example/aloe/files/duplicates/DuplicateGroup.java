@@ -0,0 +1,19 @@
+package com.example.aloe.files.duplicates;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * A group of files with identical content.
+ * <p>
+ * Files that are hard links of each other share their content on disk and are listed in the group,
+ * but only count once towards the space that can be reclaimed.
+ * </p>
+ *
+ * @param size        the size of every file in bytes
+ * @param files       the files, sorted by path
+ * @param reclaimable the number of bytes freed by keeping a single copy of the content
+ * @see DuplicateFinder
+ * @since 2.9.0
+ */
+public record DuplicateGroup(long size, List<File> files, long reclaimable) {}
@@ -0,0 +1,24 @@
+package com.example.aloe.files.search;
+
+import com.example.aloe.files.FileEntry;
+
+import java.util.List;
+
+/**
+ * A file whose content matches a query, with previews of the first matching lines.
+ *
+ * @param entry the matching file
+ * @param lines the first matching lines, in order; at most {@link ContentSearchTask#MAX_LINES}
+ * @see ContentSearchTask
+ * @since 2.9.0
+ */
+public record ContentMatch(FileEntry entry, List<Line> lines) {
+
+    /**
+     * A matching line of a file.
+     *
+     * @param number the number of the line, counted from 1
+     * @param text   the text of the line, shortened around the match if the line is long
+     */
+    public record Line(long number, String text) {}
+}
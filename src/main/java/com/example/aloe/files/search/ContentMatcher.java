@@ -0,0 +1,58 @@
+package com.example.aloe.files.search;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Finds a search query in the bytes of a file.
+ * <p>
+ * A matcher is compiled once per query with {@link #of(String, SearchMode)} and then run over every file
+ * visited by a {@link ContentSearchTask}, from any number of threads. Text queries made of ASCII characters
+ * are searched directly in the bytes with the Boyer-Moore-Horspool algorithm, which skips up to the length
+ * of the query at a time and never decodes the file. Other text queries and regular expressions decode the
+ * file as UTF-8 one line at a time. All queries ignore case.
+ * </p>
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * ContentMatcher matcher = ContentMatcher.of("timeout", SearchMode.SUBSTRING);
+ * int match = matcher.find(buffer, 0, buffer.limit());
+ * }</pre>
+ *
+ * @see ContentSearchTask
+ * @since 2.9.0
+ */
+@FunctionalInterface
+public interface ContentMatcher {
+
+    /**
+     * Finds the first match in a range of bytes. The range starts at the beginning of a line and ends
+     * after a line break or at the end of the file, and a match never spans lines.
+     *
+     * @param text the bytes to search
+     * @param from the first index of the range
+     * @param to   the index after the range
+     * @return the index of the first match, or of the start of the line containing it; {@code -1} if there is none
+     */
+    int find(ByteBuffer text, int from, int to);
+
+    /**
+     * Compiles a query into a matcher.
+     *
+     * @param query the query; must not be empty
+     * @param mode  how the query is matched; {@link SearchMode#GLOB} is searched as plain text, like
+     *              {@link SearchMode#SUBSTRING}, since a file has no name to match whole
+     * @return the matcher
+     * @throws PatternSyntaxException if a regular expression query is not valid
+     */
+    static ContentMatcher of(String query, SearchMode mode) {
+        if (query.isEmpty()) throw new IllegalArgumentException("The query is empty");
+        if (mode != SearchMode.REGEX && query.chars().allMatch(c -> c < 0x80)) {
+            return new HorspoolMatcher(query.getBytes(StandardCharsets.US_ASCII));
+        }
+        return new LineRegexMatcher(Pattern.compile(mode == SearchMode.REGEX ? query : Pattern.quote(query),
+                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE));
+    }
+}
@@ -0,0 +1,324 @@
+package com.example.aloe.files.search;
+
+import com.example.aloe.files.FileEntry;
+import org.apache.tika.Tika;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A background task that searches the content of the files in a directory tree for a {@link ContentMatcher}.
+ * <p>
+ * The tree is walked in parallel by a {@link TreeWalk} and every file is read on the walking thread that
+ * found it, so several files are searched at the same time. Small files are read into a buffer owned by
+ * the thread. Larger files are memory-mapped {@link #WINDOW} bytes at a time, cut at the last line break,
+ * and every window is unmapped as soon as it has been searched, so a search holds at most one window per
+ * thread however large the files are. A file stops being read once {@link #MAX_LINES} matching lines
+ * have been found in it.
+ * </p>
+ *
+ * <p>
+ * Binary files are skipped: a file whose first {@link #SNIFF_LENGTH} bytes contain a zero byte is not
+ * searched at all, which rules out nearly every binary format. Before a file is reported as a match, its
+ * first bytes and name are also passed to Tika, the detector used for the file type in the properties
+ * window, and only files detected as text are reported. Detecting the type from the content is much
+ * slower than the search itself, so Tika is asked only about the few files that match, and only when
+ * their names do not already tell a text type.
+ * </p>
+ *
+ * <p>
+ * Like {@link FileSearchTask}, matches are handed to the JavaFX application thread in batches while the
+ * search is running, as described in {@link SearchTask}, and the search stops by itself after
+ * {@link #MAX_RESULTS} matching files.
+ * </p>
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * ContentSearchTask search = new ContentSearchTask(directory, ContentMatcher.of("timeout", SearchMode.SUBSTRING), false, results::addAll);
+ * search.start();
+ * }</pre>
+ *
+ * @see ContentMatcher
+ * @see SearchTask
+ * @since 2.9.0
+ */
+public class ContentSearchTask extends SearchTask<ContentMatch> {
+
+    /** The maximum number of matching files reported by a search. */
+    public static final int MAX_RESULTS = 10_000;
+
+    /** The maximum number of matching lines previewed for a file. */
+    public static final int MAX_LINES = 3;
+
+    /** The size of the files read into a buffer instead of being mapped, in bytes. */
+    static final int SMALL_FILE = 256 * 1024;
+
+    /** The largest part of a file mapped at once, in bytes. */
+    static final int WINDOW = 8 * 1024 * 1024;
+
+    /** The number of bytes at the start of a file used to tell whether it is text. */
+    static final int SNIFF_LENGTH = 8192;
+
+    /** The maximum length of a line preview, in bytes. */
+    static final int PREVIEW_LENGTH = 240;
+
+    /** Media types outside {@code text/*} whose files are text. */
+    private static final Set<String> TEXT_TYPES = Set.of("application/xml", "application/json", "application/javascript",
+            "application/x-sh", "application/x-httpd-php", "application/sql", "application/x-subrip");
+
+    /** The type detector; thread-safe. */
+    private static final Tika TIKA = new Tika();
+
+    /** The buffer small files are read into, one per searching thread. */
+    private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocate(SMALL_FILE));
+
+    /** The directory whose tree is searched. */
+    private final File root;
+
+    /** The matcher of the query. */
+    private final ContentMatcher matcher;
+
+    /** Whether hidden files and directories are searched. */
+    private final boolean includeHidden;
+
+    /**
+     * Creates a search of the files in the given directory tree.
+     *
+     * @param root          the directory to search
+     * @param matcher       the matcher of the query
+     * @param includeHidden whether hidden files and directories are searched
+     * @param onResults     receives batches of matches on the JavaFX application thread
+     */
+    public ContentSearchTask(File root, ContentMatcher matcher, boolean includeHidden, Consumer<List<ContentMatch>> onResults) {
+        super("content-search", MAX_RESULTS, onResults);
+        this.root = root;
+        this.matcher = matcher;
+        this.includeHidden = includeHidden;
+    }
+
+    /**
+     * Searches the content of the files in the tree.
+     *
+     * @param hits receives the matches
+     * @return the number of matching files
+     */
+    @Override
+    int find(Consumer<ContentMatch> hits) {
+        return walk(hits);
+    }
+
+    /**
+     * Walks the tree in parallel and passes every matching file to the given consumer on the walking threads.
+     *
+     * @param hits receives the matches; must be thread-safe
+     * @return the number of matching files
+     */
+    int walk(Consumer<ContentMatch> hits) {
+        new TreeWalk(root.toPath(), includeHidden, this::isStopped).walk((path, name, attributes) -> {
+            if (!attributes.isRegularFile() || attributes.size() == 0) return;
+            ContentMatch match = search(path, name, attributes);
+            if (match != null && countMatch()) hits.accept(match);
+        });
+        return getMatchCount();
+    }
+
+    /**
+     * Searches the content of a single file.
+     *
+     * @param path       the file
+     * @param name       the name of the file
+     * @param attributes the attributes of the file
+     * @return the match, or {@code null} if the file does not match, is not text or cannot be read
+     */
+    ContentMatch search(Path path, String name, BasicFileAttributes attributes) {
+        FileSearch search = new FileSearch(name);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= SMALL_FILE) {
+                ByteBuffer buffer = BUFFERS.get().clear().limit((int) Math.min(size, SNIFF_LENGTH));
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {}
+                if (search.isBinary(buffer, buffer.position())) return null;
+                buffer.limit(SMALL_FILE);
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {}
+                buffer.flip();
+                search.scan(buffer, buffer.limit(), true);
+            } else {
+                for (long position = 0; position < size && !isStopped(); ) {
+                    long length = Math.min(WINDOW, size - position);
+                    try (Arena arena = Arena.ofConfined()) {
+                        ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length, arena).asByteBuffer();
+                        boolean last = position + length == size;
+                        int end = last ? (int) length : afterLastLineBreak(window, (int) length);
+                        if (search.scan(window, end, last)) break;
+                        position += end;
+                    }
+                }
+            }
+        } catch (IOException | SecurityException | UnsupportedOperationException e) {
+            return null;
+        }
+        return search.isMatch() ? new ContentMatch(FileEntry.of(path, attributes), List.copyOf(search.lines)) : null;
+    }
+
+    /**
+     * Checks whether a file is text. The name is checked first, since detecting the type from the
+     * content takes far longer; the content is only passed to Tika if the name does not tell a text type.
+     *
+     * @param head the first bytes of the file
+     * @param name the name of the file
+     * @return {@code true} if Tika detects a text type
+     */
+    static boolean isText(byte[] head, String name) {
+        return isTextType(TIKA.detect(name)) || isTextType(TIKA.detect(head, name));
+    }
+
+    /**
+     * Checks whether a media type describes text.
+     *
+     * @param type the media type
+     * @return {@code true} for {@code text/*}, XML and JSON types and the types in {@link #TEXT_TYPES}
+     */
+    private static boolean isTextType(String type) {
+        return type.startsWith("text/") || type.endsWith("+xml") || type.endsWith("+json") || TEXT_TYPES.contains(type);
+    }
+
+    /**
+     * Returns the index after the last line break of a window, so the next window starts on a new line.
+     *
+     * @param window the window
+     * @param end    the length of the window
+     * @return the index after the last line break, or {@code end} if the window holds a single line
+     */
+    private static int afterLastLineBreak(ByteBuffer window, int end) {
+        for (int i = end - 1; i >= 0; i--) {
+            if (window.get(i) == '\n') return i + 1;
+        }
+        return end;
+    }
+
+    /**
+     * The state of the search of a single file, carried from one window to the next.
+     */
+    private class FileSearch {
+
+        /** The name of the file. */
+        private final String name;
+
+        /** The matching lines found so far. */
+        private final List<ContentMatch.Line> lines = new ArrayList<>();
+
+        /** The first bytes of the file, or {@code null} before the first window has been searched. */
+        private byte[] head;
+
+        /** Whether the file has turned out not to be text. */
+        private boolean binary;
+
+        /** The number of lines in the windows already searched. */
+        private long lineCount;
+
+        FileSearch(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Checks whether the file is a text file containing a match.
+         *
+         * @return {@code true} if the file matches
+         */
+        boolean isMatch() {
+            return !binary && !lines.isEmpty();
+        }
+
+        /**
+         * Keeps the first bytes of the file and checks them for a zero byte.
+         *
+         * @param text   the content read so far, starting at the beginning of the file
+         * @param length the number of bytes read
+         * @return {@code true} if the file is binary
+         */
+        boolean isBinary(ByteBuffer text, int length) {
+            head = new byte[Math.min(SNIFF_LENGTH, length)];
+            text.get(0, head);
+            for (byte b : head) {
+                if (b == 0) return binary = true;
+            }
+            return false;
+        }
+
+        /**
+         * Searches a window for matching lines. The first window is checked for a zero byte first, and the
+         * type of the file is detected when the first match is found.
+         *
+         * @param text the window, starting at the beginning of a line
+         * @param end  the index after the last complete line of the window
+         * @param last whether the window ends with the file, so the lines after the last match need not be counted
+         * @return {@code true} if the rest of the file does not have to be searched, because it is not text
+         *         or {@link #MAX_LINES} matching lines have been found
+         */
+        boolean scan(ByteBuffer text, int end, boolean last) {
+            if (head == null && isBinary(text, end)) return true;
+
+            int counted = 0;
+            for (int from = 0; from < end; ) {
+                int match = matcher.find(text, from, end);
+                if (match < 0) break;
+                if (lines.isEmpty() && !isText(head, name)) return binary = true;
+
+                int lineStart = match;
+                while (lineStart > from && text.get(lineStart - 1) != '\n') lineStart--;
+                int lineEnd = match;
+                while (lineEnd < end && text.get(lineEnd) != '\n') lineEnd++;
+
+                lineCount += countLineBreaks(text, counted, lineStart);
+                counted = lineStart;
+                lines.add(new ContentMatch.Line(lineCount + 1, preview(text, lineStart, lineEnd, match)));
+                if (lines.size() >= MAX_LINES) return true;
+                from = lineEnd + 1;
+            }
+            if (!last) lineCount += countLineBreaks(text, counted, end);
+            return false;
+        }
+
+        /**
+         * Counts the line breaks in a range of a window.
+         *
+         * @param text the window
+         * @param from the first index of the range
+         * @param to   the index after the range
+         * @return the number of line breaks
+         */
+        private static long countLineBreaks(ByteBuffer text, int from, int to) {
+            long count = 0;
+            for (int i = from; i < to; i++) {
+                if (text.get(i) == '\n') count++;
+            }
+            return count;
+        }
+
+        /**
+         * Decodes the text of a matching line, shortened to {@link #PREVIEW_LENGTH} bytes around the match.
+         *
+         * @param text      the window
+         * @param lineStart the first index of the line
+         * @param lineEnd   the index of the line break ending the line
+         * @param match     the index of the match within the line
+         * @return the text of the line without surrounding white space
+         */
+        private static String preview(ByteBuffer text, int lineStart, int lineEnd, int match) {
+            int start = lineEnd - lineStart > PREVIEW_LENGTH ? Math.max(lineStart, match - PREVIEW_LENGTH / 3) : lineStart;
+            int end = Math.min(lineEnd, start + PREVIEW_LENGTH);
+            return StandardCharsets.UTF_8.decode(text.slice(start, end - start)).toString().strip();
+        }
+    }
+}
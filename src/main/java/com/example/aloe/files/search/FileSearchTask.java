@@ -0,0 +1,116 @@
+package com.example.aloe.files.search;
+
+import com.example.aloe.files.FileEntry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A background task that searches a directory tree for files whose names match a {@link NameMatcher}.
+ * <p>
+ * The tree is walked in parallel by a {@link TreeWalk}, which tests the name of every entry on the walking
+ * threads. Symbolic links are not followed, so the walk cannot loop.
+ * </p>
+ *
+ * <p>
+ * Matches are handed to the JavaFX application thread in batches while the walk is still running, as described
+ * in {@link SearchTask}. A {@link #cancel() cancelled} search stops the walk after the current entry of every
+ * thread, and the search stops by itself after {@link #MAX_RESULTS} matches.
+ * </p>
+ *
+ * <p>
+ * When hidden files are not searched and the {@link NameIndexer file name index} covers the directory,
+ * the index answers the query instead of the walk, and only the matching files are stat'ed.
+ * </p>
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * FileSearchTask search = new FileSearchTask(directory, NameMatcher.of("report", SearchMode.SUBSTRING), false, view.getItems()::addAll);
+ * search.start();
+ * }</pre>
+ *
+ * @see SearchTask
+ * @since 2.9.0
+ */
+public class FileSearchTask extends SearchTask<FileEntry> {
+
+    /** The maximum number of matches reported by a search. */
+    public static final int MAX_RESULTS = 50_000;
+
+    /** The directory whose tree is searched. */
+    private final File root;
+
+    /** The matcher of the query. */
+    private final NameMatcher matcher;
+
+    /** Whether hidden files are matched and hidden directories searched. */
+    private final boolean includeHidden;
+
+    /**
+     * Creates a search of the given directory tree.
+     *
+     * @param root          the directory to search
+     * @param matcher       the matcher of the query
+     * @param includeHidden whether hidden files and directories are searched
+     * @param onResults     receives batches of matches on the JavaFX application thread
+     */
+    public FileSearchTask(File root, NameMatcher matcher, boolean includeHidden, Consumer<List<FileEntry>> onResults) {
+        super("file-search", MAX_RESULTS, onResults);
+        this.root = root;
+        this.matcher = matcher;
+        this.includeHidden = includeHidden;
+    }
+
+    /**
+     * Searches the tree, through the file name index where possible.
+     *
+     * @param hits receives the matches
+     * @return the number of matches
+     */
+    @Override
+    int find(Consumer<FileEntry> hits) {
+        int found = includeHidden ? -1 : findIndexed(hits);
+        return found >= 0 ? found : walk(hits);
+    }
+
+    /**
+     * Looks the query up in the file name index and passes every match that still exists to the given consumer.
+     *
+     * @param hits receives the matches
+     * @return the number of matches, or {@code -1} if the index cannot answer the query
+     */
+    int findIndexed(Consumer<FileEntry> hits) {
+        List<Path> paths = new ArrayList<>();
+        if (NameIndexer.find(root.toPath(), matcher, MAX_RESULTS, paths::add) < 0) return -1;
+
+        int found = 0;
+        for (Path path : paths) {
+            if (isCancelled()) break;
+            try {
+                hits.accept(FileEntry.of(path));
+                found++;
+            } catch (IOException | SecurityException ignored) {
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Walks the tree in parallel and passes every match to the given consumer on the walking threads.
+     *
+     * @param hits receives the matches; must be thread-safe
+     * @return the number of matches
+     */
+    int walk(Consumer<FileEntry> hits) {
+        new TreeWalk(root.toPath(), includeHidden, this::isStopped).walk((path, name, attributes) -> {
+            if (matcher.matches(name) && countMatch()) {
+                hits.accept(FileEntry.of(path, attributes));
+            }
+        });
+        return getMatchCount();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.aloe.files.search;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Searches for an ASCII text in bytes with the Boyer-Moore-Horspool algorithm, ignoring the case of ASCII letters.
+ * <p>
+ * The last byte of the query is compared first; on a mismatch the query moves forward by the distance
+ * from the last occurrence of the compared byte in the query to its end, so most bytes of the text are
+ * never looked at when the query is long. Bytes are folded to lower case through a table, so the text
+ * is neither copied nor decoded.
+ * </p>
+ *
+ * @see ContentMatcher
+ * @since 2.9.0
+ */
+final class HorspoolMatcher implements ContentMatcher {
+
+    /** Maps every byte to its lower-case ASCII form. */
+    private static final byte[] FOLD = new byte[256];
+
+    static {
+        for (int i = 0; i < FOLD.length; i++) {
+            FOLD[i] = (byte) (i >= 'A' && i <= 'Z' ? i + ('a' - 'A') : i);
+        }
+    }
+
+    /** The query in lower case. */
+    private final byte[] pattern;
+
+    /** How far the query moves when its last byte is aligned with a given byte of the text. */
+    private final int[] shift = new int[256];
+
+    /**
+     * Prepares the search for a query.
+     *
+     * @param query the ASCII bytes of the query; must not be empty
+     */
+    HorspoolMatcher(byte[] query) {
+        pattern = new byte[query.length];
+        for (int i = 0; i < query.length; i++) {
+            pattern[i] = FOLD[query[i] & 0xFF];
+        }
+        Arrays.fill(shift, pattern.length);
+        for (int i = 0; i < pattern.length - 1; i++) {
+            shift[pattern[i] & 0xFF] = pattern.length - 1 - i;
+        }
+    }
+
+    @Override
+    public int find(ByteBuffer text, int from, int to) {
+        int last = pattern.length - 1;
+        byte lastByte = pattern[last];
+        for (int i = from; i <= to - pattern.length; ) {
+            byte current = FOLD[text.get(i + last) & 0xFF];
+            if (current == lastByte) {
+                int j = last - 1;
+                while (j >= 0 && FOLD[text.get(i + j) & 0xFF] == pattern[j]) j--;
+                if (j < 0) return i;
+            }
+            i += shift[current & 0xFF];
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,630 @@
+package com.example.aloe.files.search;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+/**
+ * An immutable index of the names of all files below a set of root directories.
+ * <p>
+ * The tree is stored in breadth-first order in a few flat arrays, so it takes a few bytes per file and can be
+ * written to and read from disk in bulk:
+ * <ul>
+ *     <li>the roots are the first entries; every other entry has the index of its {@code parent};</li>
+ *     <li>the names are UTF-8 encoded one after another in {@code names}, starting at {@code nameStart};</li>
+ *     <li>the children of a directory are consecutive entries sorted by name, so a path is resolved with one
+ *     binary search per component;</li>
+ *     <li>directories additionally have the modification time they had when they were listed.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Every trigram of every case-folded name is hashed into one of {@link #BUCKETS} buckets, and every bucket holds
+ * the sorted, delta and variable-length encoded list of the entries whose name contains one of its trigrams.
+ * A substring query intersects the lists of its own trigrams, which leaves a small set of candidates that are
+ * then compared with the query. Hash collisions only add candidates, so no match is ever missed.
+ * </p>
+ *
+ * @see NameIndex
+ * @since 2.9.0
+ */
+final class IndexSnapshot {
+
+    /** The number of trigram buckets; a power of two. */
+    static final int BUCKETS = 1 << 18;
+
+    /** The first bytes of an index file, followed by its format version. */
+    private static final long MAGIC = 0x414C4F4549445831L;
+
+    /** The version of the index file format. */
+    private static final int VERSION = 1;
+
+    /** The root directories, in the order of their entries. */
+    final List<Path> roots;
+
+    /** The parent of every entry, or {@code -1} for the roots. */
+    final int[] parent;
+
+    /** The start of the name of every entry in {@link #names}, followed by the end of the last name. */
+    final int[] nameStart;
+
+    /** The UTF-8 encoded names; the names of the roots are their absolute paths. */
+    final byte[] names;
+
+    /** The directory number of every entry, or {@code -1} for files. */
+    final int[] directory;
+
+    /** The first child of every directory. */
+    final int[] firstChild;
+
+    /** The number of children of every directory. */
+    final int[] childCount;
+
+    /** The modification time of every directory when it was listed, in milliseconds. */
+    final long[] modified;
+
+    /** The start of every bucket in {@link #postings}, followed by the end of the last bucket. */
+    final int[] postingStart;
+
+    /** The delta and variable-length encoded entry lists of all buckets. */
+    final byte[] postings;
+
+    private IndexSnapshot(List<Path> roots, int[] parent, int[] nameStart, byte[] names, int[] directory,
+                          int[] firstChild, int[] childCount, long[] modified, int[] postingStart, byte[] postings) {
+        this.roots = List.copyOf(roots);
+        this.parent = parent;
+        this.nameStart = nameStart;
+        this.names = names;
+        this.directory = directory;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.modified = modified;
+        this.postingStart = postingStart;
+        this.postings = postings;
+    }
+
+    /**
+     * An entry of a listed directory.
+     *
+     * @param name      the name of the entry
+     * @param directory whether the entry is a directory
+     * @param modified  the modification time of a directory in milliseconds, or {@code 0} for files
+     */
+    record Child(String name, boolean directory, long modified) {}
+
+    /**
+     * Lists the children of a directory.
+     */
+    @FunctionalInterface
+    interface Lister {
+
+        /**
+         * Lists the children of a directory.
+         *
+         * @param directory the directory
+         * @return the children, in any order
+         * @throws IOException if the directory cannot be listed
+         */
+        List<Child> list(Path directory) throws IOException;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of files and directories, including the roots
+     */
+    int size() {
+        return parent.length;
+    }
+
+    /**
+     * Returns the name of an entry.
+     *
+     * @param entry the entry
+     * @return the name, or the absolute path for a root
+     */
+    String name(int entry) {
+        return new String(names, nameStart[entry], nameStart[entry + 1] - nameStart[entry], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the path of an entry.
+     *
+     * @param entry the entry
+     * @return the absolute path
+     */
+    Path path(int entry) {
+        List<String> components = new ArrayList<>();
+        for (int current = entry; parent[current] >= 0; current = parent[current]) {
+            components.add(name(current));
+        }
+        Path path = roots.get(rootOf(entry));
+        for (int i = components.size() - 1; i >= 0; i--) {
+            path = path.resolve(components.get(i));
+        }
+        return path;
+    }
+
+    /**
+     * Returns the root above an entry.
+     *
+     * @param entry the entry
+     * @return the index of the root in {@link #roots}
+     */
+    int rootOf(int entry) {
+        int current = entry;
+        while (parent[current] >= 0) current = parent[current];
+        return current;
+    }
+
+    /**
+     * Checks whether an entry is a directory.
+     *
+     * @param entry the entry
+     * @return {@code true} for directories
+     */
+    boolean isDirectory(int entry) {
+        return directory[entry] >= 0;
+    }
+
+    /**
+     * Finds the entry of a path.
+     *
+     * @param path an absolute path
+     * @return the entry, or {@code -1} if the path is not below one of the roots or not in the index
+     */
+    int resolve(Path path) {
+        for (int root = 0; root < roots.size(); root++) {
+            if (!path.startsWith(roots.get(root))) continue;
+
+            int entry = root;
+            for (Path component : roots.get(root).relativize(path)) {
+                if (component.toString().isEmpty()) continue;
+                entry = findChild(entry, component.toString());
+                if (entry < 0) break;
+            }
+            if (entry >= 0) return entry;
+        }
+        return -1;
+    }
+
+    /**
+     * Finds a child of a directory by name.
+     *
+     * @param entry the directory
+     * @param name  the name of the child
+     * @return the child, or {@code -1} if there is none
+     */
+    int findChild(int entry, String name) {
+        int dir = directory[entry];
+        if (dir < 0) return -1;
+
+        byte[] key = name.getBytes(StandardCharsets.UTF_8);
+        int low = firstChild[dir];
+        int high = low + childCount[dir] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = Arrays.compareUnsigned(names, nameStart[middle], nameStart[middle + 1], key, 0, key.length);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Passes every entry whose name may contain the given text to a consumer, in ascending order.
+     * Texts shorter than three characters have no trigrams, so all entries are passed.
+     *
+     * @param text       the text the names should contain
+     * @param candidates receives the candidate entries
+     */
+    void findCandidates(String text, IntConsumer candidates) {
+        int[] buckets = Arrays.stream(buckets(text)).distinct().toArray();
+        if (buckets.length == 0) {
+            for (int entry = 0; entry < size(); entry++) candidates.accept(entry);
+            return;
+        }
+
+        Integer[] order = new Integer[buckets.length];
+        for (int i = 0; i < order.length; i++) order[i] = buckets[i];
+        Arrays.sort(order, Comparator.comparingInt(bucket -> postingStart[bucket + 1] - postingStart[bucket]));
+
+        int[] result = decode(order[0]);
+        int length = result.length;
+        for (int i = 1; i < order.length && length > 0; i++) {
+            length = intersect(result, length, decode(order[i]));
+        }
+        for (int i = 0; i < length; i++) candidates.accept(result[i]);
+    }
+
+    /**
+     * Returns the estimated memory held by the index.
+     *
+     * @return the size in bytes
+     */
+    long memorySize() {
+        return 4L * (parent.length + nameStart.length + directory.length + firstChild.length + childCount.length + postingStart.length)
+                + 8L * modified.length + names.length + postings.length;
+    }
+
+    /**
+     * Decodes the entry list of a bucket.
+     *
+     * @param bucket the bucket
+     * @return the ascending entries
+     */
+    private int[] decode(int bucket) {
+        int[] entries = new int[postingStart[bucket + 1] - postingStart[bucket]];
+        int count = 0;
+        int previous = 0;
+        for (int position = postingStart[bucket]; position < postingStart[bucket + 1]; ) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = postings[position++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            previous += delta;
+            entries[count++] = previous;
+        }
+        return Arrays.copyOf(entries, count);
+    }
+
+    /**
+     * Keeps the entries of a sorted array that also occur in another sorted array.
+     *
+     * @param result the array to filter in place
+     * @param length the number of valid entries in {@code result}
+     * @param other  the other array
+     * @return the number of remaining entries
+     */
+    private static int intersect(int[] result, int length, int[] other) {
+        int count = 0;
+        for (int i = 0, j = 0; i < length && j < other.length; ) {
+            if (result[i] < other[j]) {
+                i++;
+            } else if (result[i] > other[j]) {
+                j++;
+            } else {
+                result[count++] = result[i];
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the buckets of the trigrams of a case-folded text, in the order of the trigrams.
+     *
+     * @param text the text
+     * @return the buckets, possibly repeated
+     */
+    static int[] buckets(String text) {
+        if (text.length() < 3) return new int[0];
+        int[] buckets = new int[text.length() - 2];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = bucket(fold(text.charAt(i)), fold(text.charAt(i + 1)), fold(text.charAt(i + 2)));
+        }
+        return buckets;
+    }
+
+    /**
+     * Folds a character the way {@link String#regionMatches(boolean, int, String, int, int)} compares
+     * characters when case is ignored.
+     *
+     * @param c the character
+     * @return the folded character
+     */
+    static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Hashes a trigram of folded characters into a bucket.
+     *
+     * @return the bucket
+     */
+    private static int bucket(char first, char second, char third) {
+        int hash = (first * 0x9E3779B1 + second) * 0x9E3779B1 + third;
+        return (hash ^ (hash >>> 15)) & (BUCKETS - 1);
+    }
+
+    /**
+     * Builds an index by listing the roots and all directories below them, breadth first.
+     *
+     * @param roots     the root directories
+     * @param lister    lists the directories
+     * @param cancelled checked between directories; the build stops when it returns {@code true}
+     * @return the index, or {@code null} if the build has been cancelled
+     */
+    static IndexSnapshot build(List<Path> roots, Lister lister, BooleanSupplier cancelled) {
+        Builder builder = new Builder();
+        ArrayDeque<Path> queue = new ArrayDeque<>();
+        for (Path root : roots) {
+            long rootModified;
+            try {
+                rootModified = Files.getLastModifiedTime(root).toMillis();
+            } catch (IOException | SecurityException e) {
+                rootModified = 0;
+            }
+            builder.add(-1, root.toString(), true, rootModified);
+            queue.add(root);
+        }
+
+        for (int entry = 0; !queue.isEmpty(); entry++) {
+            while (!builder.isDirectory(entry)) entry++;
+            if (cancelled.getAsBoolean()) return null;
+
+            Path path = queue.poll();
+            List<Child> children;
+            try {
+                children = new ArrayList<>(lister.list(path));
+            } catch (IOException | SecurityException e) {
+                children = new ArrayList<>();
+            }
+            children.sort(Comparator.comparing(child -> child.name().getBytes(StandardCharsets.UTF_8), Arrays::compareUnsigned));
+
+            builder.setChildren(entry, builder.size(), children.size());
+            for (Child child : children) {
+                builder.add(entry, child.name(), child.directory(), child.modified());
+                if (child.directory()) queue.add(path.resolve(child.name()));
+            }
+        }
+        return builder.finish(roots);
+    }
+
+    /**
+     * Writes the index to a file, replacing it atomically.
+     *
+     * @param file the index file
+     * @throws IOException if the file cannot be written
+     */
+    void write(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream header = new DataOutputStream(bytes);
+            header.writeLong(MAGIC);
+            header.writeInt(VERSION);
+            header.writeInt(roots.size());
+            for (Path root : roots) header.writeUTF(root.toString());
+            channel.write(ByteBuffer.wrap(bytes.toByteArray()));
+            writeInts(channel, parent);
+            writeInts(channel, nameStart);
+            writeBytes(channel, names);
+            writeInts(channel, directory);
+            writeInts(channel, firstChild);
+            writeInts(channel, childCount);
+            writeLongs(channel, modified);
+            writeInts(channel, postingStart);
+            writeBytes(channel, postings);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads an index file.
+     *
+     * @param file the index file
+     * @return the index
+     * @throws IOException if the file cannot be read or is not a valid index file
+     */
+    static IndexSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            DataInputStream header = new DataInputStream(Channels.newInputStream(channel));
+            if (header.readLong() != MAGIC || header.readInt() != VERSION) throw new IOException("Not an index file: " + file);
+            int rootCount = header.readInt();
+            List<Path> roots = new ArrayList<>();
+            for (int i = 0; i < rootCount; i++) roots.add(Path.of(header.readUTF()));
+
+            int[] parent = readInts(channel);
+            int[] nameStart = readInts(channel);
+            byte[] names = readBytes(channel);
+            int[] directory = readInts(channel);
+            int[] firstChild = readInts(channel);
+            int[] childCount = readInts(channel);
+            long[] modified = readLongs(channel);
+            int[] postingStart = readInts(channel);
+            byte[] postings = readBytes(channel);
+
+            if (nameStart.length != parent.length + 1 || directory.length != parent.length
+                    || postingStart.length != BUCKETS + 1 || firstChild.length != modified.length) {
+                throw new IOException("Corrupted index file: " + file);
+            }
+            return new IndexSnapshot(roots, parent, nameStart, names, directory, firstChild, childCount, modified, postingStart, postings);
+        }
+    }
+
+    private static void writeInts(FileChannel channel, int[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 4 * values.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(values.length).asIntBuffer().put(values);
+        channel.write(buffer.rewind());
+    }
+
+    private static void writeLongs(FileChannel channel, long[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 8 * values.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(values.length).asLongBuffer().put(values);
+        channel.write(buffer.rewind());
+    }
+
+    private static void writeBytes(FileChannel channel, byte[] values) throws IOException {
+        ByteBuffer length = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(values.length);
+        channel.write(length.rewind());
+        channel.write(ByteBuffer.wrap(values));
+    }
+
+    private static int[] readInts(FileChannel channel) throws IOException {
+        int[] values = new int[readLength(channel, 4)];
+        readFully(channel, 4L * values.length).asIntBuffer().get(values);
+        return values;
+    }
+
+    private static long[] readLongs(FileChannel channel) throws IOException {
+        long[] values = new long[readLength(channel, 8)];
+        readFully(channel, 8L * values.length).asLongBuffer().get(values);
+        return values;
+    }
+
+    private static byte[] readBytes(FileChannel channel) throws IOException {
+        byte[] values = new byte[readLength(channel, 1)];
+        readFully(channel, values.length).get(values);
+        return values;
+    }
+
+    private static int readLength(FileChannel channel, int elementSize) throws IOException {
+        int length = readFully(channel, 4).getInt();
+        if (length < 0 || (long) length * elementSize > channel.size() - channel.position()) throw new IOException("Corrupted index file");
+        return length;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) throw new IOException("Truncated index file");
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Collects the entries of an index in growing arrays and computes the trigram lists at the end.
+     */
+    private static class Builder {
+
+        private int size;
+        private int[] parent = new int[1024];
+        private int[] nameStart = new int[1025];
+        private byte[] names = new byte[16384];
+        private int[] directory = new int[1024];
+
+        private int directories;
+        private int[] firstChild = new int[256];
+        private int[] childCount = new int[256];
+        private long[] modified = new long[256];
+
+        int size() {
+            return size;
+        }
+
+        boolean isDirectory(int entry) {
+            return directory[entry] >= 0;
+        }
+
+        void add(int parentEntry, String name, boolean isDirectory, long lastModified) {
+            if (size == parent.length) {
+                parent = Arrays.copyOf(parent, size * 2);
+                nameStart = Arrays.copyOf(nameStart, size * 2 + 1);
+                directory = Arrays.copyOf(directory, size * 2);
+            }
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            int start = nameStart[size];
+            if (start + bytes.length > names.length) {
+                names = Arrays.copyOf(names, Math.max(names.length * 2, start + bytes.length));
+            }
+            System.arraycopy(bytes, 0, names, start, bytes.length);
+
+            parent[size] = parentEntry;
+            nameStart[size + 1] = start + bytes.length;
+            directory[size] = isDirectory ? addDirectory(lastModified) : -1;
+            size++;
+        }
+
+        private int addDirectory(long lastModified) {
+            if (directories == firstChild.length) {
+                firstChild = Arrays.copyOf(firstChild, directories * 2);
+                childCount = Arrays.copyOf(childCount, directories * 2);
+                modified = Arrays.copyOf(modified, directories * 2);
+            }
+            modified[directories] = lastModified;
+            return directories++;
+        }
+
+        void setChildren(int entry, int first, int count) {
+            firstChild[directory[entry]] = first;
+            childCount[directory[entry]] = count;
+        }
+
+        IndexSnapshot finish(List<Path> roots) {
+            byte[] trimmedNames = Arrays.copyOf(names, nameStart[size]);
+            int[] trimmedNameStart = Arrays.copyOf(nameStart, size + 1);
+
+            // Two passes over the names: count the entries of every bucket, then fill them in ascending order.
+            int[] counts = new int[BUCKETS + 1];
+            int[] last = new int[BUCKETS];
+            Arrays.fill(last, -1);
+            for (int entry = 0; entry < size; entry++) {
+                for (int bucket : entryBuckets(trimmedNames, trimmedNameStart, entry)) {
+                    if (last[bucket] != entry) {
+                        last[bucket] = entry;
+                        counts[bucket + 1]++;
+                    }
+                }
+            }
+            for (int bucket = 0; bucket < BUCKETS; bucket++) counts[bucket + 1] += counts[bucket];
+
+            int[] lists = new int[counts[BUCKETS]];
+            int[] fill = Arrays.copyOf(counts, BUCKETS);
+            Arrays.fill(last, -1);
+            for (int entry = 0; entry < size; entry++) {
+                for (int bucket : entryBuckets(trimmedNames, trimmedNameStart, entry)) {
+                    if (last[bucket] != entry) {
+                        last[bucket] = entry;
+                        lists[fill[bucket]++] = entry;
+                    }
+                }
+            }
+
+            int[] postingStart = new int[BUCKETS + 1];
+            byte[] postings = new byte[lists.length + 16];
+            int position = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                postingStart[bucket] = position;
+                int previous = 0;
+                for (int i = counts[bucket]; i < counts[bucket + 1]; i++) {
+                    if (position + 5 > postings.length) postings = Arrays.copyOf(postings, postings.length * 2);
+                    int delta = lists[i] - previous;
+                    previous = lists[i];
+                    while ((delta & ~0x7F) != 0) {
+                        postings[position++] = (byte) ((delta & 0x7F) | 0x80);
+                        delta >>>= 7;
+                    }
+                    postings[position++] = (byte) delta;
+                }
+            }
+            postingStart[BUCKETS] = position;
+
+            return new IndexSnapshot(roots, Arrays.copyOf(parent, size), trimmedNameStart, trimmedNames, Arrays.copyOf(directory, size),
+                    Arrays.copyOf(firstChild, directories), Arrays.copyOf(childCount, directories), Arrays.copyOf(modified, directories),
+                    postingStart, Arrays.copyOf(postings, position));
+        }
+
+        private static int[] entryBuckets(byte[] names, int[] nameStart, int entry) {
+            return buckets(new String(names, nameStart[entry], nameStart[entry + 1] - nameStart[entry], StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.aloe.files.search;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Matches a regular expression against every line of the bytes, decoded as UTF-8.
+ * <p>
+ * Every searching thread decodes into its own buffer, which is reused for all lines and files, so a
+ * search allocates no strings. Lines longer than {@link #MAX_LINE} bytes are matched in pieces.
+ * </p>
+ *
+ * @see ContentMatcher
+ * @since 2.9.0
+ */
+final class LineRegexMatcher implements ContentMatcher {
+
+    /** The longest part of a line that is decoded at once, in bytes. */
+    static final int MAX_LINE = 1 << 20;
+
+    /** The compiled expression. */
+    private final Pattern pattern;
+
+    /** The decoder of every searching thread. */
+    private final ThreadLocal<LineDecoder> decoders = ThreadLocal.withInitial(LineDecoder::new);
+
+    /**
+     * Creates a matcher of a compiled expression.
+     *
+     * @param pattern the expression
+     */
+    LineRegexMatcher(Pattern pattern) {
+        this.pattern = pattern;
+    }
+
+    @Override
+    public int find(ByteBuffer text, int from, int to) {
+        LineDecoder decoder = decoders.get();
+        for (int start = from; start < to; ) {
+            int end = start;
+            while (end < to && end - start < MAX_LINE && text.get(end) != '\n') end++;
+            if (decoder.matches(text, start, end)) return start;
+            start = end < to && text.get(end) == '\n' ? end + 1 : end;
+        }
+        return -1;
+    }
+
+    /**
+     * Decodes lines into a reused buffer and matches them.
+     */
+    private final class LineDecoder {
+
+        /** Decodes UTF-8, replacing malformed bytes. */
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        /** The matcher, reset for every line. */
+        private final Matcher matcher = pattern.matcher("");
+
+        /** The decoded line. */
+        private CharBuffer chars = CharBuffer.allocate(256);
+
+        /**
+         * Decodes a line and matches it.
+         *
+         * @param text  the bytes
+         * @param start the first index of the line
+         * @param end   the index after the line, without the line break
+         * @return {@code true} if the expression occurs in the line
+         */
+        boolean matches(ByteBuffer text, int start, int end) {
+            if (chars.capacity() < end - start) chars = CharBuffer.allocate(end - start);
+            chars.clear();
+            decoder.reset();
+            decoder.decode(text.slice(start, end - start), chars, true);
+            decoder.flush(chars);
+            chars.flip();
+            return matcher.reset(chars).find();
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.aloe.files.search;
+
+import com.example.aloe.files.search.IndexSnapshot.Child;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The current state of the file name index: an {@link IndexSnapshot} together with the changes made since it was built.
+ * <p>
+ * Files removed since the snapshot are marked in a bit set; a removed directory hides everything below it.
+ * Added files are kept by their parent directory, and directories that have been listed again have their new
+ * modification time. Queries search the snapshot through its trigram lists and the few added files one by one,
+ * so the index stays accurate without rebuilding it on every change. Once the changes grow too large,
+ * {@link NameIndexer} builds a new snapshot from the current state.
+ * </p>
+ *
+ * <p>
+ * Changes are only made by the indexer thread; queries may run on any thread at the same time.
+ * </p>
+ *
+ * @see NameIndexer
+ * @since 2.9.0
+ */
+final class NameIndex {
+
+    /** The snapshot the changes apply to. */
+    final IndexSnapshot snapshot;
+
+    /** The snapshot entries that have been removed. */
+    private final BitSet removed = new BitSet();
+
+    /** The added entries by parent directory. */
+    private final Map<Path, Map<String, Child>> added = new HashMap<>();
+
+    /** The modification times of directories listed since the snapshot was built. */
+    private final Map<Path, Long> modified = new HashMap<>();
+
+    /** The number of added and removed entries. */
+    private int changes;
+
+    /**
+     * Creates an index without changes.
+     *
+     * @param snapshot the snapshot
+     */
+    NameIndex(IndexSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Returns the root directories of the index.
+     *
+     * @return the roots
+     */
+    List<Path> getRoots() {
+        return snapshot.roots;
+    }
+
+    /**
+     * Checks whether a directory is below one of the roots of the index.
+     *
+     * @param directory the directory
+     * @return {@code true} if the index covers the whole tree below the directory
+     */
+    boolean covers(Path directory) {
+        return snapshot.roots.stream().anyMatch(directory::startsWith);
+    }
+
+    /**
+     * Returns the number of entries added or removed since the snapshot was built.
+     *
+     * @return the number of changes
+     */
+    synchronized int getChanges() {
+        return changes;
+    }
+
+    /**
+     * Returns the estimated memory held by the index.
+     *
+     * @return the size in bytes
+     */
+    synchronized long memorySize() {
+        return snapshot.memorySize() + removed.size() / 8 + 160L * (changes + modified.size());
+    }
+
+    /**
+     * Passes the paths of the entries below a directory whose names match to a consumer, until it has
+     * received the given number of paths. Only the snapshot entries whose names may contain the given text
+     * are compared with the matcher.
+     *
+     * @param scope   the directory to search below
+     * @param text    a text every matching name contains, ignoring case
+     * @param matcher the matcher every name has to match
+     * @param limit   the maximum number of paths
+     * @param hits    receives the paths
+     * @return the number of paths passed
+     */
+    synchronized int find(Path scope, String text, NameMatcher matcher, int limit, Consumer<Path> hits) {
+        int scopeEntry = snapshot.resolve(scope);
+        int[] found = {0};
+
+        if (scopeEntry >= 0 && isLive(scopeEntry)) {
+            snapshot.findCandidates(text, entry -> {
+                if (found[0] >= limit || snapshot.parent[entry] < 0 || removed.get(entry)) return;
+                if (!matcher.matches(snapshot.name(entry)) || !isBelow(entry, scopeEntry)) return;
+                hits.accept(snapshot.path(entry));
+                found[0]++;
+            });
+        }
+
+        for (Map.Entry<Path, Map<String, Child>> directory : added.entrySet()) {
+            if (!directory.getKey().startsWith(scope)) continue;
+            for (String name : directory.getValue().keySet()) {
+                if (found[0] >= limit) return found[0];
+                if (matcher.matches(name)) {
+                    hits.accept(directory.getKey().resolve(name));
+                    found[0]++;
+                }
+            }
+        }
+        return found[0];
+    }
+
+    /**
+     * Returns the indexed children of a directory.
+     *
+     * @param directory the directory
+     * @return the children with their names, types and, for directories, the modification times
+     *         they had when they were last listed
+     */
+    synchronized List<Child> children(Path directory) {
+        Map<String, Child> children = new LinkedHashMap<>();
+        int entry = resolve(directory);
+        if (entry >= 0 && snapshot.isDirectory(entry)) {
+            int dir = snapshot.directory[entry];
+            for (int child = snapshot.firstChild[dir]; child < snapshot.firstChild[dir] + snapshot.childCount[dir]; child++) {
+                if (removed.get(child)) continue;
+                String name = snapshot.name(child);
+                long childModified = snapshot.isDirectory(child)
+                        ? modified.getOrDefault(directory.resolve(name), snapshot.modified[snapshot.directory[child]]) : 0;
+                children.put(name, new Child(name, snapshot.isDirectory(child), childModified));
+            }
+        }
+        Map<String, Child> extra = added.get(directory);
+        if (extra != null) {
+            for (Child child : extra.values()) {
+                long childModified = child.directory() ? modified.getOrDefault(directory.resolve(child.name()), child.modified()) : 0;
+                children.put(child.name(), new Child(child.name(), child.directory(), childModified));
+            }
+        }
+        return new ArrayList<>(children.values());
+    }
+
+    /**
+     * Returns the modification time a directory had when it was last listed.
+     *
+     * @param directory the directory
+     * @return the modification time in milliseconds, or {@code -1} if the directory is not indexed
+     */
+    synchronized long getModified(Path directory) {
+        Long time = modified.get(directory);
+        if (time != null) return time;
+        int entry = resolve(directory);
+        return entry >= 0 && snapshot.isDirectory(entry) ? snapshot.modified[snapshot.directory[entry]] : -1;
+    }
+
+    /**
+     * Replaces the indexed children of a directory with its current children.
+     *
+     * @param directory the directory
+     * @param time      the current modification time of the directory
+     * @param current   the current children
+     * @return the directories that have been added and still have to be listed
+     */
+    synchronized List<Path> update(Path directory, long time, List<Child> current) {
+        Map<String, Child> indexed = new HashMap<>();
+        for (Child child : children(directory)) indexed.put(child.name(), child);
+
+        List<Path> addedDirectories = new ArrayList<>();
+        for (Child child : current) {
+            Child old = indexed.remove(child.name());
+            if (old != null && old.directory() == child.directory()) continue;
+            if (old != null) remove(directory.resolve(child.name()));
+
+            added.computeIfAbsent(directory, key -> new HashMap<>()).put(child.name(), child);
+            changes++;
+            if (child.directory()) addedDirectories.add(directory.resolve(child.name()));
+        }
+        for (String name : indexed.keySet()) {
+            remove(directory.resolve(name));
+        }
+        modified.put(directory, time);
+        return addedDirectories;
+    }
+
+    /**
+     * Removes an entry and everything below it.
+     *
+     * @param path the path of the entry
+     */
+    private void remove(Path path) {
+        int entry = resolve(path);
+        if (entry >= 0) {
+            removed.set(entry);
+            changes++;
+        }
+
+        Map<String, Child> siblings = added.get(path.getParent());
+        if (siblings != null && siblings.remove(path.getFileName().toString()) != null) {
+            changes--;
+            if (siblings.isEmpty()) added.remove(path.getParent());
+        }
+        added.entrySet().removeIf(directory -> {
+            if (!directory.getKey().startsWith(path)) return false;
+            changes -= directory.getValue().size();
+            return true;
+        });
+        modified.keySet().removeIf(directory -> directory.startsWith(path));
+    }
+
+    /**
+     * Finds the live snapshot entry of a path.
+     *
+     * @param path the path
+     * @return the entry, or {@code -1} if the path is not in the snapshot or has been removed
+     */
+    private int resolve(Path path) {
+        int entry = snapshot.resolve(path);
+        return entry >= 0 && isLive(entry) ? entry : -1;
+    }
+
+    /**
+     * Checks whether neither a snapshot entry nor any directory above it has been removed.
+     *
+     * @param entry the entry
+     * @return {@code true} if the entry is still in the index
+     */
+    private boolean isLive(int entry) {
+        for (int current = entry; current >= 0; current = snapshot.parent[current]) {
+            if (removed.get(current)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a live snapshot entry is below a directory.
+     *
+     * @param entry     the entry
+     * @param directory the directory
+     * @return {@code true} if the entry is below the directory and neither has been removed
+     */
+    private boolean isBelow(int entry, int directory) {
+        boolean below = false;
+        for (int current = snapshot.parent[entry]; current >= 0; current = snapshot.parent[current]) {
+            if (removed.get(current)) return false;
+            if (current == directory) below = true;
+        }
+        return below;
+    }
+}
@@ -0,0 +1,442 @@
+package com.example.aloe.files.search;
+
+import com.example.aloe.files.search.IndexSnapshot.Child;
+import com.example.aloe.settings.Settings;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SecureDirectoryStream;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.DosFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Maintains a persistent index of the file names below the directories bookmarked in the menu,
+ * so name searches below them are answered without walking the tree.
+ * <p>
+ * The index is stored in {@code $XDG_CACHE_HOME/aloe/name-index.bin} (or {@code ~/.cache/aloe}) and loaded
+ * when the application starts. A background thread then brings it up to date: every indexed directory whose
+ * modification time differs from the indexed one is listed again, which finds all added, removed and renamed
+ * files without reading the other directories. While the application runs, the first {@link #WATCH_LIMIT}
+ * directories, the shallowest ones, are watched for changes, and the whole tree is checked again every
+ * {@link #REVALIDATE_INTERVAL} minutes. Changes are kept next to the loaded {@link IndexSnapshot} until there
+ * are more than {@link #COMPACT_THRESHOLD} of them, then a new snapshot is built and written to disk.
+ * </p>
+ *
+ * <p>
+ * Hidden files and directories are not indexed, so searches that include hidden files walk the tree.
+ * The index can be disabled with the {@code search-index} setting.
+ * </p>
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * NameIndexer.start();
+ * int found = NameIndexer.find(directory, NameMatcher.of("report", SearchMode.SUBSTRING), 100, results::add);
+ * }</pre>
+ *
+ * @see FileSearchTask
+ * @since 2.9.0
+ */
+public final class NameIndexer {
+
+    /** The maximum number of directories watched for changes. */
+    static final int WATCH_LIMIT = 4096;
+
+    /** The time over which change events are collected before the directories are listed again, in milliseconds. */
+    static final long COALESCE_WINDOW = 1000;
+
+    /** The time between two checks of all indexed directories, in minutes. */
+    static final long REVALIDATE_INTERVAL = 15;
+
+    /** The minimum number of changes after which a new snapshot is built. */
+    static final int COMPACT_THRESHOLD = 10_000;
+
+    /** The current index, or {@code null} until it has been loaded or built. */
+    private static volatile NameIndex index;
+
+    /** The running indexer, or {@code null} if indexing is disabled. */
+    private static Indexer indexer;
+
+    private NameIndexer() {}
+
+    /**
+     * Starts indexing the bookmarked directories in the background, or stops indexing if it is disabled
+     * in settings. Calling it again only restarts the indexer when the bookmarked directories have changed,
+     * which is why it is called whenever the menu items are saved.
+     */
+    public static synchronized void start() {
+        if (!Boolean.TRUE.equals(Settings.getSetting("files", "search-index"))) {
+            stop();
+            return;
+        }
+
+        List<Path> roots = getConfiguredRoots();
+        if (indexer != null && indexer.roots.equals(roots)) return;
+        stop();
+
+        indexer = new Indexer(roots);
+        Thread thread = new Thread(indexer, "search-index");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Stops indexing. The index file is kept.
+     */
+    public static synchronized void stop() {
+        if (indexer != null) {
+            indexer.close();
+            indexer = null;
+        }
+        index = null;
+    }
+
+    /**
+     * Searches the index for files below a directory whose names match.
+     *
+     * @param directory the directory to search below
+     * @param matcher   the matcher of the query
+     * @param limit     the maximum number of matches
+     * @param hits      receives the paths of the matches
+     * @return the number of matches, or {@code -1} if the index is not ready or does not cover the directory
+     */
+    public static int find(Path directory, NameMatcher matcher, int limit, Consumer<Path> hits) {
+        NameIndex current = index;
+        Path scope = directory.toAbsolutePath().normalize();
+        if (current == null || !current.covers(scope)) return -1;
+        return current.find(scope, matcher.literal(), matcher, limit, hits);
+    }
+
+    /**
+     * Returns the estimated memory held by the index.
+     *
+     * @return the size in bytes, or {@code 0} if no index is loaded
+     */
+    public static long getMemorySize() {
+        NameIndex current = index;
+        return current != null ? current.memorySize() : 0;
+    }
+
+    /**
+     * Returns the size of the index file.
+     *
+     * @return the size in bytes, or {@code 0} if there is no index file
+     */
+    public static long getDiskSize() {
+        try {
+            return Files.size(getIndexFile());
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the bookmarked directories that exist, without those below another bookmarked directory.
+     *
+     * @return the roots of the index
+     */
+    static List<Path> getConfiguredRoots() {
+        List<Map<String, Object>> items = Settings.getSetting("menu", "items");
+        List<Path> candidates = items == null ? List.of() : items.stream()
+                .map(item -> Objects.toString(item.get("path"), ""))
+                .filter(path -> !path.isBlank() && !path.startsWith("%"))
+                .map(path -> Path.of(path).toAbsolutePath().normalize())
+                .filter(Files::isDirectory)
+                .distinct()
+                .sorted(Comparator.comparingInt(Path::getNameCount))
+                .toList();
+
+        List<Path> roots = new ArrayList<>();
+        for (Path candidate : candidates) {
+            if (roots.stream().noneMatch(candidate::startsWith)) roots.add(candidate);
+        }
+        return roots;
+    }
+
+    /**
+     * Returns the location of the index file.
+     *
+     * @return {@code $XDG_CACHE_HOME/aloe/name-index.bin}, or {@code ~/.cache/aloe/name-index.bin} if the variable is not set
+     */
+    static Path getIndexFile() {
+        String cache = System.getenv("XDG_CACHE_HOME");
+        Path base = cache != null && !cache.isBlank() ? Path.of(cache) : Path.of(System.getProperty("user.home"), ".cache");
+        return base.resolve("aloe").resolve("name-index.bin").toAbsolutePath();
+    }
+
+    /**
+     * Lists the entries of a directory that are indexed, i.e. all entries that are not hidden.
+     *
+     * @param directory the directory
+     * @return the entries; directories with their modification times
+     * @throws IOException if the directory cannot be read
+     */
+    static List<Child> list(Path directory) throws IOException {
+        List<Child> children = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path path : entries) {
+                String name = path.getFileName().toString();
+                if (name.startsWith(".")) continue;
+                try {
+                    BasicFileAttributes attributes = entries instanceof SecureDirectoryStream<Path> secure
+                            ? secure.getFileAttributeView(path.getFileName(), BasicFileAttributeView.class, LinkOption.NOFOLLOW_LINKS).readAttributes()
+                            : Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    if (attributes instanceof DosFileAttributes dos && dos.isHidden()) continue;
+
+                    boolean isDirectory = attributes.isDirectory() && !TreeWalk.SKIPPED_DIRECTORIES.contains(path);
+                    children.add(new Child(name, isDirectory, isDirectory ? attributes.lastModifiedTime().toMillis() : 0));
+                } catch (IOException ignored) {
+                }
+            }
+        }
+        return children;
+    }
+
+    /**
+     * Builds, updates and saves the index of one set of roots until it is closed.
+     */
+    private static class Indexer implements Runnable {
+
+        /** The indexed directories. */
+        private final List<Path> roots;
+
+        /** The directories registered with the watch service. */
+        private final Set<Path> watched = new LinkedHashSet<>();
+
+        /** The index maintained by this indexer. */
+        private NameIndex current;
+
+        /** The watch service, or {@code null} before it has been created. */
+        private volatile WatchService service;
+
+        /** Whether the indexer has been closed. */
+        private volatile boolean closed;
+
+        Indexer(List<Path> roots) {
+            this.roots = roots;
+        }
+
+        /**
+         * Stops the indexer after the directory it is currently reading.
+         */
+        void close() {
+            closed = true;
+            WatchService watchService = service;
+            if (watchService != null) {
+                try {
+                    watchService.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                NameIndex loaded = load();
+                if (loaded == null) return;
+                publish(loaded);
+                revalidate();
+
+                service = FileSystems.getDefault().newWatchService();
+                if (closed) service.close();
+                watchTree();
+                watch();
+            } catch (ClosedWatchServiceException | InterruptedException ignored) {
+            } catch (IOException | RuntimeException e) {
+                if (!closed) e.printStackTrace();
+            }
+        }
+
+        /**
+         * Reads the index file, or builds and saves a new index if the file is missing, invalid or has other roots.
+         *
+         * @return the index, or {@code null} if the indexer has been closed
+         */
+        private NameIndex load() {
+            Path file = getIndexFile();
+            try {
+                IndexSnapshot snapshot = IndexSnapshot.read(file);
+                if (snapshot.roots.equals(roots)) return new NameIndex(snapshot);
+            } catch (IOException ignored) {
+            }
+
+            IndexSnapshot snapshot = IndexSnapshot.build(roots, NameIndexer::list, () -> closed);
+            if (snapshot == null) return null;
+            save(snapshot);
+            return new NameIndex(snapshot);
+        }
+
+        /**
+         * Makes an index the current one, unless the indexer has been closed.
+         *
+         * @param next the index
+         */
+        private void publish(NameIndex next) {
+            current = next;
+            synchronized (NameIndexer.class) {
+                if (!closed) index = next;
+            }
+        }
+
+        /**
+         * Lists again every indexed directory whose modification time has changed, breadth first.
+         */
+        private void revalidate() {
+            ArrayDeque<Path> queue = new ArrayDeque<>(roots);
+            while (!queue.isEmpty() && !closed) {
+                Path directory = queue.poll();
+                try {
+                    long time = Files.getLastModifiedTime(directory, LinkOption.NOFOLLOW_LINKS).toMillis();
+                    if (time != current.getModified(directory)) update(directory);
+                } catch (IOException | SecurityException ignored) {
+                }
+                for (Child child : current.children(directory)) {
+                    if (child.directory()) queue.add(directory.resolve(child.name()));
+                }
+            }
+            compactIfNeeded();
+        }
+
+        /**
+         * Lists a directory again and applies the differences to the index. Added directories are listed as well.
+         *
+         * @param directory the directory
+         */
+        private void update(Path directory) {
+            if (!current.covers(directory)) return;
+
+            ArrayDeque<Path> queue = new ArrayDeque<>(List.of(directory));
+            while (!queue.isEmpty() && !closed) {
+                Path listed = queue.poll();
+                List<Child> children;
+                long time;
+                try {
+                    time = Files.getLastModifiedTime(listed, LinkOption.NOFOLLOW_LINKS).toMillis();
+                    children = list(listed);
+                } catch (IOException | SecurityException e) {
+                    time = 0;
+                    children = List.of();
+                }
+                List<Path> added = current.update(listed, time, children);
+                queue.addAll(added);
+                added.forEach(this::register);
+            }
+        }
+
+        /**
+         * Registers the shallowest indexed directories with the watch service, up to {@link #WATCH_LIMIT}.
+         */
+        private void watchTree() {
+            ArrayDeque<Path> queue = new ArrayDeque<>(roots);
+            while (!queue.isEmpty() && watched.size() < WATCH_LIMIT && !closed) {
+                Path directory = queue.poll();
+                register(directory);
+                for (Child child : current.children(directory)) {
+                    if (child.directory()) queue.add(directory.resolve(child.name()));
+                }
+            }
+        }
+
+        /**
+         * Registers a directory with the watch service, unless the limit has been reached.
+         *
+         * @param directory the directory
+         */
+        private void register(Path directory) {
+            if (service == null || watched.size() >= WATCH_LIMIT || watched.contains(directory)) return;
+            try {
+                directory.register(service, ENTRY_CREATE, ENTRY_DELETE);
+                watched.add(directory);
+            } catch (IOException | UnsupportedOperationException | SecurityException ignored) {
+            }
+        }
+
+        /**
+         * Waits for change events and lists the changed directories again, checking the whole tree
+         * when events have been lost and every {@link #REVALIDATE_INTERVAL} minutes.
+         *
+         * @throws InterruptedException if the thread is interrupted
+         */
+        private void watch() throws InterruptedException {
+            while (!closed) {
+                WatchKey key = service.poll(REVALIDATE_INTERVAL, TimeUnit.MINUTES);
+                if (key == null) {
+                    revalidate();
+                    continue;
+                }
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(COALESCE_WINDOW);
+                Set<Path> changed = new LinkedHashSet<>();
+                boolean lost = false;
+                while (key != null) {
+                    Path directory = (Path) key.watchable();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == OVERFLOW) lost = true;
+                    }
+                    changed.add(directory);
+                    if (!key.reset()) {
+                        watched.remove(directory);
+                        changed.add(directory.getParent());
+                    }
+                    key = service.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }
+
+                if (lost) {
+                    revalidate();
+                } else {
+                    changed.forEach(this::update);
+                    compactIfNeeded();
+                }
+            }
+        }
+
+        /**
+         * Builds a new snapshot from the current state of the index and saves it, once the changes
+         * exceed {@link #COMPACT_THRESHOLD} or a tenth of the snapshot.
+         */
+        private void compactIfNeeded() {
+            if (current.getChanges() <= Math.max(COMPACT_THRESHOLD, current.snapshot.size() / 10)) return;
+
+            IndexSnapshot snapshot = IndexSnapshot.build(roots, current::children, () -> closed);
+            if (snapshot == null) return;
+            publish(new NameIndex(snapshot));
+            save(snapshot);
+        }
+
+        /**
+         * Writes a snapshot to the index file.
+         *
+         * @param snapshot the snapshot
+         */
+        private void save(IndexSnapshot snapshot) {
+            if (closed) return;
+            try {
+                snapshot.write(getIndexFile());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
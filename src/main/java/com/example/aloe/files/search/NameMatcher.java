@@ -0,0 +1,180 @@
+package com.example.aloe.files.search;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Matches file names against a search query.
+ * <p>
+ * A matcher is compiled once per query with {@link #of(String, SearchMode)} and then tested against every
+ * name visited by a search, from any number of threads. Substring queries are compared in place without
+ * creating lower-case copies of the names; glob and regular expression queries are compiled into a single
+ * {@link Pattern}. {@link #literal()} tells which text every matching name contains, so an index such as
+ * {@link NameIndexer} only has to test the names containing it.
+ * </p>
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * NameMatcher matcher = NameMatcher.of("*.jpg", SearchMode.GLOB);
+ * boolean matches = matcher.matches("Holiday.JPG");
+ * }</pre>
+ *
+ * @see SearchMode
+ * @since 2.9.0
+ */
+@FunctionalInterface
+public interface NameMatcher {
+
+    /**
+     * Checks whether a file name matches the query.
+     *
+     * @param name the name of the file, without its directory
+     * @return {@code true} if the name matches
+     */
+    boolean matches(String name);
+
+    /**
+     * Returns a text that every matching name contains, ignoring case.
+     *
+     * @return the text, or an empty string if nothing is known about the matching names
+     */
+    default String literal() {
+        return "";
+    }
+
+    /**
+     * Compiles a query into a matcher.
+     *
+     * @param query the query
+     * @param mode  how the query is matched
+     * @return the matcher
+     * @throws PatternSyntaxException if a regular expression query is not valid
+     */
+    static NameMatcher of(String query, SearchMode mode) {
+        int flags = Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+        return switch (mode) {
+            case SUBSTRING -> withLiteral(name -> containsIgnoreCase(name, query), query);
+            case GLOB -> {
+                Pattern pattern = Pattern.compile(globToRegex(query), flags);
+                yield withLiteral(name -> pattern.matcher(name).matches(), globLiteral(query));
+            }
+            case REGEX -> {
+                Pattern pattern = Pattern.compile(query, flags);
+                yield name -> pattern.matcher(name).find();
+            }
+        };
+    }
+
+    /**
+     * Attaches the text every matching name contains to a matcher.
+     *
+     * @param matcher the matcher
+     * @param literal the text
+     * @return a matcher with the same matches that reports the text
+     */
+    private static NameMatcher withLiteral(NameMatcher matcher, String literal) {
+        return new NameMatcher() {
+            @Override
+            public boolean matches(String name) {
+                return matcher.matches(name);
+            }
+
+            @Override
+            public String literal() {
+                return literal;
+            }
+        };
+    }
+
+    /**
+     * Checks whether a name contains a query, ignoring case.
+     *
+     * @param name  the name
+     * @param query the query
+     * @return {@code true} if the query occurs in the name
+     */
+    private static boolean containsIgnoreCase(String name, String query) {
+        for (int i = 0, last = name.length() - query.length(); i <= last; i++) {
+            if (name.regionMatches(true, i, query, 0, query.length())) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the longest run of characters that a glob pattern matches literally.
+     *
+     * @param glob the glob pattern
+     * @return the longest literal run, possibly empty
+     */
+    private static String globLiteral(String glob) {
+        String longest = "";
+        StringBuilder run = new StringBuilder();
+        int groups = 0;
+        for (int i = 0; i <= glob.length(); i++) {
+            char c = i < glob.length() ? glob.charAt(i) : '*';
+            if (c == '{') groups++;
+            if (groups == 0 && "*?[]{},".indexOf(c) < 0) {
+                run.append(c);
+                continue;
+            }
+            if (run.length() > longest.length()) longest = run.toString();
+            run.setLength(0);
+            if (c == '}' && groups > 0) groups--;
+            if (c == '[') {
+                int end = glob.indexOf(']', i + 2);
+                if (end > 0) i = end;
+            }
+        }
+        return longest;
+    }
+
+    /**
+     * Translates a glob pattern into a regular expression. {@code *} matches any number of characters,
+     * {@code ?} a single character, {@code [...]} and {@code [!...]} a set of characters and
+     * {@code {a,b}} one of the alternatives; everything else matches literally.
+     *
+     * @param glob the glob pattern
+     * @return the equivalent regular expression
+     */
+    private static String globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        int groups = 0;
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            switch (c) {
+                case '*' -> regex.append(".*");
+                case '?' -> regex.append('.');
+                case '[' -> {
+                    int end = glob.indexOf(']', i + 2);
+                    if (end < 0) {
+                        regex.append("\\[");
+                        break;
+                    }
+                    String set = glob.substring(i + 1, end);
+                    if (set.startsWith("!")) set = "^" + set.substring(1);
+                    regex.append('[').append(set.replace("\\", "\\\\").replace("[", "\\[")).append(']');
+                    i = end;
+                }
+                case '{' -> {
+                    regex.append("(?:");
+                    groups++;
+                }
+                case '}' -> {
+                    if (groups > 0) {
+                        regex.append(')');
+                        groups--;
+                    } else {
+                        regex.append("\\}");
+                    }
+                }
+                case ',' -> regex.append(groups > 0 ? "|" : ",");
+                default -> {
+                    if ("\\.^$|+()".indexOf(c) >= 0) regex.append('\\');
+                    regex.append(c);
+                }
+            }
+        }
+        regex.append(")".repeat(groups));
+        return regex.toString();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.aloe.files.search;
+
+/**
+ * Defines how a search query is matched against file names.
+ * <p>
+ * The available modes are:
+ * <ul>
+ *     <li>{@code SUBSTRING} – the name contains the query, ignoring case.</li>
+ *     <li>{@code GLOB} – the whole name matches a glob pattern such as {@code *.txt} or {@code IMG_????.{jpg,png}}, ignoring case.</li>
+ *     <li>{@code REGEX} – the name contains a match of a regular expression, ignoring case.</li>
+ * </ul>
+ * </p>
+ *
+ * @see NameMatcher
+ * @since 2.9.0
+ */
+public enum SearchMode {
+    SUBSTRING,
+    GLOB,
+    REGEX
+}
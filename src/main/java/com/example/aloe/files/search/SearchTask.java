@@ -0,0 +1,150 @@
+package com.example.aloe.files.search;
+
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * The base of the background searches, which hands their matches to the JavaFX application thread.
+ * <p>
+ * A search passes every match to the consumer given to {@code find}, from any number of threads. The matches
+ * are handed to the JavaFX application thread in batches while the search is still running, with at most one
+ * delivery scheduled at a time, so the results appear as they are found without flooding the event queue. Changing the query is done by {@link #cancel() cancelling} the task, which drops the matches that
+ * have not been delivered yet. A search stops by itself once it has counted the maximum number of matches.
+ * </p>
+ *
+ * @param <T> the type of the matches
+ * @see FileSearchTask
+ * @see ContentSearchTask
+ * @since 2.9.0
+ */
+public abstract class SearchTask<T> extends Task<Integer> {
+
+    /** The name of the thread the search runs on. */
+    private final String threadName;
+
+    /** The maximum number of matches reported by the search. */
+    private final int maxResults;
+
+    /** Receives the matches on the JavaFX application thread. */
+    private final Consumer<List<T>> onResults;
+
+    /** The matches not yet handed to the JavaFX application thread. */
+    private final Queue<T> pending = new ConcurrentLinkedQueue<>();
+
+    /** Whether a delivery of the pending matches is scheduled. */
+    private final AtomicBoolean deliveryScheduled = new AtomicBoolean();
+
+    /** The number of matches found so far. */
+    private final AtomicInteger matches = new AtomicInteger();
+
+    /**
+     * Creates a search.
+     *
+     * @param threadName the name of the thread the search runs on
+     * @param maxResults the maximum number of matches reported by the search
+     * @param onResults  receives batches of matches on the JavaFX application thread
+     */
+    SearchTask(String threadName, int maxResults, Consumer<List<T>> onResults) {
+        this.threadName = threadName;
+        this.maxResults = maxResults;
+        this.onResults = onResults;
+    }
+
+    /**
+     * Starts the task on a new background daemon thread.
+     */
+    public void start() {
+        Thread thread = new Thread(this, threadName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Runs the search and delivers the matches.
+     *
+     * @return the number of matches
+     */
+    @Override
+    protected final Integer call() {
+        int found = find(this::publish);
+        deliver();
+        return found;
+    }
+
+    /**
+     * Runs the search and passes every match to the given consumer.
+     *
+     * @param hits receives the matches; thread-safe
+     * @return the number of matches
+     */
+    abstract int find(Consumer<T> hits);
+
+    /**
+     * Counts a match found by the search.
+     *
+     * @return {@code true} if the match is reported, {@code false} if the maximum number of matches has been reached
+     */
+    boolean countMatch() {
+        return matches.incrementAndGet() <= maxResults;
+    }
+
+    /**
+     * Returns the number of matches counted so far, at most the maximum number of matches.
+     *
+     * @return the number of reported matches
+     */
+    int getMatchCount() {
+        return Math.min(matches.get(), maxResults);
+    }
+
+    /**
+     * Checks whether the search should stop, because the task has been cancelled or enough matches have been found.
+     *
+     * @return {@code true} if the search should stop
+     */
+    boolean isStopped() {
+        return isCancelled() || matches.get() >= maxResults;
+    }
+
+    /**
+     * Queues a match and schedules its delivery, unless a delivery is already scheduled.
+     *
+     * @param match the match
+     */
+    private void publish(T match) {
+        pending.add(match);
+        if (deliveryScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::deliver);
+        }
+    }
+
+    /**
+     * Hands the queued matches to the consumer. Must be called on the JavaFX application thread,
+     * or scheduled to run on it.
+     */
+    private void deliver() {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(this::deliver);
+            return;
+        }
+        deliveryScheduled.set(false);
+        if (isCancelled()) {
+            pending.clear();
+            return;
+        }
+
+        List<T> batch = new ArrayList<>();
+        for (T match; (match = pending.poll()) != null; ) {
+            batch.add(match);
+        }
+        if (!batch.isEmpty()) onResults.accept(batch);
+    }
+}
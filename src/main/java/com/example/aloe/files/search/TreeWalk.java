@@ -0,0 +1,182 @@
+package com.example.aloe.files.search;
+
+import com.example.aloe.utils.CurrentPlatform;
+
+import java.io.IOException;
+import java.io.Serial;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SecureDirectoryStream;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.DosFileAttributeView;
+import java.nio.file.attribute.DosFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Visits every entry of a directory tree in parallel.
+ * <p>
+ * The tree is walked on a work-stealing {@link ForkJoinPool}: every directory is a task that reads its
+ * entries, passes them to the {@link Visitor} and forks a task for each subdirectory, so idle threads take
+ * over the subdirectories of busy ones and a single deep branch does not leave the other threads waiting.
+ * Where the platform supports it, entries are stat'ed relative to the open directory, which avoids
+ * resolving the full path of every file again. Symbolic links are not followed, so the walk cannot loop.
+ * </p>
+ *
+ * <p>
+ * The visitor is called on the walking threads and may do further work on the entry, such as reading
+ * the file, which then runs in parallel as well.
+ * </p>
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * new TreeWalk(directory, false, task::isCancelled).walk((path, name, attributes) -> count.increment());
+ * }</pre>
+ *
+ * @see FileSearchTask
+ * @see ContentSearchTask
+ * @since 2.9.0
+ */
+public final class TreeWalk {
+
+    /** The number of threads walking the tree. */
+    static final int PARALLELISM = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /** Virtual file systems that are not walked when the walk starts above them. */
+    static final Set<Path> SKIPPED_DIRECTORIES = Set.of(Path.of("/proc"), Path.of("/sys"), Path.of("/dev"), Path.of("/run"));
+
+    /** The directory whose tree is walked. */
+    private final Path root;
+
+    /** Whether hidden files are visited and hidden directories walked. */
+    private final boolean includeHidden;
+
+    /** Tells whether the walk should stop. */
+    private final BooleanSupplier stopped;
+
+    /**
+     * Receives the entries of the tree.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+
+        /**
+         * Called for every entry of the tree, on one of the walking threads.
+         *
+         * @param path       the path of the entry
+         * @param name       the name of the entry
+         * @param attributes the attributes of the entry, not following symbolic links
+         */
+        void visit(Path path, String name, BasicFileAttributes attributes);
+    }
+
+    /**
+     * Creates a walk of the given directory tree.
+     *
+     * @param root          the directory to walk
+     * @param includeHidden whether hidden files and directories are visited
+     * @param stopped       tells whether the walk should stop; checked before every entry
+     */
+    public TreeWalk(Path root, boolean includeHidden, BooleanSupplier stopped) {
+        this.root = root;
+        this.includeHidden = includeHidden;
+        this.stopped = stopped;
+    }
+
+    /**
+     * Walks the tree in parallel and returns once every entry has been visited or the walk has been stopped.
+     *
+     * @param visitor receives the entries; must be thread-safe
+     */
+    public void walk(Visitor visitor) {
+        ForkJoinPool pool = new ForkJoinPool(PARALLELISM);
+        try {
+            pool.invoke(new DirectoryWalk(root, visitor));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads the attributes of an entry without following symbolic links, relative to the open
+     * directory where the platform supports it.
+     *
+     * @param entries the open directory
+     * @param path    the entry
+     * @return the attributes, or {@code null} if they cannot be read
+     */
+    private static BasicFileAttributes readAttributes(DirectoryStream<Path> entries, Path path) {
+        try {
+            if (entries instanceof SecureDirectoryStream<Path> secure) {
+                return secure.getFileAttributeView(path.getFileName(), BasicFileAttributeView.class, LinkOption.NOFOLLOW_LINKS).readAttributes();
+            }
+            if (CurrentPlatform.isWindows()) {
+                return Files.getFileAttributeView(path, DosFileAttributeView.class, LinkOption.NOFOLLOW_LINKS).readAttributes();
+            }
+            return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException | SecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Visits a single directory and, through forked subtasks, its subdirectories.
+     */
+    private class DirectoryWalk extends RecursiveAction {
+
+        /** The serialization version of the action. */
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        /** The directory to visit. */
+        private final transient Path directory;
+
+        /** Receives the entries. */
+        private final transient Visitor visitor;
+
+        DirectoryWalk(Path directory, Visitor visitor) {
+            this.directory = directory;
+            this.visitor = visitor;
+        }
+
+        /**
+         * Visits the entries of the directory and forks a task for every subdirectory.
+         */
+        @Override
+        protected void compute() {
+            List<DirectoryWalk> subdirectories = new ArrayList<>();
+
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path path : entries) {
+                    if (stopped.getAsBoolean()) break;
+
+                    BasicFileAttributes attributes = readAttributes(entries, path);
+                    if (attributes == null) continue;
+
+                    String name = path.getFileName().toString();
+                    boolean hidden = attributes instanceof DosFileAttributes dos ? dos.isHidden() : name.startsWith(".");
+                    if (hidden && !includeHidden) continue;
+
+                    visitor.visit(path, name, attributes);
+                    if (attributes.isDirectory() && !SKIPPED_DIRECTORIES.contains(path)) {
+                        DirectoryWalk subdirectory = new DirectoryWalk(path, visitor);
+                        subdirectory.fork();
+                        subdirectories.add(subdirectory);
+                    }
+                }
+            } catch (IOException | SecurityException ignored) {
+            }
+
+            for (int i = subdirectories.size() - 1; i >= 0; i--) {
+                subdirectories.get(i).join();
+            }
+        }
+    }
+}
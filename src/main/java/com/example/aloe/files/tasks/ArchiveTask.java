@@ -0,0 +1,100 @@
+package com.example.aloe.files.tasks;
+
+import com.example.aloe.elements.files.FilesLoader;
+import com.example.aloe.files.archive.ArchiveHandler;
+import com.example.aloe.files.archive.ArchiveParameters;
+import javafx.application.Platform;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A background task creating or extracting an archive through the {@link ArchiveHandler}.
+ * <p>
+ * Running archive operations as tasks lets them be queued together with the other file operations
+ * writing to the same disk, and keeps the JavaFX application thread responsive while large archives
+ * are processed. The progress of the operation is shown as indeterminate.
+ * </p>
+ *
+ * @see ArchiveHandler
+ * @see FilesTask
+ * @since 2.9.0
+ */
+public class ArchiveTask extends FilesTask {
+
+    /**
+     * The parameters of the archive to create, or {@code null} if an archive is extracted.
+     */
+    private final ArchiveParameters parameters;
+
+    /**
+     * Constructs a task creating an archive from the given parameters.
+     *
+     * @param parameters the files, type, name and password of the new archive
+     * @param autoStart  whether to start the task immediately
+     */
+    public ArchiveTask(ArchiveParameters parameters, boolean autoStart) {
+        this.parameters = parameters;
+        this.files = parameters.getFiles();
+        this.progressProperty.set(-1);
+
+        if (autoStart) runTask();
+    }
+
+    /**
+     * Constructs a task extracting an archive next to itself.
+     *
+     * @param archive   the archive to extract
+     * @param autoStart whether to start the task immediately
+     */
+    public ArchiveTask(File archive, boolean autoStart) {
+        this.parameters = null;
+        this.files = List.of(archive);
+        this.progressProperty.set(-1);
+
+        if (autoStart) runTask();
+    }
+
+    /**
+     * Returns the directory the archive or the extracted files are written to.
+     *
+     * @return the directory of the first file, or {@code null} if there are no files
+     */
+    @Override
+    protected Path getDestination() {
+        return files.isEmpty() ? null : files.getFirst().getAbsoluteFile().getParentFile().toPath();
+    }
+
+    /**
+     * Returns the title of the archive operation shown in the progress list.
+     *
+     * @return the title, or {@code null} for a single small file
+     */
+    @Override
+    protected String getProgressTitle() {
+        if (parameters != null) {
+            return createTitle("compressing", "to", parameters.getFileName());
+        }
+        return createTitle("extracting", "from", files.getFirst().getAbsoluteFile().getParentFile().getName());
+    }
+
+    /**
+     * Creates or extracts the archive and refreshes the file view.
+     *
+     * @return {@code null} upon completion
+     * @throws Exception if the archive operation fails
+     */
+    @Override
+    protected Void call() throws Exception {
+        checkpoint();
+        if (parameters != null) {
+            ArchiveHandler.compress(parameters);
+        } else {
+            ArchiveHandler.extract(files.getFirst());
+        }
+
+        Platform.runLater(FilesLoader::refresh);
+        return null;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.aloe.files.tasks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The journal of the replacements made by {@link FileDeduplicateTask}, which makes an interrupted
+ * deduplication leave nothing behind.
+ * <p>
+ * A duplicate is replaced by creating the link to the kept copy under a temporary name next to it and
+ * renaming it over the duplicate, which the file system does atomically. The duplicate therefore always
+ * exists, either as itself or as the link, and the only thing an interruption can leave behind is the
+ * temporary file. Before it is created, its path is written to the journal and forced to disk, and once it
+ * has been renamed or removed, that is written too. {@link #recover()} removes the temporary files that
+ * were never finished when the application starts.
+ * </p>
+ *
+ * <p>
+ * The journal is shared by all running deduplications and deleted when the last of them has finished
+ * with nothing pending.
+ * </p>
+ *
+ * @see FileDeduplicateTask
+ * @since 2.9.0
+ */
+final class DeduplicationJournal {
+
+    /** Marks a temporary file that is about to be created. */
+    private static final byte BEGIN = 1;
+
+    /** Marks a temporary file that has been renamed or removed. */
+    private static final byte END = 2;
+
+    /** The open journal, or {@code null} if no deduplication is running. Guarded by the class. */
+    private static FileChannel channel;
+
+    /** The number of running deduplications. Guarded by the class. */
+    private static int users;
+
+    /** The temporary files that have been begun but not ended. Guarded by the class. */
+    private static final Set<Path> pending = new HashSet<>();
+
+    private DeduplicationJournal() {}
+
+    /**
+     * Opens the journal for a deduplication, creating it if no other deduplication is running.
+     *
+     * @throws IOException if the journal cannot be created
+     */
+    static synchronized void open() throws IOException {
+        if (channel == null) {
+            Path file = getJournalFile();
+            Files.createDirectories(file.getParent());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        users++;
+    }
+
+    /**
+     * Closes the journal for a deduplication. The journal is deleted when no deduplication is running
+     * anymore and no temporary file is pending.
+     */
+    static synchronized void close() {
+        if (--users > 0 || channel == null) return;
+        try {
+            channel.close();
+            if (pending.isEmpty()) Files.deleteIfExists(getJournalFile());
+        } catch (IOException ignored) {
+        }
+        channel = null;
+    }
+
+    /**
+     * Records that a temporary file is about to be created and waits until the record is on disk.
+     *
+     * @param temporary the temporary file
+     * @throws IOException if the record cannot be written
+     */
+    static synchronized void begin(Path temporary) throws IOException {
+        write(BEGIN, temporary);
+        channel.force(false);
+        pending.add(temporary);
+    }
+
+    /**
+     * Records that a temporary file has been renamed over its target or removed.
+     *
+     * @param temporary the temporary file
+     * @throws IOException if the record cannot be written
+     */
+    static synchronized void end(Path temporary) throws IOException {
+        write(END, temporary);
+        pending.remove(temporary);
+    }
+
+    /**
+     * Removes the temporary files left behind by interrupted deduplications and deletes the journal.
+     * Called once when the application starts, before any deduplication can run.
+     */
+    static synchronized void recover() {
+        if (channel != null) return;
+        Path file = getJournalFile();
+
+        Set<String> begun = new LinkedHashSet<>();
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            while (true) {
+                byte type = in.readByte();
+                String path = in.readUTF();
+                if (type == BEGIN) begun.add(path);
+                else begun.remove(path);
+            }
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (EOFException | UTFDataFormatException e) {
+            // The last record was torn by the interruption; its temporary file has not been created yet.
+        } catch (IOException e) {
+            return;
+        }
+
+        boolean recovered = true;
+        for (String path : begun) {
+            try {
+                Files.deleteIfExists(Path.of(path));
+            } catch (IOException | RuntimeException e) {
+                recovered = false;
+            }
+        }
+        if (recovered) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Appends a record to the journal.
+     *
+     * @param type      the type of the record
+     * @param temporary the temporary file
+     * @throws IOException if the record cannot be written
+     */
+    private static void write(byte type, Path temporary) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(type);
+            out.writeUTF(temporary.toString());
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+
+    /**
+     * Returns the location of the journal.
+     *
+     * @return {@code $XDG_CACHE_HOME/aloe/deduplication.journal}, or {@code ~/.cache/aloe/deduplication.journal}
+     *         if the variable is not set
+     */
+    static Path getJournalFile() {
+        String cache = System.getenv("XDG_CACHE_HOME");
+        Path base = cache != null && !cache.isBlank() ? Path.of(cache) : Path.of(System.getProperty("user.home"), ".cache");
+        return base.resolve("aloe").resolve("deduplication.journal").toAbsolutePath();
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.aloe.files.tasks;
+
+import com.example.aloe.files.DiskTopology;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Admits jobs according to the disks they use.
+ * <p>
+ * Every job declares the set of {@link DiskTopology.Device}s it reads from or writes to, and holds a slot on
+ * each of them while it runs. A job starts only when all of its devices have a free slot, so jobs on
+ * different disks run in parallel while jobs sharing a disk are limited by the per-device limit.
+ * Waiting jobs are considered in submission order, and a waiting job reserves its devices against
+ * later jobs, so a job touching a busy disk is not overtaken forever.
+ * </p>
+ *
+ * @see OperationScheduler
+ * @since 2.9.0
+ */
+final class DeviceScheduler {
+
+    /**
+     * A submitted job.
+     */
+    private static final class Job {
+
+        /** The devices the job uses. */
+        private final Set<DiskTopology.Device> devices;
+
+        /** The work of the job. */
+        private final Runnable work;
+
+        /** Informed whenever the job starts or stops waiting. */
+        private final Consumer<Boolean> queuedListener;
+
+        /** Whether the listener has been told that the job waits. */
+        private boolean queued;
+
+        private Job(Set<DiskTopology.Device> devices, Runnable work, Consumer<Boolean> queuedListener) {
+            this.devices = devices;
+            this.work = work;
+            this.queuedListener = queuedListener;
+        }
+    }
+
+    /** The executor running admitted jobs. */
+    private final Executor executor;
+
+    /** Returns the maximum number of jobs running at the same time on a device. */
+    private final ToIntFunction<DiskTopology.Device> limit;
+
+    /** The number of running jobs per device. Guarded by {@code this}. */
+    private final Map<DiskTopology.Device, Integer> running = new HashMap<>();
+
+    /** The waiting jobs in submission order. Guarded by {@code this}. */
+    private final List<Job> waiting = new ArrayList<>();
+
+    /**
+     * Creates a scheduler.
+     *
+     * @param executor the executor running admitted jobs; it must not limit the number of concurrent jobs itself
+     * @param limit    returns the maximum number of jobs running at the same time on a device, at least {@code 1}
+     */
+    DeviceScheduler(Executor executor, ToIntFunction<DiskTopology.Device> limit) {
+        this.executor = executor;
+        this.limit = limit;
+    }
+
+    /**
+     * Submits a job using the given devices. The job is started at once if all devices have a free slot.
+     *
+     * @param devices        the devices the job reads from or writes to
+     * @param work           the work of the job
+     * @param queuedListener receives {@code true} when the job has to wait and {@code false} when it starts after waiting
+     */
+    synchronized void submit(Set<DiskTopology.Device> devices, Runnable work, Consumer<Boolean> queuedListener) {
+        Job job = new Job(Set.copyOf(devices), work, queuedListener);
+        waiting.add(job);
+        admit();
+        if (waiting.contains(job)) {
+            job.queued = true;
+            job.queuedListener.accept(true);
+        }
+    }
+
+    /**
+     * Starts every waiting job whose devices have a free slot and are not reserved by an earlier waiting job.
+     */
+    private void admit() {
+        Set<DiskTopology.Device> reserved = new HashSet<>();
+        for (Iterator<Job> iterator = waiting.iterator(); iterator.hasNext(); ) {
+            Job job = iterator.next();
+            boolean free = job.devices.stream().noneMatch(reserved::contains)
+                    && job.devices.stream().allMatch(device -> running.getOrDefault(device, 0) < Math.max(1, limit.applyAsInt(device)));
+            if (free) {
+                iterator.remove();
+                start(job);
+            } else {
+                reserved.addAll(job.devices);
+            }
+        }
+    }
+
+    /**
+     * Takes the slots of a job and hands it to the executor.
+     *
+     * @param job the admitted job
+     */
+    private void start(Job job) {
+        job.devices.forEach(device -> running.merge(device, 1, Integer::sum));
+        if (job.queued) {
+            job.queued = false;
+            job.queuedListener.accept(false);
+        }
+        executor.execute(() -> {
+            try {
+                job.work.run();
+            } finally {
+                finished(job);
+            }
+        });
+    }
+
+    /**
+     * Frees the slots of a finished job and starts the jobs that can run now.
+     *
+     * @param job the finished job
+     */
+    private synchronized void finished(Job job) {
+        job.devices.forEach(device -> running.computeIfPresent(device, (key, count) -> count == 1 ? null : count - 1));
+        admit();
+    }
+}
@@ -4,26 +4,36 @@ import com.example.aloe.files.FilesUtils;
 import com.example.aloe.utils.Translator;
 import com.example.aloe.elements.files.FilesLoader;
 import com.example.aloe.files.CurrentDirectory;
+import com.example.aloe.files.DiskTopology;
 import com.example.aloe.files.FileDecision;
 import com.example.aloe.window.DecisionWindow;
 import javafx.application.Platform;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.nio.file.DirectoryStream;
+import java.io.Serial;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.concurrent.CountDownLatch;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * A background task for copying one or more files or directories to a specified destination.
  * <p>
  * This class handles various copy scenarios, including:
  * <ul>
- *     <li>Recursive copying of directories</li>
+ *     <li>Recursive copying of directories, with the files of a tree copied concurrently</li>
  *     <li>Conflict resolution when a file or directory with the same name already exists at the target</li>
  *     <li>Integration with the UI to prompt users for decisions on conflicts</li>
  *     <li>Optional support for cut (move) operations via delegation to {@link FileCutTask}</li>
@@ -40,6 +50,26 @@ import java.util.List;
  */
 public class FileCopyTask extends FilesTask {
 
+    /**
+     * The number of bytes transferred between progress updates when copying large files.
+     */
+    static final long COPY_CHUNK_SIZE = 8 * 1048576;
+
+    /**
+     * The number of threads of the copy pool, and the maximum number of batches a single task has in flight.
+     */
+    static final int COPY_PARALLELISM = Math.clamp(Runtime.getRuntime().availableProcessors(), 2, 8);
+
+    /**
+     * The number of files copied by a single task of the copy pool.
+     */
+    private static final int COPY_BATCH_SIZE = 16;
+
+    /**
+     * The shared pool copying the files of directory trees.
+     */
+    private static final ForkJoinPool COPY_POOL = new ForkJoinPool(COPY_PARALLELISM);
+
     /**
      * The destination path to which files will be copied.
      */
@@ -74,7 +104,6 @@ public class FileCopyTask extends FilesTask {
 
         this.files = files;
         this.destination = CurrentDirectory.get().toPath();
-        this.totalSize = FilesUtils.calculateFileSize(files);
 
         if (autoStart) runTask();
     }
@@ -108,7 +137,6 @@ public class FileCopyTask extends FilesTask {
 
         this.files = List.of(file);
         this.destination = CurrentDirectory.get().toPath();
-        this.totalSize = FilesUtils.calculateFileSize(file);
 
         if (autoStart) runTask();
     }
@@ -127,24 +155,50 @@ public class FileCopyTask extends FilesTask {
         if (autoStart) runTask();
     }
 
+    /**
+     * Returns the directory the files are copied to.
+     *
+     * @return the destination directory
+     */
+    @Override
+    protected Path getDestination() {
+        return destination;
+    }
+
+    /**
+     * Returns the title of the copy shown in the progress list.
+     *
+     * @return the title, or {@code null} for a single small file
+     */
+    @Override
+    protected String getProgressTitle() {
+        return createTitle("copying", "to", destination.getFileName().toString());
+    }
+
     /**
      * Main logic for copying files. Handles file conflict resolution and recursive directory copying.
+     * <p>
+     * The source trees are scanned once on a background thread while copying already runs,
+     * and the progress total grows as the scan advances.
+     * </p>
      *
      * @return {@code null} upon successful completion
      * @throws Exception if an error occurs during the copy process
      */
     @Override
     protected Void call() throws Exception {
-        tryAddToTasksList("copying", "to", destination.getFileName().toString());
+        List<TreeManifest> manifests = scanInBackground(files);
 
-        for (File source : files) {
+        for (int i = 0; i < files.size(); i++) {
+            checkpoint();
+            File source = files.get(i);
             if (!source.exists()) continue;
             Path target = destination.resolve(source.getName());
 
             if (Files.exists(target)) {
-                handleExistingFile(source, target);
+                handleExistingFile(manifests.get(i), target);
             } else {
-                copyRecursive(source.toPath(), target);
+                copyTree(manifests.get(i), target);
             }
         }
 
@@ -156,78 +210,241 @@ public class FileCopyTask extends FilesTask {
      * Handles cases where a file or directory with the same name already exists at the destination.
      * Prompts the user for a decision via the UI, then takes the corresponding action.
      *
-     * @param source the source file or directory
-     * @param target the conflicting target path
+     * @param manifest the manifest of the source file or directory
+     * @param target   the conflicting target path
      * @throws Exception if an error occurs during conflict resolution
      */
-    private void handleExistingFile(File source, Path target) throws Exception {
+    private void handleExistingFile(TreeManifest manifest, Path target) throws Exception {
         CountDownLatch latch = new CountDownLatch(1);
         final FileDecision[] decision = new FileDecision[1];
+        boolean isFile = !manifest.get(0).directory();
 
         Platform.runLater(() -> {
-            decision[0] = source.isFile() ? DecisionWindow.addFile(target.toFile()) : DecisionWindow.addDirectory(target.toFile());
+            decision[0] = isFile ? DecisionWindow.addFile(target.toFile()) : DecisionWindow.addDirectory(target.toFile());
             latch.countDown();
         });
 
         latch.await();
 
         switch (decision[0]) {
-            case COMBINE -> copyRecursive(source.toPath(), target);
-            case NEXT_TO -> copyNextTo(source.toPath(), target);
-            case REPLACE -> copyReplace(source.toPath(), target);
+            case COMBINE -> copyTree(manifest, target);
+            case NEXT_TO -> copyTree(manifest, getNextFreePath(target));
+            case REPLACE -> {
+                FileDeleteTask.deleteInCurrentThread(target);
+                copyTree(manifest, target);
+            }
         }
     }
 
     /**
-     * Recursively copies files and directories from a source path to a destination path.
+     * Starts scanning the given files on a background thread, adding the size of every scanned file
+     * to the total size of this task.
      *
-     * @param source      the source path
-     * @param destination the destination path
-     * @throws IOException if an error occurs during copying
+     * @param files the files and directories to scan
+     * @return one manifest per file, in the order of the files
      */
-    protected void copyRecursive(Path source, Path destination) throws IOException {
-        if (Files.isDirectory(source)) {
-            Files.createDirectories(destination);
+    protected List<TreeManifest> scanInBackground(List<File> files) {
+        return TreeManifest.scanInBackground(files.stream().map(File::toPath).toList(), this::addTotalSize);
+    }
 
-            try (DirectoryStream<Path> entries = Files.newDirectoryStream(source)) {
-                for (Path entry : entries) {
-                    copyRecursive(entry, destination.resolve(entry.getFileName()));
+    /**
+     * Copies the tree described by a manifest to a destination path.
+     * <p>
+     * Entries are processed in walk order as soon as they are scanned. Directories are created on the
+     * calling thread before any file inside them is copied. Files smaller than {@link #COPY_CHUNK_SIZE} are
+     * collected into batches of {@link #COPY_BATCH_SIZE} and copied concurrently on a shared work-stealing pool,
+     * which hides the per-file latency of trees with many small files. Larger files are copied on the calling
+     * thread, since their copy is limited by the bandwidth of the disks rather than by latency. The number of
+     * batches a task has in flight is limited to {@link #COPY_PARALLELISM}, or to one, which copies every file
+     * on the calling thread, if the source or the destination is on a rotational disk.
+     * </p>
+     *
+     * <p>
+     * A batch stops when the task is paused or cancelled and hands its remaining files back, so a paused
+     * task never holds the threads of the shared pool. The calling thread waits in {@link #checkpoint()}
+     * and submits the remaining files again once the task is resumed. The method returns when every file
+     * has been copied.
+     * </p>
+     *
+     * @param manifest    the manifest of the source tree, possibly still being scanned
+     * @param destination the destination path of the root of the tree
+     * @throws IOException          if an error occurs during scanning or copying
+     * @throws InterruptedException if the thread is interrupted while waiting for the scan
+     * @throws CancellationException if the task is cancelled
+     */
+    protected void copyTree(TreeManifest manifest, Path destination) throws IOException, InterruptedException {
+        Deque<ForkJoinTask<List<TreeManifest.Entry>>> batches = new ArrayDeque<>();
+        List<TreeManifest.Entry> batch = new ArrayList<>(COPY_BATCH_SIZE);
+        int parallelism = 1;
+
+        try {
+            TreeManifest.Entry entry;
+            for (int i = 0; (entry = manifest.get(i)) != null; i++) {
+                checkpoint();
+                if (i == 0) parallelism = getCopyParallelism(entry.path(), destination);
+                if (entry.directory()) {
+                    Files.createDirectories(destination.resolve(entry.relative()));
+                    continue;
+                }
+                if (parallelism == 1 || entry.size() >= COPY_CHUNK_SIZE) {
+                    copyFile(entry.path(), destination.resolve(entry.relative()), entry.size());
+                    continue;
+                }
+                batch.add(entry);
+                if (batch.size() == COPY_BATCH_SIZE) {
+                    while (batches.size() >= parallelism) joinOldest(batches, destination);
+                    batches.addLast(COPY_POOL.submit(new CopyBatch(batch, destination)));
+                    batch = new ArrayList<>(COPY_BATCH_SIZE);
                 }
             }
-        } else {
-            copyFile(source, destination);
+            if (!batch.isEmpty()) {
+                batches.addLast(COPY_POOL.submit(new CopyBatch(batch, destination)));
+            }
+            while (!batches.isEmpty()) joinOldest(batches, destination);
+        } finally {
+            for (ForkJoinTask<?> task : batches) {
+                task.quietlyJoin();
+            }
+        }
+    }
+
+    /**
+     * Waits for the oldest batch in flight and submits the files it handed back again, after waiting
+     * in {@link #checkpoint()} while the task is paused.
+     *
+     * @param batches     the batches in flight, oldest first
+     * @param destination the destination path of the root of the tree
+     * @throws IOException           if a file of the batch could not be copied
+     * @throws CancellationException if the task is cancelled
+     */
+    private void joinOldest(Deque<ForkJoinTask<List<TreeManifest.Entry>>> batches, Path destination) throws IOException {
+        List<TreeManifest.Entry> remaining;
+        try {
+            remaining = batches.removeFirst().join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (!remaining.isEmpty()) {
+            checkpoint();
+            batches.addLast(COPY_POOL.submit(new CopyBatch(remaining, destination)));
+        }
+    }
+
+    /**
+     * Returns how many batches of files of a tree may be copied at the same time.
+     *
+     * @param source      the root of the source tree
+     * @param destination the destination path of the root of the tree
+     * @return {@code 1} if the source or the destination is on a rotational disk, which only slows down
+     *         when it is accessed concurrently, otherwise {@link #COPY_PARALLELISM}
+     */
+    private static int getCopyParallelism(Path source, Path destination) {
+        if (DiskTopology.resolve(source).rotational() || DiskTopology.resolve(destination).rotational()) return 1;
+        return COPY_PARALLELISM;
+    }
+
+    /**
+     * A task copying a batch of small files of a tree. Batches are executed by the work-stealing
+     * copy pool, so idle threads take over the batches still waiting in the queues of busy ones.
+     * A batch never waits for a paused task; it returns the files it has not copied instead.
+     */
+    private class CopyBatch extends RecursiveTask<List<TreeManifest.Entry>> {
+
+        /** The serialization version of the task. */
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        /** The files of the batch. */
+        private final transient List<TreeManifest.Entry> entries;
+
+        /** The destination path of the root of the tree. */
+        private final transient Path destination;
+
+        /**
+         * Creates a task copying the given files.
+         *
+         * @param entries     the files to copy
+         * @param destination the destination path of the root of the tree
+         */
+        CopyBatch(List<TreeManifest.Entry> entries, Path destination) {
+            this.entries = entries;
+            this.destination = destination;
+        }
+
+        /**
+         * Copies the files of the batch until the task is paused or cancelled.
+         *
+         * @return the files that have not been copied, empty if the batch is complete
+         */
+        @Override
+        protected List<TreeManifest.Entry> compute() {
+            for (int i = 0; i < entries.size(); i++) {
+                if (isPausedOrCancelled()) return entries.subList(i, entries.size());
+                TreeManifest.Entry entry = entries.get(i);
+                try {
+                    copyFile(entry.path(), destination.resolve(entry.relative()), entry.size());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return List.of();
         }
     }
 
     /**
      * Copies a single file and updates progress based on the bytes copied.
+     * <p>
+     * Files smaller than {@link #COPY_CHUNK_SIZE} are copied with a single {@link Files#copy(Path, Path, java.nio.file.CopyOption...)}
+     * call, which lets the JDK clone the file or copy it inside the kernel where the file system supports it.
+     * Larger files are transferred between file channels in chunks of {@link #COPY_CHUNK_SIZE} bytes, so the data
+     * does not pass through the Java heap and progress is still reported after every chunk.
+     * </p>
      *
      * @param source      the source file path
      * @param destination the target file path
      * @throws IOException if an error occurs during I/O
      */
     protected void copyFile(Path source, Path destination) throws IOException {
-        try (InputStream in = Files.newInputStream(source); OutputStream out = Files.newOutputStream(destination)) {
+        copyFile(source, destination, Files.size(source));
+    }
 
-            byte[] buffer = new byte[1048576];
-            int bytesRead;
+    /**
+     * Copies a single file whose size is already known and updates progress based on the bytes copied.
+     *
+     * @param source      the source file path
+     * @param destination the target file path
+     * @param size        the size of the source file in bytes
+     * @throws IOException if an error occurs during I/O
+     * @see #copyFile(Path, Path)
+     */
+    protected void copyFile(Path source, Path destination, long size) throws IOException {
+        if (size < COPY_CHUNK_SIZE) {
+            Files.copy(source, destination, StandardCopyOption.REPLACE_EXISTING);
+            addProgress(size);
+            return;
+        }
+
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(destination, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
 
-            while ((bytesRead = in.read(buffer)) != -1) {
-                out.write(buffer, 0, bytesRead);
-                progress += bytesRead;
-                updateProgress();
+            long position = 0;
+            while (position < size) {
+                checkpoint();
+                long transferred = in.transferTo(position, Math.min(COPY_CHUNK_SIZE, size - position), out);
+                if (transferred <= 0) break;
+                position += transferred;
+                addProgress(transferred);
             }
         }
     }
 
     /**
-     * Copies the file or directory next to the existing one, using a numbered suffix to avoid overwriting.
+     * Returns the first path next to the given one that does not exist yet, using a numbered suffix.
      *
-     * @param source      the source path
      * @param destination the original (conflicting) destination path
-     * @throws IOException if an error occurs during copying
+     * @return a free path in the same directory
      */
-    protected void copyNextTo(Path source, Path destination) throws IOException {
+    protected Path getNextFreePath(Path destination) {
         int index = 1;
         String extension = FilesUtils.getExtensionWithDot(destination.toFile());
         Path parent = destination.getParent();
@@ -238,20 +455,7 @@ public class FileCopyTask extends FilesTask {
             newDestination = parent.resolve(newFileName);
             index++;
         }
-
-        copyRecursive(source, newDestination);
-    }
-
-    /**
-     * Replaces the existing file or directory by deleting it and copying the new one in its place.
-     *
-     * @param source      the source path
-     * @param destination the target path to replace
-     * @throws Exception if an error occurs during deletion or copying
-     */
-    protected void copyReplace(Path source, Path destination) throws Exception {
-        FileDeleteTask.deleteInCurrentThread(destination);
-        copyRecursive(source, destination);
+        return newDestination;
     }
 
     /**
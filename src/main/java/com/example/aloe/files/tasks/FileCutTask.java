@@ -57,21 +57,48 @@ public class FileCutTask extends FileCopyTask {
     }
 
     /**
-     * Executes the file cut operation. Each file is copied to the destination and then deleted.
+     * Returns the directory the files are moved to.
+     *
+     * @return the destination directory
+     */
+    @Override
+    protected Path getDestination() {
+        return destination;
+    }
+
+    /**
+     * Returns the title of the cut shown in the progress list.
+     *
+     * @return the title, or {@code null} for a single small file
+     */
+    @Override
+    protected String getProgressTitle() {
+        return createTitle("cutting", "to", destination.getFileName().toString());
+    }
+
+    /**
+     * Executes the file cut operation. Files that are already in the destination are left as they are.
+     * Files on the same file system as the destination are renamed; the others are copied to the destination
+     * and then deleted.
      * Updates progress and refreshes the file view upon completion.
      *
      * @return {@code null} when the task finishes
-     * @throws Exception if an error occurs during copying or deletion
+     * @throws Exception if an error occurs during copying or deletion, or if a folder would be moved into itself
      */
     @Override
     protected Void call() throws Exception {
-        tryAddToTasksList("cutting", "to", destination.getFileName().toString());
+        files = excludeMovesInPlace(files, destination);
+        files = files.stream().filter(file -> !tryRename(file.toPath(), destination.resolve(file.getName()))).toList();
+
+        if (!files.isEmpty()) {
+            List<TreeManifest> manifests = scanInBackground(files);
 
-        for (File file : files) {
-            copyRecursive(file.toPath(), destination.resolve(file.getName()));
-            FileDeleteTask.deleteInCurrentThread(file);
-            progress += file.length();
-            updateProgress();
+            for (int i = 0; i < files.size(); i++) {
+                checkpoint();
+                copyTree(manifests.get(i), destination.resolve(files.get(i).getName()));
+                FileDeleteTask.deleteInCurrentThread(files.get(i));
+                updateProgress();
+            }
         }
 
         Platform.runLater(FilesLoader::refresh);
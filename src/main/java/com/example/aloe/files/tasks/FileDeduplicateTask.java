@@ -0,0 +1,322 @@
+package com.example.aloe.files.tasks;
+
+import com.example.aloe.elements.files.FilesLoader;
+import com.example.aloe.files.duplicates.DuplicateGroup;
+import com.example.aloe.utils.CurrentPlatform;
+import javafx.application.Platform;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A background task that replaces identical files with links to a single copy, which frees the space
+ * of all other copies while every path keeps working.
+ * <p>
+ * The files of each {@link DuplicateGroup} are split by {@link FileStore}, since links cannot cross
+ * file systems, and the first file on each store is kept. Every other file is compared with it byte for
+ * byte and, if it is still identical and has not been modified meanwhile, replaced by a link to it.
+ * On file systems that support it (Btrfs, XFS, bcachefs and OCFS2 on Linux), the link is a reflink:
+ * a new file sharing the blocks of the kept copy, which keeps its own permissions and modification time and
+ * becomes independent again when either file is written. Elsewhere the link is a hard link, which shares
+ * the kept copy's permissions and modification time as well as its content.
+ * </p>
+ *
+ * <p>
+ * The link is created under a temporary name and renamed over the duplicate, which the file system does
+ * atomically, so the duplicate is never missing. The temporary files are recorded in a
+ * {@link DeduplicationJournal}, and those of a deduplication that was interrupted by a crash are removed
+ * by {@link #recoverInterrupted()} when the application starts again.
+ * </p>
+ *
+ * @see com.example.aloe.files.duplicates.DuplicateFinder
+ * @see DeduplicationJournal
+ * @since 2.9.0
+ */
+public class FileDeduplicateTask extends FilesTask {
+
+    /** The size of the buffers the files are compared through. */
+    private static final int COMPARE_BUFFER_SIZE = 256 * 1024;
+
+    /** The types of the Linux file systems that support reflinks. */
+    private static final Set<String> REFLINK_FILE_SYSTEMS = Set.of("btrfs", "xfs", "bcachefs", "ocfs2");
+
+    /** The file stores on which creating a reflink has failed, which are not tried again. */
+    private static final Set<FileStore> NO_REFLINKS = ConcurrentHashMap.newKeySet();
+
+    /** The directory whose duplicates are replaced. */
+    private final File directory;
+
+    /** The groups of identical files. */
+    private final List<DuplicateGroup> groups;
+
+    /**
+     * Constructs a new task to replace the duplicates of the given groups with links.
+     *
+     * @param directory the directory whose duplicates are replaced
+     * @param groups    the groups of identical files, as found by a {@code DuplicateFinder}
+     * @param autoStart whether to start the task immediately
+     */
+    public FileDeduplicateTask(File directory, List<DuplicateGroup> groups, boolean autoStart) {
+        this.directory = directory;
+        this.groups = groups;
+        this.files = new ArrayList<>();
+        for (DuplicateGroup group : groups) files.addAll(group.files());
+
+        if (autoStart) runTask();
+    }
+
+    /**
+     * Removes the temporary files left behind by deduplications that were interrupted by a crash.
+     * Must be called once when the application starts, before any deduplication runs.
+     */
+    public static void recoverInterrupted() {
+        DeduplicationJournal.recover();
+    }
+
+    /**
+     * Returns the directory whose duplicates are replaced.
+     *
+     * @return the directory
+     */
+    @Override
+    protected Path getDestination() {
+        return directory.toPath();
+    }
+
+    /**
+     * Returns the title of the deduplication shown in the progress list.
+     *
+     * @return the title
+     */
+    @Override
+    protected String getProgressTitle() {
+        return createTitle("deduplicating", "in", directory.getName());
+    }
+
+    /**
+     * Executes the deduplication. The progress counts the bytes of the duplicates compared with
+     * their kept copies.
+     *
+     * @return {@code null} upon completion
+     * @throws Exception if the journal cannot be written
+     */
+    @Override
+    protected Void call() throws Exception {
+        for (DuplicateGroup group : groups) {
+            addTotalSize(group.size() * (group.files().size() - 1));
+        }
+
+        DeduplicationJournal.open();
+        try {
+            for (DuplicateGroup group : groups) {
+                checkpoint();
+                deduplicate(group);
+            }
+        } finally {
+            DeduplicationJournal.close();
+        }
+
+        Platform.runLater(FilesLoader::refresh);
+        return null;
+    }
+
+    /**
+     * Replaces the duplicates of a group with links to the first file of the group on each file store.
+     *
+     * @param group the group of identical files
+     * @throws IOException if the journal cannot be written
+     */
+    private void deduplicate(DuplicateGroup group) throws IOException {
+        Map<FileStore, List<Path>> stores = new LinkedHashMap<>();
+        for (File file : group.files()) {
+            Path path = file.toPath().toAbsolutePath();
+            try {
+                stores.computeIfAbsent(Files.getFileStore(path), store -> new ArrayList<>()).add(path);
+            } catch (IOException | SecurityException ignored) {
+            }
+        }
+
+        long compared = 0;
+        for (List<Path> paths : stores.values()) compared += paths.size() - 1;
+        addProgress(group.size() * (group.files().size() - 1 - compared));
+
+        for (Map.Entry<FileStore, List<Path>> store : stores.entrySet()) {
+            List<Path> paths = store.getValue();
+            Path kept = paths.getFirst();
+            for (Path duplicate : paths.subList(1, paths.size())) {
+                checkpoint();
+                replace(kept, duplicate, group.size(), store.getKey());
+            }
+        }
+    }
+
+    /**
+     * Replaces a duplicate with a link to the kept copy, unless it is already linked to it, differs from it
+     * or is modified while it is being compared. Files that cannot be read are left as they are.
+     *
+     * @param kept      the kept copy
+     * @param duplicate the duplicate
+     * @param size      the size of the files
+     * @param store     the file store of both files
+     * @throws IOException if the journal cannot be written
+     */
+    private void replace(Path kept, Path duplicate, long size, FileStore store) throws IOException {
+        BasicFileAttributes keptAttributes;
+        BasicFileAttributes before;
+        try {
+            keptAttributes = Files.readAttributes(kept, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            before = Files.readAttributes(duplicate, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            if (!keptAttributes.isRegularFile() || !before.isRegularFile() || keptAttributes.size() != size || before.size() != size
+                    || (before.fileKey() != null && before.fileKey().equals(keptAttributes.fileKey()))) {
+                addProgress(size);
+                return;
+            }
+            if (!contentEquals(kept, duplicate, size)) return;
+        } catch (IOException | SecurityException e) {
+            return;
+        }
+
+        Path temporary = duplicate.resolveSibling(".aloe-dedup-" + Long.toHexString(ThreadLocalRandom.current().nextLong()));
+        DeduplicationJournal.begin(temporary);
+        try {
+            link(kept, temporary, duplicate, before, store);
+            if (isUnchanged(duplicate, before) && isUnchanged(kept, keptAttributes)) {
+                Files.move(temporary, duplicate, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | UnsupportedOperationException | SecurityException ignored) {
+        } finally {
+            try {
+                Files.deleteIfExists(temporary);
+                DeduplicationJournal.end(temporary);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Checks whether a file has not been modified or replaced since its attributes were read.
+     *
+     * @param path       the file
+     * @param attributes the attributes read before
+     * @return {@code true} if the file has the same size, modification time and inode
+     * @throws IOException if the attributes cannot be read
+     */
+    private static boolean isUnchanged(Path path, BasicFileAttributes attributes) throws IOException {
+        BasicFileAttributes current = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        return current.size() == attributes.size() && current.lastModifiedTime().equals(attributes.lastModifiedTime())
+                && (current.fileKey() == null || current.fileKey().equals(attributes.fileKey()));
+    }
+
+    /**
+     * Creates a link to the kept copy: a reflink if the file store supports it, otherwise a hard link.
+     *
+     * @param kept       the kept copy
+     * @param link       the path of the link, which must not exist
+     * @param duplicate  the duplicate the link is going to replace
+     * @param attributes the attributes of the duplicate
+     * @param store      the file store of the kept copy
+     * @throws IOException if the link cannot be created
+     */
+    private void link(Path kept, Path link, Path duplicate, BasicFileAttributes attributes, FileStore store) throws IOException {
+        if (CurrentPlatform.isLinux() && REFLINK_FILE_SYSTEMS.contains(store.type()) && !NO_REFLINKS.contains(store)) {
+            if (reflink(kept, link)) {
+                Files.setPosixFilePermissions(link, Files.getPosixFilePermissions(duplicate, LinkOption.NOFOLLOW_LINKS));
+                Files.setLastModifiedTime(link, attributes.lastModifiedTime());
+                return;
+            }
+            NO_REFLINKS.add(store);
+        }
+        Files.createLink(link, kept);
+    }
+
+    /**
+     * Creates a reflink of a file with {@code cp --reflink=always}.
+     *
+     * @param source the file
+     * @param target the path of the reflink, which must not exist
+     * @return {@code true} if the reflink has been created, {@code false} if the file system does not support it
+     * @throws IOException if {@code cp} cannot be run
+     */
+    private static boolean reflink(Path source, Path target) throws IOException {
+        Process process = new ProcessBuilder("cp", "--reflink=always", "--", source.toString(), target.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            if (process.waitFor() == 0) return true;
+        } catch (InterruptedException e) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+        }
+        Files.deleteIfExists(target);
+        return false;
+    }
+
+    /**
+     * Compares the content of two files of the same size byte for byte, adding the compared bytes to the progress.
+     *
+     * @param first  the first file
+     * @param second the second file
+     * @param size   the size of the files
+     * @return {@code true} if the files are identical
+     * @throws IOException if a file cannot be read
+     */
+    private boolean contentEquals(Path first, Path second, long size) throws IOException {
+        try (FileChannel a = FileChannel.open(first, StandardOpenOption.READ);
+             FileChannel b = FileChannel.open(second, StandardOpenOption.READ)) {
+            ByteBuffer bufferA = ByteBuffer.allocate(COMPARE_BUFFER_SIZE);
+            ByteBuffer bufferB = ByteBuffer.allocate(COMPARE_BUFFER_SIZE);
+
+            long position = 0;
+            while (position < size) {
+                checkpoint();
+                int length = (int) Math.min(COMPARE_BUFFER_SIZE, size - position);
+                if (!read(a, bufferA.clear().limit(length), position) || !read(b, bufferB.clear().limit(length), position)) {
+                    addProgress(size - position);
+                    return false;
+                }
+                if (bufferA.flip().mismatch(bufferB.flip()) != -1) {
+                    addProgress(size - position);
+                    return false;
+                }
+                position += length;
+                addProgress(length);
+            }
+            return a.size() == size && b.size() == size;
+        }
+    }
+
+    /**
+     * Fills a buffer from a position of a channel.
+     *
+     * @param channel  the channel
+     * @param buffer   the buffer
+     * @param position the position to read from
+     * @return {@code false} if the channel ended before the buffer was filled
+     * @throws IOException if the channel cannot be read
+     */
+    private static boolean read(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read == -1) return false;
+            position += read;
+        }
+        return true;
+    }
+}
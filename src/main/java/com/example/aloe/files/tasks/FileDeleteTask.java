@@ -4,14 +4,27 @@ import com.example.aloe.elements.files.FilesLoader;
 import javafx.application.Platform;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A background task that handles deletion of one or more files or directories.
  * <p>
- * This class supports recursive deletion of directories and reports progress for each deleted file.
+ * This class supports recursive deletion of directories and reports progress for each deleted file or directory.
+ * Trees are walked once in post-order while their files are deleted concurrently on a shared pool,
+ * so deleting large trees is fast and needs a bounded amount of memory.
  * The task is executed asynchronously using JavaFX's {@link javafx.concurrent.Task} infrastructure
  * and updates UI elements through observable properties.
  * </p>
@@ -26,6 +39,27 @@ import java.util.List;
  */
 public class FileDeleteTask extends FilesTask {
 
+    /**
+     * The maximum number of entries deleted at the same time by all delete tasks.
+     */
+    static final int DELETE_PARALLELISM = Math.clamp(Runtime.getRuntime().availableProcessors(), 2, 8);
+
+    /**
+     * The number of files deleted by a single task of the delete pool.
+     */
+    private static final int DELETE_BATCH_SIZE = 64;
+
+    /**
+     * The maximum number of batches of a deletion waiting for or being processed by the pool.
+     * The walk pauses when the limit is reached, which bounds the memory used by a deletion.
+     */
+    private static final int MAX_PENDING_BATCHES = DELETE_PARALLELISM * 4;
+
+    /**
+     * The shared pool deleting the files of directory trees.
+     */
+    private static final ForkJoinPool DELETE_POOL = new ForkJoinPool(DELETE_PARALLELISM);
+
     /**
      * Constructs a new task to delete a list of files or directories.
      *
@@ -51,23 +85,40 @@ public class FileDeleteTask extends FilesTask {
     }
 
     /**
-     * Executes the deletion task. Deletes each file or directory recursively if needed,
-     * updates progress, and refreshes the file view.
+     * Returns the directory containing the deleted files.
+     *
+     * @return the parent directory of the first file, or {@code null} if there are no files
+     */
+    @Override
+    protected Path getDestination() {
+        return files.isEmpty() ? null : files.getFirst().getAbsoluteFile().getParentFile().toPath();
+    }
+
+    /**
+     * Returns the title of the deletion shown in the progress list.
+     *
+     * @return the title, or {@code null} for a single small file
+     */
+    @Override
+    protected String getProgressTitle() {
+        return createTitle("deleting", "from", files.isEmpty() ? "" : files.getFirst().getAbsoluteFile().getParentFile().getName());
+    }
+
+    /**
+     * Executes the deletion task. Deletes each file or directory recursively if needed, updates progress
+     * per deleted entry, and refreshes the file view. The trees are not counted beforehand; the progress
+     * total grows as the deletion walks them.
      *
      * @return {@code null} upon completion
      * @throws Exception if an error occurs during file deletion
      */
     @Override
     protected Void call() throws Exception {
-        tryAddToTasksList("deleting", "from", new File(files.getFirst().getParent()).getName());
-
         for (File file : files) {
-            if (file.exists()) {
-                long fileLength = file.length();
+            checkpoint();
+            if (Files.exists(file.toPath(), LinkOption.NOFOLLOW_LINKS)) {
                 deleteRecursive(file.toPath());
-                progress += fileLength;
             }
-            updateProgress();
         }
 
         Platform.runLater(FilesLoader::refresh);
@@ -106,20 +157,213 @@ public class FileDeleteTask extends FilesTask {
         }
     }
 
+    /**
+     * Formats an amount of progress as a number of entries.
+     *
+     * @param amount the number of entries
+     * @return the formatted number
+     */
+    @Override
+    protected String formatAmount(long amount) {
+        return String.valueOf(amount);
+    }
+
     /**
      * Recursively deletes a file or directory and all its contents if applicable.
+     * Symbolic links are deleted themselves and never followed.
+     * The task is paused or cancelled between entries through {@link #checkpoint()}.
      *
      * @param path the path to delete
      * @throws Exception if an error occurs during recursive deletion
+     * @see TreeDeletion
      */
     private void deleteRecursive(Path path) throws Exception {
-        if (Files.isDirectory(path)) {
-            try (var entries = Files.list(path)) {
-                for (Path entry : entries.toList()) {
-                    deleteRecursive(entry);
+        new TreeDeletion().delete(path);
+    }
+
+    /**
+     * A directory whose content is being deleted.
+     * <p>
+     * The directory is deleted as soon as its pending count drops to zero. The count starts at one
+     * for the walk itself, which releases it after visiting the last child, and is increased for every
+     * child file and subdirectory until that child has been deleted.
+     * </p>
+     */
+    private static final class DirectoryState {
+
+        /** The path of the directory. */
+        private final Path path;
+
+        /** The state of the parent directory, or {@code null} for the root of the deletion. */
+        private final DirectoryState parent;
+
+        /** The number of children and walk visits that have not finished yet. */
+        private final AtomicInteger pending = new AtomicInteger(1);
+
+        private DirectoryState(Path path, DirectoryState parent) {
+            this.path = path;
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * A file waiting to be deleted, together with the directory containing it.
+     *
+     * @param path   the path of the file
+     * @param parent the state of the directory containing the file
+     */
+    private record Leaf(Path path, DirectoryState parent) {}
+
+    /**
+     * The deletion of a single tree.
+     * <p>
+     * The tree is walked with {@link Files#walkFileTree} on the calling thread, which streams each directory
+     * instead of listing it into memory. Files are collected into batches of {@link #DELETE_BATCH_SIZE} and deleted
+     * on the shared delete pool, while every directory is deleted in post-order by the thread that deletes its last
+     * remaining child. At most {@link #MAX_PENDING_BATCHES} batches are pending at a time, so the memory used by a
+     * deletion depends on the depth of the tree only. Every visited entry is added to the progress total, so the
+     * tree does not have to be counted by a walk of its own.
+     * </p>
+     */
+    private final class TreeDeletion extends SimpleFileVisitor<Path> {
+
+        /** The permits for pending batches. */
+        private final Semaphore pendingBatches = new Semaphore(MAX_PENDING_BATCHES);
+
+        /** The first error, which stops the deletion. */
+        private final AtomicReference<IOException> failure = new AtomicReference<>();
+
+        /** The directory currently visited by the walk. Accessed only by the walking thread. */
+        private DirectoryState current;
+
+        /** The files collected for the next batch. Accessed only by the walking thread. */
+        private List<Leaf> batch = new ArrayList<>(DELETE_BATCH_SIZE);
+
+        /**
+         * Deletes the tree and waits until every pending batch has finished.
+         *
+         * @param root the root of the tree
+         * @throws IOException if an entry cannot be deleted
+         */
+        void delete(Path root) throws IOException {
+            try {
+                Files.walkFileTree(root, this);
+                flush();
+            } finally {
+                pendingBatches.acquireUninterruptibly(MAX_PENDING_BATCHES);
+                pendingBatches.release(MAX_PENDING_BATCHES);
+            }
+            rethrowFailure();
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+            checkpoint();
+            rethrowFailure();
+            addTotalSize(1);
+            if (current != null) current.pending.incrementAndGet();
+            current = new DirectoryState(dir, current);
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+            checkpoint();
+            rethrowFailure();
+            addTotalSize(1);
+            if (current == null) {
+                Files.deleteIfExists(file);
+                addProgress(1);
+                return FileVisitResult.CONTINUE;
+            }
+            current.pending.incrementAndGet();
+            batch.add(new Leaf(file, current));
+            if (batch.size() == DELETE_BATCH_SIZE) flush();
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+            if (exc instanceof NoSuchFileException) return FileVisitResult.CONTINUE;
+            throw exc;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+            if (exc != null) throw exc;
+            DirectoryState done = current;
+            current = done.parent;
+            release(done);
+            return FileVisitResult.CONTINUE;
+        }
+
+        /**
+         * Hands the collected files to the delete pool, waiting while too many batches are pending.
+         */
+        private void flush() {
+            if (batch.isEmpty()) return;
+            List<Leaf> leaves = batch;
+            batch = new ArrayList<>(DELETE_BATCH_SIZE);
+
+            pendingBatches.acquireUninterruptibly();
+            DELETE_POOL.execute(() -> {
+                try {
+                    for (Leaf leaf : leaves) {
+                        if (isStopped()) {
+                            release(leaf.parent());
+                            continue;
+                        }
+                        try {
+                            Files.deleteIfExists(leaf.path());
+                            addProgress(1);
+                        } catch (IOException e) {
+                            failure.compareAndSet(null, e);
+                        }
+                        release(leaf.parent());
+                    }
+                } finally {
+                    pendingBatches.release();
+                }
+            });
+        }
+
+        /**
+         * Marks one child or walk visit of a directory as finished, deleting the directory and
+         * releasing its parent when nothing is pending anymore.
+         *
+         * @param state the directory
+         */
+        private void release(DirectoryState state) {
+            while (state != null && state.pending.decrementAndGet() == 0) {
+                if (!isStopped()) {
+                    try {
+                        Files.deleteIfExists(state.path);
+                        addProgress(1);
+                    } catch (IOException e) {
+                        failure.compareAndSet(null, e);
+                    }
                 }
+                state = state.parent;
             }
         }
-        Files.deleteIfExists(path);
+
+        /**
+         * Checks whether the deletion has failed or the task has been cancelled.
+         *
+         * @return {@code true} if no more entries should be deleted
+         */
+        private boolean isStopped() {
+            return failure.get() != null || isCancelled();
+        }
+
+        /**
+         * Rethrows the first error of the deletion, if any.
+         *
+         * @throws IOException the first error
+         */
+        private void rethrowFailure() throws IOException {
+            IOException e = failure.get();
+            if (e != null) throw e;
+        }
     }
 }
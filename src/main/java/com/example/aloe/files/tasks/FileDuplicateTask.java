@@ -4,6 +4,7 @@ import com.example.aloe.elements.files.FilesLoader;
 import javafx.application.Platform;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -47,6 +48,26 @@ public class FileDuplicateTask extends FileCopyTask {
         if (autoStart) runTask();
     }
 
+    /**
+     * Returns the directory containing the duplicated files.
+     *
+     * @return the parent directory of the first file, or {@code null} if there are no files
+     */
+    @Override
+    protected Path getDestination() {
+        return files.isEmpty() ? null : files.getFirst().getAbsoluteFile().getParentFile().toPath();
+    }
+
+    /**
+     * Returns the title of the duplication shown in the progress list.
+     *
+     * @return the title, or {@code null} for a single small file
+     */
+    @Override
+    protected String getProgressTitle() {
+        return createTitle("duplicating", "to", files.isEmpty() ? "" : files.getFirst().getAbsoluteFile().getParentFile().getName());
+    }
+
     /**
      * Executes the duplication task. Each file or directory is copied next to itself with a modified name.
      * Progress is updated as duplication proceeds, and the file list is refreshed afterward.
@@ -56,10 +77,11 @@ public class FileDuplicateTask extends FileCopyTask {
      */
     @Override
     protected Void call() throws Exception {
-        tryAddToTasksList("duplicating", "to", new File(files.getFirst().getParent()).getName());
+        List<TreeManifest> manifests = scanInBackground(files);
 
-        for (File file : files) {
-            copyNextTo(file.toPath(), file.toPath());
+        for (int i = 0; i < files.size(); i++) {
+            checkpoint();
+            copyTree(manifests.get(i), getNextFreePath(files.get(i).toPath()));
             updateProgress();
         }
 
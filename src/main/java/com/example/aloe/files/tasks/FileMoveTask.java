@@ -4,16 +4,16 @@ import com.example.aloe.elements.files.FilesLoader;
 import javafx.application.Platform;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.*;
-import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 
 /**
  * A background task responsible for moving one or more files or directories to a new destination.
  * <p>
- * This task uses a recursive file tree walk to move each file and subdirectory,
- * preserving the original structure and overwriting existing files if needed.
+ * Within a file system the top-level entries are renamed. Across file systems the tree is walked to move
+ * each file and subdirectory, preserving the original structure and overwriting existing files if needed.
  * </p>
  *
  * <p>
@@ -57,47 +57,62 @@ public class FileMoveTask extends FilesTask {
     }
 
     /**
-     * Executes the file move task by recursively traversing and moving files to the new location.
-     * If a file already exists at the destination, it will be replaced.
+     * Returns the directory the files are moved to.
+     *
+     * @return the destination directory, or {@code null} if none has been chosen
+     */
+    @Override
+    protected Path getDestination() {
+        return destination == null ? null : destination.toPath();
+    }
+
+    /**
+     * Returns the title of the move shown in the progress list.
+     *
+     * @return the title, or {@code null} for a single small file or a missing destination
+     */
+    @Override
+    protected String getProgressTitle() {
+        return destination == null ? null : createTitle("moving", "to", destination.getName());
+    }
+
+    /**
+     * Executes the file move task. Files that are already in the destination are left as they are.
+     * Files on the same file system as the destination are moved with a single rename of the top-level entry;
+     * the others are scanned once on a background thread, without following symbolic links, and moved entry
+     * by entry while the scan advances. If a file already exists at the destination, it will be replaced.
      * Updates the task's progress as each file is moved.
      *
      * @return {@code null} upon successful completion
-     * @throws Exception if an error occurs during the move process
+     * @throws Exception if an error occurs during the move process, or if a folder would be moved into itself
      */
     @Override
     protected Void call() throws Exception {
-        tryAddToTasksList("moving", "to", destination.getName());
-
         if (destination != null) {
-            for (File file : files) {
-                File newFile = new File(destination, file.getName());
+            files = excludeMovesInPlace(files, destination.toPath());
+            files = files.stream().filter(file -> !tryRename(file.toPath(), new File(destination, file.getName()).toPath())).toList();
+        }
 
-                Files.walkFileTree(file.toPath(), new SimpleFileVisitor<>() {
-                    @Override
-                    public FileVisitResult visitFile(Path filePath, BasicFileAttributes attrs) throws IOException {
-                        Path relativePath = file.toPath().relativize(filePath);
-                        Path destinationFile = newFile.toPath().resolve(relativePath);
-                        Files.move(filePath, destinationFile, StandardCopyOption.REPLACE_EXISTING);
-                        return FileVisitResult.CONTINUE;
-                    }
+        if (destination != null && !files.isEmpty()) {
+            List<TreeManifest> manifests = TreeManifest.scanInBackground(files.stream().map(File::toPath).toList(), false, this::addTotalSize);
 
-                    @Override
-                    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
-                        Path relativeDir = file.toPath().relativize(dir);
-                        Path newDir = newFile.toPath().resolve(relativeDir);
-                        if (!Files.exists(newDir)) {
-                            Files.createDirectories(newDir);
-                        }
-                        return FileVisitResult.CONTINUE;
+            for (int i = 0; i < files.size(); i++) {
+                Path target = destination.toPath().resolve(files.get(i).getName());
+                TreeManifest.Entry entry;
+                for (int j = 0; (entry = manifests.get(i).get(j)) != null; j++) {
+                    checkpoint();
+                    Path entryTarget = target.resolve(entry.relative().toString());
+                    if (entry.directory()) {
+                        Files.createDirectories(entryTarget);
+                    } else {
+                        Files.move(entry.path(), entryTarget, StandardCopyOption.REPLACE_EXISTING);
+                        addProgress(entry.size());
                     }
-                });
-
-                progress += newFile.length();
-                updateProgress();
+                }
             }
-        }
 
-        new FileDeleteTask(files, true).runTask();
+            FileDeleteTask.deleteInCurrentThread(files);
+        }
 
         Platform.runLater(FilesLoader::refresh);
         return null;
@@ -1,10 +1,7 @@
 package com.example.aloe.files.tasks;
 
-import com.example.aloe.elements.files.FilesLoader;
 import com.example.aloe.files.FilesUtils;
-import com.example.aloe.files.archive.ArchiveHandler;
 import com.example.aloe.settings.Settings;
-import javafx.application.Platform;
 
 import java.awt.*;
 import java.io.File;
@@ -53,7 +50,7 @@ public class FileOpenerTask extends FilesTask {
      * Executes the task logic: determines whether to extract or open the file.
      * <p>
      * If the file is an archive and the user setting {@code extract-on-click} is enabled,
-     * it is extracted using {@link ArchiveHandler}, and the file list is refreshed.
+     * it is extracted by an {@link ArchiveTask}, which refreshes the file list when it finishes.
      * Otherwise, the file is opened using the system's default application.
      * </p>
      *
@@ -64,10 +61,7 @@ public class FileOpenerTask extends FilesTask {
     protected Void call() throws Exception {
         if (file.isFile()) {
             if (FilesUtils.isFileArchive(file) && Boolean.TRUE.equals(Settings.getSetting("files", "extract-on-click"))) {
-                Platform.runLater(() -> {
-                    ArchiveHandler.extract(file);
-                    FilesLoader.refresh();
-                });
+                new ArchiveTask(file, true);
             } else {
                 openFile();
             }
@@ -0,0 +1,70 @@
+package com.example.aloe.files.tasks;
+
+import com.example.aloe.elements.files.FilesLoader;
+import com.example.aloe.files.Trash;
+import javafx.application.Platform;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A background task moving files or directories to the trash.
+ * <p>
+ * Every file is renamed into the trash of its own volume through {@link Trash#moveToTrash(Path)}, which takes
+ * constant time, so the task is neither queued behind other operations nor shown in the progress list.
+ * Files that cannot be renamed, e.g. on volumes without write access to their top directory, are handed
+ * to a {@link FileMoveTask} copying them into the home trash.
+ * </p>
+ *
+ * @see Trash
+ * @see FilesTask
+ * @since 2.9.0
+ */
+public class FileTrashTask extends FilesTask {
+
+    /**
+     * Constructs a task moving a single file or directory to the trash.
+     *
+     * @param file      the file or directory to trash
+     * @param autoStart whether to start the task immediately
+     */
+    public FileTrashTask(File file, boolean autoStart) {
+        this(List.of(file), autoStart);
+    }
+
+    /**
+     * Constructs a task moving multiple files or directories to the trash.
+     *
+     * @param files     the files or directories to trash
+     * @param autoStart whether to start the task immediately
+     */
+    public FileTrashTask(List<File> files, boolean autoStart) {
+        this.files = files;
+
+        if (autoStart) runTask();
+    }
+
+    /**
+     * Renames the files into the trash and copies the remaining ones into the home trash.
+     *
+     * @return {@code null} upon completion
+     * @throws Exception if the task is cancelled
+     */
+    @Override
+    protected Void call() throws Exception {
+        List<File> remaining = new ArrayList<>();
+        for (File file : files) {
+            checkpoint();
+            if (!Trash.moveToTrash(file.toPath())) remaining.add(file);
+        }
+
+        if (!remaining.isEmpty()) {
+            new FileMoveTask(remaining, Trash.getHomeTrash(), true);
+        }
+
+        Platform.runLater(FilesLoader::refresh);
+        return null;
+    }
+}
@@ -1,9 +1,10 @@
 package com.example.aloe.files.tasks;
 
+import com.example.aloe.elements.files.FilesLoader;
+import com.example.aloe.elements.navigation.ProgressBox;
 import com.example.aloe.utils.Translator;
 import com.example.aloe.utils.Utils;
 import com.example.aloe.elements.navigation.ProgressManager;
-import com.example.aloe.files.FilesUtils;
 import com.example.aloe.utils.UnitConverter;
 import javafx.application.Platform;
 import javafx.beans.property.DoubleProperty;
@@ -13,7 +14,17 @@ import javafx.beans.property.StringProperty;
 import javafx.concurrent.Task;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Abstract base class for performing file-related background tasks in a JavaFX application.
@@ -27,8 +38,11 @@ import java.util.List;
  * <p>
  * Key features:
  * <ul>
- *     <li>Runs tasks on a separate daemon thread to avoid blocking the UI.</li>
- *     <li>Tracks the total size of all files involved and reports progress in real time.</li>
+ *     <li>Runs tasks in the background through the {@link OperationScheduler}, which limits the number of
+ *     tasks running at the same time per destination.</li>
+ *     <li>Lets the user pause, resume and cancel tasks; long loops call {@link #checkpoint()} to honour them.</li>
+ *     <li>Tracks the total size of all files involved and reports progress, throughput and remaining time
+ *     through a {@link ProgressPulse} shared by all tasks.</li>
  *     <li>Registers tasks with the {@link ProgressManager} for visual feedback to users.</li>
  * </ul>
  * </p>
@@ -40,6 +54,11 @@ import java.util.List;
  */
 abstract class FilesTask extends Task<Void> {
 
+    /**
+     * The time constant of the throughput smoothing, in seconds.
+     */
+    private static final double THROUGHPUT_SMOOTHING = 2;
+
     /**
      * Property representing the progress of the task (value between 0 and 1).
      */
@@ -50,64 +69,365 @@ abstract class FilesTask extends Task<Void> {
      */
     protected final StringProperty descriptionProperty = new SimpleStringProperty();
 
+    /**
+     * Property holding the current throughput and the estimated remaining time (e.g. "45 MB/s, 1:05 remaining").
+     */
+    protected final StringProperty detailsProperty = new SimpleStringProperty();
+
     /**
      * List of files involved in the task.
      */
     protected List<File> files;
 
     /**
-     * Total size (in bytes) of all files involved in the task.
+     * Total size (in bytes) of all files involved in the task, or the total of the units counted by the task
+     * if it overrides {@link #formatAmount(long)}.
+     */
+    protected volatile long totalSize;
+
+    /**
+     * Current progress in bytes, or in the units counted by the task. May be updated by several threads at once.
+     */
+    protected final LongAdder progress = new LongAdder();
+
+    /**
+     * Whether the progress changed since it was last published.
+     */
+    private volatile boolean progressChanged;
+
+    /**
+     * The progress at the time it was last published, in bytes. Accessed only on the JavaFX application thread.
      */
-    protected long totalSize;
+    private long publishedProgress;
 
     /**
-     * Human-readable string representation of {@code totalSize} (e.g. "10 MB").
+     * The time the progress was last published, in nanoseconds. Accessed only on the JavaFX application thread.
      */
-    protected String totalSizeString;
+    private long publishedTime;
 
     /**
-     * Current progress in bytes.
+     * The smoothed throughput in bytes per second. Accessed only on the JavaFX application thread.
      */
-    protected long progress = 0;
+    private double throughput;
 
     /**
-     * Starts the task on a new background daemon thread.
-     * This ensures that the task does not block the JavaFX application thread.
+     * Whether the user has paused the task. Guarded by {@link #pauseLock} for writes.
+     */
+    private volatile boolean paused;
+
+    /**
+     * The lock the task waits on while it is paused.
+     */
+    private final Object pauseLock = new Object();
+
+    /**
+     * Whether the task is shown in the {@link ProgressManager}.
+     */
+    private volatile boolean listed;
+
+    /**
+     * Submits the task to the {@link OperationScheduler}, which runs it in the background
+     * as soon as its destination has a free slot.
      */
     protected void runTask() {
-        Thread thread = new Thread(this);
-        thread.setDaemon(true);
-        thread.start();
+        OperationScheduler.submit(this);
+    }
+
+    /**
+     * Returns the directory the task writes to. Tasks using the same disks are queued together.
+     *
+     * @return the destination directory, or {@code null} if the task should not be queued
+     * @since 2.9.0
+     */
+    protected Path getDestination() {
+        return null;
     }
 
     /**
-     * Attempts to register this task with the {@link ProgressManager},
-     * unless the task is for a single small file (&lt; 1MB).
+     * Returns the title of the task shown in the {@link ProgressManager}.
      *
-     * @param type            the type of operation (e.g. "copy", "move")
+     * @return the title, or {@code null} if the task should not be shown
+     * @see #createTitle(String, String, String)
+     * @since 2.9.0
+     */
+    protected String getProgressTitle() {
+        return null;
+    }
+
+    /**
+     * Creates the title of a task, unless the task is for a single small file (&lt; 1MB).
+     *
+     * @param type            the type of operation (e.g. "copying", "moving")
      * @param destination     the destination category or label
      * @param destinationName the name of the destination directory or location
+     * @return the title, or {@code null} if the task should not be shown
+     * @since 2.9.0
      */
-    protected void tryAddToTasksList(String type, String destination, String destinationName) {
-        totalSize = FilesUtils.calculateFileSize(files);
-        if (!(files.size() == 1 && files.getFirst().length() < 1048576)) {
-            String title = Translator.translate("task." + type)
-                    + files.size()
-                    + Translator.translate("task." + (files.size() == 1 ? "item-" : "items-") + destination)
-                    + destinationName;
-            ProgressManager.addTask(title, progressProperty, descriptionProperty);
-            totalSizeString = UnitConverter.convert(totalSize);
+    protected String createTitle(String type, String destination, String destinationName) {
+        if (files.isEmpty() || (files.size() == 1 && files.getFirst().isFile() && files.getFirst().length() < 1048576)) {
+            return null;
         }
+        return Translator.translate("task." + type)
+                + files.size()
+                + Translator.translate("task." + (files.size() == 1 ? "item-" : "items-") + destination)
+                + destinationName;
     }
 
     /**
-     * Updates the progress UI properties based on the current number of bytes processed.
-     * This method is run on the JavaFX application thread using {@code Platform.runLater}.
+     * Registers the task with the {@link ProgressManager} and the {@link ProgressPulse}, unless it has no title.
+     * The progress box is marked as finished when the task succeeds, fails or is cancelled.
+     * Called by the {@link OperationScheduler} when the task is submitted.
      */
-    protected void updateProgress() {
+    void showInTasksList() {
+        String title = getProgressTitle();
+        if (title == null) return;
+        listed = true;
+
         Platform.runLater(() -> {
-            progressProperty.set(Utils.calculatePercentage(progress, totalSize) / 100);
-            descriptionProperty.set(UnitConverter.convert(progress) + " / " + totalSizeString);
+            ProgressBox box = ProgressManager.addTask(title, progressProperty, descriptionProperty, detailsProperty, this::setPaused, () -> cancel(false));
+            stateProperty().addListener((observable, oldState, state) -> {
+                switch (state) {
+                    case SUCCEEDED -> {
+                        progressProperty.set(1);
+                        ProgressManager.finishTask(box, Translator.translate("task.done"));
+                    }
+                    case CANCELLED -> {
+                        ProgressManager.finishTask(box, Translator.translate("task.cancelled"));
+                        FilesLoader.refresh();
+                    }
+                    case FAILED -> {
+                        if (getException() != null) getException().printStackTrace();
+                        ProgressManager.finishTask(box, Translator.translate("task.failed"));
+                        FilesLoader.refresh();
+                    }
+                    default -> {}
+                }
+            });
         });
+        ProgressPulse.register(this);
+    }
+
+    /**
+     * Shows or hides the information that the task is waiting for a free slot.
+     * Called by the {@link OperationScheduler}.
+     *
+     * @param queued whether the task is waiting
+     */
+    void setQueued(boolean queued) {
+        if (!listed) return;
+        Platform.runLater(() -> {
+            if (queued) {
+                descriptionProperty.set(Translator.translate("task.queued"));
+            } else if (Translator.translate("task.queued").equals(descriptionProperty.get())) {
+                descriptionProperty.set("");
+            }
+        });
+    }
+
+    /**
+     * Pauses or resumes the task. A paused task stops at its next {@link #checkpoint()}.
+     *
+     * @param paused {@code true} to pause the task, {@code false} to resume it
+     * @since 2.9.0
+     */
+    void setPaused(boolean paused) {
+        synchronized (pauseLock) {
+            this.paused = paused;
+            pauseLock.notifyAll();
+        }
+    }
+
+    /**
+     * Cancels the task and wakes it up if it is paused, so it stops at its next {@link #checkpoint()}.
+     *
+     * @param mayInterruptIfRunning whether the thread running the task should be interrupted
+     * @return {@code true} if the task has been cancelled
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        synchronized (pauseLock) {
+            pauseLock.notifyAll();
+        }
+        return cancelled;
+    }
+
+    /**
+     * A point at which the task honours the user's requests: waits while the task is paused
+     * and stops the task if it has been cancelled. Called by long-running loops between units of work.
+     * May be called from any thread working only for the task; threads of shared pools check
+     * {@link #isPausedOrCancelled()} instead, so a paused task does not hold them.
+     *
+     * @throws CancellationException if the task has been cancelled
+     * @since 2.9.0
+     */
+    protected void checkpoint() {
+        if (paused) {
+            synchronized (pauseLock) {
+                while (paused && !isCancelled()) {
+                    try {
+                        pauseLock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new CancellationException("Interrupted while paused");
+                    }
+                }
+            }
+        }
+        if (isCancelled()) {
+            throw new CancellationException();
+        }
+    }
+
+    /**
+     * Checks without waiting whether the task has been paused or cancelled. Work running on the threads of
+     * a shared pool stops and hands the rest back to the task's own thread, which waits in {@link #checkpoint()}.
+     *
+     * @return {@code true} if the task should stop at the next unit of work
+     * @since 2.9.0
+     */
+    protected boolean isPausedOrCancelled() {
+        return paused || isCancelled();
+    }
+
+    /**
+     * Tries to move a file or directory with a single atomic rename.
+     * <p>
+     * A rename is only attempted when the source and the parent of the target are on the same
+     * {@link FileStore} and the target does not exist yet, so moving a directory of any size within
+     * one file system takes constant time. In any other case, or when the rename fails, the caller
+     * has to fall back to copying and deleting.
+     * </p>
+     *
+     * @param source the file or directory to move
+     * @param target the new path of the file or directory
+     * @return {@code true} if the source has been renamed, {@code false} if nothing has been changed
+     * @since 2.9.0
+     */
+    protected static boolean tryRename(Path source, Path target) {
+        try {
+            if (target.startsWith(source) || Files.exists(target, LinkOption.NOFOLLOW_LINKS)) return false;
+            if (!Files.getFileStore(source).equals(Files.getFileStore(target.getParent()))) return false;
+
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Leaves out the files that are already in the destination directory, since moving them there changes
+     * nothing, and rejects moving a directory into itself.
+     * <p>
+     * Neither case may reach the copy-and-delete fallback of a move: copying a file onto itself and deleting
+     * the source would delete the file.
+     * </p>
+     *
+     * @param files       the files and directories to move
+     * @param destination the directory they are moved to
+     * @return the files that have to be moved
+     * @throws FileSystemException if the destination is one of the directories or lies inside one of them
+     * @since 2.9.0
+     */
+    protected static List<File> excludeMovesInPlace(List<File> files, Path destination) throws FileSystemException {
+        Path target = destination.toAbsolutePath().normalize();
+        List<File> moved = new ArrayList<>(files.size());
+        for (File file : files) {
+            Path source = file.toPath().toAbsolutePath().normalize();
+            if (target.equals(source.getParent())) continue;
+            if (target.startsWith(source)) {
+                throw new FileSystemException(source.toString(), target.toString(), "Cannot move a folder into itself");
+            }
+            moved.add(file);
+        }
+        return moved;
+    }
+
+    /**
+     * Adds the size of newly discovered files to the total size of the task.
+     *
+     * @param bytes the number of bytes to add
+     * @since 2.9.0
+     */
+    protected synchronized void addTotalSize(long bytes) {
+        totalSize += bytes;
+        progressChanged = true;
+    }
+
+    /**
+     * Adds processed bytes to the progress. May be called by several threads at once.
+     *
+     * @param bytes the number of bytes processed since the last call
+     * @since 2.9.0
+     */
+    protected void addProgress(long bytes) {
+        progress.add(bytes);
+        updateProgress();
+    }
+
+    /**
+     * Marks the progress as changed. The progress UI properties are not updated immediately,
+     * but by the shared {@link ProgressPulse} at its next frame, so calling this method often is cheap.
+     */
+    protected void updateProgress() {
+        progressChanged = true;
+    }
+
+    /**
+     * Publishes the current progress, throughput and estimated remaining time to the progress UI properties.
+     * Called by {@link ProgressPulse} on the JavaFX application thread.
+     *
+     * @param now the current value of {@link System#nanoTime()}
+     */
+    void publishProgress(long now) {
+        long done = progress.sum();
+        long total = totalSize;
+
+        if (publishedTime != 0) {
+            double elapsed = (now - publishedTime) / 1e9;
+            double current = (done - publishedProgress) / elapsed;
+            double weight = 1 - Math.exp(-elapsed / THROUGHPUT_SMOOTHING);
+            throughput += (current - throughput) * weight;
+        }
+        publishedProgress = done;
+        publishedTime = now;
+
+        if (!progressChanged) return;
+        progressChanged = false;
+
+        progressProperty.set(Utils.calculatePercentage(done, total) / 100);
+        descriptionProperty.set(formatAmount(done) + " / " + formatAmount(total));
+        if (throughput >= 1 && total > done) {
+            long remaining = (long) ((total - done) / throughput);
+            detailsProperty.set(formatAmount((long) throughput) + "/s, " + formatDuration(remaining) + Translator.translate("task.remaining"));
+        } else {
+            detailsProperty.set(formatAmount((long) throughput) + "/s");
+        }
+    }
+
+    /**
+     * Formats an amount of progress for the progress description. Progress is measured in bytes,
+     * unless a task counts something else and overrides this method.
+     *
+     * @param amount the amount of progress
+     * @return the formatted amount
+     * @since 2.9.0
+     */
+    protected String formatAmount(long amount) {
+        return UnitConverter.convert(amount).strip();
+    }
+
+    /**
+     * Formats a number of seconds as {@code m:ss}, or {@code h:mm:ss} for an hour or more.
+     *
+     * @param seconds the duration in seconds
+     * @return the formatted duration
+     */
+    private static String formatDuration(long seconds) {
+        if (seconds >= 3600) {
+            return String.format("%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+        }
+        return String.format("%d:%02d", seconds / 60, seconds % 60);
     }
 }
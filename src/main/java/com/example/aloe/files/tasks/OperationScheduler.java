@@ -0,0 +1,121 @@
+package com.example.aloe.files.tasks;
+
+import com.example.aloe.files.DiskTopology;
+import com.example.aloe.settings.Settings;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The single entry point that runs all {@link FilesTask}s.
+ * <p>
+ * The source and destination directories of every task are resolved to the physical disks storing them
+ * with {@link DiskTopology}, and a {@link DeviceScheduler} admits the task once each of these disks has a
+ * free slot. Spinning hard disks run one task at a time, because concurrent copies make them seek back and
+ * forth; other disks run up to {@code files.operations-per-destination} tasks. Tasks on different disks run
+ * in parallel. Tasks without a destination, such as opening a file, are started immediately.
+ * </p>
+ *
+ * <p>
+ * Every task is shown in the {@link com.example.aloe.elements.navigation.ProgressManager} as soon as it
+ * is submitted, so queued tasks can be paused or cancelled before they start. Disks are resolved on a
+ * separate thread, because the first scan of the disk topology takes a moment.
+ * </p>
+ *
+ * @see FilesTask
+ * @see DeviceScheduler
+ * @since 2.9.0
+ */
+final class OperationScheduler {
+
+    /** The number of tasks per disk used when the setting is missing or invalid. */
+    static final int DEFAULT_LIMIT = 2;
+
+    /** The threads running the tasks. */
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "file-operation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** The thread resolving the disks of submitted tasks, in submission order. */
+    private static final ExecutorService RESOLVER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "file-operation-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Admits the tasks according to their disks. */
+    private static final DeviceScheduler scheduler = new DeviceScheduler(EXECUTOR, OperationScheduler::getLimit);
+
+    private OperationScheduler() {}
+
+    /**
+     * Submits a task. The task is started as soon as all disks it uses have a free slot.
+     * May be called from any thread.
+     *
+     * @param task the task to run
+     */
+    static void submit(FilesTask task) {
+        task.showInTasksList();
+
+        if (task.getDestination() == null) {
+            EXECUTOR.execute(task);
+            return;
+        }
+
+        RESOLVER.execute(() -> scheduler.submit(getDevices(task), task, task::setQueued));
+    }
+
+    /**
+     * Resolves the disks a task reads from and writes to: the disks of the directories containing its
+     * files and the disk of its destination.
+     *
+     * @param task the task
+     * @return the disks used by the task
+     */
+    static Set<DiskTopology.Device> getDevices(FilesTask task) {
+        Set<Path> directories = new HashSet<>();
+        for (File file : task.files) {
+            File parent = file.getAbsoluteFile().getParentFile();
+            directories.add(parent != null ? parent.toPath() : file.toPath());
+        }
+        directories.add(task.getDestination());
+
+        Set<DiskTopology.Device> devices = new HashSet<>();
+        for (Path directory : directories) {
+            devices.add(DiskTopology.resolve(directory));
+        }
+        return devices;
+    }
+
+    /**
+     * Returns the maximum number of tasks running at the same time on a disk: one for spinning hard disks,
+     * and the value of the {@code files.operations-per-destination} setting otherwise.
+     *
+     * @param device the disk
+     * @return the limit, at least {@code 1}
+     */
+    static int getLimit(DiskTopology.Device device) {
+        return device.rotational() ? 1 : getLimit();
+    }
+
+    /**
+     * Returns the maximum number of tasks running at the same time per disk,
+     * as configured by the {@code files.operations-per-destination} setting.
+     *
+     * @return the limit, at least {@code 1}
+     */
+    static int getLimit() {
+        Object value = Settings.getSetting("files", "operations-per-destination");
+        try {
+            return Math.max(1, value instanceof Number number ? number.intValue() : Integer.parseInt(String.valueOf(value)));
+        } catch (NumberFormatException e) {
+            return DEFAULT_LIMIT;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.aloe.files.tasks;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.util.Duration;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A single timer publishing the progress of all running {@link FilesTask}s at a fixed frame rate.
+ * <p>
+ * File tasks only update their counters while they work. The pulse reads the counters
+ * {@link #FRAME_RATE} times per second on the JavaFX application thread and updates the progress
+ * properties, so the number of UI updates does not depend on how fast the tasks are. The timer
+ * runs only while at least one task is registered.
+ * </p>
+ *
+ * @see FilesTask
+ * @since 2.9.0
+ */
+final class ProgressPulse {
+
+    /** The number of progress updates per second. */
+    static final int FRAME_RATE = 30;
+
+    /** The tasks whose progress is published. */
+    private static final Set<FilesTask> tasks = ConcurrentHashMap.newKeySet();
+
+    /** The shared timer, created on the JavaFX application thread when the first task is registered. */
+    private static Timeline timeline;
+
+    private ProgressPulse() {}
+
+    /**
+     * Registers a task, so its progress is published until it is done.
+     * May be called from any thread.
+     *
+     * @param task the task to register
+     */
+    static void register(FilesTask task) {
+        tasks.add(task);
+        Platform.runLater(ProgressPulse::start);
+    }
+
+    /**
+     * Creates the timer if needed and starts it unless it is already running.
+     */
+    private static void start() {
+        if (timeline == null) {
+            timeline = new Timeline(new KeyFrame(Duration.millis(1000.0 / FRAME_RATE), e -> pulse()));
+            timeline.setCycleCount(Animation.INDEFINITE);
+        }
+        if (timeline.getStatus() != Animation.Status.RUNNING && !tasks.isEmpty()) {
+            timeline.play();
+        }
+    }
+
+    /**
+     * Publishes the progress of every registered task, removing the tasks that are done.
+     * The timer is stopped when no task is left.
+     */
+    private static void pulse() {
+        long now = System.nanoTime();
+        for (FilesTask task : tasks) {
+            boolean done = task.isDone();
+            task.publishProgress(now);
+            if (done) tasks.remove(task);
+        }
+        if (tasks.isEmpty()) {
+            timeline.stop();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.aloe.files.tasks;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * A flat description of a file or directory tree, built with a single {@link Files#walkFileTree} pass.
+ * <p>
+ * The manifest lists the root and every directory and file below it in walk order, so a directory
+ * always precedes its content. Each entry carries the size read during the walk, which makes the
+ * manifest usable for the progress total, for the copy itself and for conflict checks without
+ * touching the file system again.
+ * </p>
+ *
+ * <p>
+ * A manifest can be filled on a background thread with {@link #scanInBackground(List, LongConsumer)}.
+ * Consumers read entries with {@link #get(int)}, which waits until the requested entry has been
+ * scanned, so work on the tree can start before the scan has finished.
+ * </p>
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * TreeManifest manifest = TreeManifest.scanInBackground(List.of(Path.of("/home/user/Documents")), size -> {}).getFirst();
+ * for (int i = 0; manifest.get(i) != null; i++) {
+ *     System.out.println(manifest.get(i).relative());
+ * }
+ * }</pre>
+ *
+ * @see FileCopyTask
+ * @since 2.9.0
+ */
+final class TreeManifest {
+
+    /**
+     * A single directory or file of the tree.
+     *
+     * @param path      the absolute path of the entry
+     * @param relative  the path of the entry relative to the root; empty for the root itself
+     * @param directory whether the entry is a directory
+     * @param size      the size of the file in bytes, or {@code 0} for directories
+     */
+    record Entry(Path path, Path relative, boolean directory, long size) {}
+
+    /** The root of the described tree. */
+    private final Path root;
+
+    /** Whether symbolic links are followed, or listed as entries of their own. */
+    private final boolean followLinks;
+
+    /** The scanned entries in walk order. Guarded by {@code this}. */
+    private final List<Entry> entries = new ArrayList<>();
+
+    /** Whether the scan has finished. Guarded by {@code this}. */
+    private boolean complete;
+
+    /** The error that stopped the scan, if any. Guarded by {@code this}. */
+    private IOException failure;
+
+    /**
+     * Creates an empty manifest for the given root.
+     *
+     * @param root        the root of the tree
+     * @param followLinks whether symbolic links are followed
+     */
+    private TreeManifest(Path root, boolean followLinks) {
+        this.root = root;
+        this.followLinks = followLinks;
+    }
+
+    /**
+     * Starts scanning the given trees one after another on a background daemon thread, following symbolic links.
+     * The manifests are returned immediately and are filled while the scan advances.
+     *
+     * @param roots   the roots of the trees, in the order they should be scanned
+     * @param scanned receives the size of every scanned file, on the scanning thread
+     * @return one manifest per root, in the order of the roots
+     */
+    static List<TreeManifest> scanInBackground(List<Path> roots, LongConsumer scanned) {
+        return scanInBackground(roots, true, scanned);
+    }
+
+    /**
+     * Starts scanning the given trees one after another on a background daemon thread.
+     * The manifests are returned immediately and are filled while the scan advances.
+     *
+     * @param roots       the roots of the trees, in the order they should be scanned
+     * @param followLinks whether symbolic links are followed; if not, they are listed as files
+     * @param scanned     receives the size of every scanned file, on the scanning thread
+     * @return one manifest per root, in the order of the roots
+     */
+    static List<TreeManifest> scanInBackground(List<Path> roots, boolean followLinks, LongConsumer scanned) {
+        List<TreeManifest> manifests = roots.stream().map(root -> new TreeManifest(root, followLinks)).toList();
+        Thread thread = new Thread(() -> manifests.forEach(manifest -> manifest.fill(scanned)), "tree-scan");
+        thread.setDaemon(true);
+        thread.start();
+        return manifests;
+    }
+
+    /**
+     * Returns the entry at the given position, waiting until it has been scanned.
+     *
+     * @param index the position of the entry in walk order
+     * @return the entry, or {@code null} if the tree has fewer entries
+     * @throws IOException          if the scan failed before reaching the entry
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    synchronized Entry get(int index) throws IOException, InterruptedException {
+        while (index >= entries.size() && !complete) {
+            wait();
+        }
+        if (index < entries.size()) {
+            return entries.get(index);
+        }
+        rethrowFailure();
+        return null;
+    }
+
+    /**
+     * Walks the tree and appends every visited entry, waking up waiting readers.
+     * Symbolic links are followed if requested, and directory cycles are skipped.
+     *
+     * @param scanned receives the size of every scanned file
+     */
+    private void fill(LongConsumer scanned) {
+        try {
+            Files.walkFileTree(root, followLinks ? EnumSet.of(FileVisitOption.FOLLOW_LINKS) : EnumSet.noneOf(FileVisitOption.class), Integer.MAX_VALUE, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    add(new Entry(dir, root.relativize(dir), true, 0));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    add(new Entry(file, root.relativize(file), false, attrs.size()));
+                    scanned.accept(attrs.size());
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+                    if (exc instanceof FileSystemLoopException) return FileVisitResult.CONTINUE;
+                    throw exc;
+                }
+            });
+        } catch (IOException e) {
+            synchronized (this) {
+                failure = e;
+            }
+        } finally {
+            synchronized (this) {
+                complete = true;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Appends an entry and wakes up readers waiting for it.
+     *
+     * @param entry the scanned entry
+     */
+    private synchronized void add(Entry entry) {
+        entries.add(entry);
+        notifyAll();
+    }
+
+    /**
+     * Rethrows the error that stopped the scan, if any.
+     *
+     * @throws IOException the error that stopped the scan
+     */
+    private synchronized void rethrowFailure() throws IOException {
+        if (failure != null) throw failure;
+    }
+}
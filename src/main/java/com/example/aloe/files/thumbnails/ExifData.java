@@ -0,0 +1,202 @@
+package com.example.aloe.files.thumbnails;
+
+import com.drew.imaging.ImageMetadataReader;
+import com.drew.imaging.ImageProcessingException;
+import com.drew.metadata.Metadata;
+import com.drew.metadata.MetadataException;
+import com.drew.metadata.exif.ExifIFD0Directory;
+import com.drew.metadata.exif.ExifThumbnailDirectory;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The EXIF data of an image relevant for thumbnails: the orientation and the location of the embedded thumbnail.
+ * <p>
+ * Most camera JPEGs and RAW files carry a small JPEG preview in their second image file directory (IFD1).
+ * Reading it costs a few kilobytes of I/O instead of decoding the whole photo. The metadata is read with
+ * {@code metadata-extractor}, which stops at the image data, and the thumbnail bytes are read directly from
+ * the file, relative to the TIFF header of the EXIF data in JPEG, WebP and TIFF-based RAW files. Other
+ * containers, e.g. HEIF, and thumbnails not starting with a JPEG start-of-image marker fall back to decoding
+ * the image.
+ * </p>
+ *
+ * <p>
+ * Neither the embedded thumbnail nor the pixels decoded by ImageIO are rotated by the camera, so both are
+ * turned upright with {@link #orient(BufferedImage)} according to the EXIF orientation tag.
+ * </p>
+ *
+ * @param orientation     the EXIF orientation, from {@code 1} (upright) to {@code 8}
+ * @param thumbnailOffset the offset of the embedded JPEG thumbnail in the file, or {@code -1} if there is none
+ * @param thumbnailLength the length of the embedded JPEG thumbnail in bytes
+ * @see ThumbnailService
+ * @since 2.9.0
+ */
+record ExifData(int orientation, long thumbnailOffset, int thumbnailLength) {
+
+    /** The data of images without EXIF metadata. */
+    static final ExifData NONE = new ExifData(1, -1, 0);
+
+    /** The maximum length of an embedded thumbnail that is read, to guard against corrupt offsets. */
+    static final int MAX_THUMBNAIL_LENGTH = 1 << 20;
+
+    /**
+     * Reads the EXIF data of an image.
+     *
+     * @param path the image file
+     * @return the EXIF data, or {@link #NONE} if the file has none or cannot be read
+     */
+    static ExifData read(Path path) {
+        try {
+            Metadata metadata = ImageMetadataReader.readMetadata(path.toFile());
+
+            int orientation = 1;
+            ExifIFD0Directory ifd0 = metadata.getFirstDirectoryOfType(ExifIFD0Directory.class);
+            if (ifd0 != null && ifd0.containsTag(ExifIFD0Directory.TAG_ORIENTATION)) {
+                orientation = ifd0.getInt(ExifIFD0Directory.TAG_ORIENTATION);
+            }
+
+            long offset = -1;
+            int length = 0;
+            ExifThumbnailDirectory ifd1 = metadata.getFirstDirectoryOfType(ExifThumbnailDirectory.class);
+            if (ifd1 != null && ifd1.containsTag(ExifThumbnailDirectory.TAG_THUMBNAIL_OFFSET)
+                    && ifd1.containsTag(ExifThumbnailDirectory.TAG_THUMBNAIL_LENGTH)) {
+                offset = ifd1.getLong(ExifThumbnailDirectory.TAG_THUMBNAIL_OFFSET);
+                length = ifd1.getInt(ExifThumbnailDirectory.TAG_THUMBNAIL_LENGTH);
+            }
+            return new ExifData(orientation, offset, length);
+        } catch (ImageProcessingException | MetadataException | IOException | RuntimeException e) {
+            return NONE;
+        }
+    }
+
+    /**
+     * Reads the embedded thumbnail if it is large enough for the requested size.
+     *
+     * @param path the image file
+     * @param size the minimum length of the longer edge of the thumbnail
+     * @return the embedded thumbnail, not yet oriented, or {@code null} if there is none or it is too small
+     */
+    BufferedImage readThumbnail(Path path, int size) {
+        if (thumbnailOffset < 0 || thumbnailLength <= 2 || thumbnailLength > MAX_THUMBNAIL_LENGTH) return null;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long header = findTiffHeader(channel);
+            if (header < 0 || header + thumbnailOffset + thumbnailLength > channel.size()) return null;
+
+            ByteBuffer buffer = read(channel, header + thumbnailOffset, thumbnailLength);
+            byte[] bytes = buffer.array();
+            if (buffer.hasRemaining() || (bytes[0] & 0xFF) != 0xFF || (bytes[1] & 0xFF) != 0xD8) return null;
+
+            BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(bytes));
+            if (thumbnail == null || Math.max(thumbnail.getWidth(), thumbnail.getHeight()) < size) return null;
+            return thumbnail;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Finds the TIFF header of the EXIF data, which the thumbnail offset is relative to. TIFF-based RAW files
+     * start with it; JPEG files hold it in the {@code APP1} segment and WebP files in the {@code EXIF} chunk.
+     *
+     * @param channel the image file
+     * @return the position of the TIFF header, or {@code -1} if the format is not supported
+     * @throws IOException if the file cannot be read
+     */
+    private static long findTiffHeader(FileChannel channel) throws IOException {
+        ByteBuffer start = read(channel, 0, 12);
+        if (start.position() < 12) return -1;
+        int first = start.get(0) & 0xFF;
+        int second = start.get(1) & 0xFF;
+
+        if ((first == 'I' && second == 'I') || (first == 'M' && second == 'M')) return 0;
+
+        if (first == 0xFF && second == 0xD8) {
+            long position = 2;
+            while (position + 10 <= channel.size()) {
+                ByteBuffer segment = read(channel, position, 10);
+                if ((segment.get(0) & 0xFF) != 0xFF) return -1;
+                int marker = segment.get(1) & 0xFF;
+                int length = segment.getShort(2) & 0xFFFF;
+                if (marker == 0xDA || marker == 0xD9) return -1;
+                if (marker == 0xE1 && segment.get(4) == 'E' && segment.get(5) == 'x' && segment.get(6) == 'i' && segment.get(7) == 'f') {
+                    return position + 10;
+                }
+                position += 2 + length;
+            }
+            return -1;
+        }
+
+        if (start.get(0) == 'R' && start.get(1) == 'I' && start.get(8) == 'W' && start.get(9) == 'E') {
+            long position = 12;
+            while (position + 14 <= channel.size()) {
+                ByteBuffer chunk = read(channel, position, 14).order(ByteOrder.LITTLE_ENDIAN);
+                long length = chunk.getInt(4) & 0xFFFFFFFFL;
+                if (chunk.get(0) == 'E' && chunk.get(1) == 'X' && chunk.get(2) == 'I' && chunk.get(3) == 'F') {
+                    return chunk.get(8) == 'E' && chunk.get(9) == 'x' ? position + 14 : position + 8;
+                }
+                position += 8 + length + (length & 1);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads bytes at the given position of a file, as many as available up to the length.
+     *
+     * @param channel  the file
+     * @param position the position to read from
+     * @param length   the number of bytes to read
+     * @return the buffer holding the bytes; its position is the number of bytes read
+     * @throws IOException if the file cannot be read
+     */
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) > 0) {
+        }
+        return buffer;
+    }
+
+    /**
+     * Turns an image upright according to the EXIF orientation.
+     *
+     * @param image the image as stored in the file
+     * @return the upright image, or the same image if it is already upright
+     */
+    BufferedImage orient(BufferedImage image) {
+        if (orientation <= 1 || orientation > 8) return image;
+
+        int width = image.getWidth();
+        int height = image.getHeight();
+        boolean transposed = orientation >= 5;
+        AffineTransform transform = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { transform.translate(width, 0); transform.scale(-1, 1); }
+            case 3 -> { transform.translate(width, height); transform.rotate(Math.PI); }
+            case 4 -> { transform.translate(0, height); transform.scale(1, -1); }
+            case 5 -> { transform.rotate(Math.PI / 2); transform.scale(1, -1); }
+            case 6 -> { transform.translate(height, 0); transform.rotate(Math.PI / 2); }
+            case 7 -> { transform.scale(-1, 1); transform.translate(-height, width); transform.rotate(3 * Math.PI / 2); }
+            case 8 -> { transform.translate(0, width); transform.rotate(3 * Math.PI / 2); }
+        }
+
+        BufferedImage oriented = new BufferedImage(transposed ? height : width, transposed ? width : height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = oriented.createGraphics();
+        try {
+            graphics.drawImage(image, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return oriented;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.aloe.files.thumbnails;
+
+import javafx.scene.image.Image;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An in-memory least-recently-used cache of decoded thumbnails, bounded by the bytes of their pixels.
+ * <p>
+ * Every thumbnail is accounted with four bytes per pixel, which is what JavaFX keeps for a decoded image.
+ * When a new thumbnail would exceed the limit, the least recently used thumbnails are evicted first.
+ * All methods are synchronized, so the cache can be shared by the decoding threads and the JavaFX
+ * application thread.
+ * </p>
+ *
+ * @see ThumbnailService
+ * @since 2.9.0
+ */
+final class ThumbnailCache {
+
+    /** The maximum number of pixel bytes held by the cache. */
+    private final long limit;
+
+    /** The thumbnails in access order, least recently used first. Guarded by {@code this}. */
+    private final LinkedHashMap<String, Image> images = new LinkedHashMap<>(256, 0.75f, true);
+
+    /** The number of pixel bytes currently held. Guarded by {@code this}. */
+    private long bytes;
+
+    /**
+     * Creates a cache holding at most the given number of pixel bytes.
+     *
+     * @param limit the maximum number of pixel bytes
+     */
+    ThumbnailCache(long limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * Returns a cached thumbnail and marks it as recently used.
+     *
+     * @param key the key of the thumbnail
+     * @return the thumbnail, or {@code null} if it is not cached
+     */
+    synchronized Image get(String key) {
+        return images.get(key);
+    }
+
+    /**
+     * Adds a thumbnail, evicting the least recently used thumbnails to stay within the limit.
+     * Thumbnails larger than the whole limit are not cached.
+     *
+     * @param key   the key of the thumbnail
+     * @param image the thumbnail
+     */
+    synchronized void put(String key, Image image) {
+        long size = getBytes(image);
+        if (size > limit) return;
+
+        Image previous = images.put(key, image);
+        bytes += size - (previous != null ? getBytes(previous) : 0);
+
+        for (Iterator<Map.Entry<String, Image>> iterator = images.entrySet().iterator(); bytes > limit && iterator.hasNext(); ) {
+            Map.Entry<String, Image> eldest = iterator.next();
+            if (eldest.getKey().equals(key)) continue;
+            bytes -= getBytes(eldest.getValue());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Returns the number of pixel bytes currently held.
+     *
+     * @return the number of bytes
+     */
+    synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the number of pixel bytes of a decoded image.
+     *
+     * @param image the image
+     * @return four bytes per pixel
+     */
+    private static long getBytes(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4;
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.aloe.files.thumbnails;
+
+import javafx.application.Platform;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.scene.image.Image;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Creates thumbnails of image files in the background.
+ * <p>
+ * Images are decoded on a small pool of background threads, never on the JavaFX application thread.
+ * The JPEG thumbnail embedded in the EXIF data of camera JPEGs and RAW files is used when it is large enough,
+ * see {@link ExifData}. Otherwise the decoder reads only every n-th pixel of large images, so a photo is never
+ * held in memory at its full resolution, and the result is scaled down smoothly to the smallest size bucket of the
+ * {@link ThumbnailStore} covering the requested display size. Thumbnails are looked up in two levels:
+ * an in-memory {@link ThumbnailCache} bounded by the bytes of the decoded pixels, and the persistent
+ * freedesktop.org thumbnail cache on disk, keyed by the URI and the modification time of the file.
+ * </p>
+ *
+ * <p>
+ * Pending requests are served newest first, because the most recently requested thumbnails belong to the
+ * files currently scrolled into view. A request can be cancelled through the returned {@link Future} when
+ * its file is no longer displayed.
+ * </p>
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * imageView.setImage(placeholder);
+ * Future<?> request = ThumbnailService.request(file, file.lastModified(), 60, imageView::setImage);
+ * }</pre>
+ *
+ * @since 2.9.0
+ */
+public final class ThumbnailService {
+
+    /**
+     * The lower-case extensions of the files thumbnails are created for. Formats ImageIO cannot decode,
+     * such as camera RAW files, HEIF and WebP, get a thumbnail only if they embed one in their EXIF data.
+     */
+    private static final Set<String> EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp", "tif", "tiff",
+            "raw", "dng", "cr2", "nef", "arw", "orf", "rw2", "pef", "heif", "heic", "webp");
+
+    /** The number of threads decoding thumbnails. */
+    static final int THREADS = Math.clamp(Runtime.getRuntime().availableProcessors() / 2, 1, 4);
+
+    /** The decoded thumbnails, bounded to a sixteenth of the heap, between 16 and 256 MiB. */
+    private static final ThumbnailCache memory = new ThumbnailCache(Math.clamp(Runtime.getRuntime().maxMemory() / 16, 16L << 20, 256L << 20));
+
+    /** The persistent thumbnail cache. */
+    private static final ThumbnailStore store = new ThumbnailStore();
+
+    /** The keys of the files that cannot be decoded, so they are not tried again. */
+    private static final Set<String> failed = ConcurrentHashMap.newKeySet();
+
+    /** The threads decoding thumbnails, taking the newest request first. */
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(THREADS, THREADS, 30, TimeUnit.SECONDS,
+            new LinkedBlockingDeque<>() {
+                @Override
+                public boolean offer(Runnable runnable) {
+                    return super.offerFirst(runnable);
+                }
+            },
+            runnable -> {
+                Thread thread = new Thread(runnable, "thumbnail");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            });
+
+    static {
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private ThumbnailService() {}
+
+    /**
+     * Checks whether thumbnails can be created for files with the given extension.
+     *
+     * @param extension the lower-case extension
+     * @return {@code true} if the file type is supported
+     */
+    public static boolean isSupported(String extension) {
+        return EXTENSIONS.contains(extension);
+    }
+
+    /**
+     * Returns the thumbnail of a file if it has already been decoded. Never touches the disk.
+     *
+     * @param file     the original file
+     * @param modified the modification time of the file in milliseconds
+     * @param size     the display size in pixels
+     * @return the thumbnail, or {@code null} if it has not been decoded yet
+     */
+    public static Image getCached(File file, long modified, double size) {
+        return memory.get(getKey(getUri(file), modified, ThumbnailStore.getBucket((int) Math.ceil(size))));
+    }
+
+    /**
+     * Requests the thumbnail of a file. The thumbnail is taken from the memory cache, the disk cache,
+     * or decoded from the file, in this order, on a background thread.
+     *
+     * @param file     the original file
+     * @param modified the modification time of the file in milliseconds
+     * @param size     the display size in pixels
+     * @param onLoaded receives the thumbnail on the JavaFX application thread; not called if the file cannot be decoded
+     * @return the pending request, which can be cancelled
+     */
+    public static Future<?> request(File file, long modified, double size, Consumer<Image> onLoaded) {
+        return EXECUTOR.submit(() -> {
+            Image image = load(file.toPath(), modified, ThumbnailStore.getBucket((int) Math.ceil(size)));
+            if (image != null) Platform.runLater(() -> onLoaded.accept(image));
+        });
+    }
+
+    /**
+     * Returns the thumbnail of a file from one of the caches, or creates it.
+     *
+     * @param path     the original file
+     * @param modified the modification time of the file in milliseconds
+     * @param bucket   the size bucket of the thumbnail
+     * @return the thumbnail, or {@code null} if the file cannot be decoded
+     */
+    static Image load(Path path, long modified, ThumbnailStore.Bucket bucket) {
+        String uri = getUri(path.toFile());
+        String key = getKey(uri, modified, bucket);
+
+        Image image = memory.get(key);
+        if (image != null || failed.contains(key)) return image;
+
+        BufferedImage thumbnail = store.read(uri, modified, bucket);
+        if (thumbnail == null) {
+            thumbnail = create(path, bucket.size());
+            if (thumbnail == null) {
+                failed.add(key);
+                return null;
+            }
+            if (!store.contains(path)) store.write(uri, modified, bucket, thumbnail);
+        }
+
+        image = SwingFXUtils.toFXImage(thumbnail, null);
+        memory.put(key, image);
+        return image;
+    }
+
+    /**
+     * Creates the upright thumbnail of an image. The thumbnail embedded in the EXIF data is used when it is
+     * large enough; only otherwise is the image itself decoded.
+     *
+     * @param path the image file
+     * @param size the maximum width and height of the thumbnail
+     * @return the thumbnail, or {@code null} if the file cannot be decoded
+     */
+    static BufferedImage create(Path path, int size) {
+        ExifData exif = ExifData.read(path);
+        BufferedImage embedded = exif.readThumbnail(path, size);
+        BufferedImage thumbnail = embedded != null ? scale(embedded, size) : decode(path, size);
+        return thumbnail != null ? exif.orient(thumbnail) : null;
+    }
+
+    /**
+     * Decodes an image so that it fits into a square of the given size. Large images are subsampled
+     * while reading, so only about twice the target resolution is ever decoded, and then scaled smoothly.
+     * Images smaller than the square are not enlarged.
+     *
+     * @param path the image file
+     * @param size the maximum width and height of the thumbnail
+     * @return the thumbnail, or {@code null} if the file cannot be decoded
+     */
+    static BufferedImage decode(Path path, int size) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(path.toFile())) {
+            if (input == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) return null;
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int subsampling = Math.max(1, Math.max(width, height) / (size * 2));
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return scale(reader.read(0, param), size);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Scales an image down so that it fits into a square of the given size, keeping its aspect ratio.
+     *
+     * @param image the image
+     * @param size  the maximum width and height
+     * @return the scaled image with an alpha channel
+     */
+    static BufferedImage scale(BufferedImage image, int size) {
+        double ratio = Math.min(1, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    /**
+     * Returns the URI identifying a file in the thumbnail cache, e.g. {@code file:///home/user/photo.jpg}.
+     *
+     * @param file the file
+     * @return the absolute URI of the file
+     */
+    static String getUri(File file) {
+        return file.toPath().toAbsolutePath().normalize().toUri().toString();
+    }
+
+    /**
+     * Returns the key of a thumbnail in the memory cache.
+     *
+     * @param uri      the URI of the original file
+     * @param modified the modification time of the file in milliseconds
+     * @param bucket   the size bucket of the thumbnail
+     * @return the key
+     */
+    private static String getKey(String uri, long modified, ThumbnailStore.Bucket bucket) {
+        return bucket.directory() + '|' + modified + '|' + uri;
+    }
+}
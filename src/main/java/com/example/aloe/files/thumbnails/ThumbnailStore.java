@@ -0,0 +1,252 @@
+package com.example.aloe.files.thumbnails;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+
+/**
+ * The persistent thumbnail cache shared with other desktop applications.
+ * <p>
+ * Thumbnails are stored as described by the freedesktop.org thumbnail managing standard: in
+ * {@code $XDG_CACHE_HOME/thumbnails} (or {@code ~/.cache/thumbnails}), in a directory named after the size
+ * bucket, as a PNG file named after the MD5 hash of the URI of the original file. The PNG records the URI
+ * and the modification time of the original in the {@code Thumb::URI} and {@code Thumb::MTime} text chunks;
+ * a thumbnail whose modification time no longer matches the original is ignored and replaced. New
+ * thumbnails are written to a temporary file and renamed into place, so readers never see partial files.
+ * </p>
+ *
+ * @see ThumbnailService
+ * @since 2.9.0
+ */
+final class ThumbnailStore {
+
+    /**
+     * A size bucket of the standard.
+     *
+     * @param directory the name of the directory holding the thumbnails
+     * @param size      the maximum width and height of the thumbnails in pixels
+     */
+    record Bucket(String directory, int size) {}
+
+    /** The size buckets of the standard, smallest first. */
+    static final Bucket[] BUCKETS = {
+            new Bucket("normal", 128),
+            new Bucket("large", 256),
+            new Bucket("x-large", 512),
+            new Bucket("xx-large", 1024)
+    };
+
+    /** The key of the text chunk holding the URI of the original file. */
+    private static final String URI_KEY = "Thumb::URI";
+
+    /** The key of the text chunk holding the modification time of the original file, in seconds. */
+    private static final String MTIME_KEY = "Thumb::MTime";
+
+    /** The name of the PNG metadata format of ImageIO. */
+    private static final String PNG_FORMAT = "javax_imageio_png_1.0";
+
+    /** The root directory of the cache. */
+    private final Path root;
+
+    /**
+     * Creates a store in the standard location of the current user.
+     */
+    ThumbnailStore() {
+        this(getDefaultRoot());
+    }
+
+    /**
+     * Creates a store in the given directory.
+     *
+     * @param root the root directory of the cache
+     */
+    ThumbnailStore(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns the smallest bucket holding thumbnails of at least the given size.
+     *
+     * @param size the requested size in pixels
+     * @return the bucket, the largest one for sizes beyond all buckets
+     */
+    static Bucket getBucket(int size) {
+        for (Bucket bucket : BUCKETS) {
+            if (bucket.size() >= size) return bucket;
+        }
+        return BUCKETS[BUCKETS.length - 1];
+    }
+
+    /**
+     * Checks whether a file belongs to the cache itself. Such files are never thumbnailed.
+     *
+     * @param file the file
+     * @return {@code true} if the file is inside the cache directory
+     */
+    boolean contains(Path file) {
+        return file.toAbsolutePath().startsWith(root);
+    }
+
+    /**
+     * Reads a stored thumbnail that is still valid for the original file.
+     *
+     * @param uri      the URI of the original file
+     * @param modified the modification time of the original file in milliseconds
+     * @param bucket   the size bucket
+     * @return the thumbnail, or {@code null} if none is stored or it is outdated
+     */
+    BufferedImage read(String uri, long modified, Bucket bucket) {
+        Path path = getPath(uri, bucket);
+        if (!Files.isRegularFile(path)) return null;
+
+        try (ImageInputStream input = ImageIO.createImageInputStream(path.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) return null;
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, false);
+                IIOMetadata metadata = reader.getImageMetadata(0);
+                if (!uri.equals(getText(metadata, URI_KEY))
+                        || !String.valueOf(modified / 1000).equals(getText(metadata, MTIME_KEY))) {
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores a thumbnail for the original file, replacing an outdated one. Failures are ignored,
+     * because the thumbnail can always be created again.
+     *
+     * @param uri      the URI of the original file
+     * @param modified the modification time of the original file in milliseconds
+     * @param bucket   the size bucket
+     * @param image    the thumbnail
+     */
+    void write(String uri, long modified, Bucket bucket, BufferedImage image) {
+        Path path = getPath(uri, bucket);
+        Path temporary = null;
+        try {
+            createDirectory(path.getParent());
+            temporary = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temporary.toFile())) {
+                writer.setOutput(output);
+                IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), null);
+                IIOMetadataNode text = new IIOMetadataNode("tEXt");
+                text.appendChild(createTextEntry(URI_KEY, uri));
+                text.appendChild(createTextEntry(MTIME_KEY, String.valueOf(modified / 1000)));
+                IIOMetadataNode tree = new IIOMetadataNode(PNG_FORMAT);
+                tree.appendChild(text);
+                metadata.mergeTree(PNG_FORMAT, tree);
+                writer.write(new IIOImage(image, null, metadata));
+            } finally {
+                writer.dispose();
+            }
+
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the path of the thumbnail of a file: the MD5 hash of its URI in the directory of the bucket.
+     *
+     * @param uri    the URI of the original file
+     * @param bucket the size bucket
+     * @return the path of the thumbnail
+     */
+    Path getPath(String uri, Bucket bucket) {
+        try {
+            byte[] hash = MessageDigest.getInstance("MD5").digest(uri.getBytes(StandardCharsets.UTF_8));
+            return root.resolve(bucket.directory()).resolve(HexFormat.of().formatHex(hash) + ".png");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Creates a directory of the cache readable only by the current user, as required by the standard.
+     *
+     * @param directory the directory
+     * @throws IOException if the directory cannot be created
+     */
+    private static void createDirectory(Path directory) throws IOException {
+        if (Files.isDirectory(directory)) return;
+        try {
+            Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        } catch (UnsupportedOperationException e) {
+            Files.createDirectories(directory);
+        }
+    }
+
+    /**
+     * Returns the value of a text chunk of a PNG.
+     *
+     * @param metadata the metadata of the PNG
+     * @param key      the keyword of the chunk
+     * @return the value, or {@code null} if the chunk is missing
+     */
+    private static String getText(IIOMetadata metadata, String key) {
+        IIOMetadataNode tree = (IIOMetadataNode) metadata.getAsTree(PNG_FORMAT);
+        var entries = tree.getElementsByTagName("tEXtEntry");
+        for (int i = 0; i < entries.getLength(); i++) {
+            IIOMetadataNode entry = (IIOMetadataNode) entries.item(i);
+            if (key.equals(entry.getAttribute("keyword"))) return entry.getAttribute("value");
+        }
+        return null;
+    }
+
+    /**
+     * Creates a text chunk entry of a PNG.
+     *
+     * @param key   the keyword
+     * @param value the value
+     * @return the entry node
+     */
+    private static IIOMetadataNode createTextEntry(String key, String value) {
+        IIOMetadataNode entry = new IIOMetadataNode("tEXtEntry");
+        entry.setAttribute("keyword", key);
+        entry.setAttribute("value", value);
+        return entry;
+    }
+
+    /**
+     * Returns the standard location of the cache.
+     *
+     * @return {@code $XDG_CACHE_HOME/thumbnails}, or {@code ~/.cache/thumbnails} if the variable is not set
+     */
+    private static Path getDefaultRoot() {
+        String cache = System.getenv("XDG_CACHE_HOME");
+        Path base = cache != null && !cache.isBlank() ? Path.of(cache) : Path.of(System.getProperty("user.home"), ".cache");
+        return base.resolve("thumbnails").toAbsolutePath();
+    }
+}
@@ -3,7 +3,9 @@ package com.example.aloe.settings;
 import com.example.aloe.components.HBoxSpacer;
 import com.example.aloe.components.draggable.DraggablePane;
 import com.example.aloe.elements.menu.Menu;
+import com.example.aloe.files.search.NameIndexer;
 import com.example.aloe.utils.Translator;
+import com.example.aloe.utils.UnitConverter;
 import com.example.aloe.window.ConfirmWindow;
 import com.example.aloe.window.MainWindow;
 import javafx.application.Platform;
@@ -131,6 +133,9 @@ public class SettingsWindow extends Stage {
             }
         });
 
+        Label indexSize = new Label(UnitConverter.convert(NameIndexer.getMemorySize()) + " / " + UnitConverter.convert(NameIndexer.getDiskSize()));
+        HBox.setMargin(indexSize, new Insets(0, 20, 0, 20));
+
         settings.setContent(getContentBox(
                 SettingsControls.getTitleLabel(Translator.translate("window.settings.files")),
                 getSettingBox("window.settings.files.show-hidden-files", SettingsControls.getToggleSwitch("show-hidden", false)),
@@ -144,7 +149,9 @@ public class SettingsWindow extends Stage {
                 getSettingBox("window.settings.files.file-box-size", SettingsControls.getSlider("file-box-size", 0.6, 2.0, 1.0, 0.1, "window.settings.files.file-box-size.small", "window.settings.files.file-box-size.large", false)),
                 getSettingBox("window.settings.files.trash-location", SettingsControls.getTextField("trash", Translator.translate("utils.example-path"), true)),
                 getSettingBox("window.settings.files.use-copy-location", SettingsControls.getToggleSwitch("use-copy-location", true)),
-                getSettingBox("window.settings.files.display-thumbnails", SettingsControls.getToggleSwitch("display-thumbnails", false))));
+                getSettingBox("window.settings.files.operations-per-destination", SettingsControls.getChoiceBox("operations-per-destination", false, "1", "1", "2", "2", "3", "3", "4", "4", "8", "8")),
+                getSettingBox("window.settings.files.display-thumbnails", SettingsControls.getToggleSwitch("display-thumbnails", false)),
+                getSettingBox("window.settings.files.search-index", SettingsControls.getToggleSwitch("search-index", true), "window.settings.files.search-index-size", indexSize)));
     }
 
     private static void loadLanguageSettings() {
@@ -0,0 +1,214 @@
+package com.example.aloe.window;
+
+import com.example.aloe.files.FilesOpener;
+import com.example.aloe.files.search.ContentMatch;
+import com.example.aloe.files.search.ContentMatcher;
+import com.example.aloe.files.search.ContentSearchTask;
+import com.example.aloe.files.search.SearchMode;
+import com.example.aloe.settings.Settings;
+import com.example.aloe.utils.Translator;
+import javafx.animation.PauseTransition;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.image.Image;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.io.File;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A window that searches the content of the files below a directory and lists the matching files
+ * with previews of their matching lines.
+ * <p>
+ * The search runs as a {@link ContentSearchTask} and restarts shortly after the query or the mode changes;
+ * matching files are added to the list as they are found. Double-clicking a file opens it. Closing the
+ * window cancels the search.
+ * </p>
+ *
+ * <p><b>Usage example:</b></p>
+ * <pre>{@code
+ *     new ContentSearchWindow(CurrentDirectory.get(), "");
+ * }</pre>
+ *
+ * @see ContentSearchTask
+ * @since 2.9.0
+ */
+public class ContentSearchWindow extends Stage {
+
+    /** The time the search waits after the query has been typed before it starts, in milliseconds. */
+    private static final int SEARCH_DELAY = 300;
+
+    /** The directory whose files are searched. */
+    private final File directory;
+
+    /** The matching files. */
+    private final ListView<ContentMatch> results = new ListView<>();
+
+    /** Shows whether the search is running, the number of matches or an invalid query. */
+    private final Label status = new Label();
+
+    /** The running search, or {@code null} if no search is running. */
+    private ContentSearchTask currentSearch;
+
+    /**
+     * Constructs and displays a content search window.
+     *
+     * @param directory the directory whose files are searched
+     * @param query     the initial query; the search starts at once unless it is empty
+     */
+    public ContentSearchWindow(File directory, String query) {
+        this.directory = directory;
+
+        VBox root = new VBox();
+        root.setPadding(new Insets(10));
+        root.setSpacing(8);
+        root.getStyleClass().add("background");
+
+        Label title = new Label(directory.getPath());
+        title.setStyle("-fx-font-size: 16px");
+        title.getStyleClass().add("text");
+
+        TextField input = new TextField(query);
+        input.getStyleClass().addAll("background", "text");
+        input.setPromptText(Translator.translate("window.content-search.prompt"));
+        HBox.setHgrow(input, Priority.ALWAYS);
+
+        ToggleGroup modes = new ToggleGroup();
+        RadioButton text = getModeButton("window.content-search.text", SearchMode.SUBSTRING, modes);
+        RadioButton regex = getModeButton("window.content-search.regex", SearchMode.REGEX, modes);
+        modes.selectToggle(text);
+
+        HBox queryBox = new HBox(input, text, regex);
+        queryBox.setSpacing(10);
+        queryBox.setStyle("-fx-alignment: CENTER_LEFT;");
+
+        results.setCellFactory(list -> new MatchCell());
+        VBox.setVgrow(results, Priority.ALWAYS);
+
+        status.getStyleClass().add("text");
+        root.getChildren().addAll(title, queryBox, results, status);
+
+        PauseTransition delay = new PauseTransition(Duration.millis(SEARCH_DELAY));
+        delay.setOnFinished(e -> search(input.getText(), (SearchMode) modes.getSelectedToggle().getUserData()));
+        input.textProperty().addListener(observable -> delay.playFromStart());
+        modes.selectedToggleProperty().addListener(observable -> delay.playFromStart());
+
+        Scene scene = new Scene(root, 700, 500);
+        scene.getStylesheets().add(getClass().getResource("/assets/styles/" + Settings.getTheme() + "/global.css").toExternalForm());
+        scene.getStylesheets().add(getClass().getResource("/assets/styles/structural/global.css").toExternalForm());
+        scene.getStylesheets().add(String.format("data:text/css, .list-cell:selected { -fx-background-color: %s; }", Settings.getColor()));
+        this.getIcons().add(new Image(getClass().getResourceAsStream("/assets/icons/folder.png")));
+        this.setScene(scene);
+        this.setTitle(Translator.translate("window.content-search"));
+        this.setMinHeight(300);
+        this.setMinWidth(450);
+        this.setOnHidden(e -> cancelSearch());
+        this.show();
+
+        search(query, SearchMode.SUBSTRING);
+    }
+
+    /**
+     * Creates a radio button selecting a search mode.
+     *
+     * @param key   the translation key of the label
+     * @param mode  the search mode
+     * @param modes the group of the mode buttons
+     * @return the radio button
+     */
+    private RadioButton getModeButton(String key, SearchMode mode, ToggleGroup modes) {
+        RadioButton button = new RadioButton(Translator.translate(key));
+        button.setToggleGroup(modes);
+        button.setUserData(mode);
+        button.getStyleClass().add("text");
+        return button;
+    }
+
+    /**
+     * Cancels the running search, clears the list and starts a new search, unless the query is empty.
+     *
+     * @param query the query
+     * @param mode  how the query is matched
+     */
+    private void search(String query, SearchMode mode) {
+        cancelSearch();
+        results.getItems().clear();
+        status.setText("");
+        if (query.isEmpty()) return;
+
+        ContentMatcher matcher;
+        try {
+            matcher = ContentMatcher.of(query, mode);
+        } catch (PatternSyntaxException e) {
+            status.setText(e.getDescription());
+            return;
+        }
+
+        ContentSearchTask search = new ContentSearchTask(directory, matcher,
+                Boolean.TRUE.equals(Settings.getSetting("files", "show-hidden")), matches -> results.getItems().addAll(matches));
+        currentSearch = search;
+        status.setText(Translator.translate("window.content-search.searching"));
+        search.setOnSucceeded(e -> {
+            if (search != currentSearch) return;
+            currentSearch = null;
+            status.setText(Translator.translate("window.content-search.found") + search.getValue());
+        });
+        search.setOnFailed(e -> {
+            if (search == currentSearch) currentSearch = null;
+            search.getException().printStackTrace();
+        });
+        search.start();
+    }
+
+    /**
+     * Cancels the running search, if there is one.
+     */
+    private void cancelSearch() {
+        if (currentSearch != null) {
+            currentSearch.cancel();
+            currentSearch = null;
+        }
+    }
+
+    /**
+     * A list cell showing the name and location of a matching file and its matching lines.
+     */
+    private class MatchCell extends ListCell<ContentMatch> {
+
+        MatchCell() {
+            this.setOnMouseClicked(e -> {
+                if (e.getClickCount() == 2 && getItem() != null) FilesOpener.open(getItem().entry().file());
+            });
+        }
+
+        @Override
+        protected void updateItem(ContentMatch match, boolean empty) {
+            super.updateItem(match, empty);
+            if (empty || match == null) {
+                setGraphic(null);
+                return;
+            }
+
+            Label name = new Label(match.entry().name());
+            name.setStyle("-fx-font-weight: bold");
+            name.getStyleClass().add("text");
+
+            Label location = new Label(directory.toPath().relativize(match.entry().file().toPath()).toString());
+            location.getStyleClass().add("text");
+
+            VBox box = new VBox(name, location);
+            for (ContentMatch.Line line : match.lines()) {
+                Label preview = new Label(line.number() + ":  " + line.text());
+                preview.setStyle("-fx-font-family: monospace");
+                preview.getStyleClass().add("text");
+                box.getChildren().add(preview);
+            }
+            setGraphic(box);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.aloe.window;
+
+import com.example.aloe.components.HBoxSpacer;
+import com.example.aloe.files.FilesOpener;
+import com.example.aloe.files.duplicates.DuplicateFinder;
+import com.example.aloe.files.duplicates.DuplicateGroup;
+import com.example.aloe.files.tasks.FileDeduplicateTask;
+import com.example.aloe.settings.Settings;
+import com.example.aloe.utils.Translator;
+import com.example.aloe.utils.UnitConverter;
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.image.Image;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * A window that finds the files with identical content below a directory and lists them in groups.
+ * <p>
+ * The search runs as a {@link DuplicateFinder}, whose current stage and progress are shown while it runs.
+ * The groups are then listed with the space each of them takes up needlessly, largest first, along with
+ * the total space that can be reclaimed. Double-clicking a file opens it. Closing the window cancels the search.
+ * </p>
+ *
+ * <p>
+ * Once the search has finished, the duplicates can be replaced with links to a single copy of each group
+ * by a {@link FileDeduplicateTask}, after the user has confirmed it.
+ * </p>
+ *
+ * <p><b>Usage example:</b></p>
+ * <pre>{@code
+ *     new DuplicatesWindow(CurrentDirectory.get());
+ * }</pre>
+ *
+ * @see DuplicateFinder
+ * @since 2.9.0
+ */
+public class DuplicatesWindow extends Stage {
+
+    /** The directory whose tree is searched. */
+    private final File directory;
+
+    /** The groups of identical files. */
+    private final ListView<DuplicateGroup> results = new ListView<>();
+
+    /** Shows the current stage of the search, or the number of groups once it is done. */
+    private final Label status = new Label();
+
+    /** Shows the progress of the current stage of the search. */
+    private final ProgressBar progress = new ProgressBar();
+
+    /** Replaces the duplicates with links; enabled once duplicates have been found. */
+    private final Button deduplicate = new Button(Translator.translate("button.deduplicate"));
+
+    /** The search. */
+    private final DuplicateFinder finder;
+
+    /**
+     * Constructs and displays a duplicates window and starts the search.
+     *
+     * @param directory the directory whose tree is searched
+     */
+    public DuplicatesWindow(File directory) {
+        this.directory = directory;
+
+        VBox root = new VBox();
+        root.setPadding(new Insets(10));
+        root.setSpacing(8);
+        root.getStyleClass().add("background");
+
+        Label title = new Label(directory.getPath());
+        title.setStyle("-fx-font-size: 16px");
+        title.getStyleClass().add("text");
+
+        progress.setMaxWidth(Double.MAX_VALUE);
+        results.setCellFactory(list -> new GroupCell());
+        VBox.setVgrow(results, Priority.ALWAYS);
+
+        status.getStyleClass().add("text");
+        deduplicate.getStyleClass().addAll("btn", "text", "confirm");
+        deduplicate.setDisable(true);
+        deduplicate.setOnAction(e -> confirmDeduplication());
+
+        HBox bottom = new HBox(status, new HBoxSpacer(), deduplicate);
+        bottom.setSpacing(10);
+        bottom.setStyle("-fx-alignment: CENTER_LEFT;");
+        root.getChildren().addAll(title, progress, results, bottom);
+
+        Scene scene = new Scene(root, 700, 500);
+        scene.getStylesheets().add(getClass().getResource("/assets/styles/" + Settings.getTheme() + "/global.css").toExternalForm());
+        scene.getStylesheets().add(getClass().getResource("/assets/styles/structural/global.css").toExternalForm());
+        scene.getStylesheets().add(String.format("data:text/css, .list-cell:selected { -fx-background-color: %s; }", Settings.getColor()));
+        this.getIcons().add(new Image(getClass().getResourceAsStream("/assets/icons/folder.png")));
+        this.setScene(scene);
+        this.setTitle(Translator.translate("window.duplicates"));
+        this.setMinHeight(300);
+        this.setMinWidth(450);
+
+        finder = new DuplicateFinder(directory, Boolean.TRUE.equals(Settings.getSetting("files", "show-hidden")));
+        progress.progressProperty().bind(finder.progressProperty());
+        status.textProperty().bind(finder.messageProperty());
+        finder.setOnSucceeded(e -> showGroups(finder.getValue()));
+        finder.setOnFailed(e -> {
+            status.textProperty().unbind();
+            status.setText("");
+            progress.setVisible(false);
+            finder.getException().printStackTrace();
+        });
+        this.setOnHidden(e -> finder.cancel());
+        this.show();
+
+        finder.start();
+    }
+
+    /**
+     * Lists the groups found by the search and the total space that can be reclaimed.
+     *
+     * @param groups the groups of identical files
+     */
+    private void showGroups(List<DuplicateGroup> groups) {
+        long reclaimable = 0;
+        for (DuplicateGroup group : groups) reclaimable += group.reclaimable();
+
+        progress.progressProperty().unbind();
+        progress.setVisible(false);
+        progress.setManaged(false);
+        status.textProperty().unbind();
+        status.setText(Translator.translate("window.duplicates.found") + groups.size() + ",  "
+                + Translator.translate("window.duplicates.reclaimable") + UnitConverter.convert(reclaimable));
+        results.getItems().setAll(groups);
+        deduplicate.setDisable(groups.isEmpty());
+    }
+
+    /**
+     * Asks the user to confirm the deduplication and starts it, closing this window.
+     */
+    private void confirmDeduplication() {
+        new ConfirmWindow(Translator.translate("window.duplicates.confirm.title"), Translator.translate("window.duplicates.confirm.description"),
+                Translator.translate("button.deduplicate"), e -> {
+                    new FileDeduplicateTask(directory, List.copyOf(results.getItems()), true);
+                    this.close();
+                });
+    }
+
+    /**
+     * A list cell showing the size of a group of identical files, the space it takes up needlessly and its files.
+     */
+    private class GroupCell extends ListCell<DuplicateGroup> {
+
+        @Override
+        protected void updateItem(DuplicateGroup group, boolean empty) {
+            super.updateItem(group, empty);
+            if (empty || group == null) {
+                setGraphic(null);
+                return;
+            }
+
+            Label size = new Label(group.files().size() + " × " + UnitConverter.convert(group.size()) + "  ("
+                    + Translator.translate("window.duplicates.reclaimable") + UnitConverter.convert(group.reclaimable()) + ")");
+            size.setStyle("-fx-font-weight: bold");
+            size.getStyleClass().add("text");
+
+            VBox box = new VBox(size);
+            for (File file : group.files()) {
+                Label location = new Label(directory.toPath().relativize(file.toPath()).toString());
+                location.setOnMouseClicked(e -> {
+                    if (e.getClickCount() == 2) FilesOpener.open(file);
+                });
+                location.getStyleClass().add("text");
+                box.getChildren().add(location);
+            }
+            setGraphic(box);
+        }
+    }
+}
@@ -5,9 +5,12 @@ import com.example.aloe.elements.files.*;
 import com.example.aloe.elements.menu.Menu;
 import com.example.aloe.elements.navigation.NavigationPanel;
 import com.example.aloe.files.FilesOpener;
+import com.example.aloe.files.Trash;
+import com.example.aloe.files.search.NameIndexer;
 import com.example.aloe.files.tasks.FileCopyTask;
+import com.example.aloe.files.tasks.FileDeduplicateTask;
 import com.example.aloe.files.tasks.FileDeleteTask;
-import com.example.aloe.files.tasks.FileMoveTask;
+import com.example.aloe.files.tasks.FileTrashTask;
 import com.example.aloe.settings.Settings;
 import com.example.aloe.utils.ClipboardManager;
 import com.example.aloe.utils.Translator;
@@ -68,8 +71,11 @@ public class MainWindow {
         VBox.setVgrow(filesPanel, Priority.ALWAYS);
         root.getChildren().addAll(mainContainer, interiorWindowPane);
 
+        Trash.discoverVolumeTrashes();
         loadMenu();
         loadInitialDirectory();
+        NameIndexer.start();
+        FileDeduplicateTask.recoverInterrupted();
         setupScene();
         setupStage();
     }
@@ -223,7 +229,7 @@ public class MainWindow {
                 if (e.isShiftDown()) {
                     new FileDeleteTask(selectedFiles, true);
                 } else {
-                    new FileMoveTask(selectedFiles, new File((String) Settings.getSetting("files", "trash")), true);
+                    new FileTrashTask(selectedFiles, true);
                 }
             }
 
@@ -4,11 +4,14 @@ import com.example.aloe.components.BackButton;
 import com.example.aloe.components.HBoxSpacer;
 import com.example.aloe.components.VBoxSpacer;
 import com.example.aloe.elements.files.FileImage;
+import com.example.aloe.elements.files.IconRegistry;
 import com.example.aloe.files.Checksum;
+import com.example.aloe.files.FileEntry;
 import com.example.aloe.files.FilesUtils;
 import com.example.aloe.files.properties.*;
 import com.example.aloe.files.permissions.ACLPermissions;
 import com.example.aloe.files.permissions.POSIXPermissions;
+import com.example.aloe.files.thumbnails.ThumbnailService;
 import com.example.aloe.files.properties.Properties;
 import com.example.aloe.settings.Settings;
 import com.example.aloe.utils.ClipboardManager;
@@ -358,9 +361,16 @@ public class PropertiesWindow extends Stage {
         icon.setFitHeight(77);
         icon.setFitWidth(77);
         if (file.isDirectory()) {
-            icon.setImage(loadIcon("/assets/icons/folder.png"));
+            icon.setImage(IconRegistry.get("folder", icon.getFitWidth()));
         } else {
             icon.setImage(FileImage.from(file));
+            try {
+                FileEntry entry = FileEntry.of(file.toPath());
+                if (FileImage.hasThumbnail(entry)) {
+                    ThumbnailService.request(file, entry.lastModified(), icon.getFitWidth(), icon::setImage);
+                }
+            } catch (IOException ignored) {
+            }
         }
         return icon;
     }
@@ -369,14 +379,10 @@ public class PropertiesWindow extends Stage {
         ImageView icon = new ImageView();
         icon.setFitHeight(77);
         icon.setFitWidth(77);
-        icon.setImage(loadIcon("/assets/icons/" + fileName + ".png"));
+        icon.setImage(IconRegistry.get(fileName, icon.getFitWidth()));
         return icon;
     }
 
-    private Image loadIcon(String path) {
-        return new Image(Objects.requireNonNull(PropertiesWindow.class.getResourceAsStream(path)));
-    }
-
     private void loadChecksum() {
         loadChecksumButtonBar();
 
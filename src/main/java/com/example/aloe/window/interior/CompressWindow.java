@@ -6,6 +6,7 @@ import com.example.aloe.utils.Translator;
 import com.example.aloe.files.archive.ArchiveHandler;
 import com.example.aloe.files.archive.ArchiveParameters;
 import com.example.aloe.files.archive.ArchiveType;
+import com.example.aloe.files.tasks.ArchiveTask;
 import com.example.aloe.utils.Validator;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
@@ -99,12 +100,12 @@ public class CompressWindow extends InteriorWindow {
 
         this.setOnConfirm(event -> {
             hideOverlay();
-            ArchiveHandler.compress(new ArchiveParameters(
+            new ArchiveTask(new ArchiveParameters(
                     files,
                     archiveType.getValue(),
                     fileName.getText() + archiveType.getValue().getExtension(),
                     (password.getText() == null || password.getText().isEmpty()) ? null : password.getText()
-            ));
+            ), true);
             hideOverlay();
         });
     }
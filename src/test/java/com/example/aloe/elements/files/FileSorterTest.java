@@ -0,0 +1,76 @@
+package com.example.aloe.elements.files;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the natural order of names defined by {@link FileSorter#compareNatural(String, String)}.
+ */
+class FileSorterTest {
+
+    private static List<String> sorted(String... names) {
+        List<String> list = new ArrayList<>(List.of(names));
+        list.sort(FileSorter::compareNatural);
+        return list;
+    }
+
+    @Test
+    void ordersNumbersByValue() {
+        assertEquals(List.of("file1", "file2", "file10", "file100"), sorted("file10", "file2", "file100", "file1"));
+        assertEquals(List.of("a9b", "a10a", "a10b"), sorted("a10b", "a9b", "a10a"));
+        assertTrue(FileSorter.compareNatural("2", "10") < 0);
+    }
+
+    @Test
+    void supportsNumbersOfAnyLength() {
+        String large = "report" + "9".repeat(30);
+        String larger = "report1" + "0".repeat(30);
+
+        assertTrue(FileSorter.compareNatural(large, larger) < 0);
+        assertTrue(FileSorter.compareNatural(larger, large) > 0);
+        assertTrue(FileSorter.compareNatural("x" + "1".repeat(25) + "2", "x" + "1".repeat(25) + "3") < 0);
+    }
+
+    @Test
+    void placesFewerLeadingZerosFirst() {
+        assertEquals(List.of("img1", "img01", "img001", "img2"), sorted("img001", "img2", "img01", "img1"));
+        assertEquals(List.of("0", "00", "1"), sorted("1", "00", "0"));
+        assertTrue(FileSorter.compareNatural("a0", "a00") < 0);
+        assertTrue(FileSorter.compareNatural("a01b", "a1c") > 0);
+    }
+
+    @Test
+    void comparesOtherCharactersOneByOne() {
+        assertTrue(FileSorter.compareNatural("abc", "abd") < 0);
+        assertTrue(FileSorter.compareNatural("a1", "a-") > 0);
+        assertTrue(FileSorter.compareNatural("file", "file1") < 0);
+        assertTrue(FileSorter.compareNatural("file1", "file") > 0);
+        assertTrue(FileSorter.compareNatural("", "a") < 0);
+    }
+
+    @Test
+    void treatsOnlyEqualNamesAsEqual() {
+        assertEquals(0, FileSorter.compareNatural("file007.txt", "file007.txt"));
+        assertEquals(0, FileSorter.compareNatural("", ""));
+        assertNotEquals(0, FileSorter.compareNatural("file7.txt", "file007.txt"));
+    }
+
+    @Test
+    void isAntisymmetricAndTransitive() {
+        List<String> names = List.of("", "0", "00", "01", "1", "10", "a", "a0", "a00", "a1", "a01", "a1b", "a01a", "a2", "a10", "b", "1a", "01a");
+        for (String a : names) {
+            for (String b : names) {
+                assertEquals(Integer.signum(FileSorter.compareNatural(a, b)), -Integer.signum(FileSorter.compareNatural(b, a)), a + " / " + b);
+                for (String c : names) {
+                    if (FileSorter.compareNatural(a, b) < 0 && FileSorter.compareNatural(b, c) < 0) {
+                        assertTrue(FileSorter.compareNatural(a, c) < 0, a + " < " + b + " < " + c);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.aloe.files.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the search of the content of single files by {@link ContentSearchTask}.
+ */
+class ContentSearchTaskTest {
+
+    @TempDir
+    Path temporary;
+
+    private ContentMatch search(Path file, String query) throws IOException {
+        ContentSearchTask task = new ContentSearchTask(temporary.toFile(), ContentMatcher.of(query, SearchMode.SUBSTRING), false, matches -> {});
+        return task.search(file, file.getFileName().toString(), Files.readAttributes(file, BasicFileAttributes.class));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(temporary.resolve(name), content);
+    }
+
+    private static List<Long> numbers(ContentMatch match) {
+        return match.lines().stream().map(ContentMatch.Line::number).toList();
+    }
+
+    @Test
+    void numbersTheMatchingLines() throws IOException {
+        ContentMatch match = search(write("notes.txt", "first\n  a Needle here  \nthird\n\nneedle\n"), "needle");
+
+        assertNotNull(match);
+        assertEquals(List.of(2L, 5L), numbers(match));
+        assertEquals("a Needle here", match.lines().getFirst().text());
+        assertEquals("notes.txt", match.entry().name());
+    }
+
+    @Test
+    void findsAMatchOnALastLineWithoutBreak() throws IOException {
+        ContentMatch match = search(write("notes.txt", "one\ntwo\nneedle"), "needle");
+
+        assertNotNull(match);
+        assertEquals(List.of(3L), numbers(match));
+        assertEquals("needle", match.lines().getFirst().text());
+    }
+
+    @Test
+    void previewsAtMostTheFirstLines() throws IOException {
+        ContentMatch match = search(write("notes.txt", "needle\nneedle needle\nx\nneedle\nneedle\n"), "needle");
+
+        assertNotNull(match);
+        assertEquals(ContentSearchTask.MAX_LINES, match.lines().size());
+        assertEquals(List.of(1L, 2L, 4L), numbers(match));
+    }
+
+    @Test
+    void shortensLongLinesAroundTheMatch() throws IOException {
+        String line = "x".repeat(1000) + "needle" + "y".repeat(1000);
+        ContentMatch match = search(write("long.txt", line + "\n"), "needle");
+
+        assertNotNull(match);
+        String preview = match.lines().getFirst().text();
+        assertTrue(preview.contains("needle"));
+        assertTrue(preview.length() <= ContentSearchTask.PREVIEW_LENGTH);
+    }
+
+    @Test
+    void skipsFilesWithoutMatches() throws IOException {
+        assertNull(search(write("notes.txt", "nothing to see\n"), "needle"));
+    }
+
+    @Test
+    void skipsBinaryFiles() throws IOException {
+        Path file = temporary.resolve("data.txt");
+        Files.write(file, "needle\0needle\n".getBytes(StandardCharsets.US_ASCII));
+
+        assertNull(search(file, "needle"));
+    }
+
+    @Test
+    void countsLinesAcrossWindows() throws IOException {
+        Path file = temporary.resolve("large.log");
+        List<Long> expected = new ArrayList<>();
+        byte[] filler = "some line without the query\n".getBytes(StandardCharsets.US_ASCII);
+        byte[] straddling = ("x".repeat(40) + " needle " + "x".repeat(40) + "\n").getBytes(StandardCharsets.US_ASCII);
+
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            long position = 0;
+            long line = 1;
+            boolean straddled = false;
+            while (position < ContentSearchTask.WINDOW + 2L * 1024 * 1024) {
+                byte[] bytes = filler;
+                if (line == 3 || (!straddled && position + straddling.length > ContentSearchTask.WINDOW)) {
+                    bytes = straddling;
+                    straddled |= line != 3;
+                    expected.add(line);
+                }
+                out.write(bytes);
+                position += bytes.length;
+                line++;
+            }
+            out.write("the last needle".getBytes(StandardCharsets.US_ASCII));
+            expected.add(line);
+        }
+        assertTrue(Files.size(file) > ContentSearchTask.WINDOW);
+
+        ContentMatch match = search(file, "NEEDLE");
+
+        assertNotNull(match);
+        assertEquals(expected, numbers(match));
+        assertEquals("the last needle", match.lines().getLast().text());
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.aloe.files.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the byte search of {@link HorspoolMatcher}.
+ */
+class HorspoolMatcherTest {
+
+    private static int find(String query, String text, int from, int to) {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.ISO_8859_1));
+        return new HorspoolMatcher(query.getBytes(StandardCharsets.US_ASCII)).find(buffer, from, to);
+    }
+
+    private static int find(String query, String text) {
+        return find(query, text, 0, text.length());
+    }
+
+    @Test
+    void findsTheFirstMatch() {
+        assertEquals(0, find("abc", "abcabc"));
+        assertEquals(4, find("needle", "hay needle needle"));
+        assertEquals(5, find("a", "bbbbba"));
+        assertEquals(2, find("aab", "aaaab"));
+        assertEquals(-1, find("needle", "haystack"));
+        assertEquals(-1, find("needle", "need"));
+    }
+
+    @Test
+    void ignoresTheCaseOfAsciiLetters() {
+        assertEquals(4, find("NeEdLe", "hay nEEDLE"));
+        assertEquals(0, find("[@]", "[@]"));
+        assertEquals(-1, find("[", "{"));
+        assertEquals(-1, find("@", "`"));
+        assertEquals(-1, find("a", "áÁ"));
+    }
+
+    @Test
+    void staysWithinTheRange() {
+        String text = "needle and needle";
+
+        assertEquals(11, find("needle", text, 1, text.length()));
+        assertEquals(-1, find("needle", text, 0, 5));
+        assertEquals(0, find("needle", text, 0, 6));
+        assertEquals(-1, find("needle", text, 12, text.length()));
+        assertEquals(-1, find("needle", text, 3, 3));
+    }
+
+    @Test
+    void agreesWithAPlainSearch() {
+        Random random = new Random(42);
+        for (int round = 0; round < 2_000; round++) {
+            StringBuilder text = new StringBuilder();
+            for (int i = random.nextInt(200); i > 0; i--) text.append("abAB\n".charAt(random.nextInt(5)));
+            StringBuilder query = new StringBuilder();
+            for (int i = 1 + random.nextInt(5); i > 0; i--) query.append("abAB".charAt(random.nextInt(4)));
+
+            int expected = text.toString().toLowerCase(Locale.ROOT).indexOf(query.toString().toLowerCase(Locale.ROOT));
+            assertEquals(expected, find(query.toString(), text.toString()), query + " in " + text);
+        }
+    }
+}
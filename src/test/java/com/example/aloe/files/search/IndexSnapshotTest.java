@@ -0,0 +1,208 @@
+package com.example.aloe.files.search;
+
+import com.example.aloe.files.search.IndexSnapshot.Child;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests building, storing and querying an {@link IndexSnapshot}.
+ */
+class IndexSnapshotTest {
+
+    /** The root of the indexed tree; it does not exist, the tree is listed by {@link #TREE}. */
+    private static final Path ROOT = Path.of("/index-test");
+
+    /** The number of files in the {@code data} directory, enough for postings of three bytes. */
+    private static final int DATA_FILES = 20_000;
+
+    /** The directories of the indexed tree and their children. */
+    private static final Map<Path, List<Child>> TREE = Map.of(
+            ROOT, List.of(new Child("zebra.txt", false, 0), new Child("docs", true, 100),
+                    new Child("data", true, 200), new Child("été.txt", false, 0), new Child("Readme.md", false, 0)),
+            ROOT.resolve("docs"), List.of(new Child("notes.txt", false, 0), new Child("empty", true, 300)),
+            ROOT.resolve("docs/empty"), List.of(),
+            ROOT.resolve("data"), dataFiles());
+
+    @TempDir
+    Path temporary;
+
+    private static List<Child> dataFiles() {
+        List<Child> files = new ArrayList<>();
+        for (int i = 0; i < DATA_FILES; i++) {
+            files.add(new Child(String.format("file%05d.dat", i), false, 0));
+        }
+        return files;
+    }
+
+    private static IndexSnapshot build() {
+        IndexSnapshot snapshot = IndexSnapshot.build(List.of(ROOT), directory -> TREE.getOrDefault(directory, List.of()), () -> false);
+        assertNotNull(snapshot);
+        return snapshot;
+    }
+
+    private static List<Integer> candidates(IndexSnapshot snapshot, String text) {
+        List<Integer> candidates = new ArrayList<>();
+        snapshot.findCandidates(text, candidates::add);
+        return candidates;
+    }
+
+    @Test
+    void buildsEveryEntry() {
+        IndexSnapshot snapshot = build();
+
+        assertEquals(1 + 5 + 2 + DATA_FILES, snapshot.size());
+        assertEquals(ROOT, snapshot.path(0));
+        assertEquals(-1, snapshot.parent[0]);
+        assertTrue(snapshot.isDirectory(0));
+        assertEquals(200, snapshot.modified[snapshot.directory[snapshot.resolve(ROOT.resolve("data"))]]);
+    }
+
+    @Test
+    void sortsChildrenByTheirUtf8Bytes() {
+        IndexSnapshot snapshot = build();
+
+        int dir = snapshot.directory[0];
+        List<String> names = new ArrayList<>();
+        for (int child = snapshot.firstChild[dir]; child < snapshot.firstChild[dir] + snapshot.childCount[dir]; child++) {
+            names.add(snapshot.name(child));
+        }
+        assertEquals(List.of("Readme.md", "data", "docs", "zebra.txt", "été.txt"), names);
+    }
+
+    @Test
+    void findsChildrenByName() {
+        IndexSnapshot snapshot = build();
+
+        for (String name : List.of("Readme.md", "data", "docs", "zebra.txt", "été.txt")) {
+            int child = snapshot.findChild(0, name);
+            assertTrue(child > 0, name);
+            assertEquals(name, snapshot.name(child));
+        }
+        assertEquals(-1, snapshot.findChild(0, "readme.md"));
+        assertEquals(-1, snapshot.findChild(0, "a"));
+        assertEquals(-1, snapshot.findChild(0, "ÿ"));
+        assertEquals(-1, snapshot.findChild(snapshot.findChild(0, "zebra.txt"), "anything"));
+        assertEquals(-1, snapshot.findChild(snapshot.resolve(ROOT.resolve("docs/empty")), "anything"));
+
+        int data = snapshot.findChild(0, "data");
+        assertEquals("file00000.dat", snapshot.name(snapshot.findChild(data, "file00000.dat")));
+        assertEquals("file19999.dat", snapshot.name(snapshot.findChild(data, "file19999.dat")));
+        assertEquals(-1, snapshot.findChild(data, "file20000.dat"));
+    }
+
+    @Test
+    void resolvesPaths() {
+        IndexSnapshot snapshot = build();
+
+        for (Path path : List.of(ROOT, ROOT.resolve("docs/notes.txt"), ROOT.resolve("docs/empty"), ROOT.resolve("data/file12345.dat"))) {
+            int entry = snapshot.resolve(path);
+            assertTrue(entry >= 0, path.toString());
+            assertEquals(path, snapshot.path(entry));
+            assertEquals(0, snapshot.rootOf(entry));
+        }
+        assertEquals(-1, snapshot.resolve(ROOT.resolve("docs/missing.txt")));
+        assertEquals(-1, snapshot.resolve(ROOT.resolve("zebra.txt/child")));
+        assertEquals(-1, snapshot.resolve(Path.of("/elsewhere")));
+    }
+
+    @Test
+    void returnsEveryEntryContainingTheText() {
+        IndexSnapshot snapshot = build();
+
+        for (String text : List.of("txt", "ZEBRA", "e01234", "ÉTÉ", "file1", "readme", ".dat")) {
+            List<Integer> candidates = candidates(snapshot, text);
+            for (int i = 1; i < candidates.size(); i++) {
+                assertTrue(candidates.get(i - 1) < candidates.get(i), "candidates are not ascending");
+            }
+            for (int entry = 0; entry < snapshot.size(); entry++) {
+                if (containsIgnoreCase(snapshot.name(entry), text)) {
+                    assertTrue(candidates.contains(entry), text + " misses " + snapshot.name(entry));
+                }
+            }
+        }
+    }
+
+    @Test
+    void intersectsTheTrigramsOfTheText() {
+        IndexSnapshot snapshot = build();
+
+        List<Integer> candidates = candidates(snapshot, "file01234.dat");
+        assertTrue(candidates.contains(snapshot.resolve(ROOT.resolve("data/file01234.dat"))));
+        assertTrue(candidates.size() < 10, "the intersection leaves " + candidates.size() + " candidates");
+
+        assertEquals(List.of(snapshot.resolve(ROOT.resolve("zebra.txt"))), candidates(snapshot, "zebra"));
+        assertEquals(List.of(), candidates(snapshot, "qqqqq"));
+    }
+
+    @Test
+    void passesEveryEntryForShortTexts() {
+        IndexSnapshot snapshot = build();
+
+        assertEquals(snapshot.size(), candidates(snapshot, "ze").size());
+        assertEquals(snapshot.size(), candidates(snapshot, "").size());
+    }
+
+    @Test
+    void readsWhatItWrites() throws IOException {
+        IndexSnapshot snapshot = build();
+        Path file = temporary.resolve("index/names.idx");
+
+        snapshot.write(file);
+        IndexSnapshot read = IndexSnapshot.read(file);
+
+        assertEquals(snapshot.roots, read.roots);
+        assertArrayEquals(snapshot.parent, read.parent);
+        assertArrayEquals(snapshot.nameStart, read.nameStart);
+        assertArrayEquals(snapshot.names, read.names);
+        assertArrayEquals(snapshot.directory, read.directory);
+        assertArrayEquals(snapshot.firstChild, read.firstChild);
+        assertArrayEquals(snapshot.childCount, read.childCount);
+        assertArrayEquals(snapshot.modified, read.modified);
+        assertArrayEquals(snapshot.postingStart, read.postingStart);
+        assertArrayEquals(snapshot.postings, read.postings);
+
+        assertEquals(candidates(snapshot, "file1"), candidates(read, "file1"));
+        assertEquals(List.of(read.resolve(ROOT.resolve("zebra.txt"))), candidates(read, "zebra"));
+        assertFalse(Files.exists(file.resolveSibling("names.idx.tmp")));
+    }
+
+    @Test
+    void rejectsFilesThatAreNoIndex() throws IOException {
+        Path file = temporary.resolve("names.idx");
+        Files.write(file, new byte[64]);
+        assertThrows(IOException.class, () -> IndexSnapshot.read(file));
+
+        build().write(file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+        assertThrows(IOException.class, () -> IndexSnapshot.read(file));
+    }
+
+    @Test
+    void stopsWhenCancelled() {
+        assertNull(IndexSnapshot.build(List.of(ROOT), directory -> TREE.getOrDefault(directory, List.of()), () -> true));
+    }
+
+    @Test
+    void foldsCaseLikeRegionMatches() {
+        assertArrayEquals(IndexSnapshot.buckets("readme"), IndexSnapshot.buckets("README"));
+        assertArrayEquals(IndexSnapshot.buckets("été"), IndexSnapshot.buckets("ÉTÉ"));
+        assertEquals(0, IndexSnapshot.buckets("ab").length);
+        assertEquals(4, IndexSnapshot.buckets("abcdef").length);
+    }
+
+    private static boolean containsIgnoreCase(String name, String text) {
+        return name.toLowerCase(Locale.ROOT).contains(text.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.aloe.files.search;
+
+import com.example.aloe.files.search.IndexSnapshot.Child;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the bookkeeping of the changes made to a {@link NameIndex} since its snapshot was built.
+ */
+class NameIndexTest {
+
+    /** The root of the indexed tree; it does not exist, the tree is listed by {@link #TREE}. */
+    private static final Path ROOT = Path.of("/index-test");
+
+    /** The directories of the indexed tree and their children. */
+    private static final Map<Path, List<Child>> TREE = Map.of(
+            ROOT, List.of(new Child("photos", true, 100), new Child("notes.txt", false, 0)),
+            ROOT.resolve("photos"), List.of(new Child("beach.jpg", false, 0), new Child("city.jpg", false, 0)));
+
+    @TempDir
+    Path temporary;
+
+    private NameIndex index;
+
+    @BeforeEach
+    void buildIndex() throws IOException {
+        IndexSnapshot snapshot = IndexSnapshot.build(List.of(ROOT), directory -> TREE.getOrDefault(directory, List.of()), () -> false);
+        Path file = temporary.resolve("names.idx");
+        snapshot.write(file);
+        index = new NameIndex(IndexSnapshot.read(file));
+    }
+
+    private List<Path> find(Path scope, String query) {
+        List<Path> hits = new ArrayList<>();
+        index.find(scope, query, NameMatcher.of(query, SearchMode.SUBSTRING), Integer.MAX_VALUE, hits::add);
+        return hits;
+    }
+
+    private static List<String> names(List<Child> children) {
+        return children.stream().map(Child::name).sorted().toList();
+    }
+
+    @Test
+    void findsTheEntriesOfTheSnapshot() {
+        assertEquals(0, index.getChanges());
+        assertEquals(List.of(ROOT.resolve("photos/beach.jpg"), ROOT.resolve("photos/city.jpg")), find(ROOT, ".jpg"));
+        assertEquals(List.of(ROOT.resolve("photos/city.jpg")), find(ROOT.resolve("photos"), "city"));
+        assertEquals(List.of(), find(ROOT.resolve("photos"), "notes"));
+        assertEquals(List.of(), find(ROOT, "index-test"));
+        assertEquals(100, index.getModified(ROOT.resolve("photos")));
+        assertEquals(-1, index.getModified(ROOT.resolve("missing")));
+    }
+
+    @Test
+    void keepsAddedEntries() {
+        List<Path> listed = index.update(ROOT, 10, List.of(new Child("photos", true, 100), new Child("notes.txt", false, 0),
+                new Child("music", true, 20), new Child("todo.txt", false, 0)));
+
+        assertEquals(List.of(ROOT.resolve("music")), listed);
+        assertEquals(2, index.getChanges());
+        assertEquals(List.of("music", "notes.txt", "photos", "todo.txt"), names(index.children(ROOT)));
+        assertEquals(List.of(ROOT.resolve("todo.txt")), find(ROOT, "todo"));
+        assertEquals(10, index.getModified(ROOT));
+
+        index.update(ROOT.resolve("music"), 30, List.of(new Child("song.mp3", false, 0)));
+        assertEquals(3, index.getChanges());
+        assertEquals(List.of(ROOT.resolve("music/song.mp3")), find(ROOT, "song"));
+        assertEquals(30, index.getModified(ROOT.resolve("music")));
+    }
+
+    @Test
+    void leavesUnchangedDirectoriesAlone() {
+        index.update(ROOT, 10, TREE.get(ROOT));
+        index.update(ROOT.resolve("photos"), 20, TREE.get(ROOT.resolve("photos")));
+
+        assertEquals(0, index.getChanges());
+        assertEquals(20, index.getModified(ROOT.resolve("photos")));
+    }
+
+    @Test
+    void hidesEverythingBelowRemovedDirectories() {
+        index.update(ROOT, 10, List.of(new Child("notes.txt", false, 0)));
+
+        assertEquals(1, index.getChanges());
+        assertEquals(List.of(), find(ROOT, ".jpg"));
+        assertEquals(List.of(), find(ROOT.resolve("photos"), ".jpg"));
+        assertEquals(List.of(), index.children(ROOT.resolve("photos")));
+        assertEquals(-1, index.getModified(ROOT.resolve("photos")));
+        assertEquals(List.of("notes.txt"), names(index.children(ROOT)));
+    }
+
+    @Test
+    void countsRemovalAndReAddConsistently() {
+        index.update(ROOT, 10, List.of(new Child("notes.txt", false, 0)));
+        assertEquals(1, index.getChanges());
+
+        List<Path> listed = index.update(ROOT, 20, TREE.get(ROOT));
+        assertEquals(List.of(ROOT.resolve("photos")), listed);
+        assertEquals(2, index.getChanges());
+        assertEquals(List.of(), index.children(ROOT.resolve("photos")));
+
+        index.update(ROOT.resolve("photos"), 30, List.of(new Child("beach.jpg", false, 0)));
+        assertEquals(3, index.getChanges());
+        assertEquals(List.of(ROOT.resolve("photos/beach.jpg")), find(ROOT, ".jpg"));
+
+        index.update(ROOT, 40, List.of(new Child("notes.txt", false, 0)));
+        assertEquals(1, index.getChanges());
+        assertEquals(List.of(), find(ROOT, ".jpg"));
+        assertEquals(List.of("notes.txt"), names(index.children(ROOT)));
+    }
+
+    @Test
+    void forgetsAddedEntriesThatAreRemovedAgain() {
+        index.update(ROOT, 10, List.of(new Child("photos", true, 100), new Child("notes.txt", false, 0), new Child("draft.txt", false, 0)));
+        assertEquals(1, index.getChanges());
+
+        index.update(ROOT, 20, TREE.get(ROOT));
+        assertEquals(0, index.getChanges());
+        assertEquals(List.of(), find(ROOT, "draft"));
+    }
+
+    @Test
+    void replacesEntriesThatChangeTheirType() {
+        List<Path> listed = index.update(ROOT, 10, List.of(new Child("photos", true, 100), new Child("notes.txt", true, 50)));
+
+        assertEquals(List.of(ROOT.resolve("notes.txt")), listed);
+        assertEquals(2, index.getChanges());
+        assertEquals(List.of(ROOT.resolve("notes.txt")), find(ROOT, "notes"));
+        assertEquals(-1, index.getModified(ROOT.resolve("notes.txt")));
+        assertTrue(index.children(ROOT).contains(new Child("notes.txt", true, 50)));
+    }
+
+    @Test
+    void stopsAtTheLimit() {
+        List<Path> hits = new ArrayList<>();
+        assertEquals(1, index.find(ROOT, ".jpg", NameMatcher.of(".jpg", SearchMode.SUBSTRING), 1, hits::add));
+        assertEquals(1, hits.size());
+    }
+
+    @Test
+    void coversTheTreeBelowItsRoots() {
+        assertTrue(index.covers(ROOT));
+        assertTrue(index.covers(ROOT.resolve("photos")));
+        assertFalse(index.covers(Path.of("/elsewhere")));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.aloe.files.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the translation of queries by {@link NameMatcher#of(String, SearchMode)}.
+ */
+class NameMatcherTest {
+
+    private static NameMatcher glob(String query) {
+        return NameMatcher.of(query, SearchMode.GLOB);
+    }
+
+    @Test
+    void matchesSubstringsIgnoringCase() {
+        NameMatcher matcher = NameMatcher.of("Report", SearchMode.SUBSTRING);
+
+        assertTrue(matcher.matches("annual-REPORT.pdf"));
+        assertTrue(matcher.matches("report"));
+        assertFalse(matcher.matches("repo"));
+        assertEquals("Report", matcher.literal());
+    }
+
+    @Test
+    void matchesWholeNamesWithWildcards() {
+        assertTrue(glob("*.jpg").matches("Holiday.JPG"));
+        assertFalse(glob("*.jpg").matches("Holiday.jpg.bak"));
+        assertTrue(glob("file?.txt").matches("file1.txt"));
+        assertFalse(glob("file?.txt").matches("file10.txt"));
+        assertTrue(glob("*").matches(""));
+    }
+
+    @Test
+    void matchesCharacterSets() {
+        assertTrue(glob("img[0-9].png").matches("img7.png"));
+        assertFalse(glob("img[0-9].png").matches("imgx.png"));
+        assertTrue(glob("img[!0-9].png").matches("imgx.png"));
+        assertFalse(glob("img[!0-9].png").matches("img7.png"));
+        assertTrue(glob("[]]").matches("]"));
+        assertTrue(glob("a[[]b").matches("a[b"));
+        assertTrue(glob("a[b").matches("a[b"));
+    }
+
+    @Test
+    void matchesAlternatives() {
+        NameMatcher matcher = glob("*.{jpg,png}");
+
+        assertTrue(matcher.matches("a.jpg"));
+        assertTrue(matcher.matches("a.png"));
+        assertFalse(matcher.matches("a.gif"));
+        assertTrue(glob("{a,b{c,d}}").matches("bd"));
+        assertTrue(glob("{a,b").matches("b"));
+        assertTrue(glob("a}b").matches("a}b"));
+        assertTrue(glob("a,b").matches("a,b"));
+    }
+
+    @Test
+    void quotesRegularExpressionCharacters() {
+        assertTrue(glob("a.b").matches("a.b"));
+        assertFalse(glob("a.b").matches("axb"));
+        assertTrue(glob("(1)+$^|\\").matches("(1)+$^|\\"));
+        assertTrue(glob("[\\]").matches("\\"));
+    }
+
+    @Test
+    void reportsTheLongestLiteralRunOfGlobs() {
+        assertEquals(".jpg", glob("*.jpg").literal());
+        assertEquals("report-", glob("report-?.pdf").literal());
+        assertEquals("file", glob("file[0-9][0-9].txt").literal());
+        assertEquals("", glob("*").literal());
+        assertEquals("photo-", glob("photo-{2023,2024}*").literal());
+        assertEquals("a", glob("a[!xyz]").literal());
+    }
+
+    @Test
+    void reportsOnlyTextsEveryMatchContains() {
+        String[][] matches = {
+                {"*.jpg", "Holiday.JPG"},
+                {"file[0-9][0-9].txt", "FILE42.TXT"},
+                {"photo-{2023,2024}*", "photo-2024-beach.png"},
+                {"{ab,cd}efg", "cdefg"},
+                {"x{abcdef,g}", "xg"},
+                {"a[!xyz]", "ab"},
+        };
+        for (String[] match : matches) {
+            NameMatcher matcher = glob(match[0]);
+            assertTrue(matcher.matches(match[1]), match[0]);
+            assertTrue(NameMatcher.of(matcher.literal(), SearchMode.SUBSTRING).matches(match[1]), match[0]);
+        }
+        assertEquals("efg", glob("{ab,cd}efg").literal());
+        assertEquals("x", glob("x{abcdef,g}").literal());
+    }
+
+    @Test
+    void findsRegularExpressionsAnywhere() {
+        NameMatcher matcher = NameMatcher.of("\\d{4}", SearchMode.REGEX);
+
+        assertTrue(matcher.matches("IMG_2024.jpg"));
+        assertFalse(matcher.matches("IMG_24.jpg"));
+        assertEquals("", matcher.literal());
+        assertThrows(PatternSyntaxException.class, () -> NameMatcher.of("(", SearchMode.REGEX));
+    }
+}